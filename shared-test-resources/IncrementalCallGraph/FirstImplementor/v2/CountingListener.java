@@ -0,0 +1,7 @@
+public class CountingListener implements Listener {
+  private int count;
+
+  public void onEvent(String event) {
+    count++;
+  }
+}
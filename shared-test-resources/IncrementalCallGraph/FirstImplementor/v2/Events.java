@@ -0,0 +1,7 @@
+public class Events {
+  public static void fire(Listener listener) {
+    if (listener != null) {
+      listener.onEvent("started");
+    }
+  }
+}
@@ -0,0 +1,5 @@
+public class Setup {
+  public static Listener listener() {
+    return new CountingListener();
+  }
+}
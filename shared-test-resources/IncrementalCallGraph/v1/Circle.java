@@ -0,0 +1,11 @@
+public class Circle implements Shape {
+  private final double radius;
+
+  public Circle(double radius) {
+    this.radius = radius;
+  }
+
+  public double area() {
+    return Helper.pi() * radius * radius;
+  }
+}
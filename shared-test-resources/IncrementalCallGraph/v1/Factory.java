@@ -0,0 +1,8 @@
+public class Factory {
+  public static Shape create(int kind) {
+    if (kind == 0) {
+      return new Circle(1);
+    }
+    return new Square(2);
+  }
+}
@@ -0,0 +1,5 @@
+public class Helper {
+  public static double pi() {
+    return Math.PI;
+  }
+}
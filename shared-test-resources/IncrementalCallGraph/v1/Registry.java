@@ -0,0 +1,5 @@
+public class Registry {
+  public static Object create() {
+    return new Object();
+  }
+}
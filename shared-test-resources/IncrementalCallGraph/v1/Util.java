@@ -0,0 +1,5 @@
+public class Util {
+  public static void log(String message) {
+    System.out.println(message);
+  }
+}
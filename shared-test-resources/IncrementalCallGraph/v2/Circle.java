@@ -0,0 +1,16 @@
+public class Circle implements Shape {
+  private final double radius;
+
+  public Circle(double radius) {
+    this.radius = radius;
+  }
+
+  public double area() {
+    Util.log("circle");
+    return square(radius) * Math.PI;
+  }
+
+  private static double square(double value) {
+    return value * value;
+  }
+}
@@ -0,0 +1,9 @@
+public class Helper {
+  public static double pi() {
+    return Math.PI;
+  }
+
+  public static double half(double value) {
+    return value / 2;
+  }
+}
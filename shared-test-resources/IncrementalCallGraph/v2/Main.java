@@ -0,0 +1,8 @@
+public class Main {
+  public static void main(String[] args) {
+    Shape shape = Factory.create(args.length);
+    shape.area();
+    Registry.create();
+    Util.log("done");
+  }
+}
@@ -0,0 +1,13 @@
+public class Triangle implements Shape {
+  private final double base;
+  private final double height;
+
+  public Triangle(double base, double height) {
+    this.base = base;
+    this.height = height;
+  }
+
+  public double area() {
+    return Helper.half(base * height);
+  }
+}
@@ -22,12 +22,15 @@ package sootup.analysis.interprocedural.icfg;
  * #L%
  */
 
+import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import heros.DontSynchronize;
 import heros.SynchronizedBy;
 import heros.solver.IDESolver;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import sootup.core.graph.StmtGraph;
@@ -35,60 +38,112 @@ import sootup.core.jimple.basic.Value;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.Body;
 import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
 import sootup.core.views.View;
 
 public abstract class AbstractJimpleBasedICFG implements BiDiInterproceduralCFG<Stmt, SootMethod> {
 
+  /** the size of the caches if they are not bounded */
+  public static final long UNBOUNDED = -1;
+
   protected final boolean enableExceptions;
 
   protected View view;
 
-  @DontSynchronize("written by single thread; read afterwards")
-  private final Map<Stmt, Body> stmtToOwner = createStmtToOwnerMap();
+  /**
+   * if true, the stmts of a method are assigned to their body when the method is reached via the
+   * ICFG instead of indexing all bodies up front.
+   */
+  protected final boolean lazy;
+
+  /** builds the caches of the ICFG; the caches are bounded if a maximum size is given */
+  protected final CacheBuilder<Object, Object> cacheBuilder;
+
+  /**
+   * assigns each stmt of the reached methods to its body. It is not bounded by the maximum cache
+   * size: a stmt does not reference its method, so an evicted owner could not be recomputed, and
+   * the solver keeps asking for the owners of the stmts in its path edges until the analysis ends.
+   * Its size is proportional to the stmts of the reached methods (see {@link
+   * #getOwnedStmtCount()}), which the solver references anyway.
+   */
+  @DontSynchronize("written by single thread; read afterwards, or concurrent in lazy mode")
+  private final Map<Stmt, Body> stmtToOwner;
+
+  @SynchronizedBy("by use of ConcurrentHashMap#computeIfAbsent")
+  private final Map<MethodSignature, Body> methodToOwnedBody = new ConcurrentHashMap<>();
+
+  private final AtomicLong loadedBodyCount = new AtomicLong();
 
   @SynchronizedBy("by use of synchronized LoadingCache class")
-  protected LoadingCache<Body, StmtGraph<?>> bodyToStmtGraph =
-      IDESolver.DEFAULT_CACHE_BUILDER.build(
-          new CacheLoader<Body, StmtGraph<?>>() {
-            @Nonnull
-            @Override
-            public StmtGraph<?> load(@Nonnull Body body) {
-              return makeGraph(body);
-            }
-          });
+  protected LoadingCache<Body, StmtGraph<?>> bodyToStmtGraph;
 
   @SynchronizedBy("by use of synchronized LoadingCache class")
-  protected LoadingCache<SootMethod, List<Value>> methodToParameterRefs =
-      IDESolver.DEFAULT_CACHE_BUILDER.build(
-          new CacheLoader<SootMethod, List<Value>>() {
-            @Nonnull
-            @Override
-            public List<Value> load(@Nonnull SootMethod m) {
-              return new ArrayList<>(m.getBody().getParameterLocals());
-            }
-          });
+  protected LoadingCache<SootMethod, List<Value>> methodToParameterRefs;
 
   @SynchronizedBy("by use of synchronized LoadingCache class")
-  protected LoadingCache<SootMethod, Set<Stmt>> methodToCallsFromWithin =
-      IDESolver.DEFAULT_CACHE_BUILDER.build(
-          new CacheLoader<SootMethod, Set<Stmt>>() {
-            @Nonnull
-            @Override
-            public Set<Stmt> load(@Nonnull SootMethod m) {
-              return getCallsFromWithinMethod(m);
-            }
-          });
+  protected LoadingCache<SootMethod, Set<Stmt>> methodToCallsFromWithin;
 
   protected AbstractJimpleBasedICFG() {
     this(true);
   }
 
-  protected Map<Stmt, Body> createStmtToOwnerMap() {
-    return new IdentityHashMap<>();
+  protected AbstractJimpleBasedICFG(boolean enableExceptions) {
+    this(enableExceptions, false, UNBOUNDED);
   }
 
-  protected AbstractJimpleBasedICFG(boolean enableExceptions) {
+  /**
+   * @param enableExceptions whether exceptional control flow is considered
+   * @param lazy if true, the stmts of a method are assigned to their body when the method is
+   *     reached via the ICFG, e.g. by {@link #getStartPointsOf(SootMethod)}, instead of indexing
+   *     every body up front
+   * @param maximumCacheSize the maximum number of entries of each cache of the ICFG or {@link
+   *     #UNBOUNDED}. Evicted entries are recomputed when they are requested again. The assignment
+   *     of stmts to their bodies is not a cache and is kept.
+   */
+  protected AbstractJimpleBasedICFG(boolean enableExceptions, boolean lazy, long maximumCacheSize) {
     this.enableExceptions = enableExceptions;
+    this.lazy = lazy;
+    this.cacheBuilder =
+        maximumCacheSize == UNBOUNDED
+            ? IDESolver.DEFAULT_CACHE_BUILDER
+            : CacheBuilder.newBuilder().concurrencyLevel(4).maximumSize(maximumCacheSize);
+    this.stmtToOwner = createStmtToOwnerMap();
+
+    bodyToStmtGraph =
+        cacheBuilder.build(
+            new CacheLoader<Body, StmtGraph<?>>() {
+              @Nonnull
+              @Override
+              public StmtGraph<?> load(@Nonnull Body body) {
+                return makeGraph(body);
+              }
+            });
+    methodToParameterRefs =
+        cacheBuilder.build(
+            new CacheLoader<SootMethod, List<Value>>() {
+              @Nonnull
+              @Override
+              public List<Value> load(@Nonnull SootMethod m) {
+                return new ArrayList<>(m.getBody().getParameterLocals());
+              }
+            });
+    methodToCallsFromWithin =
+        cacheBuilder.build(
+            new CacheLoader<SootMethod, Set<Stmt>>() {
+              @Nonnull
+              @Override
+              public Set<Stmt> load(@Nonnull SootMethod m) {
+                return getCallsFromWithinMethod(m);
+              }
+            });
+  }
+
+  /**
+   * creates the map from stmts to their bodies. Stmts are compared by identity; in lazy mode the
+   * map is filled while the ICFG is queried concurrently.
+   */
+  protected Map<Stmt, Body> createStmtToOwnerMap() {
+    return lazy ? new ConcurrentHashMap<>() : new IdentityHashMap<>();
   }
 
   public Body getBodyOf(Stmt stmt) {
@@ -118,6 +173,7 @@ public abstract class AbstractJimpleBasedICFG implements BiDiInterproceduralCFG<
 
   @Override
   public StmtGraph<?> getOrCreateStmtGraph(SootMethod method) {
+    ensureStmtToOwner(method);
     return getOrCreateStmtGraph(method.getBody());
   }
 
@@ -175,6 +231,7 @@ public abstract class AbstractJimpleBasedICFG implements BiDiInterproceduralCFG<
     if (!m.hasBody()) {
       return Collections.emptySet();
     }
+    ensureStmtToOwner(m);
     Body body = m.getBody();
     StmtGraph<?> stmtGraph = getOrCreateStmtGraph(body);
     return stmtGraph.getEntrypoints();
@@ -210,6 +267,7 @@ public abstract class AbstractJimpleBasedICFG implements BiDiInterproceduralCFG<
 
   @Override
   public Set<Stmt> getCallsFromWithin(SootMethod m) {
+    ensureStmtToOwner(m);
     return methodToCallsFromWithin.getUnchecked(m);
   }
 
@@ -219,6 +277,36 @@ public abstract class AbstractJimpleBasedICFG implements BiDiInterproceduralCFG<
     }
     Body b = m.getBody();
     b.getStmtGraph().getNodes().forEach(node -> stmtToOwner.put(node, b));
+    loadedBodyCount.incrementAndGet();
+  }
+
+  /**
+   * assigns the stmts of the method to its body if the ICFG is lazy and the method was not reached
+   * before. Concurrent callers for the same method wait until its stmts are assigned.
+   */
+  protected void ensureStmtToOwner(@Nonnull SootMethod m) {
+    if (!lazy || !m.hasBody() || methodToOwnedBody.containsKey(m.getSignature())) {
+      return;
+    }
+    methodToOwnedBody.computeIfAbsent(
+        m.getSignature(),
+        signature -> {
+          initializeStmtToOwner(m);
+          return m.getBody();
+        });
+  }
+
+  /**
+   * returns the number of bodies whose stmts are assigned to their owner. In lazy mode these are
+   * the bodies of the methods that were reached via the ICFG so far.
+   */
+  public long getLoadedBodyCount() {
+    return loadedBodyCount.get();
+  }
+
+  /** returns the number of stmts that are assigned to their owner */
+  public int getOwnedStmtCount() {
+    return stmtToOwner.size();
   }
 
   @Override
@@ -237,6 +325,7 @@ public abstract class AbstractJimpleBasedICFG implements BiDiInterproceduralCFG<
     if (!m.hasBody()) {
       return Collections.emptySet();
     }
+    ensureStmtToOwner(m);
     Body body = m.getBody();
     StmtGraph<?> stmtGraph = getOrCreateStmtGraph(body);
     return stmtGraph.getTails();
@@ -252,6 +341,7 @@ public abstract class AbstractJimpleBasedICFG implements BiDiInterproceduralCFG<
     return getPredsOf(n).stream().anyMatch(this::isCallStmt);
   }
 
+  /** in lazy mode, only the stmts of the methods that were reached so far are reachable */
   @Override
   public boolean isReachable(Stmt u) {
     return stmtToOwner.containsKey(u);
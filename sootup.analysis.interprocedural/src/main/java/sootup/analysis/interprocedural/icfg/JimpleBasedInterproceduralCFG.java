@@ -28,7 +28,6 @@ import heros.DontSynchronize;
 import heros.InterproceduralCFG;
 import heros.SynchronizedBy;
 import heros.ThreadSafe;
-import heros.solver.IDESolver;
 import java.util.*;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -87,7 +86,7 @@ public class JimpleBasedInterproceduralCFG extends AbstractJimpleBasedICFG {
 
   @SynchronizedBy("by use of synchronized LoadingCache class")
   protected final LoadingCache<Stmt, Collection<SootMethod>> stmtToCallees =
-      IDESolver.DEFAULT_CACHE_BUILDER.build(loaderUnitToCallees);
+      cacheBuilder.build(loaderUnitToCallees);
 
   protected CacheLoader<SootMethod, Collection<Stmt>> loaderMethodToCallers =
       new CacheLoader<SootMethod, Collection<Stmt>>() {
@@ -95,6 +94,17 @@ public class JimpleBasedInterproceduralCFG extends AbstractJimpleBasedICFG {
         @Override
         public Collection<Stmt> load(SootMethod method) {
           Set<CallGraph.Call> calls = cg.callsTo(method.getSignature());
+          if (lazy) {
+            // the callers are returned to the solver, so it has to be able to find their owners
+            calls.stream()
+                .map(CallGraph.Call::getSourceMethodSignature)
+                .distinct()
+                .forEach(
+                    caller -> {
+                      final Optional<? extends SootMethod> callerOpt = view.getMethod(caller);
+                      callerOpt.ifPresent(JimpleBasedInterproceduralCFG.this::ensureStmtToOwner);
+                    });
+          }
           Set<Stmt> callerStmts =
               calls.stream().map(c -> c.getInvokableStmt()).collect(Collectors.toSet());
           return callerStmts;
@@ -103,7 +113,7 @@ public class JimpleBasedInterproceduralCFG extends AbstractJimpleBasedICFG {
 
   @SynchronizedBy("by use of synchronized LoadingCache class")
   protected final LoadingCache<SootMethod, Collection<Stmt>> methodToCallers =
-      IDESolver.DEFAULT_CACHE_BUILDER.build(loaderMethodToCallers);
+      cacheBuilder.build(loaderMethodToCallers);
 
   public JimpleBasedInterproceduralCFG(
       View view,
@@ -119,11 +129,33 @@ public class JimpleBasedInterproceduralCFG extends AbstractJimpleBasedICFG {
 
   public JimpleBasedInterproceduralCFG(
       CallGraph cg, View view, boolean enableExceptions, boolean includeReflectiveCalls) {
-    super(enableExceptions);
+    this(cg, view, enableExceptions, includeReflectiveCalls, false, UNBOUNDED);
+  }
+
+  /**
+   * Creates an ICFG that can resolve the bodies of the methods on demand. In lazy mode, the stmts
+   * of a method are assigned to their body when the solver reaches the method, e.g. via {@link
+   * #getStartPointsOf(SootMethod)} or {@link #getCallersOf(SootMethod)}, so only the bodies that
+   * are actually needed are loaded. {@link #getLoadedBodyCount()} returns how many that were.
+   *
+   * @param lazy whether the stmts of the methods are assigned to their bodies on demand
+   * @param maximumCacheSize the maximum number of entries of each cache of the ICFG or {@link
+   *     #UNBOUNDED}
+   */
+  public JimpleBasedInterproceduralCFG(
+      CallGraph cg,
+      View view,
+      boolean enableExceptions,
+      boolean includeReflectiveCalls,
+      boolean lazy,
+      long maximumCacheSize) {
+    super(enableExceptions, lazy, maximumCacheSize);
     this.includeReflectiveCalls = includeReflectiveCalls;
     this.view = view;
     this.cg = cg;
-    initializeStmtToOwner();
+    if (!lazy) {
+      initializeStmtToOwner();
+    }
   }
 
   public CallGraph getCg() {
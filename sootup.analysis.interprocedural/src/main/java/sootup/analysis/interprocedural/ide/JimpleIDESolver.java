@@ -22,21 +22,70 @@ package sootup.analysis.interprocedural.ide;
  * #L%
  */
 
+import heros.EdgeFunction;
 import heros.IDETabulationProblem;
 import heros.InterproceduralCFG;
 import heros.solver.IDESolver;
+import javax.annotation.Nonnull;
+import sootup.analysis.interprocedural.solver.FactInterner;
+import sootup.analysis.interprocedural.solver.JimpleSolverConfiguration;
+import sootup.analysis.interprocedural.solver.SolverStatistics;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.SootMethod;
 
 public class JimpleIDESolver<D, V, I extends InterproceduralCFG<Stmt, SootMethod>>
     extends IDESolver<Stmt, D, SootMethod, V, I> {
 
+  private final FactInterner<D> interner;
+  private final SolverStatistics statistics;
+
+  /** creates a solver that uses the executor of Heros and does not intern facts */
   public JimpleIDESolver(IDETabulationProblem<Stmt, D, SootMethod, V, I> problem) {
     super(problem);
+    this.interner = new FactInterner<>(false);
+    this.statistics = new SolverStatistics(0, interner);
+  }
+
+  public JimpleIDESolver(
+      IDETabulationProblem<Stmt, D, SootMethod, V, I> problem,
+      @Nonnull JimpleSolverConfiguration configuration) {
+    super(problem);
+    this.interner = configuration.createInterner();
+    // the solver compares facts with the zero value by identity, so it has to be interned first
+    interner.intern(zeroValue);
+    this.statistics = configuration.createStatistics(interner);
+    // replace the executor of Heros, which runs on a single thread
+    executor.shutdown();
+    numThreads = configuration.getNumThreads();
+    executor = configuration.createExecutor();
   }
 
   @Override
   public void solve() {
-    super.solve();
+    statistics.start();
+    try {
+      super.solve();
+    } finally {
+      statistics.stop();
+    }
+  }
+
+  @Override
+  protected void propagate(
+      D sourceVal,
+      Stmt target,
+      D targetVal,
+      EdgeFunction<V> f,
+      Stmt relatedCallSite,
+      boolean isUnbalancedReturn) {
+    statistics.recordPropagation();
+    super.propagate(
+        sourceVal, target, interner.intern(targetVal), f, relatedCallSite, isUnbalancedReturn);
+  }
+
+  /** returns the number of propagations, distinct facts and the time spent solving */
+  @Nonnull
+  public SolverStatistics getStatistics() {
+    return statistics;
   }
 }
@@ -22,11 +22,16 @@ package sootup.analysis.interprocedural.ifds;
  * #L%
  */
 
+import heros.EdgeFunction;
 import heros.IFDSTabulationProblem;
 import heros.InterproceduralCFG;
 import heros.solver.IFDSSolver;
+import javax.annotation.Nonnull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import sootup.analysis.interprocedural.solver.FactInterner;
+import sootup.analysis.interprocedural.solver.JimpleSolverConfiguration;
+import sootup.analysis.interprocedural.solver.SolverStatistics;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.SootMethod;
 
@@ -34,11 +39,61 @@ public class JimpleIFDSSolver<D, I extends InterproceduralCFG<Stmt, SootMethod>>
     extends IFDSSolver<Stmt, D, SootMethod, I> {
   private static final Logger logger = LoggerFactory.getLogger(JimpleIFDSSolver.class);
 
+  private final FactInterner<D> interner;
+  private final SolverStatistics statistics;
+
+  /** creates a solver that uses the executor of Heros and does not intern facts */
   public JimpleIFDSSolver(IFDSTabulationProblem<Stmt, D, SootMethod, I> problem) {
     super(problem);
+    this.interner = new FactInterner<>(false);
+    this.statistics = new SolverStatistics(0, interner);
+  }
+
+  public JimpleIFDSSolver(
+      IFDSTabulationProblem<Stmt, D, SootMethod, I> problem,
+      @Nonnull JimpleSolverConfiguration configuration) {
+    super(problem);
+    this.interner = configuration.createInterner();
+    // the solver compares facts with the zero value by identity, so it has to be interned first
+    interner.intern(zeroValue);
+    this.statistics = configuration.createStatistics(interner);
+    // replace the executor of Heros, which runs on a single thread
+    executor.shutdown();
+    numThreads = configuration.getNumThreads();
+    executor = configuration.createExecutor();
+  }
+
+  @Override
+  public void solve() {
+    statistics.start();
+    try {
+      super.solve();
+    } finally {
+      statistics.stop();
+      logger.debug("Solved IFDS problem: {}", statistics);
+    }
   }
 
   public void solve(String targetClassName) {
-    super.solve();
+    solve();
+  }
+
+  @Override
+  protected void propagate(
+      D sourceVal,
+      Stmt target,
+      D targetVal,
+      EdgeFunction<BinaryDomain> f,
+      Stmt relatedCallSite,
+      boolean isUnbalancedReturn) {
+    statistics.recordPropagation();
+    super.propagate(
+        sourceVal, target, interner.intern(targetVal), f, relatedCallSite, isUnbalancedReturn);
+  }
+
+  /** returns the number of propagations, distinct facts and the time spent solving */
+  @Nonnull
+  public SolverStatistics getStatistics() {
+    return statistics;
   }
 }
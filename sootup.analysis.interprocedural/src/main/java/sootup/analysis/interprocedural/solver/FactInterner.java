@@ -0,0 +1,58 @@
+package sootup.analysis.interprocedural.solver;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2022 Kadiray Karakaya and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+
+/**
+ * Maps equal data-flow facts to a single instance, so the path edges and summaries of a solver
+ * share their facts instead of keeping many equal copies alive.
+ *
+ * @param <D> the type of the data-flow facts
+ */
+public class FactInterner<D> {
+
+  private final boolean enabled;
+  private final Map<D, D> facts = new ConcurrentHashMap<>();
+
+  public FactInterner(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /** returns the instance that is equal to the fact and was interned first */
+  @Nonnull
+  public D intern(@Nonnull D fact) {
+    if (!enabled) {
+      return fact;
+    }
+    D interned = facts.putIfAbsent(fact, fact);
+    return interned == null ? fact : interned;
+  }
+
+  /** returns the number of distinct facts that were interned */
+  public int size() {
+    return facts.size();
+  }
+}
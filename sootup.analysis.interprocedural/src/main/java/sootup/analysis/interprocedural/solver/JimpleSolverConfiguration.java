@@ -0,0 +1,167 @@
+package sootup.analysis.interprocedural.solver;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2022 Kadiray Karakaya and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import heros.solver.CountingThreadPoolExecutor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+
+/**
+ * Configures how {@link sootup.analysis.interprocedural.ifds.JimpleIFDSSolver} and {@link
+ * sootup.analysis.interprocedural.ide.JimpleIDESolver} process the path edges: the number of
+ * worker threads, whether equal data-flow facts are interned and how often the progress is logged.
+ *
+ * <p>The executor created by Heros starts a single core thread and only adds threads once its
+ * unbounded queue is full, i.e. never. The executor of this configuration keeps all worker threads
+ * busy while there are path edges to process and lets them time out when the solver is idle.
+ */
+public final class JimpleSolverConfiguration {
+
+  private final int numThreads;
+  private final long keepAliveMillis;
+  private final boolean internFacts;
+  private final long progressInterval;
+
+  private JimpleSolverConfiguration(Builder builder) {
+    this.numThreads = builder.numThreads;
+    this.keepAliveMillis = builder.keepAliveMillis;
+    this.internFacts = builder.internFacts;
+    this.progressInterval = builder.progressInterval;
+  }
+
+  @Nonnull
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public int getNumThreads() {
+    return numThreads;
+  }
+
+  public long getKeepAliveMillis() {
+    return keepAliveMillis;
+  }
+
+  public boolean isInternFacts() {
+    return internFacts;
+  }
+
+  public long getProgressInterval() {
+    return progressInterval;
+  }
+
+  /** creates the executor that processes the path edges of a solver */
+  @Nonnull
+  public CountingThreadPoolExecutor createExecutor() {
+    CountingThreadPoolExecutor executor =
+        new CountingThreadPoolExecutor(
+            numThreads,
+            numThreads,
+            keepAliveMillis,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>());
+    executor.allowCoreThreadTimeOut(true);
+    executor.setThreadFactory(new SolverThreadFactory());
+    return executor;
+  }
+
+  /** creates the interner for the facts of a solver */
+  @Nonnull
+  public <D> FactInterner<D> createInterner() {
+    return new FactInterner<>(internFacts);
+  }
+
+  /** creates the statistics of a solver that uses the given interner */
+  @Nonnull
+  public SolverStatistics createStatistics(@Nonnull FactInterner<?> interner) {
+    return new SolverStatistics(progressInterval, interner);
+  }
+
+  /** names the worker threads, so they can be told apart in thread dumps and profiles */
+  private static class SolverThreadFactory implements ThreadFactory {
+    private static final AtomicInteger poolCount = new AtomicInteger();
+    private final int pool = poolCount.incrementAndGet();
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @Override
+    public Thread newThread(@Nonnull Runnable runnable) {
+      Thread thread =
+          new Thread(runnable, "solver-" + pool + "-worker-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+  public static class Builder {
+    private int numThreads = Runtime.getRuntime().availableProcessors();
+    private long keepAliveMillis = TimeUnit.SECONDS.toMillis(30);
+    private boolean internFacts = true;
+    private long progressInterval = 0;
+
+    private Builder() {}
+
+    /** sets the number of worker threads, the number of available processors by default */
+    @Nonnull
+    public Builder numThreads(int numThreads) {
+      if (numThreads < 1) {
+        throw new IllegalArgumentException("The number of threads has to be at least 1.");
+      }
+      this.numThreads = numThreads;
+      return this;
+    }
+
+    /** sets how long idle worker threads are kept alive, 30 seconds by default */
+    @Nonnull
+    public Builder keepAlive(long time, @Nonnull TimeUnit unit) {
+      this.keepAliveMillis = Math.max(1, unit.toMillis(time));
+      return this;
+    }
+
+    /** sets whether equal data-flow facts are mapped to a single instance, true by default */
+    @Nonnull
+    public Builder internFacts(boolean internFacts) {
+      this.internFacts = internFacts;
+      return this;
+    }
+
+    /**
+     * sets the number of propagations after which the progress is logged, 0 (disabled) by default
+     */
+    @Nonnull
+    public Builder progressInterval(long progressInterval) {
+      if (progressInterval < 0) {
+        throw new IllegalArgumentException("The progress interval must not be negative.");
+      }
+      this.progressInterval = progressInterval;
+      return this;
+    }
+
+    @Nonnull
+    public JimpleSolverConfiguration build() {
+      return new JimpleSolverConfiguration(this);
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package sootup.analysis.interprocedural.solver;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2022 Kadiray Karakaya and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Counts the propagations of a solver and measures how long it took to solve the problem. */
+public class SolverStatistics {
+
+  private static final Logger logger = LoggerFactory.getLogger(SolverStatistics.class);
+
+  private final long progressInterval;
+  private final FactInterner<?> interner;
+  private final AtomicLong propagationCount = new AtomicLong();
+  private volatile long startNanos;
+  private volatile long endNanos;
+
+  /**
+   * @param progressInterval the number of propagations after which the progress is logged, or 0
+   *     to disable progress logging
+   * @param interner the interner of the solver, used to report the number of distinct facts
+   */
+  public SolverStatistics(long progressInterval, FactInterner<?> interner) {
+    this.progressInterval = progressInterval;
+    this.interner = interner;
+  }
+
+  public void start() {
+    startNanos = System.nanoTime();
+    endNanos = 0;
+  }
+
+  public void stop() {
+    endNanos = System.nanoTime();
+  }
+
+  public void recordPropagation() {
+    long count = propagationCount.incrementAndGet();
+    if (progressInterval > 0 && count % progressInterval == 0) {
+      logger.info(
+          "{} propagations, {} distinct facts, {} propagations/s",
+          count,
+          getDistinctFactCount(),
+          (long) getPropagationsPerSecond());
+    }
+  }
+
+  public long getPropagationCount() {
+    return propagationCount.get();
+  }
+
+  /** returns the number of distinct facts, or 0 if facts are not interned */
+  public int getDistinctFactCount() {
+    return interner.size();
+  }
+
+  /** returns the time spent solving so far, or in total once the solver has finished */
+  public long getElapsedMillis() {
+    if (startNanos == 0) {
+      return 0;
+    }
+    long end = endNanos == 0 ? System.nanoTime() : endNanos;
+    return (end - startNanos) / 1_000_000;
+  }
+
+  public double getPropagationsPerSecond() {
+    long elapsedMillis = getElapsedMillis();
+    return elapsedMillis == 0 ? 0 : getPropagationCount() * 1000.0 / elapsedMillis;
+  }
+
+  @Override
+  public String toString() {
+    return "propagations: "
+        + getPropagationCount()
+        + ", distinct facts: "
+        + getDistinctFactCount()
+        + ", time: "
+        + getElapsedMillis()
+        + " ms, propagations/s: "
+        + (long) getPropagationsPerSecond();
+  }
+}
@@ -6,6 +6,8 @@ import java.util.*;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import sootup.callgraph.CallGraph;
+import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.SootClass;
@@ -67,4 +69,55 @@ class JimpleBasedInterproceduralCFGTest {
 
     assertTrue(methodSignatures.contains(sig));
   }
+
+  @Test
+  void lazyStmtToOwnerTest() {
+    view =
+        new JavaView(
+            Collections.singletonList(
+                new JavaClassPathAnalysisInputLocation("src/test/resources/icfg/binary")));
+    entryMethod =
+        view.getClass(
+                JavaIdentifierFactory.getInstance().getClassType("ICFGExampleForInvokableStmt"))
+            .get()
+            .getMethods()
+            .stream()
+            .filter(e -> e.getName().equals("entryPoint"))
+            .findFirst()
+            .get();
+    CallGraph cg =
+        new ClassHierarchyAnalysisAlgorithm(view)
+            .initialize(Collections.singletonList(entryMethod.getSignature()));
+
+    JimpleBasedInterproceduralCFG eagerIcfg =
+        new JimpleBasedInterproceduralCFG(cg, view, false, false);
+    JimpleBasedInterproceduralCFG lazyIcfg =
+        new JimpleBasedInterproceduralCFG(cg, view, false, false, true, 2);
+    assertEquals(0, lazyIcfg.getLoadedBodyCount());
+
+    Collection<Stmt> startPoints = lazyIcfg.getStartPointsOf(entryMethod);
+    assertEquals(1, lazyIcfg.getLoadedBodyCount());
+    for (Stmt startPoint : startPoints) {
+      assertEquals(entryMethod, lazyIcfg.getMethodOf(startPoint));
+      assertTrue(lazyIcfg.isReachable(startPoint));
+    }
+
+    SootMethod fooMethod =
+        view.getMethod(
+                JavaIdentifierFactory.getInstance()
+                    .getMethodSignature(
+                        "ICFGExampleForInvokableStmt",
+                        "foo",
+                        "void",
+                        Collections.singletonList("java.lang.String")))
+            .get();
+    Collection<Stmt> callers = lazyIcfg.getCallersOf(fooMethod);
+    assertEquals(eagerIcfg.getCallersOf(fooMethod), callers);
+    for (Stmt caller : callers) {
+      assertEquals(eagerIcfg.getMethodOf(caller), lazyIcfg.getMethodOf(caller));
+    }
+
+    assertTrue(lazyIcfg.getLoadedBodyCount() < eagerIcfg.getLoadedBodyCount());
+    assertTrue(lazyIcfg.getOwnedStmtCount() < eagerIcfg.getOwnedStmtCount());
+  }
 }
@@ -31,6 +31,8 @@ import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import sootup.analysis.interprocedural.solver.JimpleSolverConfiguration;
+import sootup.analysis.interprocedural.solver.SolverStatistics;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.common.ref.JInstanceFieldRef;
 import sootup.core.jimple.common.ref.JStaticFieldRef;
@@ -112,4 +114,20 @@ public class IFDSTaintAnalysisTest extends IFDSTaintTestSetUp {
     assertTrue(result.contains("l1"));
     assertFalse(result.contains("l2"));
   }
+
+  @Test
+  public void FunctionTaintParallel() {
+    JimpleIFDSSolver<?, InterproceduralCFG<Stmt, SootMethod>> analysis =
+        executeStaticAnalysis(
+            "FunctionTaintPropagated",
+            JimpleSolverConfiguration.builder().numThreads(4).internFacts(true).build());
+    Set<String> result = getResultsAtLastStatement(analysis);
+    assertTrue(result.contains("l1"), result + " is missing an element.");
+    assertTrue(result.contains("l2"), result + " is missing an element.");
+
+    SolverStatistics statistics = analysis.getStatistics();
+    assertTrue(statistics.getPropagationCount() > 0);
+    assertTrue(statistics.getDistinctFactCount() > 0);
+    assertTrue(statistics.getDistinctFactCount() <= statistics.getPropagationCount());
+  }
 }
@@ -30,6 +30,7 @@ import java.util.Collections;
 import java.util.List;
 import org.junit.jupiter.api.Tag;
 import sootup.analysis.interprocedural.icfg.JimpleBasedInterproceduralCFG;
+import sootup.analysis.interprocedural.solver.JimpleSolverConfiguration;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.SootClass;
@@ -53,22 +54,30 @@ public class IFDSTaintTestSetUp {
 
   protected JimpleIFDSSolver<?, InterproceduralCFG<Stmt, SootMethod>> executeStaticAnalysis(
       String targetTestClassName) {
+    return executeStaticAnalysis(targetTestClassName, null);
+  }
+
+  /** solves the problem with the given configuration or the defaults of Heros if it is null */
+  protected JimpleIFDSSolver<?, InterproceduralCFG<Stmt, SootMethod>> executeStaticAnalysis(
+      String targetTestClassName, JimpleSolverConfiguration configuration) {
     setupSoot(targetTestClassName);
-    runAnalysis();
+    runAnalysis(configuration);
     if (solved == null) {
       throw new NullPointerException("Something went wrong solving the IFDS problem!");
     }
     return solved;
   }
 
-  private void runAnalysis() {
+  private void runAnalysis(JimpleSolverConfiguration configuration) {
 
     JimpleBasedInterproceduralCFG icfg =
         new JimpleBasedInterproceduralCFG(
             view, Collections.singletonList(entryMethodSignature), false, false);
     IFDSTaintAnalysisProblem problem = new IFDSTaintAnalysisProblem(icfg, entryMethod);
     JimpleIFDSSolver<?, InterproceduralCFG<Stmt, SootMethod>> solver =
-        new JimpleIFDSSolver(problem);
+        configuration == null
+            ? new JimpleIFDSSolver(problem)
+            : new JimpleIFDSSolver(problem, configuration);
     solver.solve(entryMethod.getDeclaringClassType().getClassName());
     solved = solver;
   }
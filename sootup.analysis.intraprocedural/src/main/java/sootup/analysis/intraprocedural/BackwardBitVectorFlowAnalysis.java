@@ -0,0 +1,45 @@
+package sootup.analysis.intraprocedural;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 2022 - 2024 Kadiray Karakaya, Markus Schmidt, Jonas Klauke, Stefan Schott, Palaniappan Muthuraman, Marcus Hüwe and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import sootup.core.graph.BasicBlock;
+import sootup.core.graph.StmtGraph;
+import sootup.core.model.Body;
+
+public abstract class BackwardBitVectorFlowAnalysis extends BitVectorFlowAnalysis {
+
+  /** Construct the analysis from StmtGraph. */
+  public <B extends BasicBlock<B>> BackwardBitVectorFlowAnalysis(StmtGraph<B> graph) {
+    super(graph);
+  }
+
+  /** Construct the analysis from the StmtGraph of the Body. */
+  public BackwardBitVectorFlowAnalysis(Body body) {
+    super(body);
+  }
+
+  @Override
+  protected boolean isForward() {
+    return false;
+  }
+}
@@ -0,0 +1,433 @@
+package sootup.analysis.intraprocedural;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 2022 - 2024 Kadiray Karakaya, Markus Schmidt, Jonas Klauke, Stefan Schott, Palaniappan Muthuraman, Marcus Hüwe and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.ToIntFunction;
+import javax.annotation.Nonnull;
+import sootup.core.graph.BasicBlock;
+import sootup.core.graph.ImmutableBlockStmtGraph;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+
+/**
+ * A framework for gen/kill dataflow analyses whose facts are numbered densely from 0 to {@link
+ * #getUniverseSize()} - 1. In contrast to {@link FlowAnalysis} the flows are bitvectors, merged
+ * word by word, and the fixpoint is computed on the basic blocks: the gen and kill sets of the
+ * Stmts of a block are composed into a single transfer function, so a block is processed with one
+ * pass over its words regardless of its length. The flows of single Stmts are recomputed from the
+ * flow of their block on request.
+ *
+ * <p>Like {@link FlowAnalysis}, only the normal (i.e. non exceptional) flow between Stmts is
+ * followed. Subclassing either ForwardBitVectorFlowAnalysis or BackwardBitVectorFlowAnalysis and
+ * providing the gen and kill sets will compute the corresponding flow analysis.
+ */
+public abstract class BitVectorFlowAnalysis {
+
+  /** The graph being analysed. */
+  @Nonnull protected final StmtGraph<? extends BasicBlock<?>> graph;
+
+  /** numbers the Stmts of the graph densely, -1 for Stmts that are not contained */
+  @Nonnull private final ToIntFunction<Stmt> stmtIndex;
+
+  private final int stmtCount;
+
+  private boolean forward;
+  private boolean may;
+  private int words;
+
+  /** the blocks of the graph */
+  private BasicBlock<?>[] blocks;
+
+  /** the index of the block of each Stmt, by the number of the Stmt */
+  private int[] stmtToBlock;
+
+  /** the gen and kill sets of the Stmts of each block, null if the set is empty */
+  private BitSet[][] stmtGen;
+
+  private BitSet[][] stmtKill;
+
+  /** the flow at the start of each block in the direction of the analysis */
+  private long[][] entryFlow;
+
+  /** the flow at the end of each block in the direction of the analysis */
+  private long[][] exitFlow;
+
+  private int numComputations = 0;
+
+  /**
+   * Constructs a flow analysis on the given <code>StmtGraph</code>. The Stmts of a frozen graph
+   * (i.e. of a {@link Body}) are numbered by the graph, the Stmts of other graphs are numbered by
+   * this analysis.
+   */
+  public BitVectorFlowAnalysis(@Nonnull StmtGraph<? extends BasicBlock<?>> graph) {
+    this.graph = graph;
+    if (graph instanceof ImmutableBlockStmtGraph) {
+      final ImmutableBlockStmtGraph immutableGraph = (ImmutableBlockStmtGraph) graph;
+      stmtIndex = immutableGraph::indexOf;
+      stmtCount = immutableGraph.getStmtCount();
+    } else {
+      final Map<Stmt, Integer> stmtToIndex = new IdentityHashMap<>();
+      for (Stmt stmt : graph.getNodes()) {
+        stmtToIndex.put(stmt, stmtToIndex.size());
+      }
+      stmtIndex = stmt -> stmtToIndex.getOrDefault(stmt, -1);
+      stmtCount = stmtToIndex.size();
+    }
+  }
+
+  /** Constructs a flow analysis on the <code>StmtGraph</code> of the given Body. */
+  public BitVectorFlowAnalysis(@Nonnull Body body) {
+    this.graph = body.getStmtGraph();
+    this.stmtIndex = body::getStmtIndex;
+    this.stmtCount = body.getStmtCount();
+  }
+
+  /** Returns true if this analysis is forwards. */
+  protected abstract boolean isForward();
+
+  /**
+   * Returns true if the flows are merged by union, false if they are merged by intersection. The
+   * flows of a may analysis start empty, the flows of a must analysis start with all facts.
+   */
+  protected boolean isMayAnalysis() {
+    return true;
+  }
+
+  /** Returns the number of facts, i.e. the facts are numbered from 0 to getUniverseSize() - 1. */
+  protected abstract int getUniverseSize();
+
+  /** Adds the facts the Stmt generates to <code>gen</code>. */
+  protected abstract void gen(@Nonnull Stmt stmt, @Nonnull BitSet gen);
+
+  /**
+   * Adds the facts the Stmt kills to <code>kill</code>. The kill set is applied before the gen set,
+   * so a Stmt can kill and generate the same fact.
+   */
+  protected abstract void kill(@Nonnull Stmt stmt, @Nonnull BitSet kill);
+
+  /** Returns the flow of the entry (or exit for a backward analysis) Stmts of the graph. */
+  @Nonnull
+  protected BitSet entryInitialFlow() {
+    return new BitSet();
+  }
+
+  /**
+   * Carries out the actual flow analysis. Typically called from a concrete analysis' constructor
+   * after the facts are numbered.
+   */
+  protected void execute() {
+    forward = isForward();
+    may = isMayAnalysis();
+    final int universeSize = getUniverseSize();
+    words = (universeSize + Long.SIZE - 1) / Long.SIZE;
+
+    blocks = graph.getBlocks().toArray(new BasicBlock<?>[0]);
+    final int blockCount = blocks.length;
+    final Map<BasicBlock<?>, Integer> blockToIndex = new IdentityHashMap<>(blockCount * 2);
+    for (int i = 0; i < blockCount; i++) {
+      blockToIndex.put(blocks[i], i);
+    }
+
+    final int[][] successors = new int[blockCount][];
+    final int[] predecessorCount = new int[blockCount];
+    for (int i = 0; i < blockCount; i++) {
+      final List<? extends BasicBlock<?>> succBlocks = blocks[i].getSuccessors();
+      final int[] succs = new int[succBlocks.size()];
+      for (int j = 0; j < succs.length; j++) {
+        succs[j] = blockToIndex.get(succBlocks.get(j));
+        predecessorCount[succs[j]]++;
+      }
+      successors[i] = succs;
+    }
+    final int[][] predecessors = new int[blockCount][];
+    for (int i = 0; i < blockCount; i++) {
+      predecessors[i] = new int[predecessorCount[i]];
+      predecessorCount[i] = 0;
+    }
+    for (int i = 0; i < blockCount; i++) {
+      for (int succ : successors[i]) {
+        predecessors[succ][predecessorCount[succ]++] = i;
+      }
+    }
+    // the successors and predecessors in the direction of the analysis
+    final int[][] flowSuccessors = forward ? successors : predecessors;
+    final int[][] flowPredecessors = forward ? predecessors : successors;
+
+    final boolean[] isEntry = new boolean[blockCount];
+    if (forward) {
+      final Set<Stmt> entrypoints = Collections.newSetFromMap(new IdentityHashMap<>());
+      if (blockCount > 0) {
+        entrypoints.addAll(graph.getEntrypoints());
+      }
+      for (int i = 0; i < blockCount; i++) {
+        isEntry[i] = entrypoints.contains(blocks[i].getHead());
+      }
+    } else {
+      for (int i = 0; i < blockCount; i++) {
+        isEntry[i] = flowPredecessors[i].length == 0;
+      }
+    }
+
+    // compose the transfer functions of the Stmts of each block
+    stmtToBlock = new int[stmtCount];
+    stmtGen = new BitSet[blockCount][];
+    stmtKill = new BitSet[blockCount][];
+    final long[][] blockGen = new long[blockCount][];
+    final long[][] blockKill = new long[blockCount][];
+    for (int i = 0; i < blockCount; i++) {
+      final List<Stmt> stmts = blocks[i].getStmts();
+      final int stmtCount = stmts.size();
+      stmtGen[i] = new BitSet[stmtCount];
+      stmtKill[i] = new BitSet[stmtCount];
+      final BitSet gen = new BitSet(universeSize);
+      final BitSet kill = new BitSet(universeSize);
+      for (int j = 0; j < stmtCount; j++) {
+        final int stmtIdx = forward ? j : stmtCount - 1 - j;
+        final Stmt stmt = stmts.get(stmtIdx);
+        stmtToBlock[stmtIndex.applyAsInt(stmt)] = i;
+
+        final BitSet stmtGenSet = new BitSet();
+        gen(stmt, stmtGenSet);
+        final BitSet stmtKillSet = new BitSet();
+        kill(stmt, stmtKillSet);
+        stmtGen[i][stmtIdx] = stmtGenSet.isEmpty() ? null : stmtGenSet;
+        stmtKill[i][stmtIdx] = stmtKillSet.isEmpty() ? null : stmtKillSet;
+
+        // gen' = gen(stmt) | (gen & ~kill(stmt)), kill' = kill | kill(stmt)
+        gen.andNot(stmtKillSet);
+        gen.or(stmtGenSet);
+        kill.or(stmtKillSet);
+      }
+      blockGen[i] = toWords(gen);
+      blockKill[i] = toWords(kill);
+    }
+
+    final long[] entryInitialFlow = toWords(entryInitialFlow());
+    final long[] initialFlow = new long[words];
+    if (!may) {
+      Arrays.fill(initialFlow, -1L);
+      if (universeSize % Long.SIZE != 0) {
+        initialFlow[words - 1] = (1L << universeSize) - 1;
+      }
+    }
+    entryFlow = new long[blockCount][];
+    exitFlow = new long[blockCount][];
+    for (int i = 0; i < blockCount; i++) {
+      entryFlow[i] = isEntry[i] ? entryInitialFlow.clone() : initialFlow.clone();
+      exitFlow[i] = initialFlow.clone();
+    }
+
+    final int[] order = reversePostOrder(flowSuccessors, isEntry);
+    final int[] rank = new int[blockCount];
+    Arrays.fill(rank, -1);
+    for (int i = 0; i < order.length; i++) {
+      rank[order[i]] = i;
+    }
+
+    // perform the fixed point iteration, always continuing with the first dirty block in reverse
+    // post order, so the flow of most blocks is computed after all of their predecessors
+    final BitSet worklist = new BitSet(order.length);
+    worklist.set(0, order.length);
+    for (int pos = worklist.nextSetBit(0); pos >= 0; pos = worklist.nextSetBit(0)) {
+      worklist.clear(pos);
+      numComputations++;
+      final int block = order[pos];
+
+      final long[] in = entryFlow[block];
+      final int[] preds = flowPredecessors[block];
+      boolean first = true;
+      if (isEntry[block]) {
+        System.arraycopy(entryInitialFlow, 0, in, 0, words);
+        first = false;
+      }
+      for (int pred : preds) {
+        if (rank[pred] < 0) {
+          // unreachable predecessors do not contribute any flow
+          continue;
+        }
+        final long[] predFlow = exitFlow[pred];
+        if (first) {
+          System.arraycopy(predFlow, 0, in, 0, words);
+          first = false;
+        } else if (may) {
+          for (int w = 0; w < words; w++) {
+            in[w] |= predFlow[w];
+          }
+        } else {
+          for (int w = 0; w < words; w++) {
+            in[w] &= predFlow[w];
+          }
+        }
+      }
+
+      final long[] out = exitFlow[block];
+      final long[] gen = blockGen[block];
+      final long[] kill = blockKill[block];
+      boolean changed = false;
+      for (int w = 0; w < words; w++) {
+        final long newOut = gen[w] | (in[w] & ~kill[w]);
+        if (newOut != out[w]) {
+          out[w] = newOut;
+          changed = true;
+        }
+      }
+
+      if (changed) {
+        for (int succ : flowSuccessors[block]) {
+          if (rank[succ] >= 0) {
+            worklist.set(rank[succ]);
+          }
+        }
+      }
+    }
+  }
+
+  /** returns the blocks that are reachable from an entry in reverse post order */
+  @Nonnull
+  private int[] reversePostOrder(@Nonnull int[][] flowSuccessors, @Nonnull boolean[] isEntry) {
+    final int blockCount = flowSuccessors.length;
+    final boolean[] visited = new boolean[blockCount];
+    final int[] postOrder = new int[blockCount];
+    int postOrderSize = 0;
+
+    final int[] stack = new int[blockCount];
+    final int[] nextSuccessor = new int[blockCount];
+    // a backward analysis also visits the blocks of endless loops, as they never reach an exit
+    for (int pass = 0; pass < (forward ? 1 : 2); pass++) {
+      for (int root = 0; root < blockCount; root++) {
+        if (visited[root] || (pass == 0 && !isEntry[root])) {
+          continue;
+        }
+        int top = 0;
+        stack[0] = root;
+        visited[root] = true;
+        nextSuccessor[root] = 0;
+        while (top >= 0) {
+          final int block = stack[top];
+          final int[] succs = flowSuccessors[block];
+          if (nextSuccessor[block] < succs.length) {
+            final int succ = succs[nextSuccessor[block]++];
+            if (!visited[succ]) {
+              visited[succ] = true;
+              nextSuccessor[succ] = 0;
+              stack[++top] = succ;
+            }
+          } else {
+            postOrder[postOrderSize++] = block;
+            top--;
+          }
+        }
+      }
+    }
+
+    final int[] order = new int[postOrderSize];
+    for (int i = 0; i < postOrderSize; i++) {
+      order[i] = postOrder[postOrderSize - 1 - i];
+    }
+    return order;
+  }
+
+  @Nonnull
+  private long[] toWords(@Nonnull BitSet set) {
+    return Arrays.copyOf(set.toLongArray(), words);
+  }
+
+  /** Returns the number of blocks that were processed until the fixpoint was reached. */
+  public int getNumComputations() {
+    return numComputations;
+  }
+
+  /** Returns the facts that hold before the Stmt. */
+  @Nonnull
+  public BitSet getFlowBefore(@Nonnull Stmt stmt) {
+    return getFlow(stmt, false);
+  }
+
+  /** Returns the facts that hold after the Stmt. */
+  @Nonnull
+  public BitSet getFlowAfter(@Nonnull Stmt stmt) {
+    return getFlow(stmt, true);
+  }
+
+  @Nonnull
+  private BitSet getFlow(@Nonnull Stmt stmt, boolean after) {
+    final int index = stmtIndex.applyAsInt(stmt);
+    if (index < 0) {
+      throw new IllegalArgumentException("Stmt '" + stmt + "' is not contained in the StmtGraph");
+    }
+    final int block = stmtToBlock[index];
+    final List<Stmt> stmts = blocks[block].getStmts();
+    final BitSet flow = BitSet.valueOf(entryFlow[block]);
+    // replay the Stmts of the block in the direction of the analysis up to the requested position
+    for (int j = 0; j < stmts.size(); j++) {
+      final int stmtIdx = forward ? j : stmts.size() - 1 - j;
+      final boolean isStmt = stmts.get(stmtIdx) == stmt;
+      if (isStmt && forward != after) {
+        break;
+      }
+      apply(block, stmtIdx, flow);
+      if (isStmt) {
+        break;
+      }
+    }
+    return flow;
+  }
+
+  /**
+   * Passes the facts that hold before each Stmt to the consumer. This replays the Stmts of each
+   * block once, which is cheaper than calling {@link #getFlowBefore(Stmt)} for every Stmt. The
+   * BitSet is reused, i.e. it must not be modified or kept by the consumer.
+   */
+  public void forEachFlowBefore(@Nonnull BiConsumer<Stmt, BitSet> consumer) {
+    final BitSet flow = new BitSet();
+    for (int block = 0; block < blocks.length; block++) {
+      final List<Stmt> stmts = blocks[block].getStmts();
+      flow.clear();
+      flow.or(BitSet.valueOf(entryFlow[block]));
+      for (int j = 0; j < stmts.size(); j++) {
+        final int stmtIdx = forward ? j : stmts.size() - 1 - j;
+        if (forward) {
+          consumer.accept(stmts.get(stmtIdx), flow);
+          apply(block, stmtIdx, flow);
+        } else {
+          apply(block, stmtIdx, flow);
+          consumer.accept(stmts.get(stmtIdx), flow);
+        }
+      }
+    }
+  }
+
+  private void apply(int block, int stmtIdx, @Nonnull BitSet flow) {
+    final BitSet kill = stmtKill[block][stmtIdx];
+    if (kill != null) {
+      flow.andNot(kill);
+    }
+    final BitSet gen = stmtGen[block][stmtIdx];
+    if (gen != null) {
+      flow.or(gen);
+    }
+  }
+}
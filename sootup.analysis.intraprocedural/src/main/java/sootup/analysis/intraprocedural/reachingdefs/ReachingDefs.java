@@ -23,116 +23,125 @@ Copyright (C) 2024 Michael Youkeim, Stefan Schott and others
 */
 
 import java.util.*;
-import java.util.stream.Stream;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
-import sootup.analysis.intraprocedural.ForwardFlowAnalysis;
+import sootup.analysis.intraprocedural.ForwardBitVectorFlowAnalysis;
 import sootup.core.graph.BasicBlock;
 import sootup.core.graph.StmtGraph;
 import sootup.core.jimple.basic.Value;
 import sootup.core.jimple.common.stmt.JAssignStmt;
 import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
 
 public class ReachingDefs {
   private final Map<Stmt, List<Stmt>> reachingDefs;
 
   public ReachingDefs(StmtGraph<? extends BasicBlock<?>> graph) {
-    this.reachingDefs = new HashMap<>();
-
-    ReachingDefsAnalysis analysis = new ReachingDefsAnalysis(graph);
-
-    for (Stmt stmt : graph.getStmts()) {
-      if (!stmt.getUses().findAny().isPresent()) continue;
+    this(new ReachingDefsAnalysis(graph));
+  }
 
-      Set<VariableDefinition> inset = analysis.getFlowBefore(stmt);
-      reachingDefs.put(stmt, new ArrayList<>());
+  /** Computes the reaching definitions of the Body, using the numbering of its Stmts. */
+  public ReachingDefs(Body body) {
+    this(new ReachingDefsAnalysis(body));
+  }
 
-      for (VariableDefinition def : inset) {
-        Value definedVar = def.getValue();
-        Optional<Stmt> definingStmt = def.getStmt();
+  private ReachingDefs(ReachingDefsAnalysis analysis) {
+    this.reachingDefs = new HashMap<>();
 
-        stmt.getUses()
-            .filter(
-                usedVar ->
-                    definedVar.equivTo(usedVar)
-                        && definingStmt.isPresent()
-                        && definingStmt.get() != stmt)
-            .forEach(usedVar -> reachingDefs.get(stmt).add(definingStmt.get()));
-      }
-    }
+    analysis.forEachFlowBefore(
+        (stmt, inset) -> {
+          List<Value> uses = stmt.getUses().collect(Collectors.toList());
+          if (uses.isEmpty()) return;
+
+          List<Stmt> defs = new ArrayList<>();
+          reachingDefs.put(stmt, defs);
+
+          for (int def = inset.nextSetBit(0); def >= 0; def = inset.nextSetBit(def + 1)) {
+            Stmt definingStmt = analysis.definitions[def];
+            if (definingStmt == stmt) continue;
+
+            Value definedVar = analysis.definedValues[def];
+            for (Value usedVar : uses) {
+              if (definedVar.equivTo(usedVar)) {
+                defs.add(definingStmt);
+              }
+            }
+          }
+        });
   }
 
   public Map<Stmt, List<Stmt>> getReachingDefs() {
     return reachingDefs;
   }
 
-  static class ReachingDefsAnalysis extends ForwardFlowAnalysis<Set<VariableDefinition>> {
+  /**
+   * Computes the definitions that reach a Stmt. The facts are the Stmts that define a value,
+   * numbered in the order of the blocks of the graph.
+   */
+  static class ReachingDefsAnalysis extends ForwardBitVectorFlowAnalysis {
+
+    private Stmt[] definitions;
+    private Value[] definedValues;
+
+    /** maps a defining Stmt to its number */
+    private Map<Stmt, Integer> definitionToIndex;
+
+    /** the definitions of each value, which are killed by an assignment to the value */
+    private Map<Value, BitSet> valueToDefinitions;
 
     /** Construct the analysis from StmtGraph. */
     <B extends BasicBlock<B>> ReachingDefsAnalysis(StmtGraph<B> graph) {
       super(graph);
+      numberDefinitions();
       execute();
     }
 
-    @Nonnull
-    @Override
-    protected Set<VariableDefinition> newInitialFlow() {
-      Set<VariableDefinition> initialValues = new HashSet<>();
-      graph.getNodes().stream()
-          .map(Stmt::getDef)
-          .filter(Optional::isPresent)
-          .map(Optional::get)
-          .forEach(def -> initialValues.add(new VariableDefinition(def, null)));
-      return initialValues;
+    /** Construct the analysis from the StmtGraph of the Body. */
+    ReachingDefsAnalysis(Body body) {
+      super(body);
+      numberDefinitions();
+      execute();
     }
 
-    @Override
-    protected void merge(
-        @Nonnull Set<VariableDefinition> in1,
-        @Nonnull Set<VariableDefinition> in2,
-        @Nonnull Set<VariableDefinition> out) {
-      out.clear();
-      out.addAll(in1);
-      out.addAll(in2);
+    private void numberDefinitions() {
+      List<Stmt> defStmts = new ArrayList<>();
+      List<Value> defValues = new ArrayList<>();
+      definitionToIndex = new IdentityHashMap<>();
+      valueToDefinitions = new HashMap<>();
+      for (BasicBlock<?> block : graph.getBlocks()) {
+        for (Stmt stmt : block.getStmts()) {
+          Optional<? extends Value> def = stmt.getDef();
+          if (!def.isPresent()) continue;
+
+          int index = defStmts.size();
+          defStmts.add(stmt);
+          defValues.add(def.get());
+          definitionToIndex.put(stmt, index);
+          valueToDefinitions.computeIfAbsent(def.get(), v -> new BitSet()).set(index);
+        }
+      }
+      definitions = defStmts.toArray(new Stmt[0]);
+      definedValues = defValues.toArray(new Value[0]);
     }
 
     @Override
-    protected void copy(
-        @Nonnull Set<VariableDefinition> source, @Nonnull Set<VariableDefinition> dest) {
-      dest.clear();
-      dest.addAll(source);
+    protected int getUniverseSize() {
+      return definitions.length;
     }
 
     @Override
-    protected void flowThrough(
-        @Nonnull Set<VariableDefinition> in, Stmt d, @Nonnull Set<VariableDefinition> out) {
-      out.clear();
-      out.addAll(in);
-      kill(d).forEach(out::remove);
-      gen(d).forEach(out::add);
+    protected void gen(@Nonnull Stmt stmt, @Nonnull BitSet gen) {
+      Integer index = definitionToIndex.get(stmt);
+      if (index != null) {
+        gen.set(index);
+      }
     }
 
-    private Stream<VariableDefinition> kill(Stmt d) {
-      if (!(d instanceof JAssignStmt)) return Stream.empty();
-
-      return d.getDef()
-          .map(
-              definedValue -> {
-                List<VariableDefinition> output = new ArrayList<>();
-                output.add(new VariableDefinition(definedValue, null));
-                graph.getNodes().stream()
-                    .filter(
-                        stmt ->
-                            stmt.getDef().isPresent() && stmt.getDef().get().equals(definedValue))
-                    .forEach(stmt -> output.add(new VariableDefinition(definedValue, stmt)));
-                return output.stream();
-              })
-          .orElseGet(Stream::empty);
-    }
+    @Override
+    protected void kill(@Nonnull Stmt stmt, @Nonnull BitSet kill) {
+      if (!(stmt instanceof JAssignStmt)) return;
 
-    private Stream<VariableDefinition> gen(Stmt d) {
-      return d.getDef()
-          .map(def -> Stream.of(new VariableDefinition(def, d)))
-          .orElseGet(Stream::empty);
+      stmt.getDef().map(valueToDefinitions::get).ifPresent(kill::or);
     }
   }
 }
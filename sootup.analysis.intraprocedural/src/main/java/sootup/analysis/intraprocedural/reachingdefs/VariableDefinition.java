@@ -27,6 +27,12 @@ import java.util.Optional;
 import sootup.core.jimple.basic.Value;
 import sootup.core.jimple.common.stmt.Stmt;
 
+/**
+ * A definition of a value by a stmt, as used by the former implementation of {@link ReachingDefs}.
+ *
+ * @deprecated {@link ReachingDefs} no longer uses it and it will be removed.
+ */
+@Deprecated
 class VariableDefinition {
   private final Value value;
   private final Stmt stmt;
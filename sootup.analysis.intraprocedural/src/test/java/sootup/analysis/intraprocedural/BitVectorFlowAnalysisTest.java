@@ -0,0 +1,210 @@
+package sootup.analysis.intraprocedural;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 2022 - 2024 Kadiray Karakaya, Markus Schmidt, Jonas Klauke, Stefan Schott, Palaniappan Muthuraman, Marcus Hüwe and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.graph.BasicBlock;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.basic.Value;
+import sootup.core.jimple.common.stmt.JNopStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+
+@Tag("Java8")
+public class BitVectorFlowAnalysisTest {
+
+  /** The locals that are assigned on some (may) or on all (must) paths to a Stmt. */
+  private static class AssignedLocals extends ForwardBitVectorFlowAnalysis {
+    private final Body body;
+    private final boolean may;
+
+    <B extends BasicBlock<B>> AssignedLocals(StmtGraph<B> graph, Body body, boolean may) {
+      super(graph);
+      this.body = body;
+      this.may = may;
+      execute();
+    }
+
+    AssignedLocals(Body body, boolean may) {
+      super(body);
+      this.body = body;
+      this.may = may;
+      execute();
+    }
+
+    @Override
+    protected boolean isMayAnalysis() {
+      return may;
+    }
+
+    @Override
+    protected int getUniverseSize() {
+      return body.getLocalCount();
+    }
+
+    @Override
+    protected void gen(@Nonnull Stmt stmt, @Nonnull BitSet gen) {
+      stmt.getDef().ifPresent(def -> gen.set(body.getLocalIndex((Local) def)));
+    }
+
+    @Override
+    protected void kill(@Nonnull Stmt stmt, @Nonnull BitSet kill) {}
+  }
+
+  /** The locals that are live, i.e. used before they are assigned on some path from a Stmt. */
+  private static class LiveLocals extends BackwardBitVectorFlowAnalysis {
+    private final Body body;
+
+    <B extends BasicBlock<B>> LiveLocals(StmtGraph<B> graph, Body body) {
+      super(graph);
+      this.body = body;
+      execute();
+    }
+
+    LiveLocals(Body body) {
+      super(body);
+      this.body = body;
+      execute();
+    }
+
+    @Override
+    protected int getUniverseSize() {
+      return body.getLocalCount();
+    }
+
+    @Override
+    protected void gen(@Nonnull Stmt stmt, @Nonnull BitSet gen) {
+      stmt.getUses()
+          .filter(use -> use instanceof Local)
+          .forEach(use -> gen.set(body.getLocalIndex((Local) use)));
+    }
+
+    @Override
+    protected void kill(@Nonnull Stmt stmt, @Nonnull BitSet kill) {
+      stmt.getDef().ifPresent(def -> kill.set(body.getLocalIndex((Local) def)));
+    }
+  }
+
+  private static Set<Value> locals(Body body, BitSet facts) {
+    Set<Value> locals = new HashSet<>();
+    facts.stream().forEach(i -> locals.add(body.getLocal(i)));
+    return locals;
+  }
+
+  private static Set<Value> setOf(Value... values) {
+    return new HashSet<>(Arrays.asList(values));
+  }
+
+  @Test
+  public void testForwardMayAnalysis() {
+    LoopWithTrapBody m = new LoopWithTrapBody();
+    for (BitVectorFlowAnalysis analysis :
+        Arrays.asList(
+            new AssignedLocals(m.graph, m.body, true), new AssignedLocals(m.body, true))) {
+      assertEquals(setOf(), locals(m.body, analysis.getFlowBefore(m.s0)));
+      assertEquals(setOf(m.a), locals(m.body, analysis.getFlowBefore(m.s1)));
+      // the loop header merges the flows of the entry, the loop body and the trap handler
+      assertEquals(setOf(m.a, m.b, m.c, m.ex), locals(m.body, analysis.getFlowBefore(m.s2)));
+      assertEquals(setOf(m.a, m.b, m.c, m.ex), locals(m.body, analysis.getFlowBefore(m.s6)));
+      // a trap handler starts with the flow of an entry, exceptional edges are not followed
+      assertEquals(setOf(), locals(m.body, analysis.getFlowBefore(m.h0)));
+      assertEquals(setOf(m.ex), locals(m.body, analysis.getFlowAfter(m.h0)));
+      assertEquals(setOf(m.ex, m.b), locals(m.body, analysis.getFlowAfter(m.h2)));
+    }
+  }
+
+  @Test
+  public void testForwardMustAnalysis() {
+    LoopWithTrapBody m = new LoopWithTrapBody();
+    for (BitVectorFlowAnalysis analysis :
+        Arrays.asList(
+            new AssignedLocals(m.graph, m.body, false), new AssignedLocals(m.body, false))) {
+      assertEquals(setOf(m.a, m.b), locals(m.body, analysis.getFlowAfter(m.s1)));
+      // only b is assigned on the paths from the entry and from the trap handler
+      assertEquals(setOf(m.b), locals(m.body, analysis.getFlowBefore(m.s2)));
+      assertEquals(setOf(m.b), locals(m.body, analysis.getFlowBefore(m.s3)));
+      assertEquals(setOf(m.b, m.c), locals(m.body, analysis.getFlowBefore(m.s4)));
+      assertEquals(setOf(m.a, m.b, m.c), locals(m.body, analysis.getFlowAfter(m.s5)));
+      assertEquals(setOf(m.b), locals(m.body, analysis.getFlowBefore(m.s6)));
+      assertEquals(setOf(), locals(m.body, analysis.getFlowBefore(m.h0)));
+      assertEquals(setOf(m.ex), locals(m.body, analysis.getFlowBefore(m.h1)));
+    }
+  }
+
+  @Test
+  public void testBackwardAnalysis() {
+    LoopWithTrapBody m = new LoopWithTrapBody();
+    for (BitVectorFlowAnalysis analysis :
+        Arrays.asList(new LiveLocals(m.graph, m.body), new LiveLocals(m.body))) {
+      assertEquals(setOf(), locals(m.body, analysis.getFlowBefore(m.s0)));
+      assertEquals(setOf(m.a), locals(m.body, analysis.getFlowBefore(m.s1)));
+      assertEquals(setOf(m.a, m.b), locals(m.body, analysis.getFlowBefore(m.s2)));
+      assertEquals(setOf(m.a, m.b), locals(m.body, analysis.getFlowBefore(m.s3)));
+      // the exceptional edge to the trap handler is not followed
+      assertEquals(setOf(m.b, m.c), locals(m.body, analysis.getFlowAfter(m.s3)));
+      assertEquals(setOf(m.b, m.c), locals(m.body, analysis.getFlowBefore(m.s4)));
+      assertEquals(setOf(m.a, m.b), locals(m.body, analysis.getFlowAfter(m.s5)));
+      assertEquals(setOf(m.a), locals(m.body, analysis.getFlowBefore(m.s6)));
+      assertEquals(setOf(), locals(m.body, analysis.getFlowAfter(m.s6)));
+      // the trap handler flows back into the loop
+      assertEquals(setOf(m.a), locals(m.body, analysis.getFlowBefore(m.h0)));
+      assertEquals(setOf(m.a), locals(m.body, analysis.getFlowBefore(m.h1)));
+      assertEquals(setOf(m.a, m.b), locals(m.body, analysis.getFlowAfter(m.h1)));
+    }
+  }
+
+  @Test
+  public void testForEachFlowBefore() {
+    LoopWithTrapBody m = new LoopWithTrapBody();
+    for (BitVectorFlowAnalysis analysis :
+        Arrays.asList(
+            new AssignedLocals(m.body, true),
+            new AssignedLocals(m.body, false),
+            new LiveLocals(m.body))) {
+      Set<Stmt> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+      analysis.forEachFlowBefore(
+          (stmt, flow) -> {
+            assertTrue(visited.add(stmt));
+            assertEquals(analysis.getFlowBefore(stmt), flow);
+          });
+      assertEquals(m.body.getStmtCount(), visited.size());
+    }
+  }
+
+  @Test
+  public void testUnknownStmt() {
+    LoopWithTrapBody m = new LoopWithTrapBody();
+    Stmt nop = new JNopStmt(StmtPositionInfo.getNoStmtPositionInfo());
+    for (BitVectorFlowAnalysis analysis :
+        Arrays.asList(new LiveLocals(m.graph, m.body), new LiveLocals(m.body))) {
+      assertThrows(IllegalArgumentException.class, () -> analysis.getFlowBefore(nop));
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package sootup.analysis.intraprocedural;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 2022 - 2024 Kadiray Karakaya, Markus Schmidt, Jonas Klauke, Stefan Schott, Palaniappan Muthuraman, Marcus Hüwe and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.expr.JAddExpr;
+import sootup.core.jimple.common.expr.JLtExpr;
+import sootup.core.jimple.common.ref.JCaughtExceptionRef;
+import sootup.core.jimple.common.stmt.*;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+import sootup.core.types.PrimitiveType;
+import sootup.core.types.VoidType;
+import sootup.java.core.JavaIdentifierFactory;
+
+/**
+ * A Body with a branch, a loop and a trap handler that flows back into the loop:
+ *
+ * <pre>
+ *   s0: a = 0
+ *   s1: b = 1
+ *   s2: if a &lt; 10 goto s6
+ *   s3: c = a + b          (caught by h0)
+ *   s4: a = c
+ *   s5: goto s2
+ *   s6: return a
+ *   h0: ex := @caughtexception
+ *   h1: b = 2
+ *   h2: goto s2
+ * </pre>
+ */
+public class LoopWithTrapBody {
+
+  private static final StmtPositionInfo noPosition = StmtPositionInfo.getNoStmtPositionInfo();
+
+  final ClassType throwable =
+      JavaIdentifierFactory.getInstance().getClassType("java.lang.Throwable");
+
+  public final Local a = new Local("a", PrimitiveType.getInt());
+  public final Local b = new Local("b", PrimitiveType.getInt());
+  public final Local c = new Local("c", PrimitiveType.getInt());
+  public final Local ex = new Local("ex", throwable);
+
+  public final JAssignStmt s0 = new JAssignStmt(a, IntConstant.getInstance(0), noPosition);
+  public final JAssignStmt s1 = new JAssignStmt(b, IntConstant.getInstance(1), noPosition);
+  public final JIfStmt s2 = new JIfStmt(new JLtExpr(a, IntConstant.getInstance(10)), noPosition);
+  public final JAssignStmt s3 = new JAssignStmt(c, new JAddExpr(a, b), noPosition);
+  public final JAssignStmt s4 = new JAssignStmt(a, c, noPosition);
+  public final JGotoStmt s5 = new JGotoStmt(noPosition);
+  public final JReturnStmt s6 = new JReturnStmt(a, noPosition);
+  public final JIdentityStmt h0 =
+      new JIdentityStmt(ex, new JCaughtExceptionRef(throwable), noPosition);
+  public final JAssignStmt h1 = new JAssignStmt(b, IntConstant.getInstance(2), noPosition);
+  public final JGotoStmt h2 = new JGotoStmt(noPosition);
+
+  public final MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+  public final Body body;
+
+  public LoopWithTrapBody() {
+    graph.setStartingStmt(s0);
+    graph.putEdge(s0, s1);
+    graph.putEdge(s1, s2);
+    graph.putEdge(s2, JIfStmt.FALSE_BRANCH_IDX, s3);
+    graph.putEdge(s2, JIfStmt.TRUE_BRANCH_IDX, s6);
+    graph.addExceptionalEdge(s3, throwable, h0);
+    graph.putEdge(s3, s4);
+    graph.putEdge(s4, s5);
+    graph.putEdge(s5, JGotoStmt.BRANCH_IDX, s2);
+    graph.putEdge(h0, h1);
+    graph.putEdge(h1, h2);
+    graph.putEdge(h2, JGotoStmt.BRANCH_IDX, s2);
+
+    body =
+        Body.builder(graph)
+            .setMethodSignature(
+                new MethodSignature(
+                    throwable, "method", Collections.emptyList(), VoidType.getInstance()))
+            .setLocals(new LinkedHashSet<>(Arrays.asList(a, b, c, ex)))
+            .build();
+  }
+}
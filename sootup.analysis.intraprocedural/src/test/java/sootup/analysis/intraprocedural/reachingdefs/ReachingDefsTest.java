@@ -0,0 +1,151 @@
+package sootup.analysis.intraprocedural.reachingdefs;
+
+/*-
+* #%L
+* Soot - a J*va Optimization Framework
+* %%
+Copyright (C) 2024 Michael Youkeim, Stefan Schott and others
+* %%
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU Lesser General Public License as
+* published by the Free Software Foundation, either version 2.1 of the
+* License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Lesser Public License for more details.
+*
+* You should have received a copy of the GNU General Lesser Public
+* License along with this program.  If not, see
+* <http://www.gnu.org/licenses/lgpl-2.1.html>.
+* #L%
+*/
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.analysis.intraprocedural.LoopWithTrapBody;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.expr.JAddExpr;
+import sootup.core.jimple.common.expr.JLtExpr;
+import sootup.core.jimple.common.stmt.*;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.PrimitiveType;
+import sootup.core.types.VoidType;
+import sootup.java.core.JavaIdentifierFactory;
+
+@Tag("Java8")
+public class ReachingDefsTest {
+
+  private static final StmtPositionInfo noPosition = StmtPositionInfo.getNoStmtPositionInfo();
+
+  /** Returns the defining Stmts of each Stmt by their numbers, in ascending order. */
+  private static Map<Integer, List<Integer>> numbered(Body body, Map<Stmt, List<Stmt>> defs) {
+    Map<Integer, List<Integer>> numbered = new HashMap<>();
+    defs.forEach(
+        (stmt, definingStmts) -> {
+          List<Integer> numbers = new ArrayList<>();
+          definingStmts.forEach(def -> numbers.add(body.getStmtIndex(def)));
+          Collections.sort(numbers);
+          numbered.put(body.getStmtIndex(stmt), numbers);
+        });
+    return numbered;
+  }
+
+  /** Checks that both constructors compute the reaching definitions of the old implementation. */
+  private static void assertSameAsLegacy(MutableBlockStmtGraph graph, Body body) {
+    Map<Integer, List<Integer>> expected =
+        numbered(body, new LegacyReachingDefs(graph).getReachingDefs());
+    assertFalse(expected.isEmpty());
+    assertEquals(expected, numbered(body, new ReachingDefs(graph).getReachingDefs()));
+    assertEquals(expected, numbered(body, new ReachingDefs(body).getReachingDefs()));
+  }
+
+  @Test
+  public void testLoopWithTrap() {
+    LoopWithTrapBody m = new LoopWithTrapBody();
+    Map<Stmt, List<Stmt>> defs = new ReachingDefs(m.body).getReachingDefs();
+
+    assertDefs(m.body, defs.get(m.s2), m.s0, m.s4);
+    // b is redefined in the trap handler, which flows back into the loop
+    assertDefs(m.body, defs.get(m.s3), m.s0, m.s4, m.s1, m.h1);
+    assertDefs(m.body, defs.get(m.s4), m.s3);
+    assertDefs(m.body, defs.get(m.s6), m.s0, m.s4);
+    assertFalse(defs.containsKey(m.s5));
+
+    assertSameAsLegacy(m.graph, m.body);
+  }
+
+  @Test
+  public void testBranchesAndNestedLoops() {
+    Local x = new Local("x", PrimitiveType.getInt());
+    Local y = new Local("y", PrimitiveType.getInt());
+    Local z = new Local("z", PrimitiveType.getInt());
+
+    JAssignStmt x0 = new JAssignStmt(x, IntConstant.getInstance(0), noPosition);
+    JAssignStmt y0 = new JAssignStmt(y, IntConstant.getInstance(1), noPosition);
+    JIfStmt branch = new JIfStmt(new JLtExpr(x, y), noPosition);
+    JAssignStmt x1 = new JAssignStmt(x, new JAddExpr(x, y), noPosition);
+    JGotoStmt join = new JGotoStmt(noPosition);
+    JAssignStmt y1 = new JAssignStmt(y, new JAddExpr(x, y), noPosition);
+    JAssignStmt z0 = new JAssignStmt(z, new JAddExpr(x, y), noPosition);
+    JAssignStmt x2 = new JAssignStmt(x, new JAddExpr(x, z), noPosition);
+    JIfStmt innerLoop = new JIfStmt(new JLtExpr(x, IntConstant.getInstance(10)), noPosition);
+    JAssignStmt y2 = new JAssignStmt(y, new JAddExpr(y, z), noPosition);
+    JIfStmt outerLoop = new JIfStmt(new JLtExpr(y, IntConstant.getInstance(100)), noPosition);
+    JReturnStmt ret = new JReturnStmt(z, noPosition);
+
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.setStartingStmt(x0);
+    graph.putEdge(x0, y0);
+    graph.putEdge(y0, branch);
+    graph.putEdge(branch, JIfStmt.FALSE_BRANCH_IDX, x1);
+    graph.putEdge(branch, JIfStmt.TRUE_BRANCH_IDX, y1);
+    graph.putEdge(x1, join);
+    graph.putEdge(join, JGotoStmt.BRANCH_IDX, z0);
+    graph.putEdge(y1, z0);
+    graph.putEdge(z0, x2);
+    graph.putEdge(x2, innerLoop);
+    graph.putEdge(innerLoop, JIfStmt.FALSE_BRANCH_IDX, y2);
+    graph.putEdge(innerLoop, JIfStmt.TRUE_BRANCH_IDX, x2);
+    graph.putEdge(y2, outerLoop);
+    graph.putEdge(outerLoop, JIfStmt.FALSE_BRANCH_IDX, ret);
+    graph.putEdge(outerLoop, JIfStmt.TRUE_BRANCH_IDX, z0);
+
+    Body body =
+        Body.builder(graph)
+            .setMethodSignature(
+                new MethodSignature(
+                    JavaIdentifierFactory.getInstance().getClassType("Example"),
+                    "method",
+                    Collections.emptyList(),
+                    VoidType.getInstance()))
+            .setLocals(new LinkedHashSet<>(Arrays.asList(x, y, z)))
+            .build();
+
+    Map<Stmt, List<Stmt>> defs = new ReachingDefs(body).getReachingDefs();
+    assertDefs(body, defs.get(z0), x0, x1, x2, y0, y1, y2);
+    // x2 reaches itself through the inner loop, but a Stmt is not listed as its own definition
+    assertDefs(body, defs.get(x2), x0, x1, z0);
+    assertDefs(body, defs.get(innerLoop), x2);
+    assertDefs(body, defs.get(y2), y0, y1, z0);
+    assertDefs(body, defs.get(ret), z0);
+
+    assertSameAsLegacy(graph, body);
+  }
+
+  private static void assertDefs(Body body, List<Stmt> actual, Stmt... expected) {
+    List<Stmt> sortedExpected = new ArrayList<>(Arrays.asList(expected));
+    sortedExpected.sort(Comparator.comparingInt(body::getStmtIndex));
+    List<Stmt> sortedActual = new ArrayList<>(actual);
+    sortedActual.sort(Comparator.comparingInt(body::getStmtIndex));
+    assertEquals(sortedExpected, sortedActual);
+  }
+}
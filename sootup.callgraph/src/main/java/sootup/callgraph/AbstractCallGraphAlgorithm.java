@@ -23,6 +23,10 @@ package sootup.callgraph;
  */
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
@@ -32,7 +36,9 @@ import sootup.callgraph.CallGraph.Call;
 import sootup.core.IdentifierFactory;
 import sootup.core.jimple.basic.Value;
 import sootup.core.jimple.common.expr.AbstractInvokeExpr;
+import sootup.core.jimple.common.expr.JInterfaceInvokeExpr;
 import sootup.core.jimple.common.expr.JStaticInvokeExpr;
+import sootup.core.jimple.common.expr.JVirtualInvokeExpr;
 import sootup.core.jimple.common.ref.JStaticFieldRef;
 import sootup.core.jimple.common.stmt.InvokableStmt;
 import sootup.core.jimple.common.stmt.JAssignStmt;
@@ -59,10 +65,33 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
 
   @Nonnull protected final View view;
 
+  /** the number of threads that process the work list */
+  private int parallelism = 1;
+
   protected AbstractCallGraphAlgorithm(@Nonnull View view) {
     this.view = view;
   }
 
+  /**
+   * Sets the number of threads that process the methods of the work list. With a parallelism
+   * greater than 1, the methods are processed concurrently on a work-stealing {@link ForkJoinPool}
+   * and the resulting call graph contains the same methods and calls as the one that is built
+   * sequentially. The view has to support concurrent access, e.g. a ConcurrentJavaView. Subclasses
+   * which modify the call graph without {@link #addCallToCG} have to synchronize on the call graph.
+   *
+   * @param parallelism the number of threads, 1 processes the work list sequentially (default)
+   */
+  public void setParallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("The parallelism has to be at least 1.");
+    }
+    this.parallelism = parallelism;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
   /**
    * This method starts the construction of the call graph algorithm. It initializes the needed
    * objects for the call graph generation and calls processWorkList method.
@@ -74,16 +103,31 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
    */
   @Nonnull
   final CallGraph constructCompleteCallGraph(View view, List<MethodSignature> entryPoints) {
-    Deque<MethodSignature> workList = new ArrayDeque<>(entryPoints);
-    Set<MethodSignature> processed = new HashSet<>();
-
     // find additional entry points
     List<MethodSignature> clinits = getClinitFromEntryPoints(entryPoints);
+    return constructCompleteCallGraph(view, entryPoints, clinits);
+  }
 
+  /**
+   * Constructs the call graph starting from the given entry methods and static initializers.
+   *
+   * @param view the view contains all needed class files.
+   * @param entryPoints the entry methods of the call graph.
+   * @param clinits the static initializers that are added as entry methods as well.
+   * @return the complete constructed call graph starting from the entry methods.
+   */
+  @Nonnull
+  final CallGraph constructCompleteCallGraph(
+      View view, List<MethodSignature> entryPoints, List<MethodSignature> clinits) {
+    Deque<MethodSignature> workList = new ArrayDeque<>(entryPoints);
     workList.addAll(clinits);
     MutableCallGraph cg = initializeCallGraph(entryPoints, clinits);
 
-    processWorkList(view, workList, processed, cg);
+    if (parallelism > 1) {
+      processWorkListInParallel(view, workList, ConcurrentHashMap.newKeySet(), cg);
+    } else {
+      processWorkList(view, workList, new HashSet<>(), cg);
+    }
     return cg;
   }
 
@@ -145,38 +189,114 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
       if (processed.contains(currentMethodSignature)) {
         continue;
       }
+      processMethod(view, currentMethodSignature, workList, processed, cg);
+    }
+  }
 
-      // skip if library class
-      SootClass currentClass =
-          view.getClass(currentMethodSignature.getDeclClassType()).orElse(null);
-      if (currentClass == null || currentClass.isLibraryClass()) {
-        continue;
+  /**
+   * Processes the entries of the <code>workList</code> like {@link #processWorkList} but each
+   * method is processed by a task of a work-stealing {@link ForkJoinPool}. The methods that are
+   * discovered by a task are processed by new tasks. Each method is processed once, as it is
+   * claimed before it is processed.
+   *
+   * @param processed a thread-safe set of the processed methods
+   */
+  final void processWorkListInParallel(
+      View view,
+      Deque<MethodSignature> workList,
+      Set<MethodSignature> processed,
+      MutableCallGraph cg) {
+    Set<MethodSignature> claimed = ConcurrentHashMap.newKeySet();
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      for (MethodSignature methodSignature : workList) {
+        pool.execute(
+            () -> processMethodTask(pool, view, methodSignature, processed, claimed, cg, failure));
       }
+      workList.clear();
+      pool.awaitQuiescence(Long.MAX_VALUE, TimeUnit.DAYS);
+    } finally {
+      pool.shutdown();
+    }
+
+    Throwable throwable = failure.get();
+    if (throwable instanceof RuntimeException) {
+      throw (RuntimeException) throwable;
+    } else if (throwable instanceof Error) {
+      throw (Error) throwable;
+    }
+  }
 
-      // perform pre-processing if needed
-      preProcessingMethod(view, currentMethodSignature, workList, cg);
+  private void processMethodTask(
+      ForkJoinPool pool,
+      View view,
+      MethodSignature methodSignature,
+      Set<MethodSignature> processed,
+      Set<MethodSignature> claimed,
+      MutableCallGraph cg,
+      AtomicReference<Throwable> failure) {
+    if (failure.get() != null
+        || processed.contains(methodSignature)
+        || !claimed.add(methodSignature)) {
+      return;
+    }
+    Deque<MethodSignature> discovered = new ArrayDeque<>();
+    try {
+      processMethod(view, methodSignature, discovered, processed, cg);
+    } catch (Throwable throwable) {
+      failure.compareAndSet(null, throwable);
+      return;
+    }
+    // submitted by a worker of the pool, the tasks are pushed to its local queue
+    for (MethodSignature discoveredMethod : discovered) {
+      pool.execute(
+          () -> processMethodTask(pool, view, discoveredMethod, processed, claimed, cg, failure));
+    }
+  }
 
-      // process the method
+  /**
+   * Processes a single method of the work list: if it is not a method of a library class, the calls
+   * of its body are resolved and added to <code>cg</code>. Newly discovered methods are added to
+   * the <code>workList</code>. The method is added to <code>processed</code>.
+   */
+  private void processMethod(
+      View view,
+      MethodSignature currentMethodSignature,
+      Deque<MethodSignature> workList,
+      Set<MethodSignature> processed,
+      MutableCallGraph cg) {
+    // skip if library class
+    SootClass currentClass = view.getClass(currentMethodSignature.getDeclClassType()).orElse(null);
+    if (currentClass == null || currentClass.isLibraryClass()) {
+      return;
+    }
+
+    // perform pre-processing if needed
+    preProcessingMethod(view, currentMethodSignature, workList, cg);
+
+    // process the method
+    synchronized (cg) {
       if (!cg.containsMethod(currentMethodSignature)) {
         cg.addMethod(currentMethodSignature);
       }
+    }
 
-      // transform the method signature to the actual SootMethod
-      SootMethod currentMethod =
-          currentClass.getMethod(currentMethodSignature.getSubSignature()).orElse(null);
+    // transform the method signature to the actual SootMethod
+    SootMethod currentMethod =
+        currentClass.getMethod(currentMethodSignature.getSubSignature()).orElse(null);
 
-      // get all call targets of invocations in the method body
-      resolveAllCallsFromSourceMethod(currentMethod, cg, workList);
+    // get all call targets of invocations in the method body
+    resolveAllCallsFromSourceMethod(currentMethod, cg, workList);
 
-      // get all call targets of implicit edges in the method body
-      resolveAllImplicitCallsFromSourceMethod(currentMethod, cg, workList);
+    // get all call targets of implicit edges in the method body
+    resolveAllImplicitCallsFromSourceMethod(currentMethod, cg, workList);
 
-      // set method as processed
-      processed.add(currentMethodSignature);
+    // set method as processed
+    processed.add(currentMethodSignature);
 
-      // perform post-processing if needed
-      postProcessingMethod(view, currentMethodSignature, workList, cg);
-    }
+    // perform post-processing if needed
+    postProcessingMethod(view, currentMethodSignature, workList, cg);
   }
 
   /**
@@ -196,16 +316,19 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
       @Nonnull InvokableStmt invokeStmt,
       @Nonnull MutableCallGraph cg,
       @Nonnull Deque<MethodSignature> workList) {
-    if (!cg.containsMethod(source)) {
-      cg.addMethod(source);
-      workList.push(source);
-    }
-    if (!cg.containsMethod(target)) {
-      cg.addMethod(target);
-      workList.push(target);
-    }
-    if (!cg.containsCall(source, target, invokeStmt)) {
-      cg.addCall(source, target, invokeStmt);
+    // the call graph is shared by all threads, if the work list is processed in parallel
+    synchronized (cg) {
+      if (!cg.containsMethod(source)) {
+        cg.addMethod(source);
+        workList.push(source);
+      }
+      if (!cg.containsMethod(target)) {
+        cg.addMethod(target);
+        workList.push(target);
+      }
+      if (!cg.containsCall(source, target, invokeStmt)) {
+        cg.addCall(source, target, invokeStmt);
+      }
     }
   }
 
@@ -437,6 +560,244 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
     return updated;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>A method of the old call graph is processed again if it is declared in a modified class or
+   * if it calls a method of a changed class. A call of a method of an unchanged class is only
+   * dispatched differently if the method can be overridden and a changed class declares a method
+   * with its sub-signature, so only such calls cause the caller to be processed again. Methods of
+   * removed classes and methods that are not reachable from the entry methods anymore are dropped.
+   *
+   * <p>A virtual or interface call without any target in the old call graph has no edge that shows
+   * the dependency. Such a call can only gain a target if it names an interface or an abstract
+   * class that an added or modified class is a subtype of. Therefore, if there are such types, the
+   * Bodies of the remaining methods are checked for calls that name one of them, and these methods
+   * are processed again as well.
+   */
+  @Nonnull
+  @Override
+  public CallGraph updateClasses(
+      @Nonnull CallGraph oldCallGraph,
+      @Nonnull Collection<ClassType> addedClasses,
+      @Nonnull Collection<ClassType> removedClasses,
+      @Nonnull Collection<ClassType> modifiedClasses) {
+    Set<ClassType> changedClasses = new HashSet<>(addedClasses);
+    changedClasses.addAll(removedClasses);
+    changedClasses.addAll(modifiedClasses);
+    if (changedClasses.isEmpty()) {
+      return oldCallGraph;
+    }
+    Set<ClassType> removed = new HashSet<>(removedClasses);
+    Set<MethodSignature> invalidated =
+        invalidatedMethods(oldCallGraph, changedClasses, removed, new HashSet<>(modifiedClasses));
+
+    List<MethodSignature> entryMethods =
+        oldCallGraph.getEntryMethods().stream()
+            .filter(method -> !removed.contains(method.getDeclClassType()))
+            .collect(Collectors.toList());
+    MutableCallGraph updated = initializeCallGraph(entryMethods, Collections.emptyList());
+
+    // keep the methods and the calls that are not affected by the change
+    Set<MethodSignature> processed =
+        parallelism > 1 ? ConcurrentHashMap.newKeySet() : new HashSet<>();
+    for (MethodSignature method : oldCallGraph.getMethodSignatures()) {
+      if (removed.contains(method.getDeclClassType()) || invalidated.contains(method)) {
+        continue;
+      }
+      updated.addMethod(method);
+      processed.add(method);
+    }
+    for (MethodSignature method : processed) {
+      for (Call call : oldCallGraph.callsFrom(method)) {
+        updated.addCall(call);
+      }
+    }
+
+    Deque<MethodSignature> workList = new ArrayDeque<>(invalidated);
+    for (MethodSignature entryMethod : entryMethods) {
+      if (!updated.containsMethod(entryMethod)) {
+        workList.add(entryMethod);
+      }
+    }
+    if (parallelism > 1) {
+      processWorkListInParallel(view, workList, processed, updated);
+    } else {
+      processWorkList(view, workList, processed, updated);
+    }
+    return withoutUnreachableMethods(updated, entryMethods);
+  }
+
+  /**
+   * Returns the methods of the old call graph whose calls have to be resolved again after the
+   * given classes changed. Methods of removed classes are not contained.
+   */
+  @Nonnull
+  Set<MethodSignature> invalidatedMethods(
+      @Nonnull CallGraph oldCallGraph,
+      @Nonnull Set<ClassType> changedClasses,
+      @Nonnull Set<ClassType> removedClasses,
+      @Nonnull Set<ClassType> modifiedClasses) {
+    // the overridable sub-signatures declared in the changed classes before and after the change.
+    // The modifiers of the old methods are unknown, so only constructors and static initializers
+    // are excluded for them.
+    Set<MethodSubSignature> changedSubSignatures = new HashSet<>();
+    for (MethodSignature method : oldCallGraph.getMethodSignatures()) {
+      if (changedClasses.contains(method.getDeclClassType()) && !isInitializer(method)) {
+        changedSubSignatures.add(method.getSubSignature());
+      }
+    }
+    for (ClassType classType : changedClasses) {
+      view.getClass(classType)
+          .ifPresent(
+              clazz ->
+                  clazz.getMethods().stream()
+                      .filter(AbstractCallGraphAlgorithm::isDispatchTarget)
+                      .forEach(
+                          method ->
+                              changedSubSignatures.add(method.getSignature().getSubSignature())));
+    }
+
+    Set<MethodSignature> invalidated = new HashSet<>();
+    for (MethodSignature method : oldCallGraph.getMethodSignatures()) {
+      ClassType declaringClass = method.getDeclClassType();
+      if (removedClasses.contains(declaringClass)) {
+        continue;
+      }
+      if (modifiedClasses.contains(declaringClass)
+          || oldCallGraph.callTargetsFrom(method).stream()
+              .anyMatch(
+                  target ->
+                      changedClasses.contains(target.getDeclClassType())
+                          || (changedSubSignatures.contains(target.getSubSignature())
+                              && canBeOverridden(target)))) {
+        invalidated.add(method);
+      }
+    }
+
+    Set<ClassType> addedOrModifiedClasses = new HashSet<>(changedClasses);
+    addedOrModifiedClasses.removeAll(removedClasses);
+    Set<ClassType> typesWithNewSubtypes = abstractSupertypesOf(addedOrModifiedClasses);
+    if (typesWithNewSubtypes.isEmpty()) {
+      return invalidated;
+    }
+    for (MethodSignature method : oldCallGraph.getMethodSignatures()) {
+      if (!removedClasses.contains(method.getDeclClassType())
+          && !invalidated.contains(method)
+          && hasDispatchedCallOf(method, typesWithNewSubtypes)) {
+        invalidated.add(method);
+      }
+    }
+    return invalidated;
+  }
+
+  /**
+   * Returns the given classes and their supertypes which are interfaces, abstract classes or not
+   * contained in the view, i.e. the types whose calls could have had no target before the classes
+   * were added or modified.
+   */
+  @Nonnull
+  private Set<ClassType> abstractSupertypesOf(@Nonnull Set<ClassType> classTypes) {
+    TypeHierarchy typeHierarchy = view.getTypeHierarchy();
+    Set<ClassType> supertypes = new HashSet<>();
+    for (ClassType classType : classTypes) {
+      if (!typeHierarchy.contains(classType)) {
+        continue;
+      }
+      supertypes.add(classType);
+      typeHierarchy.implementedInterfacesOf(classType).forEach(supertypes::add);
+      if (!typeHierarchy.isInterface(classType)) {
+        typeHierarchy.superClassesOf(classType).forEach(supertypes::add);
+      }
+    }
+    supertypes.removeIf(
+        type ->
+            view.getClass(type)
+                .map(clazz -> !clazz.isInterface() && !clazz.isAbstract())
+                .orElse(false));
+    return supertypes;
+  }
+
+  /** Returns whether the method contains a virtual or interface call of a method of the types. */
+  private boolean hasDispatchedCallOf(
+      @Nonnull MethodSignature method, @Nonnull Set<ClassType> declaringTypes) {
+    return view.getMethod(method)
+        .filter(SootMethod::hasBody)
+        .map(
+            sootMethod ->
+                sootMethod.getBody().getStmts().stream()
+                    .filter(Stmt::isInvokableStmt)
+                    .map(stmt -> stmt.asInvokableStmt().getInvokeExpr())
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .anyMatch(
+                        expr ->
+                            (expr instanceof JVirtualInvokeExpr
+                                    || expr instanceof JInterfaceInvokeExpr)
+                                && declaringTypes.contains(
+                                    expr.getMethodSignature().getDeclClassType())))
+        .orElse(false);
+  }
+
+  private static boolean isInitializer(@Nonnull MethodSignature method) {
+    String name = method.getName();
+    return name.equals("<init>") || name.equals("<clinit>");
+  }
+
+  /** Returns whether a virtual or interface call can be dispatched to the method. */
+  private static boolean isDispatchTarget(@Nonnull SootMethod method) {
+    return !isInitializer(method.getSignature()) && !method.isStatic() && !method.isPrivate();
+  }
+
+  /**
+   * Returns whether a call of the method of an unchanged class can be dispatched to a method of
+   * another class. Methods that can not be found in the view are treated as overridable.
+   */
+  private boolean canBeOverridden(@Nonnull MethodSignature method) {
+    if (isInitializer(method)) {
+      return false;
+    }
+    return view.getClass(method.getDeclClassType())
+        .flatMap(clazz -> clazz.getMethod(method.getSubSignature()))
+        .map(AbstractCallGraphAlgorithm::isDispatchTarget)
+        .orElse(true);
+  }
+
+  /**
+   * Removes the methods that are not reachable from the entry methods, e.g. because the calls to
+   * them were removed by an update.
+   */
+  @Nonnull
+  private MutableCallGraph withoutUnreachableMethods(
+      @Nonnull MutableCallGraph cg, @Nonnull List<MethodSignature> entryMethods) {
+    Set<MethodSignature> reachable = new HashSet<>();
+    Deque<MethodSignature> workList = new ArrayDeque<>();
+    for (MethodSignature entryMethod : entryMethods) {
+      if (cg.containsMethod(entryMethod) && reachable.add(entryMethod)) {
+        workList.push(entryMethod);
+      }
+    }
+    while (!workList.isEmpty()) {
+      for (MethodSignature target : cg.callTargetsFrom(workList.pop())) {
+        if (reachable.add(target)) {
+          workList.push(target);
+        }
+      }
+    }
+    if (reachable.size() == cg.getMethodSignatures().size()) {
+      return cg;
+    }
+
+    MutableCallGraph reachableCg = initializeCallGraph(entryMethods, Collections.emptyList());
+    reachable.forEach(reachableCg::addMethod);
+    for (MethodSignature method : reachable) {
+      for (Call call : cg.callsFrom(method)) {
+        reachableCg.addCall(call);
+      }
+    }
+    return reachableCg;
+  }
+
   /**
    * The method iterates over all classes present in view, and finds method with name main and
    * SourceType - Application. This method is used by initialize() method used for creating call
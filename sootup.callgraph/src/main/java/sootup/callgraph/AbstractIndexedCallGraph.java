@@ -0,0 +1,269 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2019-2024 Christian Brüggemann, Markus Schmidt and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.signatures.SootClassMemberSignature;
+
+/**
+ * A call graph whose methods are numbered densely from {@code 0} to {@code methodCount() - 1}.
+ * Besides the {@link CallGraph} queries, it offers index based access to the callees and
+ * callers of a method which does not allocate any objects, e.g.
+ *
+ * <pre>{@code
+ * int method = cg.idOf(signature);
+ * for (int i = 0; i < cg.outDegree(method); i++) {
+ *   int callee = cg.calleeOf(method, i);
+ *   InvokableStmt callSite = cg.outgoingCallSiteOf(method, i);
+ * }
+ * }</pre>
+ *
+ * The ids of the methods are only valid for the call graph that assigned them.
+ */
+public abstract class AbstractIndexedCallGraph implements CallGraph {
+
+  /** the id returned by {@link #idOf(MethodSignature)} for methods not in the call graph */
+  public static final int NO_METHOD = -1;
+
+  /**
+   * @return the id of the method or {@link #NO_METHOD} if the method is not in the call graph
+   */
+  public abstract int idOf(@Nonnull MethodSignature method);
+
+  /** @return the signature of the method with the given id */
+  @Nonnull
+  public abstract MethodSignature methodOf(int method);
+
+  /** @return the number of methods in the call graph, all ids are smaller than this number */
+  public abstract int methodCount();
+
+  /** @return the number of calls from the given method */
+  public abstract int outDegree(int method);
+
+  /** @return the id of the target of the index-th call from the given method */
+  public abstract int calleeOf(int method, int index);
+
+  /** @return the stmt of the index-th call from the given method */
+  @Nonnull
+  public abstract InvokableStmt outgoingCallSiteOf(int method, int index);
+
+  /** @return the number of calls to the given method */
+  public abstract int inDegree(int method);
+
+  /** @return the id of the source of the index-th call to the given method */
+  public abstract int callerOf(int method, int index);
+
+  /** @return the stmt of the index-th call to the given method */
+  @Nonnull
+  public abstract InvokableStmt incomingCallSiteOf(int method, int index);
+
+  /**
+   * returns the id of the method and throws an exception if the method is not in the call graph
+   *
+   * @throws IllegalArgumentException if there is no id for the requested method signature
+   */
+  protected int idOrThrow(@Nonnull MethodSignature method) {
+    int id = idOf(method);
+    if (id == NO_METHOD) {
+      throw new IllegalArgumentException("Method signature " + method + " not found");
+    }
+    return id;
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callTargetsFrom(@Nonnull MethodSignature sourceMethod) {
+    int source = idOrThrow(sourceMethod);
+    int degree = outDegree(source);
+    Set<MethodSignature> targets = new HashSet<>(degree * 2);
+    for (int i = 0; i < degree; i++) {
+      targets.add(methodOf(calleeOf(source, i)));
+    }
+    return targets;
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callSourcesTo(@Nonnull MethodSignature targetMethod) {
+    int target = idOrThrow(targetMethod);
+    int degree = inDegree(target);
+    Set<MethodSignature> sources = new HashSet<>(degree * 2);
+    for (int i = 0; i < degree; i++) {
+      sources.add(methodOf(callerOf(target, i)));
+    }
+    return sources;
+  }
+
+  @Nonnull
+  @Override
+  public Set<Call> callsFrom(@Nonnull MethodSignature sourceMethod) {
+    int source = idOrThrow(sourceMethod);
+    int degree = outDegree(source);
+    Set<Call> calls = new LinkedHashSet<>(degree * 2);
+    for (int i = 0; i < degree; i++) {
+      calls.add(
+          new Call(sourceMethod, methodOf(calleeOf(source, i)), outgoingCallSiteOf(source, i)));
+    }
+    return calls;
+  }
+
+  @Nonnull
+  @Override
+  public Set<Call> callsTo(@Nonnull MethodSignature targetMethod) {
+    int target = idOrThrow(targetMethod);
+    int degree = inDegree(target);
+    Set<Call> calls = new LinkedHashSet<>(degree * 2);
+    for (int i = 0; i < degree; i++) {
+      calls.add(
+          new Call(methodOf(callerOf(target, i)), targetMethod, incomingCallSiteOf(target, i)));
+    }
+    return calls;
+  }
+
+  @Override
+  public boolean containsMethod(@Nonnull MethodSignature method) {
+    return idOf(method) != NO_METHOD;
+  }
+
+  @Override
+  public boolean containsCall(
+      @Nonnull MethodSignature sourceMethod,
+      @Nonnull MethodSignature targetMethod,
+      InvokableStmt invokableStmt) {
+    int source = idOf(sourceMethod);
+    int target = idOf(targetMethod);
+    if (source == NO_METHOD || target == NO_METHOD) {
+      return false;
+    }
+    return indexOfCall(source, target, invokableStmt) != -1;
+  }
+
+  @Override
+  public boolean containsCall(@Nonnull Call call) {
+    return containsCall(
+        call.getSourceMethodSignature(), call.getTargetMethodSignature(), call.getInvokableStmt());
+  }
+
+  /**
+   * @return the index of the call from source to target via the stmt in the calls of source or -1
+   *     if there is no such call
+   */
+  protected int indexOfCall(int source, int target, InvokableStmt invokableStmt) {
+    for (int i = 0, degree = outDegree(source); i < degree; i++) {
+      if (calleeOf(source, i) == target && outgoingCallSiteOf(source, i).equals(invokableStmt)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** @return all calls of the call graph ordered by the ids of their source methods */
+  @Nonnull
+  protected List<Call> calls() {
+    List<Call> calls = new ArrayList<>(callCount());
+    for (int source = 0; source < methodCount(); source++) {
+      MethodSignature sourceMethod = methodOf(source);
+      for (int i = 0, degree = outDegree(source); i < degree; i++) {
+        calls.add(
+            new Call(sourceMethod, methodOf(calleeOf(source, i)), outgoingCallSiteOf(source, i)));
+      }
+    }
+    return calls;
+  }
+
+  /**
+   * The calls are sorted in the same way as in {@link GraphBasedCallGraph#exportAsDot()}, so both
+   * implementations export the same dot file for the same call graph.
+   */
+  @Override
+  public String exportAsDot() {
+    StringBuilder dotFormatBuilder = new StringBuilder();
+    calls().stream()
+        .sorted(
+            Comparator.comparing(
+                    (Call call) ->
+                        call.getSourceMethodSignature().getDeclClassType().getFullyQualifiedName())
+                .thenComparing(call -> call.getSourceMethodSignature().getName())
+                .thenComparing(
+                    call -> call.getSourceMethodSignature().getParameterTypes().toString())
+                .thenComparing(
+                    call -> call.getTargetMethodSignature().getDeclClassType().getClassName())
+                .thenComparing(call -> call.getTargetMethodSignature().getName())
+                .thenComparing(
+                    call -> call.getTargetMethodSignature().getParameterTypes().toString()))
+        .forEach(
+            call ->
+                dotFormatBuilder
+                    .append("\t\"")
+                    .append(call.getSourceMethodSignature())
+                    .append("\" -> \"")
+                    .append(call.getTargetMethodSignature())
+                    .append("\";\n"));
+    return "strict digraph ObjectGraph {\n" + dotFormatBuilder + "}";
+  }
+
+  @Nonnull
+  @Override
+  public CallGraphDifference diff(@Nonnull CallGraph callGraph) {
+    return new CallGraphDifference(this, callGraph);
+  }
+
+  /**
+   * This method exports the call graph in a human-readable string in the same format as {@link
+   * GraphBasedCallGraph#toString()}.
+   *
+   * @return a string containing all nodes and edges of the call graph.
+   */
+  @Override
+  public String toString() {
+    StringBuilder stringBuilder =
+        new StringBuilder(this.getClass().getSimpleName() + "(" + callCount() + ")");
+    if (methodCount() == 0) {
+      return stringBuilder.append(" is empty").toString();
+    }
+    stringBuilder.append(":\n");
+    Comparator<MethodSignature> order =
+        Comparator.comparing((MethodSignature o) -> o.getDeclClassType().toString())
+            .thenComparing(SootClassMemberSignature::getName)
+            .thenComparing(o -> o.getParameterTypes().toString());
+    getMethodSignatures().stream()
+        .sorted(order)
+        .forEach(
+            method -> {
+              stringBuilder.append(method).append(":\n");
+              callsFrom(method).stream()
+                  .map(Call::getTargetMethodSignature)
+                  .sorted(order)
+                  .forEach(target -> stringBuilder.append("\tto ").append(target).append("\n"));
+              callsTo(method).stream()
+                  .map(Call::getSourceMethodSignature)
+                  .sorted(order)
+                  .forEach(source -> stringBuilder.append("\tfrom ").append(source).append("\n"));
+              stringBuilder.append("\n");
+            });
+    return stringBuilder.toString();
+  }
+}
@@ -0,0 +1,227 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2019-2024 Christian Brüggemann, Markus Schmidt and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.Type;
+import sootup.core.views.View;
+
+/**
+ * Writes a {@link CallGraph} in the binary format that is loaded by {@link MappedCallGraph}. The
+ * format consists of the following sections, all numbers are big endian ints:
+ *
+ * <ol>
+ *   <li>the header: magic number and version
+ *   <li>the string table: the number of strings, their offsets in the following byte blob and the
+ *       utf-8 encoded strings. Each class, method and type name is stored once.
+ *   <li>the method table: the number of methods, their offsets in the following data and per
+ *       method the string ids of the declaring class, the name, the return type, the number of
+ *       parameters and the string ids of the parameter types.
+ *   <li>the entry methods: their number and their signatures in the format of the method table
+ *   <li>the calls in compressed sparse rows: the number of calls, the offsets of the calls of each
+ *       method, the callees and the call sites of the outgoing calls, followed by the offsets, the
+ *       callers and the call sites of the incoming calls.
+ * </ol>
+ *
+ * A call site is stored as the index of the stmt in {@link sootup.core.model.Body#getStmts()} of
+ * the calling method, so the view used to load the call graph has to provide the same bodies as
+ * the view used to write it.
+ */
+public final class BinaryCallGraphWriter {
+
+  static final int MAGIC = 0x53554347; // "SUCG"
+  static final int VERSION = 1;
+
+  private BinaryCallGraphWriter() {}
+
+  /**
+   * Writes the call graph to the file.
+   *
+   * @param callGraph the call graph to write
+   * @param view the view the call graph was created with, it is used to number the call sites
+   * @param file the file that is created or overwritten
+   * @throws IllegalArgumentException if the stmt of a call is not contained in its source method
+   */
+  public static void write(@Nonnull CallGraph callGraph, @Nonnull View view, @Nonnull Path file)
+      throws IOException {
+    Map<String, Integer> stringToId = new LinkedHashMap<>();
+    Map<MethodSignature, Integer> methodToId = new LinkedHashMap<>();
+    for (MethodSignature method : callGraph.getMethodSignatures()) {
+      methodToId.put(method, methodToId.size());
+    }
+
+    List<Integer> methodData = new ArrayList<>();
+    int[] methodOffsets = new int[methodToId.size() + 1];
+    for (Map.Entry<MethodSignature, Integer> entry : methodToId.entrySet()) {
+      addMethodData(methodData, stringToId, entry.getKey());
+      methodOffsets[entry.getValue() + 1] = methodData.size();
+    }
+    // the entry methods are stored by their signature, as they are not necessarily in the graph
+    List<Integer> entryMethodData = new ArrayList<>();
+    for (MethodSignature entryMethod : callGraph.getEntryMethods()) {
+      addMethodData(entryMethodData, stringToId, entryMethod);
+    }
+
+    int methodCount = methodToId.size();
+    int callCount = callGraph.callCount();
+    int[] outOffsets = new int[methodCount + 1];
+    int[] callees = new int[callCount];
+    int[] outgoingCallSites = new int[callCount];
+    // the incoming calls are grouped by their target afterwards
+    int[] inDegrees = new int[methodCount];
+    int call = 0;
+    for (Map.Entry<MethodSignature, Integer> entry : methodToId.entrySet()) {
+      Set<CallGraph.Call> calls = callGraph.callsFrom(entry.getKey());
+      if (!calls.isEmpty()) {
+        List<Stmt> stmts = stmtsOf(view, entry.getKey());
+        Map<Stmt, Integer> stmtToIndex = new IdentityHashMap<>(stmts.size());
+        for (int i = 0; i < stmts.size(); i++) {
+          stmtToIndex.put(stmts.get(i), i);
+        }
+        for (CallGraph.Call outgoingCall : calls) {
+          int target = methodToId.get(outgoingCall.getTargetMethodSignature());
+          callees[call] = target;
+          outgoingCallSites[call] = indexOf(stmts, stmtToIndex, outgoingCall);
+          inDegrees[target]++;
+          call++;
+        }
+      }
+      outOffsets[entry.getValue() + 1] = call;
+    }
+
+    int[] inOffsets = new int[methodCount + 1];
+    for (int method = 0; method < methodCount; method++) {
+      inOffsets[method + 1] = inOffsets[method] + inDegrees[method];
+    }
+    int[] callers = new int[callCount];
+    int[] incomingCallSites = new int[callCount];
+    int[] inserted = Arrays.copyOf(inOffsets, methodCount);
+    for (int source = 0; source < methodCount; source++) {
+      for (int i = outOffsets[source]; i < outOffsets[source + 1]; i++) {
+        int position = inserted[callees[i]]++;
+        callers[position] = source;
+        incomingCallSites[position] = outgoingCallSites[i];
+      }
+    }
+
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+
+      ByteArrayOutputStream strings = new ByteArrayOutputStream();
+      out.writeInt(stringToId.size());
+      out.writeInt(0);
+      for (String string : stringToId.keySet()) {
+        strings.write(string.getBytes(StandardCharsets.UTF_8));
+        out.writeInt(strings.size());
+      }
+      strings.writeTo(out);
+
+      out.writeInt(methodCount);
+      writeInts(out, methodOffsets);
+      for (int value : methodData) {
+        out.writeInt(value);
+      }
+
+      out.writeInt(callGraph.getEntryMethods().size());
+      for (int value : entryMethodData) {
+        out.writeInt(value);
+      }
+
+      out.writeInt(callCount);
+      writeInts(out, outOffsets);
+      writeInts(out, callees);
+      writeInts(out, outgoingCallSites);
+      writeInts(out, inOffsets);
+      writeInts(out, callers);
+      writeInts(out, incomingCallSites);
+    }
+  }
+
+  private static void addMethodData(
+      List<Integer> methodData, Map<String, Integer> stringToId, MethodSignature method) {
+    methodData.add(intern(stringToId, method.getDeclClassType().getFullyQualifiedName()));
+    methodData.add(intern(stringToId, method.getName()));
+    methodData.add(intern(stringToId, method.getType().toString()));
+    methodData.add(method.getParameterTypes().size());
+    for (Type parameterType : method.getParameterTypes()) {
+      methodData.add(intern(stringToId, parameterType.toString()));
+    }
+  }
+
+  private static int intern(Map<String, Integer> stringToId, String string) {
+    return stringToId.computeIfAbsent(string, s -> stringToId.size());
+  }
+
+  private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+    for (int value : values) {
+      out.writeInt(value);
+    }
+  }
+
+  /** numbers the stmts of the method in the order of {@link sootup.core.model.Body#getStmts()} */
+  @Nonnull
+  private static List<Stmt> stmtsOf(@Nonnull View view, @Nonnull MethodSignature method) {
+    SootMethod sootMethod =
+        view.getMethod(method)
+            .orElseThrow(
+                () -> new IllegalArgumentException("Method " + method + " is not in the view."));
+    return sootMethod.getBody().getStmts();
+  }
+
+  /**
+   * returns the index of the stmt of the call. If the body has been recreated since the call graph
+   * was built (e.g. because its class was evicted from the cache of the view), the stmt is matched
+   * by its position and structure instead of its identity.
+   */
+  private static int indexOf(
+      List<Stmt> stmts, Map<Stmt, Integer> stmtToIndex, CallGraph.Call call) {
+    InvokableStmt invokableStmt = call.getInvokableStmt();
+    Integer index = stmtToIndex.get(invokableStmt);
+    if (index != null) {
+      return index;
+    }
+    for (int i = 0; i < stmts.size(); i++) {
+      Stmt stmt = stmts.get(i);
+      if (stmt.getPositionInfo().equals(invokableStmt.getPositionInfo())
+          && stmt.equivTo(invokableStmt)) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException(
+        "The stmt of " + call + " is not contained in the body of its source method.");
+  }
+}
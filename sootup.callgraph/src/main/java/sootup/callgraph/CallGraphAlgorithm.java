@@ -22,6 +22,7 @@ package sootup.callgraph;
  * #L%
  */
 
+import java.util.Collection;
 import java.util.List;
 import javax.annotation.Nonnull;
 import sootup.core.signatures.MethodSignature;
@@ -60,4 +61,24 @@ public interface CallGraphAlgorithm {
    */
   @Nonnull
   CallGraph addClass(@Nonnull CallGraph oldCallGraph, @Nonnull ClassType classType);
+
+  /**
+   * Updates the call graph after classes of the view were added, removed or modified. Where the
+   * algorithm allows it, only the methods whose calls might resolve differently are processed
+   * again and the other calls are taken from the old call graph. The view has to reflect the
+   * changes already.
+   *
+   * @param oldCallGraph the call graph that was built by this algorithm before the change, it is
+   *     not modified.
+   * @param addedClasses the classes that were added to the view
+   * @param removedClasses the classes that were removed from the view
+   * @param modifiedClasses the classes whose content changed
+   * @return the call graph of the changed view with the same entry methods
+   */
+  @Nonnull
+  CallGraph updateClasses(
+      @Nonnull CallGraph oldCallGraph,
+      @Nonnull Collection<ClassType> addedClasses,
+      @Nonnull Collection<ClassType> removedClasses,
+      @Nonnull Collection<ClassType> modifiedClasses);
 }
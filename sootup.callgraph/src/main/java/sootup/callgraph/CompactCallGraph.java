@@ -0,0 +1,261 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2019-2024 Christian Brüggemann, Markus Schmidt and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * A mutable call graph that numbers its methods densely and stores its calls in primitive arrays
+ * instead of an object per vertex and edge. Each call is numbered as well: its source, target and
+ * stmt are stored in parallel arrays and every method keeps the numbers of its outgoing and
+ * incoming calls in an array that grows on demand.
+ *
+ * <p>Once the call graph is complete, {@link #freeze()} creates an immutable {@link
+ * FrozenCallGraph} that stores the calls in compressed sparse rows which is more compact and
+ * faster to iterate.
+ */
+public class CompactCallGraph extends AbstractIndexedCallGraph implements MutableCallGraph {
+
+  private static final int INITIAL_CAPACITY = 16;
+  private static final int[] NO_CALLS = new int[0];
+
+  @Nonnull private final Map<MethodSignature, Integer> methodToId;
+  @Nonnull private final List<MethodSignature> methods;
+  @Nonnull private final List<MethodSignature> entryMethods;
+
+  /** source, target and stmt of each call, indexed by the number of the call */
+  @Nonnull private int[] callSources;
+
+  @Nonnull private int[] callTargets;
+  @Nonnull private InvokableStmt[] callSites;
+  private int callCount;
+
+  /** numbers of the outgoing and incoming calls of each method, indexed by the method id */
+  @Nonnull private int[][] outgoingCalls;
+
+  @Nonnull private int[] outDegrees;
+  @Nonnull private int[][] incomingCalls;
+  @Nonnull private int[] inDegrees;
+
+  /** The constructor of the compact call graph. it initializes the call graph object. */
+  public CompactCallGraph(@Nonnull List<MethodSignature> entryMethods) {
+    this.entryMethods = entryMethods;
+    this.methodToId = new HashMap<>();
+    this.methods = new ArrayList<>();
+    this.callSources = new int[INITIAL_CAPACITY];
+    this.callTargets = new int[INITIAL_CAPACITY];
+    this.callSites = new InvokableStmt[INITIAL_CAPACITY];
+    this.outgoingCalls = new int[INITIAL_CAPACITY][];
+    this.outDegrees = new int[INITIAL_CAPACITY];
+    this.incomingCalls = new int[INITIAL_CAPACITY][];
+    this.inDegrees = new int[INITIAL_CAPACITY];
+  }
+
+  @Override
+  public void addMethod(@Nonnull MethodSignature calledMethod) {
+    idOrAdd(calledMethod);
+  }
+
+  private int idOrAdd(@Nonnull MethodSignature method) {
+    Integer id = methodToId.get(method);
+    if (id != null) {
+      return id;
+    }
+    int newId = methods.size();
+    if (newId == outDegrees.length) {
+      int capacity = newId * 2;
+      outgoingCalls = Arrays.copyOf(outgoingCalls, capacity);
+      outDegrees = Arrays.copyOf(outDegrees, capacity);
+      incomingCalls = Arrays.copyOf(incomingCalls, capacity);
+      inDegrees = Arrays.copyOf(inDegrees, capacity);
+    }
+    outgoingCalls[newId] = NO_CALLS;
+    incomingCalls[newId] = NO_CALLS;
+    methods.add(method);
+    methodToId.put(method, newId);
+    return newId;
+  }
+
+  @Override
+  public void addCall(
+      @Nonnull MethodSignature sourceMethod,
+      @Nonnull MethodSignature targetMethod,
+      @Nonnull InvokableStmt invokableStmt) {
+    int source = idOrAdd(sourceMethod);
+    int target = idOrAdd(targetMethod);
+    if (indexOfCall(source, target, invokableStmt) != -1) {
+      return;
+    }
+    if (callCount == callSites.length) {
+      int capacity = callCount * 2;
+      callSources = Arrays.copyOf(callSources, capacity);
+      callTargets = Arrays.copyOf(callTargets, capacity);
+      callSites = Arrays.copyOf(callSites, capacity);
+    }
+    int call = callCount++;
+    callSources[call] = source;
+    callTargets[call] = target;
+    callSites[call] = invokableStmt;
+    outgoingCalls[source] = append(outgoingCalls[source], outDegrees[source]++, call);
+    incomingCalls[target] = append(incomingCalls[target], inDegrees[target]++, call);
+  }
+
+  @Override
+  public void addCall(@Nonnull Call call) {
+    addCall(
+        call.getSourceMethodSignature(), call.getTargetMethodSignature(), call.getInvokableStmt());
+  }
+
+  /** stores the value at the index and grows the array if it is full */
+  private static int[] append(int[] array, int index, int value) {
+    if (index == array.length) {
+      array = Arrays.copyOf(array, Math.max(4, index * 2));
+    }
+    array[index] = value;
+    return array;
+  }
+
+  @Override
+  public int idOf(@Nonnull MethodSignature method) {
+    Integer id = methodToId.get(method);
+    return id == null ? NO_METHOD : id;
+  }
+
+  @Nonnull
+  @Override
+  public MethodSignature methodOf(int method) {
+    return methods.get(method);
+  }
+
+  @Override
+  public int methodCount() {
+    return methods.size();
+  }
+
+  @Override
+  public int outDegree(int method) {
+    return outDegrees[method];
+  }
+
+  @Override
+  public int calleeOf(int method, int index) {
+    return callTargets[outgoingCalls[method][index]];
+  }
+
+  @Nonnull
+  @Override
+  public InvokableStmt outgoingCallSiteOf(int method, int index) {
+    return callSites[outgoingCalls[method][index]];
+  }
+
+  @Override
+  public int inDegree(int method) {
+    return inDegrees[method];
+  }
+
+  @Override
+  public int callerOf(int method, int index) {
+    return callSources[incomingCalls[method][index]];
+  }
+
+  @Nonnull
+  @Override
+  public InvokableStmt incomingCallSiteOf(int method, int index) {
+    return callSites[incomingCalls[method][index]];
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> getMethodSignatures() {
+    return Collections.unmodifiableSet(methodToId.keySet());
+  }
+
+  @Override
+  public int callCount() {
+    return callCount;
+  }
+
+  @Nonnull
+  @Override
+  public MutableCallGraph copy() {
+    CompactCallGraph copy = new CompactCallGraph(new ArrayList<>(entryMethods));
+    methods.forEach(copy::addMethod);
+    for (int call = 0; call < callCount; call++) {
+      copy.addCall(methods.get(callSources[call]), methods.get(callTargets[call]), callSites[call]);
+    }
+    return copy;
+  }
+
+  @Override
+  @Nonnull
+  public List<MethodSignature> getEntryMethods() {
+    return entryMethods;
+  }
+
+  /**
+   * Creates an immutable snapshot of this call graph. The methods keep their ids and the calls of a
+   * method keep their order, so indices obtained from this call graph are valid for the snapshot.
+   * Changes of this call graph afterwards are not reflected in the snapshot.
+   *
+   * @return the frozen call graph
+   */
+  @Nonnull
+  public FrozenCallGraph freeze() {
+    int methodCount = methods.size();
+    int[] outOffsets = new int[methodCount + 1];
+    int[] inOffsets = new int[methodCount + 1];
+    for (int method = 0; method < methodCount; method++) {
+      outOffsets[method + 1] = outOffsets[method] + outDegrees[method];
+      inOffsets[method + 1] = inOffsets[method] + inDegrees[method];
+    }
+    int[] callees = new int[callCount];
+    InvokableStmt[] outgoingCallSites = new InvokableStmt[callCount];
+    int[] callers = new int[callCount];
+    InvokableStmt[] incomingCallSites = new InvokableStmt[callCount];
+    for (int method = 0; method < methodCount; method++) {
+      for (int i = 0; i < outDegrees[method]; i++) {
+        int call = outgoingCalls[method][i];
+        callees[outOffsets[method] + i] = callTargets[call];
+        outgoingCallSites[outOffsets[method] + i] = callSites[call];
+      }
+      for (int i = 0; i < inDegrees[method]; i++) {
+        int call = incomingCalls[method][i];
+        callers[inOffsets[method] + i] = callSources[call];
+        incomingCallSites[inOffsets[method] + i] = callSites[call];
+      }
+    }
+    return new FrozenCallGraph(
+        methods.toArray(new MethodSignature[0]),
+        new HashMap<>(methodToId),
+        new ArrayList<>(entryMethods),
+        outOffsets,
+        callees,
+        outgoingCallSites,
+        inOffsets,
+        callers,
+        incomingCallSites);
+  }
+}
@@ -0,0 +1,151 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2019-2024 Christian Brüggemann, Markus Schmidt and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * An immutable call graph that stores its calls in compressed sparse rows: the calls from method
+ * {@code m} are the entries {@code outOffsets[m]} (inclusive) to {@code outOffsets[m + 1]}
+ * (exclusive) of the callee and call site arrays. The calls to a method are stored in the same
+ * way. It is created via {@link CompactCallGraph#freeze()}.
+ */
+public class FrozenCallGraph extends AbstractIndexedCallGraph {
+
+  @Nonnull private final MethodSignature[] methods;
+  @Nonnull private final Map<MethodSignature, Integer> methodToId;
+  @Nonnull private final List<MethodSignature> entryMethods;
+
+  @Nonnull private final int[] outOffsets;
+  @Nonnull private final int[] callees;
+  @Nonnull private final InvokableStmt[] outgoingCallSites;
+
+  @Nonnull private final int[] inOffsets;
+  @Nonnull private final int[] callers;
+  @Nonnull private final InvokableStmt[] incomingCallSites;
+
+  FrozenCallGraph(
+      @Nonnull MethodSignature[] methods,
+      @Nonnull Map<MethodSignature, Integer> methodToId,
+      @Nonnull List<MethodSignature> entryMethods,
+      @Nonnull int[] outOffsets,
+      @Nonnull int[] callees,
+      @Nonnull InvokableStmt[] outgoingCallSites,
+      @Nonnull int[] inOffsets,
+      @Nonnull int[] callers,
+      @Nonnull InvokableStmt[] incomingCallSites) {
+    this.methods = methods;
+    this.methodToId = methodToId;
+    this.entryMethods = Collections.unmodifiableList(entryMethods);
+    this.outOffsets = outOffsets;
+    this.callees = callees;
+    this.outgoingCallSites = outgoingCallSites;
+    this.inOffsets = inOffsets;
+    this.callers = callers;
+    this.incomingCallSites = incomingCallSites;
+  }
+
+  @Override
+  public int idOf(@Nonnull MethodSignature method) {
+    Integer id = methodToId.get(method);
+    return id == null ? NO_METHOD : id;
+  }
+
+  @Nonnull
+  @Override
+  public MethodSignature methodOf(int method) {
+    return methods[method];
+  }
+
+  @Override
+  public int methodCount() {
+    return methods.length;
+  }
+
+  @Override
+  public int outDegree(int method) {
+    return outOffsets[method + 1] - outOffsets[method];
+  }
+
+  @Override
+  public int calleeOf(int method, int index) {
+    return callees[outOffsets[method] + index];
+  }
+
+  @Nonnull
+  @Override
+  public InvokableStmt outgoingCallSiteOf(int method, int index) {
+    return outgoingCallSites[outOffsets[method] + index];
+  }
+
+  @Override
+  public int inDegree(int method) {
+    return inOffsets[method + 1] - inOffsets[method];
+  }
+
+  @Override
+  public int callerOf(int method, int index) {
+    return callers[inOffsets[method] + index];
+  }
+
+  @Nonnull
+  @Override
+  public InvokableStmt incomingCallSiteOf(int method, int index) {
+    return incomingCallSites[inOffsets[method] + index];
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> getMethodSignatures() {
+    return Collections.unmodifiableSet(methodToId.keySet());
+  }
+
+  @Override
+  public int callCount() {
+    return callees.length;
+  }
+
+  @Nonnull
+  @Override
+  public MutableCallGraph copy() {
+    CompactCallGraph copy = new CompactCallGraph(new ArrayList<>(entryMethods));
+    for (MethodSignature method : methods) {
+      copy.addMethod(method);
+    }
+    for (int source = 0; source < methods.length; source++) {
+      for (int call = outOffsets[source]; call < outOffsets[source + 1]; call++) {
+        copy.addCall(methods[source], methods[callees[call]], outgoingCallSites[call]);
+      }
+    }
+    return copy;
+  }
+
+  @Override
+  @Nonnull
+  public List<MethodSignature> getEntryMethods() {
+    return entryMethods;
+  }
+}
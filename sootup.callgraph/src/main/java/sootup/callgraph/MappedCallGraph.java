@@ -0,0 +1,304 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2019-2024 Christian Brüggemann, Markus Schmidt and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.views.View;
+
+/**
+ * A read-only call graph that is backed by a memory-mapped file written by {@link
+ * BinaryCallGraphWriter}. The calls are read directly from the mapped file, so several processes
+ * that load the same file share its pages. Method signatures are created when they are requested
+ * first and the call sites are resolved via the bodies of the calling methods in the given view.
+ */
+public class MappedCallGraph extends AbstractIndexedCallGraph {
+
+  private static final int INT_SIZE = Integer.BYTES;
+
+  @Nonnull private final ByteBuffer buffer;
+  @Nonnull private final View view;
+
+  private final int methodCount;
+  private final int callCount;
+
+  /** positions of the sections in the buffer */
+  private final int stringOffsetsPosition;
+
+  private final int stringsPosition;
+  private final int methodOffsetsPosition;
+  private final int methodDataPosition;
+  private final int outOffsetsPosition;
+  private final int calleesPosition;
+  private final int outgoingCallSitesPosition;
+  private final int inOffsetsPosition;
+  private final int callersPosition;
+  private final int incomingCallSitesPosition;
+
+  @Nonnull private final List<MethodSignature> entryMethods;
+
+  @Nonnull private final AtomicReferenceArray<String> strings;
+  @Nonnull private final AtomicReferenceArray<MethodSignature> methods;
+  @Nonnull private final AtomicReferenceArray<List<Stmt>> stmts;
+  private volatile Map<MethodSignature, Integer> methodToId;
+
+  private MappedCallGraph(@Nonnull ByteBuffer buffer, @Nonnull View view) throws IOException {
+    this.buffer = buffer;
+    this.view = view;
+
+    if (buffer.limit() < 2 * INT_SIZE || buffer.getInt(0) != BinaryCallGraphWriter.MAGIC) {
+      throw new IOException("The file does not contain a call graph.");
+    }
+    if (buffer.getInt(INT_SIZE) != BinaryCallGraphWriter.VERSION) {
+      throw new IOException(
+          "The version " + buffer.getInt(INT_SIZE) + " of the call graph file is not supported.");
+    }
+    int position = 2 * INT_SIZE;
+
+    int stringCount = buffer.getInt(position);
+    stringOffsetsPosition = position + INT_SIZE;
+    stringsPosition = stringOffsetsPosition + (stringCount + 1) * INT_SIZE;
+    position = stringsPosition + buffer.getInt(stringOffsetsPosition + stringCount * INT_SIZE);
+
+    methodCount = buffer.getInt(position);
+    methodOffsetsPosition = position + INT_SIZE;
+    methodDataPosition = methodOffsetsPosition + (methodCount + 1) * INT_SIZE;
+    int methodDataLength = buffer.getInt(methodOffsetsPosition + methodCount * INT_SIZE);
+    position = methodDataPosition + methodDataLength * INT_SIZE;
+
+    strings = new AtomicReferenceArray<>(stringCount);
+    methods = new AtomicReferenceArray<>(methodCount);
+    stmts = new AtomicReferenceArray<>(methodCount);
+
+    int entryMethodCount = buffer.getInt(position);
+    position += INT_SIZE;
+    List<MethodSignature> entryMethods = new ArrayList<>(entryMethodCount);
+    for (int i = 0; i < entryMethodCount; i++) {
+      entryMethods.add(readMethodSignature(position));
+      position += (4 + buffer.getInt(position + 3 * INT_SIZE)) * INT_SIZE;
+    }
+    this.entryMethods = Collections.unmodifiableList(entryMethods);
+
+    callCount = buffer.getInt(position);
+    outOffsetsPosition = position + INT_SIZE;
+    calleesPosition = outOffsetsPosition + (methodCount + 1) * INT_SIZE;
+    outgoingCallSitesPosition = calleesPosition + callCount * INT_SIZE;
+    inOffsetsPosition = outgoingCallSitesPosition + callCount * INT_SIZE;
+    callersPosition = inOffsetsPosition + (methodCount + 1) * INT_SIZE;
+    incomingCallSitesPosition = callersPosition + callCount * INT_SIZE;
+    if (incomingCallSitesPosition + callCount * INT_SIZE != buffer.limit()) {
+      throw new IOException("The call graph file is truncated or corrupted.");
+    }
+  }
+
+  /**
+   * Maps the file into memory and creates a call graph that is backed by it.
+   *
+   * @param file a file written by {@link BinaryCallGraphWriter#write(CallGraph, View, Path)}
+   * @param view a view that provides the same bodies as the view used to write the file
+   * @return the loaded call graph
+   * @throws IOException if the file can not be read or does not contain a call graph
+   */
+  @Nonnull
+  public static MappedCallGraph load(@Nonnull Path file, @Nonnull View view) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Call graph files larger than 2 GB are not supported.");
+      }
+      // the mapping stays valid after the channel is closed
+      return new MappedCallGraph(
+          channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), view);
+    }
+  }
+
+  private int intAt(int position, int index) {
+    return buffer.getInt(position + index * INT_SIZE);
+  }
+
+  @Nonnull
+  private String stringOf(int id) {
+    String string = strings.get(id);
+    if (string == null) {
+      int start = intAt(stringOffsetsPosition, id);
+      byte[] bytes = new byte[intAt(stringOffsetsPosition, id + 1) - start];
+      ByteBuffer source = buffer.duplicate();
+      source.position(stringsPosition + start);
+      source.get(bytes);
+      string = new String(bytes, StandardCharsets.UTF_8);
+      strings.set(id, string);
+    }
+    return string;
+  }
+
+  @Nonnull
+  private MethodSignature readMethodSignature(int position) {
+    int parameterCount = intAt(position, 3);
+    List<String> parameters = new ArrayList<>(parameterCount);
+    for (int i = 0; i < parameterCount; i++) {
+      parameters.add(stringOf(intAt(position, 4 + i)));
+    }
+    return view.getIdentifierFactory()
+        .getMethodSignature(
+            stringOf(intAt(position, 0)),
+            stringOf(intAt(position, 1)),
+            stringOf(intAt(position, 2)),
+            parameters);
+  }
+
+  @Nonnull
+  private List<Stmt> stmtsOf(int method) {
+    List<Stmt> methodStmts = stmts.get(method);
+    if (methodStmts == null) {
+      MethodSignature signature = methodOf(method);
+      methodStmts =
+          view.getMethod(signature)
+              .orElseThrow(
+                  () -> new IllegalStateException("Method " + signature + " is not in the view."))
+              .getBody()
+              .getStmts();
+      // keep the first list, so the call sites of a method are always the same objects
+      if (!stmts.compareAndSet(method, null, methodStmts)) {
+        methodStmts = stmts.get(method);
+      }
+    }
+    return methodStmts;
+  }
+
+  @Override
+  public int idOf(@Nonnull MethodSignature method) {
+    Integer id = methodToId().get(method);
+    return id == null ? NO_METHOD : id;
+  }
+
+  @Nonnull
+  private Map<MethodSignature, Integer> methodToId() {
+    Map<MethodSignature, Integer> map = methodToId;
+    if (map == null) {
+      synchronized (this) {
+        map = methodToId;
+        if (map == null) {
+          map = new HashMap<>(methodCount * 2);
+          for (int method = 0; method < methodCount; method++) {
+            map.put(methodOf(method), method);
+          }
+          methodToId = map;
+        }
+      }
+    }
+    return map;
+  }
+
+  @Nonnull
+  @Override
+  public MethodSignature methodOf(int method) {
+    MethodSignature signature = methods.get(method);
+    if (signature == null) {
+      int position = methodDataPosition + intAt(methodOffsetsPosition, method) * INT_SIZE;
+      signature = readMethodSignature(position);
+      methods.set(method, signature);
+    }
+    return signature;
+  }
+
+  @Override
+  public int methodCount() {
+    return methodCount;
+  }
+
+  @Override
+  public int outDegree(int method) {
+    return intAt(outOffsetsPosition, method + 1) - intAt(outOffsetsPosition, method);
+  }
+
+  @Override
+  public int calleeOf(int method, int index) {
+    return intAt(calleesPosition, intAt(outOffsetsPosition, method) + index);
+  }
+
+  @Nonnull
+  @Override
+  public InvokableStmt outgoingCallSiteOf(int method, int index) {
+    int stmtIndex = intAt(outgoingCallSitesPosition, intAt(outOffsetsPosition, method) + index);
+    return (InvokableStmt) stmtsOf(method).get(stmtIndex);
+  }
+
+  @Override
+  public int inDegree(int method) {
+    return intAt(inOffsetsPosition, method + 1) - intAt(inOffsetsPosition, method);
+  }
+
+  @Override
+  public int callerOf(int method, int index) {
+    return intAt(callersPosition, intAt(inOffsetsPosition, method) + index);
+  }
+
+  @Nonnull
+  @Override
+  public InvokableStmt incomingCallSiteOf(int method, int index) {
+    int stmtIndex = intAt(incomingCallSitesPosition, intAt(inOffsetsPosition, method) + index);
+    return (InvokableStmt) stmtsOf(callerOf(method, index)).get(stmtIndex);
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> getMethodSignatures() {
+    return Collections.unmodifiableSet(methodToId().keySet());
+  }
+
+  @Override
+  public int callCount() {
+    return callCount;
+  }
+
+  @Nonnull
+  @Override
+  public MutableCallGraph copy() {
+    CompactCallGraph copy = new CompactCallGraph(new ArrayList<>(entryMethods));
+    for (int method = 0; method < methodCount; method++) {
+      copy.addMethod(methodOf(method));
+    }
+    for (int source = 0; source < methodCount; source++) {
+      for (int i = 0, degree = outDegree(source); i < degree; i++) {
+        copy.addCall(
+            methodOf(source), methodOf(calleeOf(source, i)), outgoingCallSiteOf(source, i));
+      }
+    }
+    return copy;
+  }
+
+  @Override
+  @Nonnull
+  public List<MethodSignature> getEntryMethods() {
+    return entryMethods;
+  }
+}
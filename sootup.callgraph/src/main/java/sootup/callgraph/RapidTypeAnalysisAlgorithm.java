@@ -45,6 +45,9 @@ import sootup.core.views.View;
  *
  * <p>Compared to the CHA algorithm, this algorithm is more precise because it only considers
  * instantiated subclasses as call targets and CHA considers all subclasses.
+ *
+ * <p>The instantiated classes and the ignored calls are guarded by this object, so that the work
+ * list can be processed in parallel (see {@link #setParallelism(int)}).
  */
 public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
 
@@ -82,6 +85,39 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
     return cg;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>RTA builds the call graph again from the entry methods of the old call graph, as a change of
+   * the instantiated classes can change the targets of calls in methods that did not change.
+   */
+  @Nonnull
+  @Override
+  public CallGraph updateClasses(
+      @Nonnull CallGraph oldCallGraph,
+      @Nonnull Collection<ClassType> addedClasses,
+      @Nonnull Collection<ClassType> removedClasses,
+      @Nonnull Collection<ClassType> modifiedClasses) {
+    if (addedClasses.isEmpty() && removedClasses.isEmpty() && modifiedClasses.isEmpty()) {
+      return oldCallGraph;
+    }
+    Set<ClassType> removed = new HashSet<>(removedClasses);
+    // the entry methods of the old call graph contain its static initializers already
+    List<MethodSignature> entryMethods =
+        oldCallGraph.getEntryMethods().stream()
+            .filter(method -> !removed.contains(method.getDeclClassType()))
+            .collect(Collectors.toList());
+
+    instantiatedClasses = new HashSet<>();
+    ignoredCalls = new HashMap<>();
+
+    CallGraph cg = constructCompleteCallGraph(view, entryMethods, Collections.emptyList());
+
+    instantiatedClasses = Collections.emptySet();
+    ignoredCalls = Collections.emptyMap();
+    return cg;
+  }
+
   /**
    * This method is called to collect all instantiation of classes in a given method body. This is
    * important since the RTA algorithm resolves virtual calls only to instantiated classes
@@ -100,12 +136,14 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
             .filter(value -> value instanceof JNewExpr)
             .map(value -> ((JNewExpr) value).getType())
             .collect(Collectors.toSet());
-    List<ClassType> newInstantiatedClassTypes =
-        instantiated.stream()
-            .filter(classType -> !instantiatedClasses.contains(classType))
-            .collect(Collectors.toList());
-    instantiatedClasses.addAll(instantiated);
-    return newInstantiatedClassTypes;
+    synchronized (this) {
+      List<ClassType> newInstantiatedClassTypes =
+          instantiated.stream()
+              .filter(classType -> !instantiatedClasses.contains(classType))
+              .collect(Collectors.toList());
+      instantiatedClasses.addAll(instantiated);
+      return newInstantiatedClassTypes;
+    }
   }
 
   /**
@@ -140,13 +178,13 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
       return result;
     } else {
       // the class of the actual method call is instantiated
-      if (instantiatedClasses.contains(resolveBaseMethodSignature.getDeclClassType())) {
+      if (isInstantiatedOrSaveIgnoredCall(
+          sourceMethod.getSignature(), resolveBaseMethodSignature, invokableStmt)) {
         return Stream.concat(
             Stream.of(concreteBaseMethod.getSignature()),
             resolveAllCallTargets(
                 sourceMethod.getSignature(), resolveBaseMethodSignature, invokableStmt));
       } else {
-        saveIgnoredCall(sourceMethod.getSignature(), resolveBaseMethodSignature, invokableStmt);
         return resolveAllCallTargets(
             sourceMethod.getSignature(), resolveBaseMethodSignature, invokableStmt);
       }
@@ -176,10 +214,9 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
               MethodSignature method =
                   view.getIdentifierFactory()
                       .getMethodSignature(classType, resolveBaseMethodSignature.getSubSignature());
-              if (instantiatedClasses.contains(classType)) {
+              if (isInstantiatedOrSaveIgnoredCall(source, method, invokableStmt)) {
                 return resolveConcreteDispatch(view, method);
               } else {
-                saveIgnoredCall(source, method, invokableStmt);
                 return Optional.<MethodSignature>empty();
               }
             })
@@ -187,6 +224,22 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
         .map(Optional::get);
   }
 
+  /**
+   * Checks whether the declaring class of the target is instantiated. If it is not, the call is
+   * saved as ignored call. Both happen atomically, so that a call can not be ignored after the
+   * ignored calls of its class have been included.
+   *
+   * @return true if the declaring class of the target is instantiated
+   */
+  private synchronized boolean isInstantiatedOrSaveIgnoredCall(
+      MethodSignature source, MethodSignature target, InvokableStmt invokableStmt) {
+    if (instantiatedClasses.contains(target.getDeclClassType())) {
+      return true;
+    }
+    saveIgnoredCall(source, target, invokableStmt);
+    return false;
+  }
+
   /**
    * This method saves an ignored call If this is the first ignored call of the class type in the
    * target method, an entry for the class type is created in the ignoredCalls Hashmap
@@ -248,7 +301,11 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
    */
   protected void includeIgnoredCallsToClass(
       ClassType classType, MutableCallGraph cg, Deque<MethodSignature> workList) {
-    List<Call> newEdges = ignoredCalls.get(classType);
+    List<Call> newEdges;
+    synchronized (this) {
+      // can be removed because the instantiated class will be considered in future resolves
+      newEdges = ignoredCalls.remove(classType);
+    }
     if (newEdges != null) {
       newEdges.forEach(
           call -> {
@@ -264,8 +321,6 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
                 cg,
                 workList);
           });
-      // can be removed because the instantiated class will be considered in future resolves
-      ignoredCalls.remove(classType);
     }
   }
 
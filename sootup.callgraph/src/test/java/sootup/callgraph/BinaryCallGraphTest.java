@@ -0,0 +1,106 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/** Checks that a call graph is the same after it is written and loaded again. */
+@Tag("Java8")
+public class BinaryCallGraphTest {
+
+  private static final String jar =
+      "../shared-test-resources/jigsaw-examples/layer-hierarchy/jar/javax.json-1.0.4.jar";
+
+  private Path file;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    file = Files.createTempFile("sootup-callgraph", ".bin");
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Test
+  public void testWriteAndLoad() throws IOException {
+    JavaView view = createView();
+    CallGraph callGraph = new RapidTypeAnalysisAlgorithm(view).initialize(entryPointsOf(view));
+
+    BinaryCallGraphWriter.write(callGraph, view, file);
+    MappedCallGraph mappedCallGraph = MappedCallGraph.load(file, view);
+
+    CompactCallGraphTest.assertSameCallGraph(callGraph, mappedCallGraph);
+    CompactCallGraphTest.assertSameCallGraph(callGraph, mappedCallGraph.copy());
+  }
+
+  @Test
+  public void testLoadWithOtherView() throws IOException {
+    JavaView view = createView();
+    CallGraph callGraph = new ClassHierarchyAnalysisAlgorithm(view).initialize(entryPointsOf(view));
+    BinaryCallGraphWriter.write(callGraph, view, file);
+
+    // the stmts of another view are different objects, so compare the positions of the calls
+    MappedCallGraph mappedCallGraph = MappedCallGraph.load(file, createView());
+    assertEquals(callGraph.getMethodSignatures(), mappedCallGraph.getMethodSignatures());
+    assertEquals(callGraph.getEntryMethods(), mappedCallGraph.getEntryMethods());
+    assertEquals(callGraph.callCount(), mappedCallGraph.callCount());
+    for (MethodSignature method : callGraph.getMethodSignatures()) {
+      assertEquals(
+          callsAsStrings(callGraph.callsFrom(method)),
+          callsAsStrings(mappedCallGraph.callsFrom(method)));
+      assertEquals(
+          callsAsStrings(callGraph.callsTo(method)),
+          callsAsStrings(mappedCallGraph.callsTo(method)));
+    }
+  }
+
+  @Test
+  public void testLoadInvalidFile() throws IOException {
+    Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+    assertThrows(IOException.class, () -> MappedCallGraph.load(file, createView()));
+  }
+
+  private static Set<String> callsAsStrings(Set<CallGraph.Call> calls) {
+    return calls.stream()
+        .map(
+            call ->
+                call.getSourceMethodSignature()
+                    + " -> "
+                    + call.getTargetMethodSignature()
+                    + " @ "
+                    + call.getInvokableStmt().getPositionInfo())
+        .collect(Collectors.toSet());
+  }
+
+  private static JavaView createView() {
+    return new JavaView(new JavaClassPathAnalysisInputLocation(jar, SourceType.Application));
+  }
+
+  private static List<MethodSignature> entryPointsOf(JavaView view) {
+    return view.getClasses()
+        .filter(SootClass::isApplicationClass)
+        .flatMap(clazz -> clazz.getMethods().stream())
+        .filter(SootMethod::isConcrete)
+        .map(SootMethod::getSignature)
+        .sorted(Comparator.comparing(MethodSignature::toString))
+        .collect(Collectors.toList());
+  }
+}
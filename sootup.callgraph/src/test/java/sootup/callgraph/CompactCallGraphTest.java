@@ -0,0 +1,137 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/** Checks that the compact and the frozen call graph answer queries like the graph based one. */
+@Tag("Java8")
+public class CompactCallGraphTest {
+
+  private static CallGraph graphBasedCallGraph;
+  private static CompactCallGraph compactCallGraph;
+
+  @BeforeAll
+  public static void setUp() {
+    AnalysisInputLocation inputLocation =
+        new JavaClassPathAnalysisInputLocation(
+            "../shared-test-resources/jigsaw-examples/layer-hierarchy/jar/javax.json-1.0.4.jar",
+            SourceType.Application);
+    JavaView view = new JavaView(inputLocation);
+    List<MethodSignature> entryPoints =
+        view.getClasses()
+            .filter(SootClass::isApplicationClass)
+            .flatMap(clazz -> clazz.getMethods().stream())
+            .filter(SootMethod::isConcrete)
+            .map(SootMethod::getSignature)
+            .sorted(Comparator.comparing(MethodSignature::toString))
+            .collect(Collectors.toList());
+    graphBasedCallGraph = new ClassHierarchyAnalysisAlgorithm(view).initialize(entryPoints);
+
+    compactCallGraph =
+        (CompactCallGraph)
+            new ClassHierarchyAnalysisAlgorithm(view) {
+              @Override
+              protected MutableCallGraph initializeCallGraph(
+                  List<MethodSignature> entryPoints, List<MethodSignature> clinits) {
+                List<MethodSignature> rootSignatures = new ArrayList<>(entryPoints);
+                rootSignatures.addAll(clinits);
+                return new CompactCallGraph(rootSignatures);
+              }
+            }.initialize(entryPoints);
+  }
+
+  @Test
+  public void testCompactCallGraph() {
+    assertSameCallGraph(graphBasedCallGraph, compactCallGraph);
+  }
+
+  @Test
+  public void testFrozenCallGraph() {
+    FrozenCallGraph frozenCallGraph = compactCallGraph.freeze();
+    assertSameCallGraph(graphBasedCallGraph, frozenCallGraph);
+
+    // the ids and the order of the calls are kept
+    for (int method = 0; method < compactCallGraph.methodCount(); method++) {
+      assertEquals(compactCallGraph.methodOf(method), frozenCallGraph.methodOf(method));
+      assertEquals(compactCallGraph.outDegree(method), frozenCallGraph.outDegree(method));
+      for (int i = 0; i < compactCallGraph.outDegree(method); i++) {
+        assertEquals(compactCallGraph.calleeOf(method, i), frozenCallGraph.calleeOf(method, i));
+        assertSame(
+            compactCallGraph.outgoingCallSiteOf(method, i),
+            frozenCallGraph.outgoingCallSiteOf(method, i));
+      }
+      assertEquals(compactCallGraph.inDegree(method), frozenCallGraph.inDegree(method));
+      for (int i = 0; i < compactCallGraph.inDegree(method); i++) {
+        assertEquals(compactCallGraph.callerOf(method, i), frozenCallGraph.callerOf(method, i));
+      }
+    }
+
+    assertSameCallGraph(graphBasedCallGraph, frozenCallGraph.copy());
+  }
+
+  @Test
+  public void testCopyIsIndependent() {
+    CompactCallGraph copy = (CompactCallGraph) compactCallGraph.copy();
+    assertSameCallGraph(graphBasedCallGraph, copy);
+
+    CallGraph.Call call = graphBasedCallGraph.callsFrom(copy.methodOf(0)).iterator().next();
+    copy.addCall(call);
+    assertEquals(compactCallGraph.callCount(), copy.callCount());
+
+    MethodSignature target = copy.methodOf(copy.methodCount() - 1);
+    copy.addCall(call.getSourceMethodSignature(), target, call.getInvokableStmt());
+    assertEquals(compactCallGraph.callCount() + 1, copy.callCount());
+    assertTrue(copy.containsCall(call.getSourceMethodSignature(), target, call.getInvokableStmt()));
+    assertFalse(
+        compactCallGraph.containsCall(
+            call.getSourceMethodSignature(), target, call.getInvokableStmt()));
+  }
+
+  @Test
+  public void testUnknownMethod() {
+    MethodSignature entryMethod = graphBasedCallGraph.getEntryMethods().get(0);
+    MethodSignature unknown =
+        new MethodSignature(
+            entryMethod.getDeclClassType(),
+            "unknownMethod",
+            entryMethod.getParameterTypes(),
+            entryMethod.getType());
+    assertEquals(AbstractIndexedCallGraph.NO_METHOD, compactCallGraph.idOf(unknown));
+    assertFalse(compactCallGraph.containsMethod(unknown));
+    assertThrows(IllegalArgumentException.class, () -> compactCallGraph.callsFrom(unknown));
+  }
+
+  static void assertSameCallGraph(CallGraph expected, CallGraph actual) {
+    assertEquals(expected.getMethodSignatures(), actual.getMethodSignatures());
+    assertEquals(expected.getEntryMethods(), actual.getEntryMethods());
+    assertEquals(expected.callCount(), actual.callCount());
+    for (MethodSignature method : expected.getMethodSignatures()) {
+      assertEquals(expected.callsFrom(method), actual.callsFrom(method));
+      assertEquals(expected.callsTo(method), actual.callsTo(method));
+      assertEquals(expected.callTargetsFrom(method), actual.callTargetsFrom(method));
+      assertEquals(expected.callSourcesTo(method), actual.callSourcesTo(method));
+      for (CallGraph.Call call : expected.callsFrom(method)) {
+        assertTrue(actual.containsCall(call));
+      }
+    }
+    // methods that only differ in their return type are not ordered, so compare the lines
+    assertEquals(
+        Arrays.stream(expected.exportAsDot().split("\n")).sorted().collect(Collectors.toList()),
+        Arrays.stream(actual.exportAsDot().split("\n")).sorted().collect(Collectors.toList()));
+  }
+}
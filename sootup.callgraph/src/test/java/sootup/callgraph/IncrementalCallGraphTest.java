@@ -0,0 +1,184 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Checks that updating a call graph after classes changed results in the call graph that is built
+ * from scratch. The classes in "v2" differ from the ones in "v1": Square is removed, Triangle is
+ * added and Factory, Circle and Helper are modified. Main, Registry, Shape and Util are unchanged.
+ *
+ * <p>In "FirstImplementor/v2" the interface Listener gets its first implementor CountingListener,
+ * which the modified Setup creates. The unchanged Events calls Listener.onEvent, a call without any
+ * target in "FirstImplementor/v1".
+ */
+@Tag("Java8")
+public class IncrementalCallGraphTest {
+
+  private static final String baseDir = "../shared-test-resources/IncrementalCallGraph/";
+
+  @Test
+  public void testUpdateClasses() {
+    JavaView oldView = createView("v1");
+    MethodSignature mainMethod = mainMethodOf(oldView);
+    CallGraph oldCallGraph =
+        new ClassHierarchyAnalysisAlgorithm(oldView)
+            .initialize(Collections.singletonList(mainMethod));
+
+    JavaView newView = createView("v2");
+    CallGraph expectedCallGraph =
+        new ClassHierarchyAnalysisAlgorithm(newView)
+            .initialize(Collections.singletonList(mainMethod));
+    CallGraph updatedCallGraph =
+        update(new ClassHierarchyAnalysisAlgorithm(newView), newView, oldCallGraph);
+
+    assertSameCallGraph(expectedCallGraph, updatedCallGraph);
+
+    // the calls of unaffected methods are taken from the old call graph
+    MethodSignature logMethod =
+        newView
+            .getIdentifierFactory()
+            .getMethodSignature(
+                "Util", "log", "void", Collections.singletonList("java.lang.String"));
+    assertEquals(oldCallGraph.callsFrom(logMethod), updatedCallGraph.callsFrom(logMethod));
+    // a constructor call is not affected by the constructors of the changed classes
+    MethodSignature createMethod =
+        newView
+            .getIdentifierFactory()
+            .getMethodSignature("Registry", "create", "java.lang.Object", Collections.emptyList());
+    assertEquals(oldCallGraph.callsFrom(createMethod), updatedCallGraph.callsFrom(createMethod));
+    assertTrue(
+        updatedCallGraph.containsMethod(
+            newView
+                .getIdentifierFactory()
+                .getMethodSignature("Triangle", "area", "double", Collections.emptyList())));
+    assertFalse(
+        updatedCallGraph.getMethodSignatures().stream()
+            .anyMatch(method -> method.getDeclClassType().getClassName().equals("Square")));
+  }
+
+  @Test
+  public void testUpdateClassesWithRta() {
+    JavaView oldView = createView("v1");
+    MethodSignature mainMethod = mainMethodOf(oldView);
+    CallGraph oldCallGraph =
+        new RapidTypeAnalysisAlgorithm(oldView).initialize(Collections.singletonList(mainMethod));
+
+    JavaView newView = createView("v2");
+    CallGraph expectedCallGraph =
+        new RapidTypeAnalysisAlgorithm(newView).initialize(Collections.singletonList(mainMethod));
+    CallGraph updatedCallGraph =
+        update(new RapidTypeAnalysisAlgorithm(newView), newView, oldCallGraph);
+
+    assertSameCallGraph(expectedCallGraph, updatedCallGraph);
+    assertTrue(
+        updatedCallGraph.containsMethod(
+            newView
+                .getIdentifierFactory()
+                .getMethodSignature("Triangle", "area", "double", Collections.emptyList())));
+  }
+
+  @Test
+  public void testUpdateClassesWithFirstImplementor() {
+    JavaView oldView = createView("FirstImplementor/v1");
+    MethodSignature mainMethod = mainMethodOf(oldView);
+    CallGraph oldCallGraph =
+        new ClassHierarchyAnalysisAlgorithm(oldView)
+            .initialize(Collections.singletonList(mainMethod));
+
+    JavaView newView = createView("FirstImplementor/v2");
+    CallGraph expectedCallGraph =
+        new ClassHierarchyAnalysisAlgorithm(newView)
+            .initialize(Collections.singletonList(mainMethod));
+    CallGraph updatedCallGraph =
+        new ClassHierarchyAnalysisAlgorithm(newView)
+            .updateClasses(
+                oldCallGraph,
+                Collections.singleton(classType(newView, "CountingListener")),
+                Collections.emptySet(),
+                Collections.singleton(classType(newView, "Setup")));
+
+    assertSameCallGraph(expectedCallGraph, updatedCallGraph);
+    assertTrue(
+        updatedCallGraph.containsMethod(
+            newView
+                .getIdentifierFactory()
+                .getMethodSignature(
+                    "CountingListener",
+                    "onEvent",
+                    "void",
+                    Collections.singletonList("java.lang.String"))));
+  }
+
+  @Test
+  public void testUpdateWithoutChanges() {
+    JavaView view = createView("v1");
+    AbstractCallGraphAlgorithm algorithm = new ClassHierarchyAnalysisAlgorithm(view);
+    CallGraph callGraph = algorithm.initialize(Collections.singletonList(mainMethodOf(view)));
+
+    assertSame(
+        callGraph,
+        algorithm.updateClasses(
+            callGraph, Collections.emptySet(), Collections.emptySet(), Collections.emptySet()));
+  }
+
+  /** applies the changes from "v1" to "v2" */
+  private static CallGraph update(
+      CallGraphAlgorithm algorithm, JavaView view, CallGraph oldCallGraph) {
+    return algorithm.updateClasses(
+        oldCallGraph,
+        Collections.singleton(classType(view, "Triangle")),
+        Collections.singleton(classType(view, "Square")),
+        Arrays.asList(
+            classType(view, "Factory"), classType(view, "Circle"), classType(view, "Helper")));
+  }
+
+  private static void assertSameCallGraph(CallGraph expected, CallGraph actual) {
+    assertEquals(expected.getMethodSignatures(), actual.getMethodSignatures());
+    assertEquals(expected.getEntryMethods(), actual.getEntryMethods());
+    assertEquals(expected.callCount(), actual.callCount());
+    for (MethodSignature method : expected.getMethodSignatures()) {
+      assertEquals(
+          callsAsStrings(expected.callsFrom(method)), callsAsStrings(actual.callsFrom(method)));
+    }
+  }
+
+  /** the stmts of two views are different objects, so compare the positions of the calls */
+  private static Set<String> callsAsStrings(Set<CallGraph.Call> calls) {
+    return calls.stream()
+        .map(
+            call ->
+                call.getSourceMethodSignature()
+                    + " -> "
+                    + call.getTargetMethodSignature()
+                    + " @ "
+                    + call.getInvokableStmt().getPositionInfo())
+        .collect(Collectors.toSet());
+  }
+
+  private static JavaView createView(String version) {
+    return new JavaView(
+        new JavaClassPathAnalysisInputLocation(baseDir + version, SourceType.Application));
+  }
+
+  private static ClassType classType(JavaView view, String className) {
+    return view.getIdentifierFactory().getClassType(className);
+  }
+
+  private static MethodSignature mainMethodOf(JavaView view) {
+    return view.getIdentifierFactory()
+        .getMethodSignature(
+            "Main", "main", "void", Collections.singletonList("java.lang.String[]"));
+  }
+}
@@ -0,0 +1,99 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.ConcurrentJavaView;
+import sootup.java.core.views.JavaView;
+
+/** Checks that processing the work list in parallel results in the sequential call graph. */
+@Tag("Java8")
+public class ParallelCallGraphAlgorithmTest {
+
+  private static final String jar =
+      "../shared-test-resources/jigsaw-examples/layer-hierarchy/jar/javax.json-1.0.4.jar";
+
+  @Test
+  public void testCHA() {
+    assertSameCallGraph(ClassHierarchyAnalysisAlgorithm::new);
+  }
+
+  @Test
+  public void testRTA() {
+    assertSameCallGraph(RapidTypeAnalysisAlgorithm::new);
+  }
+
+  private void assertSameCallGraph(
+      Function<JavaView, AbstractCallGraphAlgorithm> algorithmFactory) {
+    JavaView view = createView();
+    List<MethodSignature> entryPoints = entryPointsOf(view);
+    CallGraph sequentialCallGraph = algorithmFactory.apply(view).initialize(entryPoints);
+
+    for (int run = 0; run < 3; run++) {
+      JavaView otherView = createView();
+      AbstractCallGraphAlgorithm algorithm = algorithmFactory.apply(otherView);
+      algorithm.setParallelism(4);
+      CallGraph parallelCallGraph = algorithm.initialize(entryPoints);
+
+      assertEquals(
+          sequentialCallGraph.getMethodSignatures(), parallelCallGraph.getMethodSignatures());
+      assertEquals(sequentialCallGraph.callCount(), parallelCallGraph.callCount());
+      for (MethodSignature method : sequentialCallGraph.getMethodSignatures()) {
+        assertEquals(
+            callsAsStrings(sequentialCallGraph.callsFrom(method)),
+            callsAsStrings(parallelCallGraph.callsFrom(method)));
+      }
+    }
+  }
+
+  @Test
+  public void testInvalidParallelism() {
+    AbstractCallGraphAlgorithm algorithm = new ClassHierarchyAnalysisAlgorithm(createView());
+    assertThrows(IllegalArgumentException.class, () -> algorithm.setParallelism(0));
+  }
+
+  /**
+   * the statements of the two views are different objects and the names of their locals are not
+   * stable, so compare the position of the call instead
+   */
+  private static Set<String> callsAsStrings(Set<CallGraph.Call> calls) {
+    return calls.stream()
+        .map(
+            call ->
+                call.getSourceMethodSignature()
+                    + " -> "
+                    + call.getTargetMethodSignature()
+                    + " @ "
+                    + call.getInvokableStmt().getPositionInfo())
+        .collect(Collectors.toSet());
+  }
+
+  /** the runtime is left out, as only the equality of the call graphs is of interest */
+  private static JavaView createView() {
+    AnalysisInputLocation inputLocation =
+        new JavaClassPathAnalysisInputLocation(jar, SourceType.Application);
+    return new ConcurrentJavaView(inputLocation);
+  }
+
+  private static List<MethodSignature> entryPointsOf(JavaView view) {
+    return view.getClasses()
+        .filter(SootClass::isApplicationClass)
+        .flatMap(clazz -> clazz.getMethods().stream())
+        .filter(SootMethod::isConcrete)
+        .map(SootMethod::getSignature)
+        .sorted(Comparator.comparing(MethodSignature::toString))
+        .collect(Collectors.toList());
+  }
+}
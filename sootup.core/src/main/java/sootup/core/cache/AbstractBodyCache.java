@@ -0,0 +1,160 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Keeps track of the hit/miss/re-resolution statistics of a {@link BodyCache}. Subclasses just
+ * implement the lookup, the storage and the removal of the Bodies.
+ *
+ * <p>A Body is resolved by one thread at a time: concurrent requests for a Body that is being
+ * resolved wait for that resolution and count as hits. Requests for different Bodies do not block
+ * each other.
+ */
+public abstract class AbstractBodyCache implements BodyCache {
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong reResolutions = new AtomicLong();
+
+  /** signatures of the Bodies that were resolved and not invalidated since */
+  private final Set<MethodSignature> resolved = ConcurrentHashMap.newKeySet();
+
+  /** the Bodies that are being resolved right now */
+  private final ConcurrentHashMap<MethodSignature, CompletableFuture<Body>> inFlight =
+      new ConcurrentHashMap<>();
+
+  @Nonnull
+  @Override
+  public Body getBody(@Nonnull MethodSignature methodSignature, @Nonnull Supplier<Body> resolver) {
+    Body body = lookup(methodSignature);
+    if (body != null) {
+      hits.incrementAndGet();
+      return body;
+    }
+
+    final CompletableFuture<Body> resolution = new CompletableFuture<>();
+    final CompletableFuture<Body> running = inFlight.putIfAbsent(methodSignature, resolution);
+    if (running != null) {
+      hits.incrementAndGet();
+      return await(running);
+    }
+    try {
+      // another thread may have stored the Body after the first lookup
+      body = lookup(methodSignature);
+      if (body != null) {
+        hits.incrementAndGet();
+      } else {
+        misses.incrementAndGet();
+        if (!resolved.add(methodSignature)) {
+          reResolutions.incrementAndGet();
+        }
+        body = resolver.get();
+        store(methodSignature, body);
+      }
+      resolution.complete(body);
+      return body;
+    } catch (RuntimeException | Error e) {
+      resolution.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(methodSignature, resolution);
+    }
+  }
+
+  @Nonnull
+  private static Body await(@Nonnull CompletableFuture<Body> resolution) {
+    try {
+      return resolution.join();
+    } catch (CompletionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public void invalidate(@Nonnull MethodSignature methodSignature) {
+    // an invalidated Body is not dropped by the cache, so its next resolution is no re-resolution
+    resolved.remove(methodSignature);
+    remove(methodSignature);
+  }
+
+  @Override
+  public void clear() {
+    resolved.clear();
+    removeAll();
+  }
+
+  /** @return the cached Body or null if it is not (anymore) in the cache. */
+  @Nullable
+  protected abstract Body lookup(@Nonnull MethodSignature methodSignature);
+
+  protected abstract void store(@Nonnull MethodSignature methodSignature, @Nonnull Body body);
+
+  protected abstract void remove(@Nonnull MethodSignature methodSignature);
+
+  protected abstract void removeAll();
+
+  @Override
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  @Override
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  @Override
+  public long getReResolutionCount() {
+    return reResolutions.get();
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName()
+        + "{hits="
+        + getHitCount()
+        + ", misses="
+        + getMissCount()
+        + ", reResolutions="
+        + getReResolutionCount()
+        + '}';
+  }
+}
@@ -0,0 +1,96 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.model.SootClass;
+import sootup.core.types.ClassType;
+
+/**
+ * Implements {@link #getOrCompute(ClassType, Function)} for thread-safe caches: classes that are
+ * resolved concurrently by multiple threads are built exactly once. Subclasses just implement the
+ * (thread-safe) lookup and the storage of the classes.
+ */
+public abstract class AbstractConcurrentClassCache implements ConcurrentClassCache {
+
+  /** classes that are currently built by some thread */
+  private final ConcurrentHashMap<ClassType, CompletableFuture<SootClass>> inProgress =
+      new ConcurrentHashMap<>();
+
+  /** @return the cached class of the given type or null if there is none */
+  @Nullable
+  protected abstract SootClass lookup(@Nonnull ClassType classType);
+
+  /**
+   * stores the given class unless there is already a class of the given type in the cache.
+   *
+   * @return the class that is in the cache after the call
+   */
+  @Nonnull
+  protected abstract SootClass store(@Nonnull ClassType classType, @Nonnull SootClass sootClass);
+
+  @Nonnull
+  @Override
+  public SootClass getOrCompute(
+      @Nonnull ClassType classType,
+      @Nonnull Function<ClassType, ? extends SootClass> classBuilder) {
+    SootClass cachedClass = lookup(classType);
+    if (cachedClass != null) {
+      return cachedClass;
+    }
+
+    CompletableFuture<SootClass> ownFuture = new CompletableFuture<>();
+    CompletableFuture<SootClass> runningFuture = inProgress.putIfAbsent(classType, ownFuture);
+    if (runningFuture != null) {
+      // another thread is already building this class
+      try {
+        return runningFuture.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw e;
+      }
+    }
+
+    try {
+      // the class may have been stored after our first lookup but before we registered ourselves
+      SootClass sootClass = lookup(classType);
+      if (sootClass == null) {
+        sootClass = store(classType, classBuilder.apply(classType));
+      }
+      ownFuture.complete(sootClass);
+      return sootClass;
+    } catch (RuntimeException | Error e) {
+      ownFuture.completeExceptionally(e);
+      throw e;
+    } finally {
+      inProgress.remove(classType, ownFuture);
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import sootup.core.frontend.CachingBodySource;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Retention policy for the {@link Body}s of {@link SootMethod}s. By default a {@link SootMethod}
+ * keeps its Body forever once it is resolved. If its BodySource is a {@link CachingBodySource}, the
+ * Body is retained by a BodyCache instead, which may drop Bodies e.g. under memory pressure. A
+ * dropped Body is resolved again from the underlying BodySource when it is requested the next
+ * time.
+ *
+ * <p>Note: a re-resolved Body is a new instance, i.e. its Stmts and Locals are not identical to the
+ * Stmts and Locals of a previously returned Body of the same method.
+ */
+public interface BodyCache {
+
+  /**
+   * Returns the cached Body of the given method or resolves it via the given resolver.
+   *
+   * @param methodSignature the signature of the method whose Body is requested
+   * @param resolver resolves the Body from its BodySource
+   */
+  @Nonnull
+  Body getBody(@Nonnull MethodSignature methodSignature, @Nonnull Supplier<Body> resolver);
+
+  /** Drops the Body of the given method - if it is cached. */
+  void invalidate(@Nonnull MethodSignature methodSignature);
+
+  /** Drops all cached Bodies. */
+  void clear();
+
+  /** @return the number of requested Bodies that were served from the cache. */
+  long getHitCount();
+
+  /** @return the number of requested Bodies that had to be resolved. */
+  long getMissCount();
+
+  /**
+   * @return the number of misses for Bodies that were resolved before and dropped by the cache in
+   *     the meantime. Invalidated Bodies are not counted.
+   */
+  long getReResolutionCount();
+}
@@ -0,0 +1,45 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import sootup.core.model.SootClass;
+import sootup.core.types.ClassType;
+
+/**
+ * Interface for caches that can be accessed by multiple threads at once without external
+ * synchronization.
+ */
+public interface ConcurrentClassCache extends ClassCache {
+
+  /**
+   * Returns the cached class of the given type. If it is not cached yet, the class is built with
+   * the given builder and stored. Concurrent calls for the same type invoke the builder at most
+   * once; all other callers wait for and receive the class built by the first caller.
+   */
+  @Nonnull
+  SootClass getOrCompute(
+      @Nonnull ClassType classType,
+      @Nonnull Function<ClassType, ? extends SootClass> classBuilder);
+}
@@ -0,0 +1,79 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.model.SootClass;
+import sootup.core.types.ClassType;
+
+/**
+ * Thread-safe cache that stores any class that has been resolved. Lookups of cached classes do not
+ * block. Classes that are resolved concurrently by multiple threads are built exactly once.
+ */
+public class ConcurrentFullCache extends AbstractConcurrentClassCache {
+
+  protected final ConcurrentHashMap<ClassType, SootClass> cache = new ConcurrentHashMap<>();
+
+  @Override
+  public SootClass getClass(ClassType classType) {
+    return cache.get(classType);
+  }
+
+  @Nonnull
+  @Override
+  public Collection<SootClass> getClasses() {
+    return Collections.unmodifiableCollection(cache.values());
+  }
+
+  @Override
+  public void putClass(ClassType classType, SootClass sootClass) {
+    cache.putIfAbsent(classType, sootClass);
+  }
+
+  @Override
+  public boolean hasClass(ClassType classType) {
+    return cache.containsKey(classType);
+  }
+
+  @Override
+  public int size() {
+    return cache.size();
+  }
+
+  @Nullable
+  @Override
+  protected SootClass lookup(@Nonnull ClassType classType) {
+    return cache.get(classType);
+  }
+
+  @Nonnull
+  @Override
+  protected SootClass store(@Nonnull ClassType classType, @Nonnull SootClass sootClass) {
+    SootClass previous = cache.putIfAbsent(classType, sootClass);
+    return previous == null ? sootClass : previous;
+  }
+}
@@ -0,0 +1,284 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.model.SootClass;
+import sootup.core.types.ClassType;
+
+/**
+ * Thread-safe cache that implements a least recently used strategy bounded by the estimated size
+ * of the stored classes. If the estimated size exceeds the given budget, the least recently used
+ * classes are dropped.
+ *
+ * <p>The cache is split into segments that are locked independently, so threads that access
+ * different classes rarely block each other. Every segment gets an equal share of the budget and
+ * evicts on its own i.e. the estimated size of the whole cache never exceeds the budget - except
+ * for a segment that holds a single class which is bigger than its share.
+ *
+ * <p>The size of a class is estimated once when it is stored (see {@link #estimateSize(SootClass)})
+ * - it is meant to bound the retained heap, not to measure it exactly.
+ */
+public class ConcurrentLRUCache extends AbstractConcurrentClassCache {
+
+  public static final int DEFAULT_SEGMENT_COUNT = 16;
+
+  /** rough average retained size of a class including its signatures, modifiers and sources */
+  private static final long BYTES_PER_CLASS = 1024;
+
+  private static final long BYTES_PER_METHOD = 320;
+  private static final long BYTES_PER_FIELD = 96;
+
+  private final long budget;
+  @Nonnull private final Segment[] segments;
+  @Nonnull private final ToLongFunction<SootClass> sizeEstimator;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  private final AtomicLong evictedSize = new AtomicLong();
+
+  /** @param budget the maximum estimated size of the cached classes in bytes */
+  public ConcurrentLRUCache(long budget) {
+    this(budget, DEFAULT_SEGMENT_COUNT, ConcurrentLRUCache::estimateSize);
+  }
+
+  /**
+   * @param budget the maximum estimated size of the cached classes in bytes
+   * @param segmentCount the number of independently locked segments
+   * @param sizeEstimator estimates the retained size of a class in bytes
+   */
+  public ConcurrentLRUCache(
+      long budget, int segmentCount, @Nonnull ToLongFunction<SootClass> sizeEstimator) {
+    if (budget <= 0) {
+      throw new IllegalArgumentException("The budget must be positive.");
+    }
+    if (segmentCount < 1) {
+      throw new IllegalArgumentException("There has to be at least one segment.");
+    }
+    this.budget = budget;
+    this.sizeEstimator = sizeEstimator;
+    segments = new Segment[segmentCount];
+    final long segmentBudget = Math.max(1, budget / segmentCount);
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment(segmentBudget);
+    }
+  }
+
+  /**
+   * @return the estimated retained size of the given class in bytes. This resolves the methods and
+   *     fields of the class but not the Bodies of its methods.
+   */
+  public static long estimateSize(@Nonnull SootClass sootClass) {
+    return BYTES_PER_CLASS
+        + BYTES_PER_METHOD * sootClass.getMethods().size()
+        + BYTES_PER_FIELD * sootClass.getFields().size();
+  }
+
+  @Nonnull
+  private Segment segmentFor(@Nonnull ClassType classType) {
+    // spread the hash bits like HashMap does, as ClassType hashes differ mostly in the low bits
+    final int hash = classType.hashCode();
+    return segments[Math.floorMod(hash ^ (hash >>> 16), segments.length)];
+  }
+
+  @Override
+  public SootClass getClass(ClassType classType) {
+    final SootClass sootClass = lookup(classType);
+    if (sootClass == null) {
+      misses.incrementAndGet();
+    } else {
+      hits.incrementAndGet();
+    }
+    return sootClass;
+  }
+
+  @Nonnull
+  @Override
+  public Collection<SootClass> getClasses() {
+    final List<SootClass> classes = new ArrayList<>();
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        segment.entries.values().forEach(entry -> classes.add(entry.sootClass));
+      }
+    }
+    return classes;
+  }
+
+  @Override
+  public void putClass(ClassType classType, SootClass sootClass) {
+    store(classType, sootClass);
+  }
+
+  @Override
+  public boolean hasClass(ClassType classType) {
+    final Segment segment = segmentFor(classType);
+    synchronized (segment) {
+      return segment.entries.containsKey(classType);
+    }
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.entries.size();
+      }
+    }
+    return size;
+  }
+
+  @Nullable
+  @Override
+  protected SootClass lookup(@Nonnull ClassType classType) {
+    final Segment segment = segmentFor(classType);
+    synchronized (segment) {
+      final Entry entry = segment.entries.get(classType);
+      return entry == null ? null : entry.sootClass;
+    }
+  }
+
+  @Nonnull
+  @Override
+  protected SootClass store(@Nonnull ClassType classType, @Nonnull SootClass sootClass) {
+    // estimate outside of the lock as it may resolve the methods and fields of the class
+    final Entry entry = new Entry(sootClass, sizeEstimator.applyAsLong(sootClass));
+    final Segment segment = segmentFor(classType);
+    synchronized (segment) {
+      final Entry previous = segment.entries.putIfAbsent(classType, entry);
+      if (previous != null) {
+        return previous.sootClass;
+      }
+      segment.size += entry.size;
+
+      // drop least recently used classes - the one that was just stored is the most recently used
+      // entry and is kept even if it exceeds the budget of the segment on its own
+      final Iterator<Map.Entry<ClassType, Entry>> it = segment.entries.entrySet().iterator();
+      while (segment.size > segment.budget && segment.entries.size() > 1) {
+        final Entry eldest = it.next().getValue();
+        segment.size -= eldest.size;
+        it.remove();
+        evictions.incrementAndGet();
+        evictedSize.addAndGet(eldest.size);
+      }
+      return sootClass;
+    }
+  }
+
+  /** removes all classes from the cache; the statistics are kept. */
+  public void clear() {
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        segment.entries.clear();
+        segment.size = 0;
+      }
+    }
+  }
+
+  /** @return the estimated size of the cached classes in bytes */
+  public long getEstimatedSize() {
+    long size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.size;
+      }
+    }
+    return size;
+  }
+
+  public long getBudget() {
+    return budget;
+  }
+
+  public int getSegmentCount() {
+    return segments.length;
+  }
+
+  /** @return the number of {@link #getClass(ClassType)} calls that found a cached class */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /** @return the number of {@link #getClass(ClassType)} calls that found no cached class */
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /** @return the number of classes that were dropped to stay within the budget */
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  /** @return the estimated size in bytes of the classes that were dropped */
+  public long getEvictedSize() {
+    return evictedSize.get();
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName()
+        + "{size="
+        + size()
+        + ", estimatedSize="
+        + getEstimatedSize()
+        + ", budget="
+        + budget
+        + ", hits="
+        + getHitCount()
+        + ", misses="
+        + getMissCount()
+        + ", evictions="
+        + getEvictionCount()
+        + "}";
+  }
+
+  private static class Segment {
+    final long budget;
+    final LinkedHashMap<ClassType, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    long size = 0;
+
+    Segment(long budget) {
+      this.budget = budget;
+    }
+  }
+
+  private static class Entry {
+    @Nonnull final SootClass sootClass;
+    final long size;
+
+    Entry(@Nonnull SootClass sootClass, long size) {
+      this.sootClass = sootClass;
+      this.size = size;
+    }
+  }
+}
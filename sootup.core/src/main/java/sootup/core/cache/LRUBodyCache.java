@@ -0,0 +1,137 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * {@link BodyCache} that implements a least recently used strategy. If the estimated size of the
+ * stored Bodies exceeds the given budget, the least recently used Bodies are dropped.
+ *
+ * <p>The size of a Body is a rough estimate based on its number of Stmts and Locals (see {@link
+ * #estimateSize(Body)}) - it is meant to bound the retained heap, not to measure it exactly.
+ */
+public class LRUBodyCache extends AbstractBodyCache {
+
+  /** rough average retained size of a Stmt including its Values, positions and graph entry */
+  private static final long BYTES_PER_STMT = 160;
+
+  private static final long BYTES_PER_LOCAL = 48;
+  private static final long BYTES_PER_BODY = 256;
+
+  private final long budget;
+  private long size = 0;
+  private long evictions = 0;
+
+  private final LinkedHashMap<MethodSignature, Entry> cache = new LinkedHashMap<>(64, 0.75f, true);
+
+  /** @param budget the maximum estimated size of the retained Bodies in bytes */
+  public LRUBodyCache(long budget) {
+    if (budget <= 0) {
+      throw new IllegalArgumentException("The budget must be positive.");
+    }
+    this.budget = budget;
+  }
+
+  /** @return the estimated retained size of the given Body in bytes */
+  public static long estimateSize(@Nonnull Body body) {
+    return BYTES_PER_BODY
+        + BYTES_PER_STMT * body.getStmtGraph().getNodes().size()
+        + BYTES_PER_LOCAL * body.getLocalCount();
+  }
+
+  @Nullable
+  @Override
+  protected synchronized Body lookup(@Nonnull MethodSignature methodSignature) {
+    final Entry entry = cache.get(methodSignature);
+    return entry == null ? null : entry.body;
+  }
+
+  @Override
+  protected synchronized void store(@Nonnull MethodSignature methodSignature, @Nonnull Body body) {
+    final Entry entry = new Entry(body, estimateSize(body));
+    final Entry previous = cache.put(methodSignature, entry);
+    if (previous != null) {
+      size -= previous.size;
+    }
+    size += entry.size;
+
+    // drop least recently used Bodies - the one that was just stored is the most recently used
+    // entry and is kept even if it exceeds the budget on its own
+    final Iterator<Map.Entry<MethodSignature, Entry>> it = cache.entrySet().iterator();
+    while (size > budget && cache.size() > 1) {
+      final Entry eldest = it.next().getValue();
+      size -= eldest.size;
+      it.remove();
+      evictions++;
+    }
+  }
+
+  @Override
+  protected synchronized void remove(@Nonnull MethodSignature methodSignature) {
+    final Entry entry = cache.remove(methodSignature);
+    if (entry != null) {
+      size -= entry.size;
+    }
+  }
+
+  @Override
+  protected synchronized void removeAll() {
+    cache.clear();
+    size = 0;
+  }
+
+  /** @return the estimated size of the retained Bodies in bytes */
+  public synchronized long getEstimatedSize() {
+    return size;
+  }
+
+  public long getBudget() {
+    return budget;
+  }
+
+  /** @return the number of Bodies that were dropped to stay within the budget */
+  public synchronized long getEvictionCount() {
+    return evictions;
+  }
+
+  public synchronized int size() {
+    return cache.size();
+  }
+
+  private static class Entry {
+    @Nonnull final Body body;
+    final long size;
+
+    Entry(@Nonnull Body body, long size) {
+      this.body = body;
+      this.size = size;
+    }
+  }
+}
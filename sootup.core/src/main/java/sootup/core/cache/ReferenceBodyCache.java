@@ -0,0 +1,136 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * {@link BodyCache} which leaves the eviction of Bodies to the garbage collector: Bodies are either
+ * referenced softly (i.e. kept until the heap runs short) or weakly (i.e. kept as long as they are
+ * referenced elsewhere).
+ */
+public class ReferenceBodyCache extends AbstractBodyCache {
+
+  private final boolean soft;
+  private final ConcurrentHashMap<MethodSignature, Reference<Body>> cache =
+      new ConcurrentHashMap<>();
+  private final ReferenceQueue<Body> collected = new ReferenceQueue<>();
+
+  private ReferenceBodyCache(boolean soft) {
+    this.soft = soft;
+  }
+
+  /** Bodies are dropped when the JVM runs short of memory. */
+  @Nonnull
+  public static ReferenceBodyCache soft() {
+    return new ReferenceBodyCache(true);
+  }
+
+  /** Bodies are dropped as soon as they are not referenced outside of this cache anymore. */
+  @Nonnull
+  public static ReferenceBodyCache weak() {
+    return new ReferenceBodyCache(false);
+  }
+
+  @Nullable
+  @Override
+  protected Body lookup(@Nonnull MethodSignature methodSignature) {
+    expungeCollected();
+    final Reference<Body> reference = cache.get(methodSignature);
+    return reference == null ? null : reference.get();
+  }
+
+  @Override
+  protected void store(@Nonnull MethodSignature methodSignature, @Nonnull Body body) {
+    cache.put(
+        methodSignature,
+        soft
+            ? new SoftBodyReference(methodSignature, body, collected)
+            : new WeakBodyReference(methodSignature, body, collected));
+  }
+
+  @Override
+  protected void remove(@Nonnull MethodSignature methodSignature) {
+    cache.remove(methodSignature);
+  }
+
+  @Override
+  protected void removeAll() {
+    cache.clear();
+  }
+
+  /** @return the number of entries whose Body was not collected yet. */
+  public int size() {
+    expungeCollected();
+    return cache.size();
+  }
+
+  /** removes the entries whose Body was collected */
+  private void expungeCollected() {
+    Reference<? extends Body> reference;
+    while ((reference = collected.poll()) != null) {
+      // only remove the entry if it was not replaced in the meantime
+      cache.remove(((BodyReference) reference).getMethodSignature(), reference);
+    }
+  }
+
+  private interface BodyReference {
+    MethodSignature getMethodSignature();
+  }
+
+  private static class SoftBodyReference extends SoftReference<Body> implements BodyReference {
+    private final MethodSignature methodSignature;
+
+    SoftBodyReference(MethodSignature methodSignature, Body body, ReferenceQueue<Body> queue) {
+      super(body, queue);
+      this.methodSignature = methodSignature;
+    }
+
+    @Override
+    public MethodSignature getMethodSignature() {
+      return methodSignature;
+    }
+  }
+
+  private static class WeakBodyReference extends WeakReference<Body> implements BodyReference {
+    private final MethodSignature methodSignature;
+
+    WeakBodyReference(MethodSignature methodSignature, Body body, ReferenceQueue<Body> queue) {
+      super(body, queue);
+      this.methodSignature = methodSignature;
+    }
+
+    @Override
+    public MethodSignature getMethodSignature() {
+      return methodSignature;
+    }
+  }
+}
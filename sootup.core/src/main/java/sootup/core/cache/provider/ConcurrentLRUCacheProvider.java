@@ -0,0 +1,66 @@
+package sootup.core.cache.provider;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.function.ToLongFunction;
+import javax.annotation.Nonnull;
+import sootup.core.cache.ClassCache;
+import sootup.core.cache.ConcurrentLRUCache;
+import sootup.core.model.SootClass;
+
+/** Provides a new {@link ConcurrentLRUCache} object. */
+public class ConcurrentLRUCacheProvider implements ClassCacheProvider {
+  private final long budget;
+  private final int segmentCount;
+  @Nonnull private final ToLongFunction<SootClass> sizeEstimator;
+
+  /**
+   * Create a new ConcurrentLRUCacheProvider that returns a {@link ConcurrentLRUCache} with the
+   * specified budget in (estimated) bytes.
+   */
+  public ConcurrentLRUCacheProvider(long budget) {
+    this(budget, ConcurrentLRUCache.DEFAULT_SEGMENT_COUNT, ConcurrentLRUCache::estimateSize);
+  }
+
+  /**
+   * Create a new ConcurrentLRUCacheProvider that returns a {@link ConcurrentLRUCache} with the
+   * specified budget in (estimated) bytes, number of segments and size estimation.
+   */
+  public ConcurrentLRUCacheProvider(
+      long budget, int segmentCount, @Nonnull ToLongFunction<SootClass> sizeEstimator) {
+    if (budget <= 0) {
+      throw new IllegalArgumentException("The budget must be positive.");
+    }
+    if (segmentCount < 1) {
+      throw new IllegalArgumentException("There has to be at least one segment.");
+    }
+    this.budget = budget;
+    this.segmentCount = segmentCount;
+    this.sizeEstimator = sizeEstimator;
+  }
+
+  @Override
+  public ClassCache createCache() {
+    return new ConcurrentLRUCache(budget, segmentCount, sizeEstimator);
+  }
+}
@@ -0,0 +1,83 @@
+package sootup.core.frontend;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import javax.annotation.Nonnull;
+import sootup.core.cache.BodyCache;
+import sootup.core.model.Body;
+import sootup.core.model.MethodModifier;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Resolves Bodies through a {@link BodyCache} i.e. the retention of the Body is left to the cache
+ * and a {@link SootMethod} with this BodySource does not keep its Body itself.
+ */
+public class CachingBodySource implements BodySource {
+
+  @Nonnull private final BodySource delegate;
+  @Nonnull private final BodyCache bodyCache;
+
+  public CachingBodySource(@Nonnull BodySource delegate, @Nonnull BodyCache bodyCache) {
+    this.delegate = delegate;
+    this.bodyCache = bodyCache;
+  }
+
+  @Nonnull
+  @Override
+  public Body resolveBody(@Nonnull Iterable<MethodModifier> modifiers) {
+    return bodyCache.getBody(
+        getSignature(),
+        () -> {
+          try {
+            return delegate.resolveBody(modifiers);
+          } catch (IOException e) {
+            throw new ResolveException(
+                "Could not resolve a corresponding body for " + getSignature(), Paths.get(""), e);
+          }
+        });
+  }
+
+  @Override
+  public Object resolveAnnotationsDefaultValue() {
+    return delegate.resolveAnnotationsDefaultValue();
+  }
+
+  @Nonnull
+  @Override
+  public MethodSignature getSignature() {
+    return delegate.getSignature();
+  }
+
+  @Nonnull
+  public BodySource getDelegate() {
+    return delegate;
+  }
+
+  @Nonnull
+  public BodyCache getBodyCache() {
+    return bodyCache;
+  }
+}
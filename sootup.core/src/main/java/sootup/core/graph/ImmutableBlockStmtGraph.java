@@ -22,7 +22,6 @@ package sootup.core.graph;
  * #L%
  */
 
-import com.google.common.collect.Lists;
 import java.util.*;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -30,166 +29,390 @@ import sootup.core.jimple.basic.Trap;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.types.ClassType;
 
-// FIXME: implement!
+/**
+ * An immutable StmtGraph that stores the Stmts in a flat array in the order of the Jimple output.
+ * The Stmts of a block are stored consecutively, so a block is just a range of indices. The flows
+ * between the Stmts are stored in compressed sparse rows, i.e. the successors of the Stmt at index
+ * i are at the indices successorOffsets[i] until successorOffsets[i+1] of successorStmts.
+ *
+ * <p>The graph answers all queries like the graph it was created from, but successors() and
+ * predecessors() return views of its arrays instead of creating new Lists.
+ */
 public class ImmutableBlockStmtGraph
     extends StmtGraph<ImmutableBlockStmtGraph.ImmutableBasicBlock> {
 
-  private final List<ImmutableBasicBlock> blocks;
-  private final Map<Stmt, ImmutableBasicBlock> stmtToBlock = new HashMap<>();
+  /** the Stmts in the order of the Jimple output */
+  @Nonnull private final Stmt[] stmts;
+
+  /** the index of the block of each Stmt */
+  @Nonnull private final int[] stmtToBlock;
+
+  /** the index of the first Stmt of each block, followed by the number of Stmts */
+  @Nonnull private final int[] blockStarts;
+
+  @Nonnull private final int[] successorOffsets;
+  @Nonnull private final Stmt[] successorStmts;
+  @Nonnull private final int[] predecessorOffsets;
+  @Nonnull private final Stmt[] predecessorStmts;
+
+  /** the blocks in the order of the Jimple output i.e. ordered by their index */
+  @Nonnull private final ImmutableBasicBlock[] blocks;
+
+  /** the blocks in the order of the graph this graph was created from */
+  @Nonnull private final List<ImmutableBasicBlock> unorderedBlocks;
+
+  /** maps the heads of trap handler blocks to their exceptional predecessors */
+  @Nonnull private final Map<Stmt, List<Stmt>> exceptionalPredecessors;
+
+  @Nonnull private final List<Trap> traps;
+  @Nullable private final Stmt startingStmt;
+
+  /** open addressing hash table that maps a Stmt (by identity) to its index */
+  @Nonnull private final Stmt[] indexKeys;
+
+  @Nonnull private final int[] indexValues;
+
+  @Nonnull private final Set<Stmt> nodes = new StmtSet();
+
+  public ImmutableBlockStmtGraph(@Nonnull StmtGraph<?> graph) {
+    startingStmt = graph.getStartingStmt();
+
+    // lay out the blocks and their stmts in the order of the Jimple output
+    final List<BasicBlock<?>> orderedBlocks = new ArrayList<>(graph.getBlocks().size());
+    graph.getBlockIterator().forEachRemaining(orderedBlocks::add);
+    int stmtCount = 0;
+    for (BasicBlock<?> block : orderedBlocks) {
+      stmtCount += block.getStmtCount();
+    }
+
+    stmts = new Stmt[stmtCount];
+    stmtToBlock = new int[stmtCount];
+    blockStarts = new int[orderedBlocks.size() + 1];
+    blocks = new ImmutableBasicBlock[orderedBlocks.size()];
+    final Map<BasicBlock<?>, ImmutableBasicBlock> blockMap =
+        new IdentityHashMap<>(orderedBlocks.size());
+    int stmtIdx = 0;
+    for (int blockIdx = 0; blockIdx < orderedBlocks.size(); blockIdx++) {
+      final BasicBlock<?> block = orderedBlocks.get(blockIdx);
+      blockStarts[blockIdx] = stmtIdx;
+      for (Stmt stmt : block.getStmts()) {
+        stmtToBlock[stmtIdx] = blockIdx;
+        stmts[stmtIdx++] = stmt;
+      }
+      blocks[blockIdx] = new ImmutableBasicBlock(blockIdx);
+      blockMap.put(block, blocks[blockIdx]);
+    }
+    blockStarts[orderedBlocks.size()] = stmtIdx;
+
+    int capacity = Integer.highestOneBit(Math.max(2, stmtCount * 2 - 1)) << 1;
+    indexKeys = new Stmt[capacity];
+    indexValues = new int[capacity];
+    for (int i = 0; i < stmtCount; i++) {
+      int slot = slotOf(stmts[i]);
+      while (indexKeys[slot] != null) {
+        slot = (slot + 1) & (capacity - 1);
+      }
+      indexKeys[slot] = stmts[i];
+      indexValues[slot] = i;
+    }
+
+    // copy the flows between the stmts
+    successorOffsets = new int[stmtCount + 1];
+    predecessorOffsets = new int[stmtCount + 1];
+    final List<Stmt> successors = new ArrayList<>(stmtCount);
+    final List<Stmt> predecessors = new ArrayList<>(stmtCount);
+    for (int i = 0; i < stmtCount; i++) {
+      successors.addAll(graph.successors(stmts[i]));
+      successorOffsets[i + 1] = successors.size();
+      predecessors.addAll(graph.predecessors(stmts[i]));
+      predecessorOffsets[i + 1] = predecessors.size();
+    }
+    successorStmts = successors.toArray(new Stmt[0]);
+    predecessorStmts = predecessors.toArray(new Stmt[0]);
+
+    // copy the links between the blocks
+    boolean hasExceptionalFlows = false;
+    final Map<Stmt, List<Stmt>> exceptionalPreds = new IdentityHashMap<>();
+    for (BasicBlock<?> block : orderedBlocks) {
+      final ImmutableBasicBlock immutableBlock = blockMap.get(block);
+      immutableBlock.successors = mapBlocks(block.getSuccessors(), blockMap);
+      immutableBlock.predecessors = mapBlocks(block.getPredecessors(), blockMap);
+      immutableBlock.exceptionalSuccessors = mapBlocks(block.getExceptionalSuccessors(), blockMap);
+      immutableBlock.exceptionalPredecessors =
+          mapBlocks(block.getExceptionalPredecessors(), blockMap);
+      if (!immutableBlock.exceptionalSuccessors.isEmpty()) {
+        hasExceptionalFlows = true;
+        final Map<ClassType, Stmt> exceptionalSuccessorStmts = new LinkedHashMap<>();
+        immutableBlock.exceptionalSuccessors.forEach(
+            (type, handlerBlock) -> exceptionalSuccessorStmts.put(type, handlerBlock.getHead()));
+        immutableBlock.exceptionalSuccessorStmts =
+            Collections.unmodifiableMap(exceptionalSuccessorStmts);
+      }
+      final List<Stmt> exceptionalPredecessorStmts = graph.exceptionalPredecessors(block.getHead());
+      if (!exceptionalPredecessorStmts.isEmpty()) {
+        exceptionalPreds.put(
+            block.getHead(),
+            Collections.unmodifiableList(new ArrayList<>(exceptionalPredecessorStmts)));
+      }
+    }
+    exceptionalPredecessors =
+        exceptionalPreds.isEmpty() ? Collections.emptyMap() : exceptionalPreds;
+    traps = hasExceptionalFlows ? graph.buildTraps() : Collections.emptyList();
+
+    final List<ImmutableBasicBlock> unordered = new ArrayList<>(blocks.length);
+    for (BasicBlock<?> block : graph.getBlocks()) {
+      unordered.add(blockMap.get(block));
+    }
+    unorderedBlocks = Collections.unmodifiableList(unordered);
+  }
+
+  @Nonnull
+  private static List<ImmutableBasicBlock> mapBlocks(
+      @Nonnull List<? extends BasicBlock<?>> blocks,
+      @Nonnull Map<BasicBlock<?>, ImmutableBasicBlock> blockMap) {
+    if (blocks.isEmpty()) {
+      return Collections.emptyList();
+    }
+    final ImmutableBasicBlock[] mapped = new ImmutableBasicBlock[blocks.size()];
+    for (int i = 0; i < mapped.length; i++) {
+      mapped[i] = blockMap.get(blocks.get(i));
+    }
+    return Collections.unmodifiableList(Arrays.asList(mapped));
+  }
+
+  @Nonnull
+  private static Map<ClassType, ImmutableBasicBlock> mapBlocks(
+      @Nullable Map<? extends ClassType, ? extends BasicBlock<?>> blocks,
+      @Nonnull Map<BasicBlock<?>, ImmutableBasicBlock> blockMap) {
+    if (blocks == null || blocks.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    final Map<ClassType, ImmutableBasicBlock> mapped = new LinkedHashMap<>();
+    blocks.forEach((type, block) -> mapped.put(type, blockMap.get(block)));
+    return Collections.unmodifiableMap(mapped);
+  }
+
+  private int slotOf(@Nonnull Stmt stmt) {
+    // spread the bits of the identity hash code, as the lower ones are used as the slot
+    final int hash = System.identityHashCode(stmt) * 0x9E3779B9;
+    return (hash ^ (hash >>> 16)) & (indexKeys.length - 1);
+  }
+
+  /** returns the index of the stmt in the Jimple output order or -1 if it is not in the graph */
+  public int indexOf(@Nonnull Stmt stmt) {
+    int slot = slotOf(stmt);
+    while (true) {
+      final Stmt key = indexKeys[slot];
+      if (key == stmt) {
+        return indexValues[slot];
+      }
+      if (key == null) {
+        return -1;
+      }
+      slot = (slot + 1) & (indexKeys.length - 1);
+    }
+  }
 
-  public ImmutableBlockStmtGraph(@Nonnull MutableStmtGraph graph) {
+  /** returns the stmt at the given index of the Jimple output order, see {@link #indexOf(Stmt)} */
+  @Nonnull
+  public Stmt getStmt(int index) {
+    return stmts[index];
+  }
 
-    final List<? extends BasicBlock<?>> mblocks = graph.getBlocksSorted();
-    blocks = Lists.newArrayListWithExpectedSize(mblocks.size());
-    for (BasicBlock<?> block : mblocks) {
-      /* TODO: link predecessors/successors as well..
-      // final ImmutableBasicBlock ib = new ImmutableBasicBlock();
-      block.getStmts().forEach(stmt -> stmtToBlock.put(stmt, ib));
+  /** returns the number of stmts in the graph */
+  public int getStmtCount() {
+    return stmts.length;
+  }
 
-      blocks.add(ib);*/
+  private int indexOfOrThrow(@Nonnull Stmt stmt) {
+    final int idx = indexOf(stmt);
+    if (idx < 0) {
+      throw new IllegalArgumentException(
+          "Stmt '" + stmt + "' is not contained in the BlockStmtGraph");
     }
+    return idx;
   }
 
   @Nullable
   @Override
   public Stmt getStartingStmt() {
-    return blocks.isEmpty() ? null : blocks.get(0).getHead();
+    return startingStmt;
   }
 
+  @Nullable
   @Override
   public BasicBlock<?> getStartingStmtBlock() {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    return startingStmt == null ? null : getBlockOf(startingStmt);
   }
 
   @Override
-  public BasicBlock<ImmutableBasicBlock> getBlockOf(@Nonnull Stmt stmt) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+  public ImmutableBasicBlock getBlockOf(@Nonnull Stmt stmt) {
+    final int idx = indexOf(stmt);
+    if (idx < 0) {
+      throw new IllegalArgumentException("stmt '" + stmt + "' does not exist in this StmtGraph!");
+    }
+    return blocks[stmtToBlock[idx]];
   }
 
+  /** returns the Stmts of this graph as an unmodifiable Set that compares them by identity */
   @Nonnull
   @Override
-  public List<Stmt> getNodes() {
-    int size = 0;
-    for (ImmutableBasicBlock block : blocks) {
-      size += block.getStmtCount();
-    }
-    final ArrayList<Stmt> stmts = new ArrayList<>(size);
-    for (ImmutableBasicBlock block : blocks) {
-      stmts.addAll(block.getStmts());
-    }
-    return stmts;
+  public Set<Stmt> getNodes() {
+    return nodes;
+  }
+
+  @Nonnull
+  @Override
+  public List<Stmt> getStmts() {
+    return new ArrayList<>(Arrays.asList(stmts));
   }
 
   @Nonnull
   @Override
   public Collection<ImmutableBasicBlock> getBlocks() {
-    return blocks;
+    return unorderedBlocks;
   }
 
   @Nonnull
   @Override
   public List<? extends BasicBlock<?>> getBlocksSorted() {
-    return blocks;
+    return ReversePostOrderBlockTraversal.getBlocksSorted(this);
+  }
+
+  @Override
+  public Iterator<BasicBlock<?>> getBlockIterator() {
+    return Collections.<BasicBlock<?>>unmodifiableList(Arrays.asList(blocks)).iterator();
   }
 
   @Override
   public boolean containsNode(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    return indexOf(node) >= 0;
   }
 
   @Nonnull
   @Override
   public List<Stmt> predecessors(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    final int idx = indexOfOrThrow(node);
+    return new StmtArrayView(
+        predecessorStmts, predecessorOffsets[idx], predecessorOffsets[idx + 1]);
   }
 
   @Nonnull
   @Override
   public List<Stmt> exceptionalPredecessors(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("not implemented");
+    indexOfOrThrow(node);
+    return exceptionalPredecessors.getOrDefault(node, Collections.emptyList());
   }
 
   @Nonnull
   @Override
   public List<Stmt> successors(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    final int idx = indexOfOrThrow(node);
+    return new StmtArrayView(successorStmts, successorOffsets[idx], successorOffsets[idx + 1]);
   }
 
   @Nonnull
   @Override
   public Map<ClassType, Stmt> exceptionalSuccessors(@Nonnull Stmt node) {
-    // FIXME! implement
-    throw new RuntimeException("not implemented");
+    return blocks[stmtToBlock[indexOfOrThrow(node)]].exceptionalSuccessorStmts;
   }
 
   @Override
   public int inDegree(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    final int idx = indexOfOrThrow(node);
+    return predecessorOffsets[idx + 1] - predecessorOffsets[idx];
   }
 
   @Override
   public int outDegree(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    final int idx = indexOfOrThrow(node);
+    return successorOffsets[idx + 1] - successorOffsets[idx];
   }
 
   @Override
   public boolean hasEdgeConnecting(@Nonnull Stmt source, @Nonnull Stmt target) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    final int idx = indexOfOrThrow(source);
+    indexOfOrThrow(target);
+    for (int i = successorOffsets[idx]; i < successorOffsets[idx + 1]; i++) {
+      if (successorStmts[i] == target) {
+        return true;
+      }
+    }
+    return false;
   }
 
   @Nonnull
   @Override
   public List<Trap> buildTraps() {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    return new ArrayList<>(traps);
   }
 
   @Override
   public void removeExceptionalFlowFromAllBlocks(ClassType classType, Stmt exceptionHandlerStmt) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    throw new UnsupportedOperationException("An ImmutableBlockStmtGraph can not be modified.");
   }
 
   @Nonnull
   @Override
   public Iterator<Stmt> iterator() {
-    return new Iterator<Stmt>() {
-      final Iterator<ImmutableBasicBlock> blockIt = blocks.iterator();
-      Iterator<Stmt> stmtIt = blockIt.next().getStmts().iterator();
-
-      @Override
-      public boolean hasNext() {
-        // hint: there are no empty blocks!
-        return stmtIt.hasNext() || blockIt.hasNext();
-      }
+    return new StmtArrayView(stmts, 0, stmts.length).iterator();
+  }
+
+  /** an unmodifiable List of the Stmts in a range of an array */
+  private static class StmtArrayView extends AbstractList<Stmt> implements RandomAccess {
+    private final Stmt[] array;
+    private final int from;
+    private final int to;
 
-      @Override
-      public Stmt next() {
-        if (stmtIt.hasNext()) {
-          return stmtIt.next();
-        }
-        stmtIt = blockIt.next().getStmts().iterator();
-        return stmtIt.next();
+    private StmtArrayView(Stmt[] array, int from, int to) {
+      this.array = array;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public Stmt get(int index) {
+      if (index < 0 || index >= to - from) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (to - from));
       }
-    };
+      return array[from + index];
+    }
+
+    @Override
+    public int size() {
+      return to - from;
+    }
+  }
+
+  /** an unmodifiable Set of the Stmts of this graph that uses the index for contains() */
+  private class StmtSet extends AbstractSet<Stmt> {
+    @Override
+    public boolean contains(Object o) {
+      return o instanceof Stmt && indexOf((Stmt) o) >= 0;
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<Stmt> iterator() {
+      return ImmutableBlockStmtGraph.this.iterator();
+    }
+
+    @Override
+    public int size() {
+      return stmts.length;
+    }
   }
 
   public class ImmutableBasicBlock implements BasicBlock<ImmutableBasicBlock> {
-    private final MutableBasicBlock graph;
-    private final int startIdx;
-    private final int endIdx;
-    private final List<ImmutableBasicBlock> successors;
-    private final List<ImmutableBasicBlock> predecessors;
-
-    private ImmutableBasicBlock(
-        MutableBasicBlock graph,
-        int startIdx,
-        int endIdx,
-        List<ImmutableBasicBlock> successors,
-        List<ImmutableBasicBlock> predecessors) {
-      this.graph = graph;
-      this.startIdx = startIdx;
-      this.endIdx = endIdx;
-      this.successors = successors;
-      this.predecessors = predecessors;
+    private final int blockIdx;
+    private List<ImmutableBasicBlock> successors;
+    private List<ImmutableBasicBlock> predecessors;
+    private Map<ClassType, ImmutableBasicBlock> exceptionalSuccessors;
+    private Map<ClassType, ImmutableBasicBlock> exceptionalPredecessors;
+    private Map<ClassType, Stmt> exceptionalSuccessorStmts = Collections.emptyMap();
+
+    private ImmutableBasicBlock(int blockIdx) {
+      this.blockIdx = blockIdx;
     }
 
     @Nonnull
@@ -207,36 +430,41 @@ public class ImmutableBlockStmtGraph
     @Override
     @Nonnull
     public Map<ClassType, ImmutableBasicBlock> getExceptionalPredecessors() {
-      throw new UnsupportedOperationException("not implemented yet");
+      return exceptionalPredecessors;
     }
 
     @Nonnull
     @Override
-    public Map<? extends ClassType, ImmutableBasicBlock> getExceptionalSuccessors() {
-      throw new UnsupportedOperationException("not implemented yet");
+    public Map<ClassType, ImmutableBasicBlock> getExceptionalSuccessors() {
+      return exceptionalSuccessors;
     }
 
     @Nonnull
     @Override
     public List<Stmt> getStmts() {
-      throw new UnsupportedOperationException();
+      return new StmtArrayView(stmts, blockStarts[blockIdx], blockStarts[blockIdx + 1]);
     }
 
     @Override
     public int getStmtCount() {
-      return endIdx - startIdx + 1;
+      return blockStarts[blockIdx + 1] - blockStarts[blockIdx];
     }
 
     @Nonnull
     @Override
     public Stmt getHead() {
-      throw new UnsupportedOperationException();
+      return stmts[blockStarts[blockIdx]];
     }
 
     @Nonnull
     @Override
     public Stmt getTail() {
-      throw new UnsupportedOperationException();
+      return stmts[blockStarts[blockIdx + 1] - 1];
+    }
+
+    @Override
+    public String toString() {
+      return "Block " + getStmts();
     }
   }
 }
@@ -63,6 +63,20 @@ public interface AnalysisInputLocation {
   @Nonnull
   Collection<? extends SootClassSource> getClassSources(@Nonnull View view);
 
+  /**
+   * Scan the input location and create ClassSources for every compilation / interpretation unit.
+   * If <code>parallel</code> is true, implementations may create the ClassSources concurrently,
+   * e.g. by parsing the entries of an archive on the common fork-join pool. The default
+   * implementation ignores the flag and delegates to {@link #getClassSources(View)}.
+   *
+   * @return The source entries.
+   */
+  @Nonnull
+  default Collection<? extends SootClassSource> getClassSources(
+      @Nonnull View view, boolean parallel) {
+    return getClassSources(view);
+  }
+
   /**
    * If the AnalysisInputLocation is initialized with the SourceType then this method should return
    * that specific SourceType. This is the default implementation and it returns null when no source
@@ -29,6 +29,7 @@ import java.util.*;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import sootup.core.graph.ImmutableBlockStmtGraph;
 import sootup.core.graph.MutableBlockStmtGraph;
 import sootup.core.graph.MutableStmtGraph;
 import sootup.core.graph.StmtGraph;
@@ -50,7 +51,10 @@ public class Body implements HasPosition {
   /** The locals for this Body. */
   private final Set<Local> locals;
 
-  @Nonnull private final StmtGraph<?> graph;
+  @Nonnull private final ImmutableBlockStmtGraph graph;
+
+  /** The dense numbering of the locals, created when it is requested first. */
+  @Nullable private volatile LocalNumbering localNumbering = null;
 
   /** The Position Information in the Source for this Body. */
   @Nonnull private final Position position;
@@ -66,11 +70,12 @@ public class Body implements HasPosition {
   private Body(
       @Nonnull MethodSignature methodSignature,
       @Nonnull Set<Local> locals,
-      @Nonnull StmtGraph<?> stmtGraph,
+      @Nonnull ImmutableBlockStmtGraph stmtGraph,
       @Nonnull Position position) {
     this.methodSignature = methodSignature;
-    this.locals = Collections.unmodifiableSet(locals);
-    this.graph = MutableBlockStmtGraph.createUnmodifiableStmtGraph(stmtGraph);
+    // copy the locals, so the numbering of the locals stays valid if the builder is reused
+    this.locals = Collections.unmodifiableSet(new LinkedHashSet<>(locals));
+    this.graph = stmtGraph;
     this.position = position;
   }
 
@@ -109,6 +114,58 @@ public class Body implements HasPosition {
     return locals;
   }
 
+  /**
+   * Returns the number of the local in the order of {@link #getLocals()}. The numbers are dense,
+   * i.e. from 0 to {@link #getLocalCount()} - 1, so analyses can keep their state per local in
+   * arrays or bitsets instead of maps. The local is looked up by identity, i.e. it has to be the
+   * instance declared in this Body (and used by its Stmts), not merely a local with the same name.
+   *
+   * @return the number of the local or -1 if it is not declared in this Body
+   */
+  public int getLocalIndex(@Nonnull Local local) {
+    final Integer index = getLocalNumbering().localToIndex.get(local);
+    return index == null ? -1 : index;
+  }
+
+  /** Returns the local with the given number, see {@link #getLocalIndex(Local)}. */
+  @Nonnull
+  public Local getLocal(int index) {
+    return getLocalNumbering().locals[index];
+  }
+
+  @Nonnull
+  private LocalNumbering getLocalNumbering() {
+    LocalNumbering numbering = localNumbering;
+    if (numbering == null) {
+      // a concurrent initialization creates the same numbering, so no lock is necessary
+      numbering = new LocalNumbering(locals);
+      localNumbering = numbering;
+    }
+    return numbering;
+  }
+
+  /** Returns the number of Stmts in this Body. */
+  public int getStmtCount() {
+    return graph.getStmtCount();
+  }
+
+  /**
+   * Returns the number of the Stmt in the order of {@link #getStmts()}. The numbers are dense, i.e.
+   * from 0 to {@link #getStmtCount()} - 1, so analyses can keep their state per Stmt in arrays or
+   * bitsets instead of maps.
+   *
+   * @return the number of the Stmt or -1 if it is not contained in this Body
+   */
+  public int getStmtIndex(@Nonnull Stmt stmt) {
+    return graph.indexOf(stmt);
+  }
+
+  /** Returns the Stmt with the given number, see {@link #getStmtIndex(Stmt)}. */
+  @Nonnull
+  public Stmt getStmt(int index) {
+    return graph.getStmt(index);
+  }
+
   /**
    * Returns an unmodifiable view of the traps found in this Body. @Deprecated the exceptional flow
    * information is already integrated into the StmtGraphs BasicBlocks.getExceptionalFlows() -
@@ -205,15 +262,10 @@ public class Body implements HasPosition {
    */
   @Nonnull
   public List<Stmt> getStmts() {
-    final ArrayList<Stmt> stmts = new ArrayList<>(graph.getNodes().size());
-    for (Stmt stmt : graph) {
-      stmts.add(stmt);
-    }
-    return stmts;
+    return graph.getStmts();
   }
 
   @Nonnull
-  // TODO: [ms] should be an ImmutableStmtGraph!
   public StmtGraph<?> getStmtGraph() {
     return graph;
   }
@@ -291,7 +343,7 @@ public class Body implements HasPosition {
 
   @Nonnull
   public Body withLocals(@Nonnull Set<Local> locals) {
-    return new Body(getMethodSignature(), locals, getStmtGraph(), getPosition());
+    return new Body(getMethodSignature(), locals, graph, getPosition());
   }
 
   public static BodyBuilder builder() {
@@ -306,6 +358,23 @@ public class Body implements HasPosition {
     return new BodyBuilder(body, modifiers);
   }
 
+  /**
+   * Numbers the locals of a Body in the order they are declared. The locals are keyed by identity,
+   * as Local.hashCode() hashes the name.
+   */
+  private static final class LocalNumbering {
+    @Nonnull private final Local[] locals;
+    @Nonnull private final Map<Local, Integer> localToIndex;
+
+    private LocalNumbering(@Nonnull Set<Local> locals) {
+      this.locals = locals.toArray(new Local[0]);
+      this.localToIndex = new IdentityHashMap<>(this.locals.length);
+      for (int i = 0; i < this.locals.length; i++) {
+        localToIndex.put(this.locals[i], i);
+      }
+    }
+  }
+
   /** The BodyBuilder helps to create a new Body in a fluent way (see Builder Pattern) */
   public static class BodyBuilder implements HasPosition {
     @Nonnull private Set<Local> locals = new LinkedHashSet<>();
@@ -442,7 +511,8 @@ public class Body implements HasPosition {
         //        System.out.println("StmtGraph of " + methodSig + " is invalid." + e.getCause());
       }
 
-      return new Body(methodSig, locals, graph, position);
+      // freeze the graph, so the Body does not keep the editing structures of the builder alive
+      return new Body(methodSig, locals, new ImmutableBlockStmtGraph(graph), position);
     }
 
     @Nonnull
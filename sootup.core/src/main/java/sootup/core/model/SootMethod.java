@@ -37,6 +37,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import sootup.core.IdentifierFactory;
 import sootup.core.frontend.BodySource;
+import sootup.core.frontend.CachingBodySource;
 import sootup.core.frontend.OverridingBodySource;
 import sootup.core.frontend.ResolveException;
 import sootup.core.jimple.basic.NoPositionInformation;
@@ -171,9 +172,15 @@ public class SootMethod extends SootClassMember<MethodSignature> implements Meth
 
   @Nonnull private final Supplier<Body> _lazyBody = Suppliers.memoize(this::lazyBodyInitializer);
 
-  /** Retrieves the active body for this method. */
+  /**
+   * Retrieves the active body for this method. If the BodySource is a {@link CachingBodySource} the
+   * Body is retained by its {@link sootup.core.cache.BodyCache} and may be resolved again.
+   */
   @Nonnull
   public Body getBody() {
+    if (bodySource instanceof CachingBodySource) {
+      return lazyBodyInitializer();
+    }
     return this._lazyBody.get();
   }
 
@@ -0,0 +1,227 @@
+package sootup.core.transform;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.views.View;
+
+/**
+ * Resolves the bodies of many methods ahead of time ("pre-jimplifying" them) on a bounded thread
+ * pool, instead of resolving - and intercepting - each body on its first access. The bodies are
+ * resolved via {@link SootMethod#getBody()}, so they are kept as usual afterwards.
+ *
+ * <p>To measure the interceptors per body, configure the input locations of the view with
+ * interceptors wrapped by {@link RunTimeBodyInterceptor#wrap(List)} and pass the same list to the
+ * resolver: the {@link Report} contains their metrics.
+ *
+ * <p>For throughput, use a view that allows concurrent class resolution, e.g. a ConcurrentJavaView,
+ * as the interceptors resolve classes while they run.
+ */
+public class BatchBodyResolver {
+
+  private final int numThreads;
+  @Nonnull private final List<RunTimeBodyInterceptor> interceptors;
+
+  public BatchBodyResolver(int numThreads) {
+    this(numThreads, Collections.emptyList());
+  }
+
+  /**
+   * @param numThreads the number of threads that resolve bodies
+   * @param interceptors the measured interceptors that are applied to the resolved bodies
+   */
+  public BatchBodyResolver(int numThreads, @Nonnull List<RunTimeBodyInterceptor> interceptors) {
+    if (numThreads < 1) {
+      throw new IllegalArgumentException("The number of threads has to be at least 1.");
+    }
+    this.numThreads = numThreads;
+    this.interceptors = interceptors;
+  }
+
+  /** Resolves the bodies of all methods of all classes of the view. */
+  @Nonnull
+  public Report resolveBodies(@Nonnull View view) {
+    List<SootMethod> methods =
+        view.getClasses(numThreads > 1)
+            .flatMap(clazz -> clazz.getMethods().stream())
+            .collect(Collectors.toList());
+    return resolveBodies(methods);
+  }
+
+  /** Resolves the bodies of the given methods; methods without a body are skipped. */
+  @Nonnull
+  public Report resolveBodies(@Nonnull Collection<? extends SootMethod> methods) {
+    final SootMethod[] concreteMethods =
+        methods.stream().filter(SootMethod::hasBody).toArray(SootMethod[]::new);
+    final Map<MethodSignature, Exception> failures = new ConcurrentHashMap<>();
+    final AtomicInteger next = new AtomicInteger();
+
+    // every thread claims the next unresolved method, instead of queueing one task per method
+    Runnable worker =
+        () -> {
+          for (int i = next.getAndIncrement();
+              i < concreteMethods.length;
+              i = next.getAndIncrement()) {
+            SootMethod method = concreteMethods[i];
+            try {
+              method.getBody();
+            } catch (Exception e) {
+              failures.put(method.getSignature(), e);
+            }
+          }
+        };
+
+    final long startTime = System.nanoTime();
+    final int threads = Math.min(numThreads, Math.max(concreteMethods.length, 1));
+    if (threads == 1) {
+      worker.run();
+    } else {
+      ExecutorService executor = Executors.newFixedThreadPool(threads, new WorkerThreadFactory());
+      try {
+        List<Future<?>> futures = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+          futures.add(executor.submit(worker));
+        }
+        for (Future<?> future : futures) {
+          future.get();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while resolving bodies.", e);
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("Failed to resolve bodies.", e.getCause());
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+    final long wallTimeNanos = System.nanoTime() - startTime;
+
+    Map<BodyInterceptor, BodyInterceptorMetric> metrics = new LinkedHashMap<>();
+    for (RunTimeBodyInterceptor interceptor : interceptors) {
+      metrics.put(interceptor.getBodyInterceptor(), interceptor.getBiMetric());
+    }
+    return new Report(concreteMethods.length, failures, wallTimeNanos, threads, metrics);
+  }
+
+  /** names the worker threads, so they can be told apart in thread dumps and profiles */
+  private static class WorkerThreadFactory implements ThreadFactory {
+    private static final AtomicInteger poolCount = new AtomicInteger();
+    private final int pool = poolCount.incrementAndGet();
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @Override
+    public Thread newThread(@Nonnull Runnable runnable) {
+      String name = "body-resolver-" + pool + "-worker-" + threadCount.incrementAndGet();
+      Thread thread = new Thread(runnable, name);
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+  /** The summary of a {@link #resolveBodies(Collection)} run. */
+  public static class Report {
+    private final int methodCount;
+    @Nonnull private final Map<MethodSignature, Exception> failures;
+    private final long wallTimeNanos;
+    private final int numThreads;
+    @Nonnull private final Map<BodyInterceptor, BodyInterceptorMetric> interceptorMetrics;
+
+    Report(
+        int methodCount,
+        @Nonnull Map<MethodSignature, Exception> failures,
+        long wallTimeNanos,
+        int numThreads,
+        @Nonnull Map<BodyInterceptor, BodyInterceptorMetric> interceptorMetrics) {
+      this.methodCount = methodCount;
+      this.failures = failures;
+      this.wallTimeNanos = wallTimeNanos;
+      this.numThreads = numThreads;
+      this.interceptorMetrics = interceptorMetrics;
+    }
+
+    /** Returns the number of methods whose body was resolved, including the failed ones. */
+    public int getMethodCount() {
+      return methodCount;
+    }
+
+    /** Returns the methods whose body could not be resolved, and the reason. */
+    @Nonnull
+    public Map<MethodSignature, Exception> getFailures() {
+      return Collections.unmodifiableMap(failures);
+    }
+
+    public long getWallTimeNanos() {
+      return wallTimeNanos;
+    }
+
+    public int getNumThreads() {
+      return numThreads;
+    }
+
+    /**
+     * Returns the metrics of the measured interceptors, summed up over all threads. The metrics
+     * include the bodies that were intercepted before or concurrently to this run.
+     */
+    @Nonnull
+    public Map<BodyInterceptor, BodyInterceptorMetric> getInterceptorMetrics() {
+      return Collections.unmodifiableMap(interceptorMetrics);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder();
+      sb.append("Resolved ")
+          .append(methodCount - failures.size())
+          .append(" of ")
+          .append(methodCount)
+          .append(" bodies in ")
+          .append(TimeUnit.NANOSECONDS.toMillis(wallTimeNanos))
+          .append(" ms with ")
+          .append(numThreads)
+          .append(" threads");
+      long totalNanos = 0;
+      for (BodyInterceptorMetric metric : interceptorMetrics.values()) {
+        totalNanos += metric.getRuntimeNanos();
+      }
+      for (Map.Entry<BodyInterceptor, BodyInterceptorMetric> entry :
+          interceptorMetrics.entrySet()) {
+        BodyInterceptorMetric metric = entry.getValue();
+        sb.append("\n  ")
+            .append(entry.getKey().getClass().getSimpleName())
+            .append(": ")
+            .append(metric)
+            .append(
+                String.format(
+                    " (%.1f%%)",
+                    totalNanos == 0 ? 0.0 : 100.0 * metric.getRuntimeNanos() / totalNanos));
+      }
+      return sb.toString();
+    }
+  }
+}
@@ -22,16 +22,48 @@ package sootup.core.transform;
  * #L%
  */
 
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The runtime and memory usage of a {@link BodyInterceptor}, see {@link RunTimeBodyInterceptor}.
+ */
 public class BodyInterceptorMetric {
 
+  private static final long MB = 1024 * 1024;
+
   private long runtime;
   private long memoryUsage;
 
+  private long runtimeNanos;
+  private long allocatedBytes;
+  private long invocationCount;
+
+  /**
+   * @param runtime the runtime in milliseconds
+   * @param memoryUsage the memory usage in megabytes
+   */
   public BodyInterceptorMetric(long runtime, long memoryUsage) {
     this.runtime = runtime;
     this.memoryUsage = memoryUsage;
+    this.runtimeNanos = TimeUnit.MILLISECONDS.toNanos(runtime);
+    this.allocatedBytes = memoryUsage * MB;
   }
 
+  /**
+   * @param runtimeNanos the runtime in nanoseconds
+   * @param allocatedBytes the number of bytes allocated by the interceptor, or -1 if the JVM does
+   *     not measure the allocations of threads
+   * @param invocationCount the number of bodies the interceptor was applied to
+   */
+  public BodyInterceptorMetric(long runtimeNanos, long allocatedBytes, long invocationCount) {
+    this.runtime = TimeUnit.NANOSECONDS.toMillis(runtimeNanos);
+    this.memoryUsage = allocatedBytes < 0 ? allocatedBytes : allocatedBytes / MB;
+    this.runtimeNanos = runtimeNanos;
+    this.allocatedBytes = allocatedBytes;
+    this.invocationCount = invocationCount;
+  }
+
+  /** Returns the runtime in milliseconds. */
   public long getRuntime() {
     return runtime;
   }
@@ -40,6 +72,7 @@ public class BodyInterceptorMetric {
     this.runtime = runtime;
   }
 
+  /** Returns the memory usage in megabytes. */
   public long getMemoryUsage() {
     return memoryUsage;
   }
@@ -47,4 +80,31 @@ public class BodyInterceptorMetric {
   public void setMemoryUsage(long memoryUsage) {
     this.memoryUsage = memoryUsage;
   }
+
+  /** Returns the runtime in nanoseconds. */
+  public long getRuntimeNanos() {
+    return runtimeNanos;
+  }
+
+  /**
+   * Returns the number of bytes allocated by the interceptor, or -1 if the JVM does not measure
+   * the allocations of threads.
+   */
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  /** Returns the number of bodies the interceptor was applied to. */
+  public long getInvocationCount() {
+    return invocationCount;
+  }
+
+  @Override
+  public String toString() {
+    return invocationCount
+        + " bodies in "
+        + TimeUnit.NANOSECONDS.toMillis(runtimeNanos)
+        + " ms"
+        + (allocatedBytes < 0 ? "" : ", " + allocatedBytes / 1024 + " KB allocated");
+  }
 }
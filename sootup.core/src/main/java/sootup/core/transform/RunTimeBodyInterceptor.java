@@ -22,13 +22,29 @@ package sootup.core.transform;
  * #L%
  */
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 import javax.annotation.Nonnull;
 import sootup.core.model.Body;
 import sootup.core.views.View;
 
+/**
+ * Measures the runtime and the allocated memory of a {@link BodyInterceptor}. The measurement is
+ * done per thread - via {@link System#nanoTime()} and the allocation counter of the {@link
+ * ThreadMXBean} - so the metrics stay accurate if bodies are intercepted concurrently, e.g. by the
+ * {@link BatchBodyResolver}.
+ */
 public class RunTimeBodyInterceptor implements BodyInterceptor {
 
-  private BodyInterceptorMetric biMetric = new BodyInterceptorMetric(0L, 0L);
+  /** null, if the JVM does not count the allocations of threads */
+  private static final com.sun.management.ThreadMXBean allocationCounter = getAllocationCounter();
+
+  private final LongAdder runtimeNanos = new LongAdder();
+  private final LongAdder allocatedBytes = new LongAdder();
+  private final LongAdder invocationCount = new LongAdder();
 
   private final BodyInterceptor bodyInterceptor;
 
@@ -36,8 +52,43 @@ public class RunTimeBodyInterceptor implements BodyInterceptor {
     this.bodyInterceptor = bodyInterceptor;
   }
 
+  /** Wraps each of the interceptors, to measure them separately. */
+  @Nonnull
+  public static List<RunTimeBodyInterceptor> wrap(@Nonnull List<BodyInterceptor> interceptors) {
+    List<RunTimeBodyInterceptor> wrapped = new ArrayList<>(interceptors.size());
+    for (BodyInterceptor interceptor : interceptors) {
+      wrapped.add(new RunTimeBodyInterceptor(interceptor));
+    }
+    return wrapped;
+  }
+
+  private static com.sun.management.ThreadMXBean getAllocationCounter() {
+    ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+      return null;
+    }
+    com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threadMXBean;
+    if (!counter.isThreadAllocatedMemorySupported()) {
+      return null;
+    }
+    if (!counter.isThreadAllocatedMemoryEnabled()) {
+      counter.setThreadAllocatedMemoryEnabled(true);
+    }
+    return counter;
+  }
+
+  private static long getAllocatedBytesOfCurrentThread() {
+    return allocationCounter == null
+        ? 0
+        : allocationCounter.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /** Returns a snapshot of the metrics that are summed up over all intercepted bodies. */
   public BodyInterceptorMetric getBiMetric() {
-    return biMetric;
+    return new BodyInterceptorMetric(
+        runtimeNanos.sum(),
+        allocationCounter == null ? -1 : allocatedBytes.sum(),
+        invocationCount.sum());
   }
 
   public BodyInterceptor getBodyInterceptor() {
@@ -46,19 +97,21 @@ public class RunTimeBodyInterceptor implements BodyInterceptor {
 
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
-    long startTime = System.currentTimeMillis(); // Start time
-    final int MB = 1024 * 1024;
-    Runtime runtime = Runtime.getRuntime();
-    long usedMemoryBefore = runtime.totalMemory() - runtime.freeMemory();
+    long allocatedBefore = getAllocatedBytesOfCurrentThread();
+    long startTime = System.nanoTime();
 
     bodyInterceptor.interceptBody(builder, view);
 
-    long endTime = System.currentTimeMillis(); // End time
-    long duration = endTime - startTime;
-    long usedMemoryAfter = runtime.totalMemory() - runtime.freeMemory();
-    long memoryUsed = (usedMemoryAfter - usedMemoryBefore) / MB;
+    long duration = System.nanoTime() - startTime;
+    long allocated = getAllocatedBytesOfCurrentThread() - allocatedBefore;
 
-    biMetric.setRuntime(biMetric.getRuntime() + duration);
-    biMetric.setMemoryUsage(biMetric.getMemoryUsage() + memoryUsed);
+    runtimeNanos.add(duration);
+    allocatedBytes.add(allocated);
+    invocationCount.increment();
+  }
+
+  @Override
+  public String toString() {
+    return bodyInterceptor.toString();
   }
 }
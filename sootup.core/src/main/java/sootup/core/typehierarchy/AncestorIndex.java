@@ -0,0 +1,141 @@
+package sootup.core.typehierarchy;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.Nonnull;
+import org.jgrapht.Graph;
+import sootup.core.typehierarchy.ViewTypeHierarchy.ScanResult.Edge;
+import sootup.core.typehierarchy.ViewTypeHierarchy.ScanResult.Vertex;
+import sootup.core.types.ClassType;
+
+/**
+ * Answers lowest common ancestor queries of a {@link ViewTypeHierarchy} via the ancestors of each
+ * type which are stored as {@link BitSet} over the vertex numbers of the hierarchy. The ancestors
+ * of a type are computed once when they are needed for the first time. The results of the queries
+ * are kept in a bounded memo. The index can be queried by multiple threads at once, but it has to
+ * be replaced when the hierarchy changes.
+ */
+final class AncestorIndex {
+
+  @Nonnull private final Graph<Vertex, Edge> graph;
+  @Nonnull private final Map<Vertex, Integer> vertexToId;
+  @Nonnull private final Vertex[] vertices;
+  @Nonnull private final ClassType objectClassType;
+
+  /** the transitive supertypes of each vertex without the vertex itself */
+  @Nonnull private final AtomicReferenceArray<BitSet> ancestors;
+
+  @Nonnull private final Cache<ViewTypeHierarchy.SymmetricKey, Set<ClassType>> lcaMemo;
+
+  AncestorIndex(
+      @Nonnull Map<ClassType, Vertex> typeToVertex,
+      @Nonnull Graph<Vertex, Edge> graph,
+      @Nonnull ClassType objectClassType,
+      long maximumMemoSize) {
+    this.graph = graph;
+    this.objectClassType = objectClassType;
+    this.vertices = typeToVertex.values().toArray(new Vertex[0]);
+    this.vertexToId = new IdentityHashMap<>(vertices.length);
+    for (int id = 0; id < vertices.length; id++) {
+      vertexToId.put(vertices[id], id);
+    }
+    this.ancestors = new AtomicReferenceArray<>(vertices.length);
+    this.lcaMemo = CacheBuilder.newBuilder().maximumSize(maximumMemoSize).build();
+  }
+
+  /** Returns the transitive supertypes of the vertex without the vertex itself. */
+  @Nonnull
+  Set<Vertex> ancestorsOf(@Nonnull Vertex vertex) {
+    BitSet ancestorIds = ancestorsOf(vertexToId.get(vertex));
+    Set<Vertex> ancestorVertices = new HashSet<>(ancestorIds.cardinality() * 2);
+    for (int id = ancestorIds.nextSetBit(0); id >= 0; id = ancestorIds.nextSetBit(id + 1)) {
+      ancestorVertices.add(vertices[id]);
+    }
+    return ancestorVertices;
+  }
+
+  /**
+   * The lowest common ancestors are the common ancestors of both vertices which are not a direct
+   * supertype of another common ancestor. If there is none, java.lang.Object is returned.
+   */
+  @Nonnull
+  Set<ClassType> lowestCommonAncestorsOf(@Nonnull Vertex a, @Nonnull Vertex b) {
+    ViewTypeHierarchy.SymmetricKey key =
+        new ViewTypeHierarchy.SymmetricKey(a.javaClassType, b.javaClassType);
+    Set<ClassType> lcas = lcaMemo.getIfPresent(key);
+    if (lcas == null) {
+      lcas = computeLowestCommonAncestors(a, b);
+      lcaMemo.put(key, lcas);
+    }
+    return lcas;
+  }
+
+  @Nonnull
+  private Set<ClassType> computeLowestCommonAncestors(@Nonnull Vertex a, @Nonnull Vertex b) {
+    BitSet ancestorsOfA = ancestorsOf(vertexToId.get(a));
+    BitSet ancestorsOfB = ancestorsOf(vertexToId.get(b));
+    if (ancestorsOfA.isEmpty() || ancestorsOfB.isEmpty()) {
+      return Collections.singleton(objectClassType);
+    }
+
+    BitSet lcaIds = (BitSet) ancestorsOfA.clone();
+    lcaIds.and(ancestorsOfB);
+    BitSet directSupertypesOfCommonAncestors = new BitSet(vertices.length);
+    for (int id = lcaIds.nextSetBit(0); id >= 0; id = lcaIds.nextSetBit(id + 1)) {
+      for (Edge edge : graph.outgoingEdgesOf(vertices[id])) {
+        directSupertypesOfCommonAncestors.set(vertexToId.get(graph.getEdgeTarget(edge)));
+      }
+    }
+    lcaIds.andNot(directSupertypesOfCommonAncestors);
+    if (lcaIds.isEmpty()) {
+      return Collections.singleton(objectClassType);
+    }
+
+    Set<ClassType> lcas = new HashSet<>(lcaIds.cardinality() * 2);
+    for (int id = lcaIds.nextSetBit(0); id >= 0; id = lcaIds.nextSetBit(id + 1)) {
+      lcas.add(vertices[id].javaClassType);
+    }
+    return Collections.unmodifiableSet(lcas);
+  }
+
+  @Nonnull
+  private BitSet ancestorsOf(int id) {
+    BitSet ancestorIds = ancestors.get(id);
+    if (ancestorIds != null) {
+      return ancestorIds;
+    }
+    ancestorIds = new BitSet();
+    for (Edge edge : graph.outgoingEdgesOf(vertices[id])) {
+      int parentId = vertexToId.get(graph.getEdgeTarget(edge));
+      ancestorIds.set(parentId);
+      ancestorIds.or(ancestorsOf(parentId));
+    }
+    // concurrent computations produce equal sets, so it does not matter which one is kept
+    ancestors.compareAndSet(id, null, ancestorIds);
+    return ancestors.get(id);
+  }
+}
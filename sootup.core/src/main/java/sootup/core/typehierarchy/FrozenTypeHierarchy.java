@@ -0,0 +1,494 @@
+package sootup.core.typehierarchy;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Ints;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import org.jgrapht.Graph;
+import sootup.core.typehierarchy.ViewTypeHierarchy.ScanResult;
+import sootup.core.typehierarchy.ViewTypeHierarchy.ScanResult.Edge;
+import sootup.core.typehierarchy.ViewTypeHierarchy.ScanResult.EdgeType;
+import sootup.core.typehierarchy.ViewTypeHierarchy.ScanResult.Vertex;
+import sootup.core.types.ClassType;
+import sootup.core.types.Type;
+
+/**
+ * An immutable snapshot of a {@link ViewTypeHierarchy} that answers subtype queries in constant
+ * time. It is created via {@link ViewTypeHierarchy#freeze()} and does not reflect changes of the
+ * view that happen afterwards.
+ *
+ * <p>Along their superclass relation the classes form a tree (or a forest if superclasses are
+ * missing), whose nodes are numbered in depth-first pre-order. The subclasses of a class are
+ * exactly the classes with a number in the interval <code>(pre(C), last(C)]</code>: checking for a
+ * subclass is an interval check and the subclasses are a contiguous range of the classes sorted
+ * by their number. Interfaces are numbered separately. Each type stores a bitset of the
+ * interfaces it implements or extends (transitively) and each interface stores the pre-order
+ * intervals of its implementing classes.
+ */
+public class FrozenTypeHierarchy implements TypeHierarchy {
+
+  private static final int NONE = -1;
+  private static final BitSet NO_INTERFACES = new BitSet(0);
+
+  @Nonnull private final ClassType objectClassType;
+
+  /** maps each type to its id - the ids index the following arrays */
+  @Nonnull private final Map<ClassType, Integer> typeToId;
+
+  @Nonnull private final ClassType[] types;
+
+  /** id of the direct superclass or NONE */
+  @Nonnull private final int[] superClass;
+
+  /** ids of the directly implemented (class) or directly extended (interface) interfaces */
+  @Nonnull private final int[][] directInterfaces;
+
+  /** ids of the direct subclasses (class) or the direct implementers and extenders (interface) */
+  @Nonnull private final int[][] directSubtypes;
+
+  /** pre-order number of a class or NONE for interfaces */
+  @Nonnull private final int[] pre;
+
+  /** the highest pre-order number in the subtree of a class */
+  @Nonnull private final int[] last;
+
+  /** class ids ordered by their pre-order number */
+  @Nonnull private final int[] classesInPreOrder;
+
+  /** number of an interface or NONE for classes */
+  @Nonnull private final int[] interfaceNumber;
+
+  /** interface ids ordered by their number */
+  @Nonnull private final int[] interfaces;
+
+  /**
+   * numbers of all interfaces a type implements or extends (transitively). Types that do not add
+   * interfaces share the instance of their superclass, so the bitsets must never be modified.
+   */
+  @Nonnull private final BitSet[] implementedInterfaces;
+
+  /** per interface number: ids of the interfaces that extend it (transitively) */
+  @Nonnull private final int[][] subInterfaces;
+
+  /** per interface number: pairs of first and last pre-order numbers of implementing classes */
+  @Nonnull private final int[][] implementerIntervals;
+
+  FrozenTypeHierarchy(@Nonnull ScanResult scanResult, @Nonnull ClassType objectClassType) {
+    this.objectClassType = objectClassType;
+    final Graph<Vertex, Edge> graph = scanResult.graph;
+    final int typeCount = scanResult.typeToVertex.size();
+
+    typeToId = Maps.newHashMapWithExpectedSize(typeCount);
+    types = new ClassType[typeCount];
+    final Vertex[] vertices = new Vertex[typeCount];
+    interfaceNumber = new int[typeCount];
+    int interfaceCount = 0;
+    for (Vertex vertex : scanResult.typeToVertex.values()) {
+      final int id = typeToId.size();
+      typeToId.put(vertex.javaClassType, id);
+      types[id] = vertex.javaClassType;
+      vertices[id] = vertex;
+      interfaceNumber[id] = vertex instanceof ScanResult.InterfaceVertex ? interfaceCount++ : NONE;
+    }
+
+    superClass = new int[typeCount];
+    directInterfaces = new int[typeCount][];
+    directSubtypes = new int[typeCount][];
+    interfaces = new int[interfaceCount];
+    final List<Integer> ids = new ArrayList<>();
+    for (int id = 0; id < typeCount; id++) {
+      final Vertex vertex = vertices[id];
+      final boolean isInterface = interfaceNumber[id] != NONE;
+      if (isInterface) {
+        interfaces[interfaceNumber[id]] = id;
+      }
+
+      superClass[id] = NONE;
+      ids.clear();
+      for (Edge edge : graph.outgoingEdgesOf(vertex)) {
+        final int target = typeToId.get(graph.getEdgeTarget(edge).javaClassType);
+        if (edge.type == EdgeType.ClassDirectlyExtends) {
+          superClass[id] = target;
+        } else {
+          ids.add(target);
+        }
+      }
+      directInterfaces[id] = Ints.toArray(ids);
+
+      ids.clear();
+      for (Edge edge : graph.incomingEdgesOf(vertex)) {
+        if (isInterface != (edge.type == EdgeType.ClassDirectlyExtends)) {
+          ids.add(typeToId.get(graph.getEdgeSource(edge).javaClassType));
+        }
+      }
+      directSubtypes[id] = Ints.toArray(ids);
+    }
+
+    pre = new int[typeCount];
+    last = new int[typeCount];
+    Arrays.fill(pre, NONE);
+    Arrays.fill(last, NONE);
+    classesInPreOrder = new int[typeCount - interfaceCount];
+    int preOrderNumber = 0;
+    // number the trees of the root classes first, then classes that are part of a (malformed)
+    // cyclic superclass relation
+    for (int id = 0; id < typeCount; id++) {
+      if (interfaceNumber[id] == NONE && superClass[id] == NONE) {
+        preOrderNumber = numberSubtree(id, preOrderNumber);
+      }
+    }
+    for (int id = 0; id < typeCount; id++) {
+      if (interfaceNumber[id] == NONE && pre[id] == NONE) {
+        preOrderNumber = numberSubtree(id, preOrderNumber);
+      }
+    }
+
+    implementedInterfaces = new BitSet[typeCount];
+    final boolean[] inProgress = new boolean[typeCount];
+    for (int id = 0; id < typeCount; id++) {
+      computeImplementedInterfaces(id, inProgress);
+    }
+
+    final List<List<Integer>> subInterfaceLists = new ArrayList<>(interfaceCount);
+    final List<List<Integer>> intervalLists = new ArrayList<>(interfaceCount);
+    for (int i = 0; i < interfaceCount; i++) {
+      subInterfaceLists.add(new ArrayList<>());
+      intervalLists.add(new ArrayList<>());
+    }
+    for (int id : interfaces) {
+      final BitSet extended = implementedInterfaces[id];
+      for (int i = extended.nextSetBit(0); i >= 0; i = extended.nextSetBit(i + 1)) {
+        subInterfaceLists.get(i).add(id);
+      }
+    }
+    // the subtree of a class implements all interfaces the class adds to the ones of its
+    // superclass; iterating in pre-order keeps the intervals of each interface sorted
+    for (int id : classesInPreOrder) {
+      final BitSet implemented = implementedInterfaces[id];
+      final BitSet inherited =
+          superClass[id] == NONE ? NO_INTERFACES : implementedInterfaces[superClass[id]];
+      if (implemented == inherited) {
+        continue;
+      }
+      for (int i = implemented.nextSetBit(0); i >= 0; i = implemented.nextSetBit(i + 1)) {
+        if (!inherited.get(i)) {
+          intervalLists.get(i).add(pre[id]);
+          intervalLists.get(i).add(last[id]);
+        }
+      }
+    }
+    subInterfaces = new int[interfaceCount][];
+    implementerIntervals = new int[interfaceCount][];
+    for (int i = 0; i < interfaceCount; i++) {
+      subInterfaces[i] = Ints.toArray(subInterfaceLists.get(i));
+      implementerIntervals[i] = Ints.toArray(intervalLists.get(i));
+    }
+  }
+
+  /**
+   * assigns pre-order numbers to the not yet numbered classes in the subtree of <code>root</code>.
+   *
+   * @return the next free pre-order number
+   */
+  private int numberSubtree(int root, int preOrderNumber) {
+    final int[] stack = new int[classesInPreOrder.length];
+    final int[] nextChild = new int[classesInPreOrder.length];
+    pre[root] = preOrderNumber;
+    classesInPreOrder[preOrderNumber++] = root;
+    stack[0] = root;
+    int depth = 1;
+    while (depth > 0) {
+      final int top = stack[depth - 1];
+      final int[] children = directSubtypes[top];
+      if (nextChild[depth - 1] < children.length) {
+        final int child = children[nextChild[depth - 1]++];
+        if (pre[child] == NONE) {
+          pre[child] = preOrderNumber;
+          classesInPreOrder[preOrderNumber++] = child;
+          stack[depth] = child;
+          nextChild[depth] = 0;
+          depth++;
+        }
+      } else {
+        last[top] = preOrderNumber - 1;
+        depth--;
+      }
+    }
+    return preOrderNumber;
+  }
+
+  @Nonnull
+  private BitSet computeImplementedInterfaces(int id, @Nonnull boolean[] inProgress) {
+    BitSet implemented = implementedInterfaces[id];
+    if (implemented != null) {
+      return implemented;
+    }
+    if (inProgress[id]) {
+      // cyclic hierarchy
+      return NO_INTERFACES;
+    }
+    inProgress[id] = true;
+    final BitSet inherited =
+        superClass[id] == NONE
+            ? NO_INTERFACES
+            : computeImplementedInterfaces(superClass[id], inProgress);
+    implemented = (BitSet) inherited.clone();
+    for (int directInterface : directInterfaces[id]) {
+      if (interfaceNumber[directInterface] != NONE) {
+        implemented.set(interfaceNumber[directInterface]);
+      }
+      implemented.or(computeImplementedInterfaces(directInterface, inProgress));
+    }
+    if (implemented.equals(inherited)) {
+      implemented = inherited;
+    }
+    inProgress[id] = false;
+    implementedInterfaces[id] = implemented;
+    return implemented;
+  }
+
+  private int idOf(@Nonnull ClassType type) {
+    final Integer id = typeToId.get(type);
+    if (id == null) {
+      throw new IllegalArgumentException("Could not find '" + type + "' in hierarchy.");
+    }
+    return id;
+  }
+
+  @Nonnull
+  private Stream<ClassType> toTypes(@Nonnull int[] ids) {
+    return Arrays.stream(ids).mapToObj(id -> types[id]);
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> implementersOf(@Nonnull ClassType interfaceType) {
+    if (interfaceNumber[idOf(interfaceType)] == NONE) {
+      throw new IllegalArgumentException("'" + interfaceType + "' is not an interface.");
+    }
+    return subtypesOf(interfaceType);
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> subclassesOf(@Nonnull ClassType classType) {
+    if (interfaceNumber[idOf(classType)] != NONE) {
+      throw new IllegalArgumentException("'" + classType + "' is not a class.");
+    }
+    return subtypesOf(classType);
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> subtypesOf(@Nonnull ClassType type) {
+    final int id = idOf(type);
+    final int number = interfaceNumber[id];
+    if (number == NONE) {
+      return IntStream.rangeClosed(pre[id] + 1, last[id])
+          .mapToObj(i -> types[classesInPreOrder[i]]);
+    }
+    final int[] intervals = implementerIntervals[number];
+    return Stream.concat(
+        toTypes(subInterfaces[number]),
+        IntStream.range(0, intervals.length / 2)
+            .flatMap(i -> IntStream.rangeClosed(intervals[2 * i], intervals[2 * i + 1]))
+            .mapToObj(i -> types[classesInPreOrder[i]]));
+  }
+
+  /**
+   * Calls the <code>action</code> for every subtype of <code>type</code> i.e. like {@link
+   * #subtypesOf(ClassType)} but without allocating a stream.
+   */
+  public void forEachSubtype(@Nonnull ClassType type, @Nonnull Consumer<? super ClassType> action) {
+    final int id = idOf(type);
+    final int number = interfaceNumber[id];
+    if (number == NONE) {
+      for (int i = pre[id] + 1; i <= last[id]; i++) {
+        action.accept(types[classesInPreOrder[i]]);
+      }
+      return;
+    }
+    for (int subInterface : subInterfaces[number]) {
+      action.accept(types[subInterface]);
+    }
+    final int[] intervals = implementerIntervals[number];
+    for (int i = 0; i < intervals.length; i += 2) {
+      for (int j = intervals[i]; j <= intervals[i + 1]; j++) {
+        action.accept(types[classesInPreOrder[j]]);
+      }
+    }
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> directSubtypesOf(@Nonnull ClassType type) {
+    return toTypes(directSubtypes[idOf(type)]);
+  }
+
+  @Nonnull
+  @Override
+  public Optional<ClassType> superClassOf(@Nonnull ClassType classType) {
+    final Integer id = typeToId.get(classType);
+    if (id == null) {
+      throw new IllegalArgumentException("Could not find '" + classType + "' in the view.");
+    }
+    if (objectClassType.equals(classType)) {
+      return Optional.empty();
+    }
+    if (superClass[id] != NONE) {
+      return Optional.of(types[superClass[id]]);
+    }
+    return interfaceNumber[id] != NONE ? Optional.of(objectClassType) : Optional.empty();
+  }
+
+  @Override
+  public boolean isSubtype(@Nonnull Type supertype, @Nonnull Type potentialSubtype) {
+    if (!(supertype instanceof ClassType) || !(potentialSubtype instanceof ClassType)) {
+      return TypeHierarchy.super.isSubtype(supertype, potentialSubtype);
+    }
+    final Integer superId = typeToId.get(supertype);
+    final Integer subId = typeToId.get(potentialSubtype);
+    if (superId == null
+        || subId == null
+        || ((ClassType) supertype).getFullyQualifiedName().equals("java.lang.Object")) {
+      return TypeHierarchy.super.isSubtype(supertype, potentialSubtype);
+    }
+
+    final int number = interfaceNumber[superId];
+    if (number != NONE) {
+      return implementedInterfaces[subId].get(number);
+    }
+    return isSubclass(subId, superId);
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> implementedInterfacesOf(@Nonnull ClassType type) {
+    final Integer id = typeToId.get(type);
+    if (id == null) {
+      throw new IllegalArgumentException("Could not find " + type + " in this hierarchy.");
+    }
+    return implementedInterfaces[id].stream().mapToObj(i -> types[interfaces[i]]);
+  }
+
+  @Override
+  public Stream<ClassType> directlyImplementedInterfacesOf(@Nonnull ClassType classType) {
+    final int id = idOf(classType);
+    if (interfaceNumber[id] != NONE) {
+      throw new IllegalArgumentException(classType + " is not a class.");
+    }
+    return toTypes(directInterfaces[id]);
+  }
+
+  @Override
+  public Stream<ClassType> directlyExtendedInterfacesOf(@Nonnull ClassType interfaceType) {
+    final int id = idOf(interfaceType);
+    if (interfaceNumber[id] == NONE) {
+      throw new IllegalArgumentException(interfaceType + " is not an interface.");
+    }
+    return toTypes(directInterfaces[id]);
+  }
+
+  @Override
+  public boolean isInterface(@Nonnull ClassType type) {
+    return interfaceNumber[idOf(type)] != NONE;
+  }
+
+  @Override
+  public boolean contains(ClassType type) {
+    return typeToId.containsKey(type);
+  }
+
+  /**
+   * The ancestors of a type are its superclasses and all interfaces it implements or extends; the
+   * lowest common ancestors of <code>a</code> and <code>b</code> are their common ancestors that
+   * have no direct subtype which is a common ancestor, too. Returns <code>java.lang.Object</code>
+   * if there are none.
+   */
+  @Override
+  public Collection<ClassType> getLowestCommonAncestors(ClassType a, ClassType b) {
+    final Integer idA = typeToId.get(a);
+    final Integer idB = typeToId.get(b);
+    if (idA == null || idB == null || !hasAncestors(idA) || !hasAncestors(idB)) {
+      return Collections.singleton(objectClassType);
+    }
+
+    // the lowest superclass of a which is a superclass of b, too
+    int commonSuperClass = superClass[idA];
+    while (commonSuperClass != NONE && !isSubclass(idB, commonSuperClass)) {
+      commonSuperClass = superClass[commonSuperClass];
+    }
+
+    final BitSet commonInterfaces = (BitSet) implementedInterfaces[idA].clone();
+    commonInterfaces.and(implementedInterfaces[idB]);
+    // interfaces which are directly implemented or extended by a common ancestor are no LCAs
+    final BitSet covered = new BitSet(interfaces.length);
+    for (int c = commonSuperClass; c != NONE; c = superClass[c]) {
+      for (int directInterface : directInterfaces[c]) {
+        setInterfaceBit(covered, directInterface);
+      }
+    }
+    for (int i = commonInterfaces.nextSetBit(0); i >= 0; i = commonInterfaces.nextSetBit(i + 1)) {
+      for (int directInterface : directInterfaces[interfaces[i]]) {
+        setInterfaceBit(covered, directInterface);
+      }
+    }
+    commonInterfaces.andNot(covered);
+
+    final Set<ClassType> lcas = new HashSet<>();
+    if (commonSuperClass != NONE) {
+      lcas.add(types[commonSuperClass]);
+    }
+    commonInterfaces.stream().forEach(i -> lcas.add(types[interfaces[i]]));
+    if (lcas.isEmpty()) {
+      return Collections.singleton(objectClassType);
+    }
+    return lcas;
+  }
+
+  private boolean hasAncestors(int id) {
+    return superClass[id] != NONE || !implementedInterfaces[id].isEmpty();
+  }
+
+  /** @return true if the class <code>id</code> is a transitive subclass of <code>classId</code> */
+  private boolean isSubclass(int id, int classId) {
+    final int subPre = pre[id];
+    return subPre != NONE && pre[classId] < subPre && subPre <= last[classId];
+  }
+
+  private void setInterfaceBit(@Nonnull BitSet bits, int id) {
+    if (interfaceNumber[id] != NONE) {
+      bits.set(interfaceNumber[id]);
+    }
+  }
+
+  /** @return the number of types in this hierarchy */
+  public int size() {
+    return types.length;
+  }
+}
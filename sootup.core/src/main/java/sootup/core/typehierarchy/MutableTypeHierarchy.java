@@ -21,6 +21,7 @@ package sootup.core.typehierarchy;
  * #L%
  */
 import sootup.core.model.SootClass;
+import sootup.core.types.ClassType;
 
 /** For internal use only. */
 public interface MutableTypeHierarchy extends TypeHierarchy {
@@ -32,4 +33,11 @@ public interface MutableTypeHierarchy extends TypeHierarchy {
    * <p>For internal use only.
    */
   void addType(SootClass sootClass);
+
+  /**
+   * Removes the type from the hierarchy i.e. the relations to its supertypes.
+   *
+   * <p>For internal use only.
+   */
+  void removeType(ClassType type);
 }
@@ -22,8 +22,13 @@ package sootup.core.typehierarchy;
  */
 
 import com.google.common.base.Suppliers;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import javax.annotation.Nonnull;
@@ -44,19 +49,49 @@ import sootup.core.views.View;
  * Full documentation is in the <a
  * href="https://github.com/secure-software-engineering/soot-reloaded/wiki/Type-Hierarchy-Algorithm">wiki</a>.
  *
+ * <p>{@link #addType(SootClass)} and {@link #removeType(ClassType)} are synchronized among each
+ * other, but not with the queries: the hierarchy must not be queried while it is changed
+ * concurrently, and streams returned by a query must be consumed before it is changed. Changes
+ * before the first query do not scan the view: they are applied right after the scan.
+ *
  * @author Christian Brüggemann
  */
 public class ViewTypeHierarchy implements MutableTypeHierarchy {
 
   private static final Logger logger = LoggerFactory.getLogger(ViewTypeHierarchy.class);
 
+  /** the minimum number of classes that are inserted into a partial hierarchy by one task */
+  private static final int MIN_PARTITION_SIZE = 512;
+
+  /** the maximum number of lowest common ancestor results that are kept */
+  private static final long LCA_MEMO_SIZE = 100_000;
+
   private final Supplier<ScanResult> lazyScanResult;
   private final ClassType objectClassType;
-  private final Map<SymmetricKey, Set<ClassType>> lcaCache = new HashMap<>();
+
+  /** created on demand and dropped when the hierarchy changes */
+  @Nullable private volatile AncestorIndex ancestorIndex;
+
+  /** changes that were made before the view was scanned - guarded by this */
+  private final List<Consumer<ScanResult>> changesBeforeScan = new ArrayList<>();
+
+  private boolean isScanned = false;
 
   /** to allow caching use Typehierarchy.fromView() to get/create the Typehierarchy. */
   public ViewTypeHierarchy(@Nonnull View view) {
-    lazyScanResult = Suppliers.memoize(() -> scanView(view));
+    this(view, false);
+  }
+
+  /**
+   * @param parallel if true, the classes of the view are resolved concurrently (see {@link
+   *     View#getClasses(boolean)}) and partitions of them are inserted into partial hierarchies
+   *     concurrently, which are merged afterwards. The result is the same as the one of the
+   *     sequential scan.
+   */
+  public ViewTypeHierarchy(@Nonnull View view, boolean parallel) {
+    lazyScanResult =
+        Suppliers.memoize(
+            () -> applyChangesBeforeScan(parallel ? scanViewInParallel(view) : scanView(view)));
     objectClassType = view.getIdentifierFactory().getClassType("java.lang.Object");
   }
 
@@ -177,66 +212,42 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
   }
 
   protected Set<Vertex> findAncestors(ClassType type) {
-    Graph<Vertex, Edge> graph = lazyScanResult.get().graph;
     Vertex vertex = lazyScanResult.get().typeToVertex.get(type);
     if (vertex == null) {
       logger.debug("Could not find {} in this hierarchy!", type.toString());
       return Collections.emptySet();
     }
-    Set<Vertex> ancestors = new HashSet<>();
-    for (Edge edge : graph.outgoingEdgesOf(vertex)) {
-      Vertex parent = graph.getEdgeTarget(edge);
-      ancestors.add(parent);
-      ancestors.addAll(findAncestors(parent.javaClassType));
-    }
-    return ancestors;
+    return getAncestorIndex().ancestorsOf(vertex);
   }
 
   /**
    * This algorithm is implementation of the algorithm
-   * https://www.baeldung.com/cs/lowest-common-ancestor-acyclic-graph
+   * https://www.baeldung.com/cs/lowest-common-ancestor-acyclic-graph based on the ancestor sets of
+   * the {@link AncestorIndex}.
    */
   @Override
   public Collection<ClassType> getLowestCommonAncestors(ClassType a, ClassType b) {
-    // search in cache
-    SymmetricKey pair = new SymmetricKey(a, b);
-    Set<ClassType> lcas = lcaCache.get(pair);
-    if (lcas != null) {
-      return lcas;
-    }
+    Map<ClassType, Vertex> typeToVertex = lazyScanResult.get().typeToVertex;
+    Vertex vertexA = typeToVertex.get(a);
+    Vertex vertexB = typeToVertex.get(b);
+    if (vertexA == null || vertexB == null) {
+      logger.debug("Could not find {} or {} in this hierarchy!", a, b);
+      return Collections.singleton(objectClassType);
+    }
+    return getAncestorIndex().lowestCommonAncestorsOf(vertexA, vertexB);
+  }
 
-    Graph<Vertex, Edge> graph = lazyScanResult.get().graph;
-    Set<Vertex> ancestorsOfA = findAncestors(a);
-    Set<Vertex> ancestorsOfB = findAncestors(b);
-    lcas = new HashSet<>();
-
-    if (ancestorsOfA.isEmpty() || ancestorsOfB.isEmpty()) {
-      lcas.add(objectClassType);
-      lcaCache.put(pair, lcas);
-      return lcas;
-    }
-    // ancestorsOfA contains now common ancestors of a and b
-    ancestorsOfA.retainAll(ancestorsOfB);
-    boolean notLca = false;
-    for (Vertex ca : ancestorsOfA) {
-      Set<Edge> incomingEdges = graph.incomingEdgesOf(ca);
-      for (Edge ie : incomingEdges) {
-        if (ancestorsOfA.contains(graph.getEdgeSource(ie))) {
-          notLca = true;
-          break;
-        }
-      }
-      if (notLca) {
-        notLca = false;
-      } else {
-        lcas.add(ca.javaClassType);
-      }
-    }
-    if (lcas.isEmpty()) {
-      lcas = Collections.singleton(objectClassType);
-    }
-    lcaCache.put(pair, lcas);
-    return lcas;
+  @Nonnull
+  private AncestorIndex getAncestorIndex() {
+    AncestorIndex index = ancestorIndex;
+    if (index == null) {
+      ScanResult scanResult = lazyScanResult.get();
+      index =
+          new AncestorIndex(
+              scanResult.typeToVertex, scanResult.graph, objectClassType, LCA_MEMO_SIZE);
+      ancestorIndex = index;
+    }
+    return index;
   }
 
   @Nonnull
@@ -371,6 +382,53 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
     return new ScanResult(typeToVertex, graph);
   }
 
+  /**
+   * Builds a partial hierarchy for each partition of the classes concurrently and merges them in
+   * the order of the partitions. As a type that is only referenced gets the kind of its first
+   * occurrence, the merged hierarchy equals the one of {@link #scanView(View)}.
+   */
+  private ScanResult scanViewInParallel(@Nonnull View view) {
+    List<? extends SootClass> classes = view.getClasses(true).collect(Collectors.toList());
+    int partitionSize =
+        Math.max(
+            MIN_PARTITION_SIZE,
+            classes.size() / (4 * ForkJoinPool.getCommonPoolParallelism()) + 1);
+    List<ScanResult> partialResults =
+        Lists.partition(classes, partitionSize).parallelStream()
+            .map(
+                partition -> {
+                  // keep the order of the first occurrences for the merge
+                  Map<ClassType, Vertex> typeToVertex = new LinkedHashMap<>();
+                  Graph<Vertex, Edge> graph = new SimpleDirectedGraph<>(null, null, false);
+                  partition.forEach(
+                      sootClass -> addSootClassToGraph(sootClass, typeToVertex, graph));
+                  return new ScanResult(typeToVertex, graph);
+                })
+            .collect(Collectors.toList());
+
+    Map<ClassType, Vertex> typeToVertex = Maps.newHashMapWithExpectedSize(classes.size());
+    Graph<Vertex, Edge> graph = new SimpleDirectedGraph<>(null, null, false);
+    for (ScanResult partialResult : partialResults) {
+      for (Vertex partialVertex : partialResult.typeToVertex.values()) {
+        typeToVertex.computeIfAbsent(
+            partialVertex.javaClassType,
+            type ->
+                partialVertex instanceof ScanResult.InterfaceVertex
+                    ? createAndAddInterfaceVertex(graph, type)
+                    : createAndAddClassVertex(graph, type));
+      }
+      for (Edge partialEdge : partialResult.graph.edgeSet()) {
+        Vertex source = partialResult.graph.getEdgeSource(partialEdge);
+        Vertex target = partialResult.graph.getEdgeTarget(partialEdge);
+        graph.addEdge(
+            typeToVertex.get(source.javaClassType),
+            typeToVertex.get(target.javaClassType),
+            new Edge(partialEdge.type));
+      }
+    }
+    return new ScanResult(typeToVertex, graph);
+  }
+
   private static void addSootClassToGraph(
       SootClass sootClass, Map<ClassType, Vertex> typeToVertex, Graph<Vertex, Edge> graph) {
     if (sootClass.isInterface()) {
@@ -420,10 +478,69 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
     return interfaceVertex;
   }
 
+  /**
+   * Creates an immutable snapshot of this hierarchy which answers subtype queries in constant time.
+   * Types that are added to this hierarchy afterwards are not contained in the snapshot.
+   */
+  @Nonnull
+  public synchronized FrozenTypeHierarchy freeze() {
+    return new FrozenTypeHierarchy(lazyScanResult.get(), objectClassType);
+  }
+
+  /**
+   * Adds the given class to the hierarchy. If the view has not been scanned yet, the class is added
+   * after the scan, as the scan does not necessarily see classes that have been added to the view.
+   */
   @Override
-  public void addType(@Nonnull SootClass sootClass) {
+  public synchronized void addType(@Nonnull SootClass sootClass) {
+    if (!isScanned) {
+      changesBeforeScan.add(
+          scanResult -> addSootClassToGraph(sootClass, scanResult.typeToVertex, scanResult.graph));
+      return;
+    }
     ScanResult scanResult = lazyScanResult.get();
     addSootClassToGraph(sootClass, scanResult.typeToVertex, scanResult.graph);
+    ancestorIndex = null;
+  }
+
+  /**
+   * Removes the supertype relations of the given type. Its vertex is kept as long as the type is
+   * still referenced as supertype of another type. If the view has not been scanned yet, the type
+   * is removed after the scan, as the scan could find it in an input location of the view again.
+   */
+  @Override
+  public synchronized void removeType(@Nonnull ClassType type) {
+    if (!isScanned) {
+      changesBeforeScan.add(scanResult -> removeTypeFromGraph(type, scanResult));
+      return;
+    }
+    removeTypeFromGraph(type, lazyScanResult.get());
+    ancestorIndex = null;
+  }
+
+  private static void removeTypeFromGraph(
+      @Nonnull ClassType type, @Nonnull ScanResult scanResult) {
+    Vertex vertex = scanResult.typeToVertex.get(type);
+    if (vertex == null) {
+      return;
+    }
+    Graph<Vertex, Edge> graph = scanResult.graph;
+    graph.removeAllEdges(new ArrayList<>(graph.outgoingEdgesOf(vertex)));
+    if (graph.inDegreeOf(vertex) == 0) {
+      graph.removeVertex(vertex);
+      scanResult.typeToVertex.remove(type);
+    }
+  }
+
+  /** applies the changes that were made before the scan - in their order */
+  @Nonnull
+  private ScanResult applyChangesBeforeScan(@Nonnull ScanResult scanResult) {
+    synchronized (this) {
+      changesBeforeScan.forEach(change -> change.accept(scanResult));
+      changesBeforeScan.clear();
+      isScanned = true;
+    }
+    return scanResult;
   }
 
   /** Holds a vertex for each {@link ClassType} encountered during the scan. */
@@ -440,7 +557,7 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
       public abstract Stream<ClassType> directSubTypesOf(Graph<Vertex, Edge> graph, Vertex vertex);
     }
 
-    private static class InterfaceVertex extends Vertex {
+    protected static class InterfaceVertex extends Vertex {
       public InterfaceVertex(ClassType javaClassType) {
         super(javaClassType);
       }
@@ -457,7 +574,7 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
       }
     }
 
-    private static class ClassVertex extends Vertex {
+    protected static class ClassVertex extends Vertex {
       public ClassVertex(ClassType javaClassType) {
         super(javaClassType);
       }
@@ -534,5 +651,17 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
     public int hashCode() {
       return Objects.hash(getKey()) + Objects.hash(getValue());
     }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof SymmetricKey)) {
+        return false;
+      }
+      SymmetricKey other = (SymmetricKey) obj;
+      return (Objects.equals(getKey(), other.getKey())
+              && Objects.equals(getValue(), other.getValue()))
+          || (Objects.equals(getKey(), other.getValue())
+              && Objects.equals(getValue(), other.getKey()));
+    }
   }
 }
@@ -39,17 +39,36 @@ import sootup.core.typehierarchy.ViewTypeHierarchy;
  * @author Linghui Luo
  */
 public abstract class AbstractView implements View {
-  @Nullable private TypeHierarchy typeHierarchy;
+  @Nullable private volatile TypeHierarchy typeHierarchy;
 
   public AbstractView() {}
 
   @Override
   @Nonnull
   public TypeHierarchy getTypeHierarchy() {
-    if (this.typeHierarchy == null) {
-      typeHierarchy = new ViewTypeHierarchy(this);
+    TypeHierarchy hierarchy = this.typeHierarchy;
+    if (hierarchy == null) {
+      synchronized (this) {
+        hierarchy = this.typeHierarchy;
+        if (hierarchy == null) {
+          hierarchy = createTypeHierarchy();
+          this.typeHierarchy = hierarchy;
+        }
+      }
     }
-    return typeHierarchy;
+    return hierarchy;
+  }
+
+  /** @return the {@link TypeHierarchy} of this view if it has been created already. */
+  @Nonnull
+  protected Optional<TypeHierarchy> getTypeHierarchyIfCreated() {
+    return Optional.ofNullable(typeHierarchy);
+  }
+
+  /** Creates the {@link TypeHierarchy} of this view once it is requested for the first time. */
+  @Nonnull
+  protected TypeHierarchy createTypeHierarchy() {
+    return new ViewTypeHierarchy(this);
   }
 
   /**
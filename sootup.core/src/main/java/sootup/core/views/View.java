@@ -46,6 +46,15 @@ public interface View {
   @Nonnull
   Stream<? extends SootClass> getClasses();
 
+  /**
+   * Return all classes in the view. If <code>parallel</code> is true, the view may resolve the
+   * classes concurrently.
+   */
+  @Nonnull
+  default Stream<? extends SootClass> getClasses(boolean parallel) {
+    return getClasses();
+  }
+
   /**
    * Return a class with given signature.
    *
@@ -0,0 +1,199 @@
+package sootup.core.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.expr.JLeExpr;
+import sootup.core.jimple.common.ref.JCaughtExceptionRef;
+import sootup.core.jimple.common.stmt.*;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.signatures.PackageName;
+import sootup.core.types.ClassType;
+import sootup.core.types.VoidType;
+
+@Tag("Java8")
+public class ImmutableBlockStmtGraphTest {
+
+  JNopStmt firstNop = new JNopStmt(StmtPositionInfo.getNoStmtPositionInfo());
+  JNopStmt secondNop = new JNopStmt(StmtPositionInfo.getNoStmtPositionInfo());
+  JNopStmt thirdNop = new JNopStmt(StmtPositionInfo.getNoStmtPositionInfo());
+  JReturnVoidStmt returnStmt = new JReturnVoidStmt(StmtPositionInfo.getNoStmtPositionInfo());
+  JReturnVoidStmt secondReturnStmt = new JReturnVoidStmt(StmtPositionInfo.getNoStmtPositionInfo());
+  JNopStmt unknownNop = new JNopStmt(StmtPositionInfo.getNoStmtPositionInfo());
+
+  BranchingStmt ifStmt =
+      new JIfStmt(
+          new JLeExpr(IntConstant.getInstance(2), IntConstant.getInstance(3)),
+          StmtPositionInfo.getNoStmtPositionInfo());
+
+  private final ClassType throwableSig =
+      new ClassType() {
+
+        @Override
+        public String getFullyQualifiedName() {
+          return getPackageName() + "." + getClassName();
+        }
+
+        @Override
+        public String getClassName() {
+          return "Throwable";
+        }
+
+        @Override
+        public PackageName getPackageName() {
+          return new PackageName("java.lang");
+        }
+      };
+
+  JIdentityStmt handlerStmt =
+      new JIdentityStmt(
+          new Local("ex", throwableSig),
+          new JCaughtExceptionRef(throwableSig),
+          StmtPositionInfo.getNoStmtPositionInfo());
+
+  private MutableBlockStmtGraph createGraph() {
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.setStartingStmt(firstNop);
+    graph.putEdge(firstNop, ifStmt);
+    graph.putEdge(ifStmt, JIfStmt.FALSE_BRANCH_IDX, secondNop);
+    graph.putEdge(ifStmt, JIfStmt.TRUE_BRANCH_IDX, thirdNop);
+    graph.addExceptionalEdge(secondNop, throwableSig, handlerStmt);
+    graph.putEdge(secondNop, returnStmt);
+    graph.putEdge(thirdNop, secondReturnStmt);
+    graph.putEdge(handlerStmt, thirdNop);
+    return graph;
+  }
+
+  @Test
+  public void testSameFlowsAsMutableGraph() {
+    MutableBlockStmtGraph mutableGraph = createGraph();
+    ImmutableBlockStmtGraph graph = new ImmutableBlockStmtGraph(mutableGraph);
+
+    assertEquals(mutableGraph.getStartingStmt(), graph.getStartingStmt());
+    assertEquals(mutableGraph.getStmts(), graph.getStmts());
+    List<Stmt> iteratedStmts = new ArrayList<>();
+    graph.forEach(iteratedStmts::add);
+    assertEquals(mutableGraph.getStmts(), iteratedStmts);
+    assertEquals(mutableGraph.buildTraps(), graph.buildTraps());
+    assertEquals(mutableGraph.getBlocks().size(), graph.getBlocks().size());
+    assertEquals(mutableGraph.getNodes().size(), graph.getNodes().size());
+
+    for (Stmt stmt : mutableGraph.getNodes()) {
+      assertTrue(graph.containsNode(stmt));
+      assertTrue(graph.getNodes().contains(stmt));
+      assertEquals(mutableGraph.successors(stmt), graph.successors(stmt));
+      assertEquals(mutableGraph.predecessors(stmt), graph.predecessors(stmt));
+      assertEquals(mutableGraph.exceptionalSuccessors(stmt), graph.exceptionalSuccessors(stmt));
+      assertEquals(mutableGraph.exceptionalPredecessors(stmt), graph.exceptionalPredecessors(stmt));
+      assertEquals(mutableGraph.inDegree(stmt), graph.inDegree(stmt));
+      assertEquals(mutableGraph.outDegree(stmt), graph.outDegree(stmt));
+      assertEquals(mutableGraph.getBlockOf(stmt).getStmts(), graph.getBlockOf(stmt).getStmts());
+      for (Stmt successor : mutableGraph.successors(stmt)) {
+        assertTrue(graph.hasEdgeConnecting(stmt, successor));
+      }
+    }
+    assertFalse(graph.hasEdgeConnecting(firstNop, returnStmt));
+    assertEquals(mutableGraph, graph);
+    assertEquals(graph, mutableGraph);
+
+    // copying the frozen graph results in the same graph again
+    assertEquals(mutableGraph, new MutableBlockStmtGraph(graph));
+  }
+
+  @Test
+  public void testBlocks() {
+    ImmutableBlockStmtGraph graph = new ImmutableBlockStmtGraph(createGraph());
+
+    BasicBlock<?> startingBlock = graph.getStartingStmtBlock();
+    assertEquals(Arrays.asList(firstNop, ifStmt), startingBlock.getStmts());
+    assertEquals(firstNop, startingBlock.getHead());
+    assertEquals(ifStmt, startingBlock.getTail());
+    assertEquals(2, startingBlock.getSuccessors().size());
+    assertEquals(secondNop, startingBlock.getSuccessors().get(0).getHead());
+    assertEquals(thirdNop, startingBlock.getSuccessors().get(1).getHead());
+
+    BasicBlock<?> tryBlock = graph.getBlockOf(secondNop);
+    BasicBlock<?> handlerBlock = graph.getBlockOf(handlerStmt);
+    assertSame(handlerBlock, tryBlock.getExceptionalSuccessors().get(throwableSig));
+    assertSame(tryBlock, handlerBlock.getExceptionalPredecessors().get(throwableSig));
+
+    List<? extends BasicBlock<?>> sortedBlocks = graph.getBlocksSorted();
+    List<? extends BasicBlock<?>> mutableSortedBlocks = createGraph().getBlocksSorted();
+    assertEquals(mutableSortedBlocks.size(), sortedBlocks.size());
+    for (int i = 0; i < sortedBlocks.size(); i++) {
+      assertEquals(mutableSortedBlocks.get(i).getStmts(), sortedBlocks.get(i).getStmts());
+    }
+  }
+
+  @Test
+  public void testImmutability() {
+    ImmutableBlockStmtGraph graph = new ImmutableBlockStmtGraph(createGraph());
+
+    assertThrows(UnsupportedOperationException.class, () -> graph.successors(ifStmt).clear());
+    assertThrows(UnsupportedOperationException.class, () -> graph.getNodes().remove(firstNop));
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> graph.removeExceptionalFlowFromAllBlocks(throwableSig, handlerStmt));
+    assertThrows(IllegalArgumentException.class, () -> graph.successors(unknownNop));
+    assertFalse(graph.containsNode(unknownNop));
+    assertEquals(-1, graph.indexOf(unknownNop));
+  }
+
+  @Test
+  public void testBodyIsFrozen() {
+    MutableBlockStmtGraph mutableGraph = createGraph();
+    Body.BodyBuilder builder = Body.builder(mutableGraph);
+    builder.setMethodSignature(
+        new MethodSignature(
+            throwableSig, "method", Collections.emptyList(), VoidType.getInstance()));
+    Body body = builder.build();
+
+    assertTrue(body.getStmtGraph() instanceof ImmutableBlockStmtGraph);
+    assertEquals(mutableGraph.getStmts(), body.getStmts());
+
+    // changes of the builder are not visible in the built body
+    mutableGraph.removeNode(thirdNop, false);
+    assertTrue(body.getStmtGraph().containsNode(thirdNop));
+  }
+
+  @Test
+  public void testBodyNumbering() {
+    Local a = new Local("a", throwableSig);
+    Local b = new Local("b", throwableSig);
+    Local ex = (Local) handlerStmt.getLeftOp();
+    Body.BodyBuilder builder = Body.builder(createGraph());
+    builder.setMethodSignature(
+        new MethodSignature(
+            throwableSig, "method", Collections.emptyList(), VoidType.getInstance()));
+    builder.setLocals(new LinkedHashSet<>(Arrays.asList(a, ex, b)));
+    Body body = builder.build();
+
+    List<Stmt> stmts = body.getStmts();
+    assertEquals(stmts.size(), body.getStmtCount());
+    for (int i = 0; i < stmts.size(); i++) {
+      assertEquals(i, body.getStmtIndex(stmts.get(i)));
+      assertSame(stmts.get(i), body.getStmt(i));
+    }
+    assertEquals(-1, body.getStmtIndex(unknownNop));
+
+    assertEquals(3, body.getLocalCount());
+    assertEquals(0, body.getLocalIndex(a));
+    assertEquals(1, body.getLocalIndex(ex));
+    assertEquals(2, body.getLocalIndex(b));
+    assertSame(b, body.getLocal(2));
+    assertEquals(-1, body.getLocalIndex(new Local("c", throwableSig)));
+    // locals are looked up by identity, not by their name
+    assertEquals(-1, body.getLocalIndex(new Local("a", throwableSig)));
+
+    // the numbering is not affected by later changes of the builder
+    builder.addLocal(new Local("c", throwableSig));
+    assertEquals(3, body.getLocalCount());
+    assertEquals(-1, body.getLocalIndex(new Local("c", throwableSig)));
+  }
+}
@@ -21,11 +21,17 @@ package sootup.interceptors.typeresolving;
  * #L%
  */
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
 import javax.annotation.Nonnull;
+import sootup.core.BaseViewChangeListener;
 import sootup.core.IdentifierFactory;
+import sootup.core.model.SootClass;
 import sootup.core.typehierarchy.TypeHierarchy;
 import sootup.core.types.*;
+import sootup.core.views.MutableView;
 import sootup.core.views.View;
 import sootup.interceptors.typeresolving.types.BottomType;
 import sootup.interceptors.typeresolving.types.TopType;
@@ -33,19 +39,62 @@ import sootup.interceptors.typeresolving.types.TopType;
 /** @author Zun Wang */
 public class BytecodeHierarchy {
 
+  /** the maximum number of class type pairs whose relations are memoized per view */
+  private static final long MAXIMUM_MEMO_SIZE = 100_000;
+
+  /**
+   * the memos shared by all bodies of a view. The memos do not reference the views, so a view that
+   * is not used anymore can be collected.
+   */
+  private static final Cache<View, Memo> memosOfViews =
+      CacheBuilder.newBuilder().weakKeys().build();
+
   private final TypeHierarchy typeHierarchy;
   public final ClassType objectClassType;
   public final ClassType throwableClassType;
   private final ClassType serializableClassType;
   private final ClassType cloneableClassType;
 
+  @Nonnull private final Memo memo;
+
   public BytecodeHierarchy(View view) {
+    this(view, new Memo());
+  }
+
+  private BytecodeHierarchy(@Nonnull View view, @Nonnull Memo memo) {
     this.typeHierarchy = view.getTypeHierarchy();
     IdentifierFactory factory = view.getIdentifierFactory();
     objectClassType = factory.getClassType("java.lang.Object");
     throwableClassType = factory.getClassType("java.lang.Throwable");
     serializableClassType = factory.getClassType("java.io.Serializable");
     cloneableClassType = factory.getClassType("java.lang.Cloneable");
+    this.memo = memo;
+  }
+
+  /**
+   * Returns a BytecodeHierarchy that shares the memoized relations of class types with all other
+   * BytecodeHierarchies of the view, so each relation is computed once per view instead of once
+   * per body. The memo is thread-safe. If the view is a {@link MutableView}, the memo is cleared
+   * when classes are added or removed.
+   */
+  @Nonnull
+  public static BytecodeHierarchy of(@Nonnull View view) {
+    final Memo memo;
+    try {
+      memo =
+          memosOfViews.get(
+              view,
+              () -> {
+                Memo newMemo = new Memo();
+                if (view instanceof MutableView) {
+                  ((MutableView) view).addChangeListener(new InvalidatingListener(newMemo));
+                }
+                return newMemo;
+              });
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+    return new BytecodeHierarchy(view, memo);
   }
 
   boolean contains(ClassType type) {
@@ -176,14 +225,95 @@ public class BytecodeHierarchy {
         ret.add(objectClassType);
       }
     } else {
-      ret.addAll(typeHierarchy.getLowestCommonAncestors((ClassType) a, (ClassType) b));
+      ret.addAll(getLowestCommonAncestors((ClassType) a, (ClassType) b));
     }
     return ret;
   }
 
+  private Collection<ClassType> getLowestCommonAncestors(ClassType a, ClassType b) {
+    final TypePair key = new TypePair(a, b);
+    Collection<ClassType> lcas = memo.lowestCommonAncestors.getIfPresent(key);
+    if (lcas == null) {
+      lcas = typeHierarchy.getLowestCommonAncestors(a, b);
+      memo.lowestCommonAncestors.put(key, lcas);
+    }
+    return lcas;
+  }
+
   private boolean canStoreType(ClassType ancestor, ClassType child) {
-    return ancestor == objectClassType
-        || (typeHierarchy.contains(ancestor)
-            && typeHierarchy.subtypesOf(ancestor).anyMatch(t -> t == child));
+    if (ancestor == objectClassType) {
+      return true;
+    }
+    final TypePair key = new TypePair(ancestor, child);
+    Boolean canStore = memo.canStoreType.getIfPresent(key);
+    if (canStore == null) {
+      canStore =
+          typeHierarchy.contains(ancestor)
+              && typeHierarchy.subtypesOf(ancestor).anyMatch(t -> t == child);
+      memo.canStoreType.put(key, canStore);
+    }
+    return canStore;
+  }
+
+  /** the memoized relations of class types */
+  private static final class Memo {
+    /** memoizes {@link #canStoreType(ClassType, ClassType)}, as it traverses the subtypes */
+    private final Cache<TypePair, Boolean> canStoreType =
+        CacheBuilder.newBuilder().maximumSize(MAXIMUM_MEMO_SIZE).build();
+
+    private final Cache<TypePair, Collection<ClassType>> lowestCommonAncestors =
+        CacheBuilder.newBuilder().maximumSize(MAXIMUM_MEMO_SIZE).build();
+
+    void clear() {
+      canStoreType.invalidateAll();
+      lowestCommonAncestors.invalidateAll();
+    }
+  }
+
+  /** an ordered pair of class types */
+  private static final class TypePair {
+    private final ClassType first;
+    private final ClassType second;
+
+    TypePair(ClassType first, ClassType second) {
+      this.first = first;
+      this.second = second;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof TypePair)) {
+        return false;
+      }
+      TypePair other = (TypePair) o;
+      return first.equals(other.first) && second.equals(other.second);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * first.hashCode() + second.hashCode();
+    }
+  }
+
+  /** clears the memo of a mutable view, as its memoized relations may be outdated */
+  private static final class InvalidatingListener extends BaseViewChangeListener {
+    private final Memo memo;
+
+    InvalidatingListener(Memo memo) {
+      this.memo = memo;
+    }
+
+    @Override
+    public void classAdded(SootClass sc) {
+      memo.clear();
+    }
+
+    @Override
+    public void classRemoved(SootClass sc) {
+      memo.clear();
+    }
   }
 }
@@ -67,7 +67,7 @@ public class TypeResolver {
 
   public boolean resolve(@Nonnull Body.BodyBuilder builder) {
     init(builder);
-    BytecodeHierarchy hierarchy = new BytecodeHierarchy(view);
+    BytecodeHierarchy hierarchy = BytecodeHierarchy.of(view);
     AugEvalFunction evalFunction = new AugEvalFunction(view);
     final Collection<Local> locals = Lists.newArrayList(builder.getLocals());
     Typing iniTyping = new Typing(locals);
@@ -108,8 +108,8 @@ public class TypeResolver {
         .forEach(
             local -> {
               Type oldType = local.getType();
-              Type type = minCastsTyping.getMap().getOrDefault(local, oldType);
-              if (type != oldType) {
+              Type type = minCastsTyping.getType(local);
+              if (type != null && type != oldType) {
                 Local newLocal = local.withType(type);
                 builder.replaceLocal(local, newLocal);
               }
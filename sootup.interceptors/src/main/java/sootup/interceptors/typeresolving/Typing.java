@@ -27,39 +27,102 @@ import sootup.core.jimple.basic.Local;
 import sootup.core.types.Type;
 import sootup.interceptors.typeresolving.types.BottomType;
 
+/**
+ * Maps the locals of a body to their types. The types are stored in an array that is indexed by
+ * the number of the local, and the numbering is shared by all copies of a Typing. Copies share the
+ * array as well until one of them changes a type (copy-on-write), as most of the typings that are
+ * created for ambiguous types differ in a few locals only.
+ */
 public class Typing {
-  @Nonnull private final Map<Local, Type> local2Type;
+  /** the numbering of the locals, shared by all copies */
+  @Nonnull private final Map<Local, Integer> localToIndex;
+
+  @Nonnull private final Local[] indexToLocal;
+
+  @Nonnull private Type[] types;
+
+  /** true, if the array of types may be shared with another copy */
+  private boolean typesShared;
+
+  /** the types of the locals that were added after this typing was created, e.g. for casts */
+  @Nullable private Map<Local, Type> addedLocal2Type;
+
   @Nonnull private BitSet stmtsIDList;
 
   public Typing(@Nonnull Collection<Local> locals) {
     // initialize
-    local2Type = new HashMap<>(locals.size());
+    localToIndex = new HashMap<>(locals.size() * 2);
+    List<Local> indexed = new ArrayList<>(locals.size());
     for (Local local : locals) {
-      local2Type.put(local, BottomType.getInstance());
+      if (localToIndex.putIfAbsent(local, indexed.size()) == null) {
+        indexed.add(local);
+      }
     }
+    indexToLocal = indexed.toArray(new Local[0]);
+    types = new Type[indexToLocal.length];
+    Arrays.fill(types, BottomType.getInstance());
     stmtsIDList = new BitSet();
   }
 
   public Typing(@Nonnull Typing typing, @Nonnull BitSet stmtsIDList) {
-    this.local2Type = new HashMap<>(typing.local2Type);
+    this.localToIndex = typing.localToIndex;
+    this.indexToLocal = typing.indexToLocal;
+    this.types = typing.types;
+    this.typesShared = true;
+    typing.typesShared = true;
+    if (typing.addedLocal2Type != null) {
+      this.addedLocal2Type = new HashMap<>(typing.addedLocal2Type);
+    }
     this.stmtsIDList = stmtsIDList;
   }
 
   @Nullable
   public Type getType(@Nonnull Local local) {
-    return local2Type.get(local);
+    final Integer index = localToIndex.get(local);
+    if (index != null) {
+      return types[index];
+    }
+    return addedLocal2Type == null ? null : addedLocal2Type.get(local);
   }
 
   public void set(@Nonnull Local local, @Nonnull Type type) {
-    this.local2Type.put(local, type);
+    final Integer index = localToIndex.get(local);
+    if (index == null) {
+      if (addedLocal2Type == null) {
+        addedLocal2Type = new HashMap<>();
+      }
+      addedLocal2Type.put(local, type);
+      return;
+    }
+    if (types[index] == type) {
+      return;
+    }
+    if (typesShared) {
+      types = types.clone();
+      typesShared = false;
+    }
+    types[index] = type;
   }
 
   public Collection<Local> getLocals() {
-    return local2Type.keySet();
+    if (addedLocal2Type == null) {
+      return Collections.unmodifiableSet(localToIndex.keySet());
+    }
+    Set<Local> locals = new HashSet<>(localToIndex.keySet());
+    locals.addAll(addedLocal2Type.keySet());
+    return locals;
   }
 
+  /** Returns a copy of the types of the locals. */
   public Map<Local, Type> getMap() {
-    return this.local2Type;
+    Map<Local, Type> map = new HashMap<>(indexToLocal.length * 2);
+    for (int i = 0; i < indexToLocal.length; i++) {
+      map.put(indexToLocal[i], types[i]);
+    }
+    if (addedLocal2Type != null) {
+      map.putAll(addedLocal2Type);
+    }
+    return map;
   }
 
   public void setStmtsIDList(@Nonnull BitSet bitSet) {
@@ -87,30 +150,19 @@ public class Typing {
       @Nonnull BytecodeHierarchy hierarchy,
       @Nonnull Collection<Local> localsToIgnore) {
 
-    if (!typing.getLocals().equals(this.getLocals())) { // TODO: ms: check isnt it even == then?
+    if (!hasSameLocals(typing)) {
       throw new RuntimeException("The compared typings should have the same locals' set!");
     }
 
     int ret = 0;
-    for (Map.Entry<Local, Type> local : this.local2Type.entrySet()) {
-      if (localsToIgnore.contains(local.getKey())) {
+    for (int i = 0; i < indexToLocal.length; i++) {
+      if (localsToIgnore.contains(indexToLocal[i])) {
         continue;
       }
-
-      Type ta = local.getValue();
-      Type tb = typing.getType(local.getKey());
-
-      int cmp;
-      if (ta.equals(tb)) {
-        cmp = 0;
-      } else if (hierarchy.isAncestor(ta, tb)) {
-        cmp = 1;
-      } else if (hierarchy.isAncestor(tb, ta)) {
-        cmp = -1;
-      } else {
+      int cmp = compare(types[i], typing.getType(indexToLocal[i]), hierarchy);
+      if (cmp == -2) {
         return -2;
       }
-
       if ((cmp == 1 && ret == -1) || (cmp == -1 && ret == 1)) {
         return 2;
       }
@@ -118,6 +170,49 @@ public class Typing {
         ret = cmp;
       }
     }
+    if (addedLocal2Type != null) {
+      for (Map.Entry<Local, Type> local : addedLocal2Type.entrySet()) {
+        if (localsToIgnore.contains(local.getKey())) {
+          continue;
+        }
+        int cmp = compare(local.getValue(), typing.getType(local.getKey()), hierarchy);
+        if (cmp == -2) {
+          return -2;
+        }
+        if ((cmp == 1 && ret == -1) || (cmp == -1 && ret == 1)) {
+          return 2;
+        }
+        if (ret == 0) {
+          ret = cmp;
+        }
+      }
+    }
     return ret;
   }
+
+  private boolean hasSameLocals(@Nonnull Typing typing) {
+    if (typing.localToIndex == localToIndex) {
+      // copies of the same typing, only the added locals can differ
+      final Set<Local> added =
+          addedLocal2Type == null ? Collections.emptySet() : addedLocal2Type.keySet();
+      final Set<Local> otherAdded =
+          typing.addedLocal2Type == null
+              ? Collections.emptySet()
+              : typing.addedLocal2Type.keySet();
+      return added.equals(otherAdded);
+    }
+    return typing.getLocals().equals(getLocals());
+  }
+
+  private static int compare(Type ta, Type tb, @Nonnull BytecodeHierarchy hierarchy) {
+    if (ta.equals(tb)) {
+      return 0;
+    } else if (hierarchy.isAncestor(ta, tb)) {
+      return 1;
+    } else if (hierarchy.isAncestor(tb, ta)) {
+      return -1;
+    } else {
+      return -2;
+    }
+  }
 }
@@ -0,0 +1,994 @@
+package sootup.java.bytecode.frontend.cache;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import javax.annotation.Nonnull;
+import sootup.core.IdentifierFactory;
+import sootup.core.graph.BasicBlock;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.Jimple;
+import sootup.core.jimple.basic.*;
+import sootup.core.jimple.common.constant.*;
+import sootup.core.jimple.common.expr.*;
+import sootup.core.jimple.common.ref.*;
+import sootup.core.jimple.common.stmt.*;
+import sootup.core.jimple.javabytecode.stmt.*;
+import sootup.core.model.Body;
+import sootup.core.model.FullPosition;
+import sootup.core.model.LinePosition;
+import sootup.core.model.Position;
+import sootup.core.signatures.FieldSignature;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.signatures.MethodSubSignature;
+import sootup.core.types.ArrayType;
+import sootup.core.types.ClassType;
+import sootup.core.types.Type;
+import sootup.core.types.UnknownType;
+import sootup.java.core.jimple.basic.JavaLocal;
+import sootup.java.core.language.JavaJimple;
+
+/**
+ * Compact binary encoding of a Jimple {@link Body} which is used by the {@link
+ * PersistentBodyCache}.
+ *
+ * <p>All strings (names, types, constants) are stored once in a table and referenced by index,
+ * Locals and Stmts are referenced by their position in the Body. The {@link StmtGraph} is stored
+ * block-wise i.e. the Stmts of each block, its exceptional successors and its successors; so the
+ * graph is rebuilt without reconstructing traps.
+ *
+ * <p>Only the constructs produced by the bytecode frontend are supported. If a Body contains
+ * anything else (e.g. phi expressions or operand positions) {@link #serialize(Body)} throws an
+ * {@link IllegalArgumentException} and the Body is simply not cached.
+ */
+public class BodySerializer {
+
+  private static final int MAGIC = 0x53554243; // "SUBC"
+  private static final short FORMAT_VERSION = 1;
+
+  // Stmt tags
+  private static final byte NOP = 0;
+  private static final byte IDENTITY = 1;
+  private static final byte ASSIGN = 2;
+  private static final byte INVOKE = 3;
+  private static final byte IF = 4;
+  private static final byte GOTO = 5;
+  private static final byte SWITCH = 6;
+  private static final byte RETURN = 7;
+  private static final byte RETURN_VOID = 8;
+  private static final byte THROW = 9;
+  private static final byte ENTER_MONITOR = 10;
+  private static final byte EXIT_MONITOR = 11;
+  private static final byte RET = 12;
+  private static final byte BREAKPOINT = 13;
+
+  // Value tags
+  private static final byte LOCAL = 0;
+  private static final byte INT_CONST = 1;
+  private static final byte LONG_CONST = 2;
+  private static final byte FLOAT_CONST = 3;
+  private static final byte DOUBLE_CONST = 4;
+  private static final byte NULL_CONST = 5;
+  private static final byte STRING_CONST = 6;
+  private static final byte CLASS_CONST = 7;
+  private static final byte METHOD_TYPE = 8;
+  private static final byte METHOD_HANDLE = 9;
+  private static final byte ENUM_CONST = 10;
+  private static final byte BOOLEAN_CONST = 11;
+  private static final byte THIS_REF = 20;
+  private static final byte PARAMETER_REF = 21;
+  private static final byte CAUGHT_EXCEPTION_REF = 22;
+  private static final byte STATIC_FIELD_REF = 23;
+  private static final byte INSTANCE_FIELD_REF = 24;
+  private static final byte ARRAY_REF = 25;
+  private static final byte BINOP = 30;
+  private static final byte NEG = 50;
+  private static final byte LENGTH = 51;
+  private static final byte CAST = 52;
+  private static final byte INSTANCE_OF = 53;
+  private static final byte NEW = 54;
+  private static final byte NEW_ARRAY = 55;
+  private static final byte NEW_MULTI_ARRAY = 56;
+  private static final byte STATIC_INVOKE = 60;
+  private static final byte VIRTUAL_INVOKE = 61;
+  private static final byte INTERFACE_INVOKE = 62;
+  private static final byte SPECIAL_INVOKE = 63;
+  private static final byte DYNAMIC_INVOKE = 64;
+
+  // Position tags
+  private static final byte NO_POSITION = 0;
+  private static final byte LINE_POSITION = 1;
+  private static final byte FULL_POSITION = 2;
+
+  /** the order of this list defines the binop sub tags */
+  private static final List<Class<? extends AbstractBinopExpr>> BINOPS =
+      Arrays.asList(
+          JAddExpr.class,
+          JAndExpr.class,
+          JCmpExpr.class,
+          JCmpgExpr.class,
+          JCmplExpr.class,
+          JDivExpr.class,
+          JEqExpr.class,
+          JGeExpr.class,
+          JGtExpr.class,
+          JLeExpr.class,
+          JLtExpr.class,
+          JMulExpr.class,
+          JNeExpr.class,
+          JOrExpr.class,
+          JRemExpr.class,
+          JShlExpr.class,
+          JShrExpr.class,
+          JSubExpr.class,
+          JUshrExpr.class,
+          JXorExpr.class);
+
+  @Nonnull private final IdentifierFactory identifierFactory;
+
+  public BodySerializer(@Nonnull IdentifierFactory identifierFactory) {
+    this.identifierFactory = identifierFactory;
+  }
+
+  /**
+   * @throws IllegalArgumentException if the Body contains a construct that can not be encoded.
+   */
+  @Nonnull
+  public byte[] serialize(@Nonnull Body body) {
+    try {
+      return new Writer(body).write();
+    } catch (IOException e) {
+      // in-memory streams do not throw
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * @param methodSignature the signature of the serialized Body - it is part of the cache key and
+   *     therefore not stored again.
+   * @throws IOException if the data is malformed or was written by an incompatible format version.
+   */
+  @Nonnull
+  public Body deserialize(@Nonnull byte[] data, @Nonnull MethodSignature methodSignature)
+      throws IOException {
+    try {
+      return new Reader(data).read(methodSignature);
+    } catch (RuntimeException e) {
+      throw new IOException("Malformed serialized Body of " + methodSignature, e);
+    }
+  }
+
+  private final class Writer {
+    private final Body body;
+    private final ByteArrayOutputStream content = new ByteArrayOutputStream(1024);
+    private final DataOutputStream out = new DataOutputStream(content);
+    private final Map<String, Integer> stringTable = new LinkedHashMap<>();
+    private final Map<Type, Integer> typeTable = new HashMap<>();
+    private final Map<Local, Integer> localIdx = new HashMap<>();
+
+    Writer(Body body) {
+      this.body = body;
+    }
+
+    byte[] write() throws IOException {
+      writePosition(body.getPosition());
+
+      final Set<Local> locals = body.getLocals();
+      out.writeInt(locals.size());
+      for (Local local : locals) {
+        if (local instanceof JavaLocal) {
+          if (((JavaLocal) local).getAnnotations().iterator().hasNext()) {
+            throw new IllegalArgumentException("annotated Locals are not supported: " + local);
+          }
+          out.writeBoolean(true);
+        } else if (local.getClass() == Local.class) {
+          out.writeBoolean(false);
+        } else {
+          throw new IllegalArgumentException("unsupported Local: " + local.getClass());
+        }
+        writeString(local.getName());
+        writeType(local.getType());
+        localIdx.put(local, localIdx.size());
+      }
+
+      final StmtGraph<?> graph = body.getStmtGraph();
+      final List<? extends BasicBlock<?>> blocks = new ArrayList<>(graph.getBlocks());
+      final Map<BasicBlock<?>, Integer> blockIdx = new IdentityHashMap<>();
+      for (BasicBlock<?> block : blocks) {
+        blockIdx.put(block, blockIdx.size());
+      }
+
+      final Stmt startingStmt = graph.getStartingStmt();
+      out.writeInt(blocks.size());
+      out.writeInt(
+          startingStmt == null ? -1 : blockIdx.get(graph.getBlockOf(startingStmt)).intValue());
+      for (BasicBlock<?> block : blocks) {
+        final List<Stmt> stmts = block.getStmts();
+        out.writeInt(stmts.size());
+        for (Stmt stmt : stmts) {
+          writeStmt(stmt);
+        }
+        final Map<? extends ClassType, ? extends BasicBlock<?>> exceptionalSuccessors =
+            block.getExceptionalSuccessors();
+        out.writeInt(exceptionalSuccessors.size());
+        for (Map.Entry<? extends ClassType, ? extends BasicBlock<?>> entry :
+            exceptionalSuccessors.entrySet()) {
+          writeType(entry.getKey());
+          out.writeInt(blockIdx.get(entry.getValue()));
+        }
+      }
+      for (BasicBlock<?> block : blocks) {
+        final List<? extends BasicBlock<?>> successors = block.getSuccessors();
+        out.writeInt(successors.size());
+        for (BasicBlock<?> successor : successors) {
+          out.writeInt(blockIdx.get(successor));
+        }
+      }
+      out.flush();
+
+      final ByteArrayOutputStream result = new ByteArrayOutputStream(content.size() + 512);
+      final DataOutputStream header = new DataOutputStream(result);
+      header.writeInt(MAGIC);
+      header.writeShort(FORMAT_VERSION);
+      header.writeInt(stringTable.size());
+      for (String str : stringTable.keySet()) {
+        final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        header.writeInt(bytes.length);
+        header.write(bytes);
+      }
+      header.flush();
+      content.writeTo(result);
+      return result.toByteArray();
+    }
+
+    private void writeString(String str) throws IOException {
+      Integer idx = stringTable.get(str);
+      if (idx == null) {
+        idx = stringTable.size();
+        stringTable.put(str, idx);
+      }
+      out.writeInt(idx);
+    }
+
+    private void writeType(Type type) throws IOException {
+      if (type instanceof UnknownType) {
+        out.writeInt(-1);
+        return;
+      }
+      Integer idx = typeTable.get(type);
+      if (idx == null) {
+        // make sure the type survives the round trip through its textual representation e.g.
+        // module specific ClassTypes would not.
+        final String typeName = type.toString();
+        if (!type.equals(identifierFactory.getType(typeName))) {
+          throw new IllegalArgumentException("unsupported Type: " + typeName);
+        }
+        writeString(typeName);
+        typeTable.put(type, stringTable.get(typeName));
+      } else {
+        out.writeInt(idx);
+      }
+    }
+
+    private void writeTypes(List<Type> types) throws IOException {
+      out.writeInt(types.size());
+      for (Type type : types) {
+        writeType(type);
+      }
+    }
+
+    private void writeMethodSignature(MethodSignature sig) throws IOException {
+      writeType(sig.getDeclClassType());
+      writeString(sig.getName());
+      writeType(sig.getType());
+      writeTypes(sig.getParameterTypes());
+    }
+
+    private void writeFieldSignature(FieldSignature sig) throws IOException {
+      writeType(sig.getDeclClassType());
+      writeString(sig.getName());
+      writeType(sig.getType());
+    }
+
+    private void writePosition(Position position) throws IOException {
+      if (position instanceof NoPositionInformation) {
+        out.writeByte(NO_POSITION);
+      } else if (position instanceof LinePosition) {
+        out.writeByte(LINE_POSITION);
+        out.writeInt(position.getFirstLine());
+      } else if (position.getClass() == FullPosition.class) {
+        out.writeByte(FULL_POSITION);
+        out.writeInt(position.getFirstLine());
+        out.writeInt(position.getFirstCol());
+        out.writeInt(position.getLastLine());
+        out.writeInt(position.getLastCol());
+      } else {
+        throw new IllegalArgumentException("unsupported Position: " + position.getClass());
+      }
+    }
+
+    private void writeStmtPositionInfo(StmtPositionInfo positionInfo) throws IOException {
+      if (positionInfo == StmtPositionInfo.getNoStmtPositionInfo()) {
+        out.writeBoolean(false);
+      } else if (positionInfo.getClass() == SimpleStmtPositionInfo.class) {
+        out.writeBoolean(true);
+        writePosition(positionInfo.getStmtPosition());
+      } else {
+        throw new IllegalArgumentException("unsupported StmtPositionInfo: " + positionInfo);
+      }
+    }
+
+    private void writeStmt(Stmt stmt) throws IOException {
+      final Class<? extends Stmt> clazz = stmt.getClass();
+      if (clazz == JAssignStmt.class) {
+        out.writeByte(ASSIGN);
+        writeValue(((JAssignStmt) stmt).getLeftOp());
+        writeValue(((JAssignStmt) stmt).getRightOp());
+      } else if (clazz == JIdentityStmt.class) {
+        out.writeByte(IDENTITY);
+        writeValue(((JIdentityStmt) stmt).getLeftOp());
+        writeValue(((JIdentityStmt) stmt).getRightOp());
+      } else if (clazz == JInvokeStmt.class) {
+        out.writeByte(INVOKE);
+        writeValue(((JInvokeStmt) stmt).getInvokeExpr().get());
+      } else if (clazz == JIfStmt.class) {
+        out.writeByte(IF);
+        writeValue(((JIfStmt) stmt).getCondition());
+      } else if (clazz == JGotoStmt.class) {
+        out.writeByte(GOTO);
+      } else if (clazz == JSwitchStmt.class) {
+        final JSwitchStmt switchStmt = (JSwitchStmt) stmt;
+        out.writeByte(SWITCH);
+        writeValue(switchStmt.getKey());
+        out.writeBoolean(switchStmt.isTableSwitch());
+        final List<IntConstant> values = switchStmt.getValues();
+        if (switchStmt.isTableSwitch()) {
+          out.writeInt(values.get(0).getValue());
+          out.writeInt(values.get(values.size() - 1).getValue());
+        } else {
+          out.writeInt(values.size());
+          for (IntConstant value : values) {
+            out.writeInt(value.getValue());
+          }
+        }
+      } else if (clazz == JReturnStmt.class) {
+        out.writeByte(RETURN);
+        writeValue(((JReturnStmt) stmt).getOp());
+      } else if (clazz == JReturnVoidStmt.class) {
+        out.writeByte(RETURN_VOID);
+      } else if (clazz == JThrowStmt.class) {
+        out.writeByte(THROW);
+        writeValue(((JThrowStmt) stmt).getOp());
+      } else if (clazz == JEnterMonitorStmt.class) {
+        out.writeByte(ENTER_MONITOR);
+        writeValue(((JEnterMonitorStmt) stmt).getOp());
+      } else if (clazz == JExitMonitorStmt.class) {
+        out.writeByte(EXIT_MONITOR);
+        writeValue(((JExitMonitorStmt) stmt).getOp());
+      } else if (clazz == JRetStmt.class) {
+        out.writeByte(RET);
+        writeValue(((JRetStmt) stmt).getStmtAddress());
+      } else if (clazz == JNopStmt.class) {
+        out.writeByte(NOP);
+      } else if (clazz == JBreakpointStmt.class) {
+        out.writeByte(BREAKPOINT);
+      } else {
+        throw new IllegalArgumentException("unsupported Stmt: " + clazz);
+      }
+      writeStmtPositionInfo(stmt.getPositionInfo());
+    }
+
+    private void writeValues(List<? extends Value> values) throws IOException {
+      out.writeInt(values.size());
+      for (Value value : values) {
+        writeValue(value);
+      }
+    }
+
+    private void writeValue(Value value) throws IOException {
+      if (value instanceof Local) {
+        final Integer idx = localIdx.get(value);
+        if (idx == null) {
+          throw new IllegalArgumentException("Local is not declared in the Body: " + value);
+        }
+        out.writeByte(LOCAL);
+        out.writeInt(idx);
+      } else if (value instanceof Constant) {
+        writeConstant((Constant) value);
+      } else if (value instanceof Ref) {
+        writeRef((Ref) value);
+      } else if (value instanceof AbstractInvokeExpr) {
+        writeInvokeExpr((AbstractInvokeExpr) value);
+      } else if (value instanceof AbstractBinopExpr) {
+        final int subTag = BINOPS.indexOf(value.getClass());
+        if (subTag < 0) {
+          throw new IllegalArgumentException("unsupported Expr: " + value.getClass());
+        }
+        out.writeByte(BINOP);
+        out.writeByte(subTag);
+        writeValue(((AbstractBinopExpr) value).getOp1());
+        writeValue(((AbstractBinopExpr) value).getOp2());
+      } else if (value instanceof JNegExpr) {
+        out.writeByte(NEG);
+        writeValue(((JNegExpr) value).getOp());
+      } else if (value instanceof JLengthExpr) {
+        out.writeByte(LENGTH);
+        writeValue(((JLengthExpr) value).getOp());
+      } else if (value instanceof JCastExpr) {
+        out.writeByte(CAST);
+        writeValue(((JCastExpr) value).getOp());
+        writeType(value.getType());
+      } else if (value instanceof JInstanceOfExpr) {
+        out.writeByte(INSTANCE_OF);
+        writeValue(((JInstanceOfExpr) value).getOp());
+        writeType(((JInstanceOfExpr) value).getCheckType());
+      } else if (value instanceof JNewExpr) {
+        out.writeByte(NEW);
+        writeType(value.getType());
+      } else if (value instanceof JNewArrayExpr) {
+        out.writeByte(NEW_ARRAY);
+        writeType(((JNewArrayExpr) value).getBaseType());
+        writeValue(((JNewArrayExpr) value).getSize());
+      } else if (value instanceof JNewMultiArrayExpr) {
+        out.writeByte(NEW_MULTI_ARRAY);
+        writeType(((JNewMultiArrayExpr) value).getBaseType());
+        writeValues(((JNewMultiArrayExpr) value).getSizes());
+      } else {
+        throw new IllegalArgumentException("unsupported Value: " + value.getClass());
+      }
+    }
+
+    private void writeConstant(Constant constant) throws IOException {
+      if (constant instanceof IntConstant) {
+        out.writeByte(INT_CONST);
+        out.writeInt(((IntConstant) constant).getValue());
+      } else if (constant instanceof LongConstant) {
+        out.writeByte(LONG_CONST);
+        out.writeLong(((LongConstant) constant).getValue());
+      } else if (constant instanceof FloatConstant) {
+        out.writeByte(FLOAT_CONST);
+        out.writeFloat(((FloatConstant) constant).getValue());
+      } else if (constant instanceof DoubleConstant) {
+        out.writeByte(DOUBLE_CONST);
+        out.writeDouble(((DoubleConstant) constant).getValue());
+      } else if (constant instanceof NullConstant) {
+        out.writeByte(NULL_CONST);
+      } else if (constant instanceof BooleanConstant) {
+        out.writeByte(BOOLEAN_CONST);
+        out.writeBoolean(constant == BooleanConstant.getTrue());
+      } else if (constant instanceof StringConstant) {
+        out.writeByte(STRING_CONST);
+        writeString(((StringConstant) constant).getValue());
+        writeType(constant.getType());
+      } else if (constant instanceof ClassConstant) {
+        out.writeByte(CLASS_CONST);
+        writeString(((ClassConstant) constant).getValue());
+        writeType(constant.getType());
+      } else if (constant instanceof EnumConstant) {
+        out.writeByte(ENUM_CONST);
+        writeString(((EnumConstant) constant).getValue());
+        writeType(constant.getType());
+      } else if (constant instanceof MethodType) {
+        final MethodType methodType = (MethodType) constant;
+        out.writeByte(METHOD_TYPE);
+        writeType(methodType.getReturnType());
+        writeTypes(methodType.getParameterTypes());
+        writeType(methodType.getType());
+      } else if (constant instanceof MethodHandle) {
+        final MethodHandle handle = (MethodHandle) constant;
+        out.writeByte(METHOD_HANDLE);
+        out.writeInt(handle.getKind().getValue());
+        if (handle.isMethodRef()) {
+          writeMethodSignature((MethodSignature) handle.getReferenceSignature());
+        } else {
+          writeFieldSignature((FieldSignature) handle.getReferenceSignature());
+        }
+        writeType(handle.getType());
+      } else {
+        throw new IllegalArgumentException("unsupported Constant: " + constant.getClass());
+      }
+    }
+
+    private void writeRef(Ref ref) throws IOException {
+      if (ref instanceof JThisRef) {
+        out.writeByte(THIS_REF);
+        writeType(ref.getType());
+      } else if (ref instanceof JParameterRef) {
+        out.writeByte(PARAMETER_REF);
+        writeType(ref.getType());
+        out.writeInt(((JParameterRef) ref).getIndex());
+      } else if (ref instanceof JCaughtExceptionRef) {
+        out.writeByte(CAUGHT_EXCEPTION_REF);
+        writeType(ref.getType());
+      } else if (ref instanceof JStaticFieldRef) {
+        out.writeByte(STATIC_FIELD_REF);
+        writeFieldSignature(((JStaticFieldRef) ref).getFieldSignature());
+      } else if (ref instanceof JInstanceFieldRef) {
+        out.writeByte(INSTANCE_FIELD_REF);
+        writeValue(((JInstanceFieldRef) ref).getBase());
+        writeFieldSignature(((JInstanceFieldRef) ref).getFieldSignature());
+      } else if (ref instanceof JArrayRef) {
+        out.writeByte(ARRAY_REF);
+        writeValue(((JArrayRef) ref).getBase());
+        writeValue(((JArrayRef) ref).getIndex());
+      } else {
+        throw new IllegalArgumentException("unsupported Ref: " + ref.getClass());
+      }
+    }
+
+    private void writeInvokeExpr(AbstractInvokeExpr expr) throws IOException {
+      if (expr instanceof JStaticInvokeExpr) {
+        out.writeByte(STATIC_INVOKE);
+      } else if (expr instanceof JVirtualInvokeExpr) {
+        out.writeByte(VIRTUAL_INVOKE);
+      } else if (expr instanceof JInterfaceInvokeExpr) {
+        out.writeByte(INTERFACE_INVOKE);
+      } else if (expr instanceof JSpecialInvokeExpr) {
+        out.writeByte(SPECIAL_INVOKE);
+      } else if (expr instanceof JDynamicInvokeExpr) {
+        final JDynamicInvokeExpr dynamicInvoke = (JDynamicInvokeExpr) expr;
+        out.writeByte(DYNAMIC_INVOKE);
+        writeMethodSignature(dynamicInvoke.getBootstrapMethodSignature());
+        writeValues(dynamicInvoke.getBootstrapArgs());
+        out.writeInt(dynamicInvoke.getHandleTag());
+      } else {
+        throw new IllegalArgumentException("unsupported InvokeExpr: " + expr.getClass());
+      }
+      if (expr instanceof AbstractInstanceInvokeExpr) {
+        writeValue(((AbstractInstanceInvokeExpr) expr).getBase());
+      }
+      writeMethodSignature(expr.getMethodSignature());
+      writeValues(expr.getArgs());
+    }
+  }
+
+  private final class Reader {
+    private final DataInputStream in;
+    private String[] strings;
+    private final List<Local> locals = new ArrayList<>();
+
+    Reader(byte[] data) {
+      this.in = new DataInputStream(new ByteArrayInputStream(data));
+    }
+
+    Body read(MethodSignature methodSignature) throws IOException {
+      if (in.readInt() != MAGIC || in.readShort() != FORMAT_VERSION) {
+        throw new IOException("Incompatible serialized Body format.");
+      }
+      strings = new String[in.readInt()];
+      for (int i = 0; i < strings.length; i++) {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        strings[i] = new String(bytes, StandardCharsets.UTF_8);
+      }
+
+      final Position position = readPosition();
+
+      final int localCount = in.readInt();
+      for (int i = 0; i < localCount; i++) {
+        final boolean isJavaLocal = in.readBoolean();
+        final String name = readString();
+        final Type type = readType();
+        locals.add(isJavaLocal ? JavaJimple.newLocal(name, type) : Jimple.newLocal(name, type));
+      }
+
+      final int blockCount = in.readInt();
+      final int startingBlock = in.readInt();
+      final List<List<Stmt>> blocks = new ArrayList<>(blockCount);
+      final List<Map<ClassType, Integer>> exceptionalSuccessors = new ArrayList<>(blockCount);
+      for (int i = 0; i < blockCount; i++) {
+        final int stmtCount = in.readInt();
+        final List<Stmt> stmts = new ArrayList<>(stmtCount);
+        for (int j = 0; j < stmtCount; j++) {
+          stmts.add(readStmt());
+        }
+        blocks.add(stmts);
+
+        final int exceptionalSuccessorCount = in.readInt();
+        // keep the order of the handlers, as it determines the order of the traps
+        final Map<ClassType, Integer> handlers =
+            new LinkedHashMap<>(exceptionalSuccessorCount * 2);
+        for (int j = 0; j < exceptionalSuccessorCount; j++) {
+          handlers.put((ClassType) readType(), in.readInt());
+        }
+        exceptionalSuccessors.add(handlers);
+      }
+
+      final MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+      for (int i = 0; i < blockCount; i++) {
+        final Map<ClassType, Stmt> trapMap = new LinkedHashMap<>();
+        exceptionalSuccessors.get(i).forEach((type, idx) -> trapMap.put(type, head(blocks, idx)));
+        graph.addBlock(blocks.get(i), trapMap);
+      }
+      // add all blocks before linking them, otherwise a fallsthrough successor would be merged
+      // into its predecessor block before its own exceptional flow is known.
+      for (int i = 0; i < blockCount; i++) {
+        final List<Stmt> stmts = blocks.get(i);
+        final Stmt tail = stmts.get(stmts.size() - 1);
+        final int successorCount = in.readInt();
+        for (int j = 0; j < successorCount; j++) {
+          final Stmt successor = head(blocks, in.readInt());
+          if (tail instanceof BranchingStmt) {
+            graph.putEdge((BranchingStmt) tail, j, successor);
+          } else {
+            graph.putEdge((FallsThroughStmt) tail, successor);
+          }
+        }
+      }
+      if (startingBlock >= 0) {
+        graph.setStartingStmt(head(blocks, startingBlock));
+      }
+
+      return Body.builder(graph)
+          .setMethodSignature(methodSignature)
+          .setLocals(new LinkedHashSet<>(locals))
+          .setPosition(position)
+          .build();
+    }
+
+    private Stmt head(List<List<Stmt>> blocks, int idx) {
+      return blocks.get(idx).get(0);
+    }
+
+    private String readString() throws IOException {
+      return strings[in.readInt()];
+    }
+
+    private Type readType() throws IOException {
+      final int idx = in.readInt();
+      if (idx < 0) {
+        return UnknownType.getInstance();
+      }
+      return identifierFactory.getType(strings[idx]);
+    }
+
+    private List<Type> readTypes() throws IOException {
+      final int count = in.readInt();
+      final List<Type> types = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        types.add(readType());
+      }
+      return types;
+    }
+
+    private MethodSignature readMethodSignature() throws IOException {
+      final ClassType declClassType = (ClassType) readType();
+      final String name = readString();
+      final Type returnType = readType();
+      return identifierFactory.getMethodSignature(declClassType, name, returnType, readTypes());
+    }
+
+    private FieldSignature readFieldSignature() throws IOException {
+      final ClassType declClassType = (ClassType) readType();
+      final String name = readString();
+      return identifierFactory.getFieldSignature(name, declClassType, readType());
+    }
+
+    private Position readPosition() throws IOException {
+      switch (in.readByte()) {
+        case NO_POSITION:
+          return NoPositionInformation.getInstance();
+        case LINE_POSITION:
+          return new LinePosition(in.readInt());
+        case FULL_POSITION:
+          return new FullPosition(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+        default:
+          throw new IOException("Unknown Position tag.");
+      }
+    }
+
+    private StmtPositionInfo readStmtPositionInfo() throws IOException {
+      if (!in.readBoolean()) {
+        return StmtPositionInfo.getNoStmtPositionInfo();
+      }
+      return new SimpleStmtPositionInfo(readPosition());
+    }
+
+    private Stmt readStmt() throws IOException {
+      final byte tag = in.readByte();
+      switch (tag) {
+        case ASSIGN:
+          {
+            final LValue leftOp = (LValue) readValue();
+            final Value rightOp = readValue();
+            return Jimple.newAssignStmt(leftOp, rightOp, readStmtPositionInfo());
+          }
+        case IDENTITY:
+          {
+            final Local local = (Local) readValue();
+            final IdentityRef identityRef = (IdentityRef) readValue();
+            return Jimple.newIdentityStmt(local, identityRef, readStmtPositionInfo());
+          }
+        case INVOKE:
+          {
+            final AbstractInvokeExpr invokeExpr = (AbstractInvokeExpr) readValue();
+            return Jimple.newInvokeStmt(invokeExpr, readStmtPositionInfo());
+          }
+        case IF:
+          {
+            final AbstractConditionExpr condition = (AbstractConditionExpr) readValue();
+            return Jimple.newIfStmt(condition, readStmtPositionInfo());
+          }
+        case GOTO:
+          return Jimple.newGotoStmt(readStmtPositionInfo());
+        case SWITCH:
+          {
+            final Immediate key = (Immediate) readValue();
+            if (in.readBoolean()) {
+              final int low = in.readInt();
+              final int high = in.readInt();
+              return Jimple.newTableSwitchStmt(key, low, high, readStmtPositionInfo());
+            }
+            final int count = in.readInt();
+            final List<IntConstant> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+              values.add(IntConstant.getInstance(in.readInt()));
+            }
+            return Jimple.newLookupSwitchStmt(key, values, readStmtPositionInfo());
+          }
+        case RETURN:
+          {
+            final Immediate op = (Immediate) readValue();
+            return Jimple.newReturnStmt(op, readStmtPositionInfo());
+          }
+        case RETURN_VOID:
+          return Jimple.newReturnVoidStmt(readStmtPositionInfo());
+        case THROW:
+          {
+            final Immediate op = (Immediate) readValue();
+            return Jimple.newThrowStmt(op, readStmtPositionInfo());
+          }
+        case ENTER_MONITOR:
+          {
+            final Immediate op = (Immediate) readValue();
+            return Jimple.newEnterMonitorStmt(op, readStmtPositionInfo());
+          }
+        case EXIT_MONITOR:
+          {
+            final Immediate op = (Immediate) readValue();
+            return Jimple.newExitMonitorStmt(op, readStmtPositionInfo());
+          }
+        case RET:
+          {
+            final Immediate stmtAddress = (Immediate) readValue();
+            return Jimple.newRetStmt(stmtAddress, readStmtPositionInfo());
+          }
+        case NOP:
+          return Jimple.newNopStmt(readStmtPositionInfo());
+        case BREAKPOINT:
+          return Jimple.newBreakpointStmt(readStmtPositionInfo());
+        default:
+          throw new IOException("Unknown Stmt tag: " + tag);
+      }
+    }
+
+    private List<Immediate> readImmediates() throws IOException {
+      final int count = in.readInt();
+      final List<Immediate> values = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        values.add((Immediate) readValue());
+      }
+      return values;
+    }
+
+    private Immediate readImmediate() throws IOException {
+      return (Immediate) readValue();
+    }
+
+    private Value readValue() throws IOException {
+      final byte tag = in.readByte();
+      switch (tag) {
+        case LOCAL:
+          return locals.get(in.readInt());
+        case INT_CONST:
+          return IntConstant.getInstance(in.readInt());
+        case LONG_CONST:
+          return LongConstant.getInstance(in.readLong());
+        case FLOAT_CONST:
+          return FloatConstant.getInstance(in.readFloat());
+        case DOUBLE_CONST:
+          return DoubleConstant.getInstance(in.readDouble());
+        case NULL_CONST:
+          return NullConstant.getInstance();
+        case BOOLEAN_CONST:
+          return BooleanConstant.getInstance(in.readBoolean());
+        case STRING_CONST:
+          {
+            final String value = readString();
+            return new StringConstant(value, readType());
+          }
+        case CLASS_CONST:
+          {
+            final String value = readString();
+            return new ClassConstant(value, readType());
+          }
+        case ENUM_CONST:
+          {
+            final String value = readString();
+            return new EnumConstant(value, (ClassType) readType());
+          }
+        case METHOD_TYPE:
+          {
+            final Type returnType = readType();
+            final List<Type> parameterTypes = readTypes();
+            final MethodSubSignature subSignature =
+                identifierFactory.getMethodSubSignature(
+                    "__METHODTYPE__", returnType, parameterTypes);
+            return new MethodType(subSignature, (ClassType) readType());
+          }
+        case METHOD_HANDLE:
+          {
+            final MethodHandle.Kind kind = MethodHandle.Kind.getKind(in.readInt());
+            final boolean isMethodRef = MethodHandle.isMethodRef(kind.getValue());
+            if (isMethodRef) {
+              final MethodSignature reference = readMethodSignature();
+              return new MethodHandle(reference, kind, readType());
+            }
+            final FieldSignature reference = readFieldSignature();
+            return new MethodHandle(reference, kind, readType());
+          }
+        case THIS_REF:
+          return Jimple.newThisRef((ClassType) readType());
+        case PARAMETER_REF:
+          {
+            final Type type = readType();
+            return Jimple.newParameterRef(type, in.readInt());
+          }
+        case CAUGHT_EXCEPTION_REF:
+          return new JCaughtExceptionRef(readType());
+        case STATIC_FIELD_REF:
+          return Jimple.newStaticFieldRef(readFieldSignature());
+        case INSTANCE_FIELD_REF:
+          {
+            final Local base = (Local) readValue();
+            return Jimple.newInstanceFieldRef(base, readFieldSignature());
+          }
+        case ARRAY_REF:
+          {
+            final Local base = (Local) readValue();
+            return new JArrayRef(base, readImmediate());
+          }
+        case BINOP:
+          {
+            final byte subTag = in.readByte();
+            final Immediate op1 = readImmediate();
+            final Immediate op2 = readImmediate();
+            return newBinopExpr(subTag, op1, op2);
+          }
+        case NEG:
+          return new JNegExpr(readImmediate());
+        case LENGTH:
+          return new JLengthExpr(readImmediate());
+        case CAST:
+          {
+            final Immediate op = readImmediate();
+            return new JCastExpr(op, readType());
+          }
+        case INSTANCE_OF:
+          {
+            final Immediate op = readImmediate();
+            return new JInstanceOfExpr(op, readType());
+          }
+        case NEW:
+          return Jimple.newNewExpr((ClassType) readType());
+        case NEW_ARRAY:
+          {
+            final Type baseType = readType();
+            return new JNewArrayExpr(baseType, readImmediate(), identifierFactory);
+          }
+        case NEW_MULTI_ARRAY:
+          {
+            final ArrayType baseType = (ArrayType) readType();
+            return Jimple.newNewMultiArrayExpr(baseType, readImmediates());
+          }
+        case STATIC_INVOKE:
+          return Jimple.newStaticInvokeExpr(readMethodSignature(), readImmediates());
+        case VIRTUAL_INVOKE:
+          {
+            final Local base = (Local) readValue();
+            final MethodSignature sig = readMethodSignature();
+            return Jimple.newVirtualInvokeExpr(base, sig, readImmediates());
+          }
+        case INTERFACE_INVOKE:
+          {
+            final Local base = (Local) readValue();
+            final MethodSignature sig = readMethodSignature();
+            return Jimple.newInterfaceInvokeExpr(base, sig, readImmediates());
+          }
+        case SPECIAL_INVOKE:
+          {
+            final Local base = (Local) readValue();
+            final MethodSignature sig = readMethodSignature();
+            return Jimple.newSpecialInvokeExpr(base, sig, readImmediates());
+          }
+        case DYNAMIC_INVOKE:
+          {
+            final MethodSignature bootstrapSig = readMethodSignature();
+            final List<Immediate> bootstrapArgs = readImmediates();
+            final int handleTag = in.readInt();
+            final MethodSignature sig = readMethodSignature();
+            return Jimple.newDynamicInvokeExpr(
+                bootstrapSig, bootstrapArgs, sig, handleTag, readImmediates());
+          }
+        default:
+          throw new IOException("Unknown Value tag: " + tag);
+      }
+    }
+
+    private AbstractBinopExpr newBinopExpr(byte subTag, Immediate op1, Immediate op2)
+        throws IOException {
+      if (subTag < 0 || subTag >= BINOPS.size()) {
+        throw new IOException("Unknown binop tag: " + subTag);
+      }
+      final Class<? extends AbstractBinopExpr> clazz = BINOPS.get(subTag);
+      if (clazz == JAddExpr.class) {
+        return new JAddExpr(op1, op2);
+      } else if (clazz == JAndExpr.class) {
+        return new JAndExpr(op1, op2);
+      } else if (clazz == JCmpExpr.class) {
+        return new JCmpExpr(op1, op2);
+      } else if (clazz == JCmpgExpr.class) {
+        return new JCmpgExpr(op1, op2);
+      } else if (clazz == JCmplExpr.class) {
+        return new JCmplExpr(op1, op2);
+      } else if (clazz == JDivExpr.class) {
+        return new JDivExpr(op1, op2);
+      } else if (clazz == JEqExpr.class) {
+        return new JEqExpr(op1, op2);
+      } else if (clazz == JGeExpr.class) {
+        return new JGeExpr(op1, op2);
+      } else if (clazz == JGtExpr.class) {
+        return new JGtExpr(op1, op2);
+      } else if (clazz == JLeExpr.class) {
+        return new JLeExpr(op1, op2);
+      } else if (clazz == JLtExpr.class) {
+        return new JLtExpr(op1, op2);
+      } else if (clazz == JMulExpr.class) {
+        return new JMulExpr(op1, op2);
+      } else if (clazz == JNeExpr.class) {
+        return new JNeExpr(op1, op2);
+      } else if (clazz == JOrExpr.class) {
+        return new JOrExpr(op1, op2);
+      } else if (clazz == JRemExpr.class) {
+        return new JRemExpr(op1, op2);
+      } else if (clazz == JShlExpr.class) {
+        return new JShlExpr(op1, op2);
+      } else if (clazz == JShrExpr.class) {
+        return new JShrExpr(op1, op2);
+      } else if (clazz == JSubExpr.class) {
+        return new JSubExpr(op1, op2);
+      } else if (clazz == JUshrExpr.class) {
+        return new JUshrExpr(op1, op2);
+      } else {
+        return new JXorExpr(op1, op2);
+      }
+    }
+  }
+}
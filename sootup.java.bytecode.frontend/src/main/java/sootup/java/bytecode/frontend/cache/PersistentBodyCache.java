@@ -0,0 +1,214 @@
+package sootup.java.bytecode.frontend.cache;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.transform.BodyInterceptor;
+
+/**
+ * Stores resolved (i.e. already intercepted) {@link Body}s on disk so that subsequent runs on the
+ * same input do not need to convert the bytecode and apply the {@link BodyInterceptor}s again.
+ *
+ * <p>An entry is keyed by the path of its class file (including the archive it is contained in),
+ * the digest of the class file contents, the list of applied {@link BodyInterceptor}s and the
+ * {@link MethodSignature}. Hence, a changed class file or interceptor configuration results in a
+ * different key; stale entries are never read but are not deleted either.
+ *
+ * <p>The cache is fail-open: an entry that can not be serialized, read or written is reported as a
+ * miss/failure and the Body is resolved from bytecode as usual. Entries are written atomically, so
+ * the cache directory can be shared by concurrently running analyses.
+ */
+public class PersistentBodyCache {
+
+  private static final @Nonnull Logger logger = LoggerFactory.getLogger(PersistentBodyCache.class);
+  private static final String FILE_EXTENSION = ".body";
+
+  @Nonnull private final Path directory;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong stores = new AtomicLong();
+  private final AtomicLong failures = new AtomicLong();
+
+  /** @param directory the cache directory - it is created if it does not exist. */
+  public PersistentBodyCache(@Nonnull Path directory) {
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Can not create the cache directory " + directory, e);
+    }
+    this.directory = directory;
+  }
+
+  @Nonnull
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Computes the key of all Bodies of a class.
+   *
+   * @param classFile the class file i.e. possibly a Path inside of an archive's FileSystem
+   * @param bodyInterceptors the interceptors which are applied to the cached Bodies
+   * @return the key or an empty Optional if the class file can not be read.
+   */
+  @Nonnull
+  public Optional<String> computeClassKey(
+      @Nonnull Path classFile, @Nonnull List<BodyInterceptor> bodyInterceptors) {
+    final byte[] contents;
+    try {
+      contents = Files.readAllBytes(classFile);
+    } catch (IOException | RuntimeException e) {
+      logger.debug("Can not read {} - its Bodies are not cached.", classFile, e);
+      return Optional.empty();
+    }
+    final Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(classFile.toUri().toString(), StandardCharsets.UTF_8).putByte((byte) 0);
+    hasher.putBytes(Hashing.sha256().hashBytes(contents).asBytes()).putByte((byte) 0);
+    for (BodyInterceptor bodyInterceptor : bodyInterceptors) {
+      hasher.putString(bodyInterceptor.getClass().getName(), StandardCharsets.UTF_8);
+      hasher.putByte((byte) 0);
+    }
+    return Optional.of(hasher.hash().toString());
+  }
+
+  /** @return the cached Body or an empty Optional if there is no (readable) entry. */
+  @Nonnull
+  public Optional<Body> load(
+      @Nonnull String classKey,
+      @Nonnull MethodSignature methodSignature,
+      @Nonnull BodySerializer serializer) {
+    final Path entry = getEntryPath(classKey, methodSignature);
+    if (!Files.exists(entry)) {
+      misses.incrementAndGet();
+      return Optional.empty();
+    }
+    try {
+      final Body body = serializer.deserialize(Files.readAllBytes(entry), methodSignature);
+      hits.incrementAndGet();
+      return Optional.of(body);
+    } catch (IOException e) {
+      logger.warn("Ignoring unreadable cache entry {} of {}.", entry, methodSignature, e);
+      misses.incrementAndGet();
+      failures.incrementAndGet();
+      return Optional.empty();
+    }
+  }
+
+  /** @return true if the Body was written to the cache. */
+  public boolean store(
+      @Nonnull String classKey, @Nonnull Body body, @Nonnull BodySerializer serializer) {
+    final byte[] data;
+    try {
+      data = serializer.serialize(body);
+    } catch (IllegalArgumentException e) {
+      logger.debug("Body of {} is not cached: {}", body.getMethodSignature(), e.getMessage());
+      failures.incrementAndGet();
+      return false;
+    }
+
+    final Path entry = getEntryPath(classKey, body.getMethodSignature());
+    try {
+      Files.createDirectories(entry.getParent());
+      final Path tmp = Files.createTempFile(entry.getParent(), "tmp", FILE_EXTENSION);
+      try {
+        Files.write(tmp, data);
+        try {
+          Files.move(tmp, entry, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+    } catch (IOException e) {
+      logger.warn("Can not write cache entry {}.", entry, e);
+      failures.incrementAndGet();
+      return false;
+    }
+    stores.incrementAndGet();
+    return true;
+  }
+
+  @Nonnull
+  private Path getEntryPath(@Nonnull String classKey, @Nonnull MethodSignature methodSignature) {
+    final HashCode key =
+        Hashing.sha256()
+            .newHasher()
+            .putString(classKey, StandardCharsets.UTF_8)
+            .putByte((byte) 0)
+            .putString(methodSignature.toString(), StandardCharsets.UTF_8)
+            .hash();
+    final String name = key.toString();
+    // shard the entries into subdirectories to keep the directories reasonably small
+    return directory.resolve(name.substring(0, 2)).resolve(name + FILE_EXTENSION);
+  }
+
+  /** @return the number of Bodies that were read from the cache. */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /** @return the number of Bodies that were not (readable) in the cache. */
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /** @return the number of Bodies that were written to the cache. */
+  public long getStoreCount() {
+    return stores.get();
+  }
+
+  /** @return the number of Bodies that could not be serialized, read or written. */
+  public long getFailureCount() {
+    return failures.get();
+  }
+
+  @Override
+  public String toString() {
+    return "PersistentBodyCache{"
+        + directory
+        + ", hits="
+        + getHitCount()
+        + ", misses="
+        + getMissCount()
+        + ", stores="
+        + getStoreCount()
+        + ", failures="
+        + getFailureCount()
+        + '}';
+  }
+}
@@ -0,0 +1,97 @@
+package sootup.java.bytecode.frontend.cache;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import sootup.core.frontend.BodySource;
+import sootup.core.frontend.ResolveException;
+import sootup.core.model.Body;
+import sootup.core.model.MethodModifier;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Decorates a {@link BodySource}: the Body is loaded from the {@link PersistentBodyCache} if
+ * possible, otherwise it is resolved by the delegate and then stored in the cache. If there is no
+ * key for the class of the method, the Body is resolved by the delegate and not cached.
+ */
+public class PersistentBodySource implements BodySource {
+
+  @Nonnull private final BodySource delegate;
+  @Nonnull private final PersistentBodyCache cache;
+  @Nonnull private final BodySerializer serializer;
+  @Nonnull private final Supplier<Optional<String>> classKey;
+
+  public PersistentBodySource(
+      @Nonnull BodySource delegate,
+      @Nonnull PersistentBodyCache cache,
+      @Nonnull BodySerializer serializer,
+      @Nonnull String classKey) {
+    this(delegate, cache, serializer, () -> Optional.of(classKey));
+  }
+
+  /**
+   * @param classKey supplies the key of the class of the method, see {@link
+   *     PersistentBodyCache#computeClassKey}. It is only asked when the Body is resolved.
+   */
+  public PersistentBodySource(
+      @Nonnull BodySource delegate,
+      @Nonnull PersistentBodyCache cache,
+      @Nonnull BodySerializer serializer,
+      @Nonnull Supplier<Optional<String>> classKey) {
+    this.delegate = delegate;
+    this.cache = cache;
+    this.serializer = serializer;
+    this.classKey = classKey;
+  }
+
+  @Nonnull
+  @Override
+  public Body resolveBody(@Nonnull Iterable<MethodModifier> modifiers)
+      throws ResolveException, IOException {
+    final Optional<String> key = classKey.get();
+    if (!key.isPresent()) {
+      return delegate.resolveBody(modifiers);
+    }
+    final Optional<Body> cachedBody = cache.load(key.get(), getSignature(), serializer);
+    if (cachedBody.isPresent()) {
+      return cachedBody.get();
+    }
+    final Body body = delegate.resolveBody(modifiers);
+    cache.store(key.get(), body, serializer);
+    return body;
+  }
+
+  @Override
+  public Object resolveAnnotationsDefaultValue() {
+    return delegate.resolveAnnotationsDefaultValue();
+  }
+
+  @Nonnull
+  @Override
+  public MethodSignature getSignature() {
+    return delegate.getSignature();
+  }
+}
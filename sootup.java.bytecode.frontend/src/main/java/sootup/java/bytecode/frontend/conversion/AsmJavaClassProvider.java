@@ -24,6 +24,8 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Optional;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.ClassNode;
@@ -43,10 +45,22 @@ import sootup.java.core.types.ModuleJavaClassType;
 public class AsmJavaClassProvider implements ClassProvider {
 
   @Nonnull private final View view;
+  private final boolean loadMethodCodeOnDemand;
   private static final @Nonnull Logger logger = LoggerFactory.getLogger(AsmJavaClassProvider.class);
 
   public AsmJavaClassProvider(@Nonnull View view) {
+    this(view, false);
+  }
+
+  /**
+   * @param loadMethodCodeOnDemand if true, the code of the methods (instructions, try-catch blocks,
+   *     local variable tables) is not kept in memory: it is skipped when the class is read and read
+   *     again from the class file whenever a Body is resolved. This reduces the memory footprint of
+   *     big views in exchange for reading the class file once more per resolved Body.
+   */
+  public AsmJavaClassProvider(@Nonnull View view, boolean loadMethodCodeOnDemand) {
     this.view = view;
+    this.loadMethodCodeOnDemand = loadMethodCodeOnDemand;
   }
 
   @Override
@@ -58,8 +72,15 @@ public class AsmJavaClassProvider implements ClassProvider {
     SootClassNode classNode;
     final String actualClassSignature;
     try {
-      classNode = new SootClassNode(analysisInputLocation);
-      actualClassSignature = AsmUtil.initAsmClassSource(sourcePath, classNode);
+      if (loadMethodCodeOnDemand) {
+        classNode = new SootClassNode(analysisInputLocation, sourcePath);
+        actualClassSignature =
+            AsmUtil.initAsmClassSource(
+                sourcePath, classNode, ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
+      } else {
+        classNode = new SootClassNode(analysisInputLocation, null);
+        actualClassSignature = AsmUtil.initAsmClassSource(sourcePath, classNode);
+      }
     } catch (IOException exception) {
       logger.warn("ioe: " + sourcePath, exception);
       return Optional.empty();
@@ -104,10 +125,12 @@ public class AsmJavaClassProvider implements ClassProvider {
   class SootClassNode extends ClassNode {
 
     private final AnalysisInputLocation analysisInputLocation;
+    @Nullable private final Path codeSource;
 
-    SootClassNode(AnalysisInputLocation analysisInputLocation) {
+    SootClassNode(AnalysisInputLocation analysisInputLocation, @Nullable Path codeSource) {
       super(AsmUtil.SUPPORTED_ASM_OPCODE);
       this.analysisInputLocation = analysisInputLocation;
+      this.codeSource = codeSource;
     }
 
     @Override
@@ -127,7 +150,8 @@ public class AsmJavaClassProvider implements ClassProvider {
               signature,
               exceptions,
               view,
-              analysisInputLocation.getBodyInterceptors());
+              analysisInputLocation.getBodyInterceptors(),
+              codeSource);
       methods.add(mn);
       return mn;
     }
@@ -27,6 +27,8 @@ import com.google.common.base.Suppliers;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Table;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.function.BiFunction;
@@ -35,11 +37,15 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.ConstantDynamic;
 import org.objectweb.asm.Handle;
+import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.commons.JSRInlinerAdapter;
 import org.objectweb.asm.tree.*;
 import sootup.core.frontend.BodySource;
+import sootup.core.frontend.ResolveException;
 import sootup.core.graph.MutableBlockStmtGraph;
 import sootup.core.jimple.Jimple;
 import sootup.core.jimple.basic.*;
@@ -116,6 +122,12 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
   private final JavaIdentifierFactory identifierFactory;
   private final Supplier<MethodSignature> lazyMethodSignature;
 
+  /**
+   * the class file from which the code of this method is read each time the Body is resolved - or
+   * null if the code is kept in memory.
+   */
+  @Nullable private final Path codeSource;
+
   AsmMethodSource(
       int access,
       @Nonnull String name,
@@ -124,9 +136,22 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
       @Nonnull String[] exceptions,
       View view,
       @Nonnull List<BodyInterceptor> bodyInterceptors) {
+    this(access, name, desc, signature, exceptions, view, bodyInterceptors, null);
+  }
+
+  AsmMethodSource(
+      int access,
+      @Nonnull String name,
+      @Nonnull String desc,
+      @Nonnull String signature,
+      @Nonnull String[] exceptions,
+      View view,
+      @Nonnull List<BodyInterceptor> bodyInterceptors,
+      @Nullable Path codeSource) {
     super(AsmUtil.SUPPORTED_ASM_OPCODE, null, access, name, desc, signature, exceptions);
     this.bodyInterceptors = bodyInterceptors;
     this.view = view;
+    this.codeSource = codeSource;
 
     identifierFactory = (JavaIdentifierFactory) view.getIdentifierFactory();
     lazyMethodSignature =
@@ -158,8 +183,64 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
   @Override
   @Nonnull
   public Body resolveBody(@Nonnull Iterable<MethodModifier> modifierIt) {
+    if (codeSource == null) {
+      return convertBody();
+    }
+    loadCode(codeSource);
+    try {
+      return convertBody();
+    } finally {
+      releaseCode();
+    }
+  }
+
+  /** reads the code (instructions, try-catch blocks, local variable names) of this method. */
+  private void loadCode(@Nonnull Path classFile) {
+    final String methodName = name;
+    final String methodDesc = desc;
+    final MethodNode[] codeNode = new MethodNode[1];
+    try {
+      AsmUtil.initAsmClassSource(
+          classFile,
+          new ClassVisitor(AsmUtil.SUPPORTED_ASM_OPCODE) {
+            @Override
+            public MethodVisitor visitMethod(
+                int access, String name, String desc, String signature, String[] exceptions) {
+              if (codeNode[0] != null || !methodName.equals(name) || !methodDesc.equals(desc)) {
+                return null;
+              }
+              // inline JSRs just like when the code is kept in memory
+              codeNode[0] = new JSRInlinerAdapter(null, access, name, desc, signature, exceptions);
+              return codeNode[0];
+            }
+          },
+          ClassReader.SKIP_FRAMES);
+    } catch (IOException e) {
+      throw new ResolveException("Could not read the code of " + getSignature(), classFile, e);
+    }
+    if (codeNode[0] == null) {
+      throw new ResolveException(
+          "The code of " + getSignature() + " is not contained in the class file.", classFile);
+    }
+    instructions = codeNode[0].instructions;
+    tryCatchBlocks = codeNode[0].tryCatchBlocks;
+    localVariables = codeNode[0].localVariables;
+    maxLocals = codeNode[0].maxLocals;
+    maxStack = codeNode[0].maxStack;
+  }
 
+  /** drops the code of this method which was read by {@link #loadCode(Path)} */
+  private void releaseCode() {
+    instructions = new InsnList();
+    tryCatchBlocks = new ArrayList<>(0);
+    localVariables = null;
+  }
+
+  @Nonnull
+  private Body convertBody() {
     /* initialize */
+    currentLineNumber = -1;
+    maxLineNumber = 0;
     nextLocal = maxLocals;
     locals =
         new NonIndexOutofBoundsArrayList<>(
@@ -228,6 +309,14 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
     stmtsThatBranchToLabel = null;
     insnToStmt = null;
     operandStack = null;
+    trapHandler = null;
+    replacedStmt.clear();
+    startTrapHandler.clear();
+    endTrapHandler.clear();
+    activeTrapHandlers = new HashSet<>();
+    inlineExceptionLabels.clear();
+    inlineExceptionHandlers.clear();
+    labelsToStmt.clear();
 
     bodyBuilder.setMethodSignature(lazyMethodSignature.get());
 
@@ -111,6 +111,21 @@ public class JavaClassPathAnalysisInputLocation implements AnalysisInputLocation
     return bodyInterceptors;
   }
 
+  /**
+   * If enabled, the code of the methods is not kept in memory but read again from the class files
+   * whenever a Body is resolved. Affects only classes which are read afterwards.
+   *
+   * @see PathBasedAnalysisInputLocation#setLoadMethodCodeOnDemand(boolean)
+   */
+  public void setLoadMethodCodeOnDemand(boolean loadMethodCodeOnDemand) {
+    for (AnalysisInputLocation cpEntry : cpEntries) {
+      if (cpEntry instanceof PathBasedAnalysisInputLocation) {
+        ((PathBasedAnalysisInputLocation) cpEntry)
+            .setLoadMethodCodeOnDemand(loadMethodCodeOnDemand);
+      }
+    }
+  }
+
   /**
    * Explode the class or modulepath entries, separated by {@link File#pathSeparator}.
    *
@@ -175,11 +190,23 @@ public class JavaClassPathAnalysisInputLocation implements AnalysisInputLocation
   @Override
   @Nonnull
   public Collection<JavaSootClassSource> getClassSources(@Nonnull View view) {
+    return getClassSources(view, false);
+  }
+
+  @Override
+  @Nonnull
+  public Collection<JavaSootClassSource> getClassSources(@Nonnull View view, boolean parallel) {
+    // the class path entries are scanned concurrently, but merged in class path order below
+    List<Collection<? extends SootClassSource>> sourcesPerEntry =
+        (parallel ? cpEntries.parallelStream() : cpEntries.stream())
+            .map(inputLocation -> inputLocation.getClassSources(view, parallel))
+            .collect(Collectors.toList());
+
     // By using a set here, already added classes won't be overwritten and the class which is found
     // first will be kept
     Set<SootClassSource> found = new HashSet<>();
-    for (AnalysisInputLocation inputLocation : cpEntries) {
-      found.addAll(inputLocation.getClassSources(view));
+    for (Collection<? extends SootClassSource> sources : sourcesPerEntry) {
+      found.addAll(sources);
     }
     return found.stream().map(src -> (JavaSootClassSource) src).collect(Collectors.toList());
   }
@@ -62,6 +62,7 @@ public class JrtFileSystemAnalysisInputLocation implements ModuleInfoAnalysisInp
   @Nonnull private final SourceType sourceType;
 
   @Nonnull private final List<BodyInterceptor> bodyInterceptors;
+  private boolean loadMethodCodeOnDemand = false;
 
   public JrtFileSystemAnalysisInputLocation() {
     this(SourceType.Library);
@@ -178,7 +179,7 @@ public class JrtFileSystemAnalysisInputLocation implements ModuleInfoAnalysisInp
   }
 
   protected ClassProvider getClassProvider(@Nonnull View view) {
-    return new AsmJavaClassProvider(view);
+    return new AsmJavaClassProvider(view, loadMethodCodeOnDemand);
   }
 
   @Override
@@ -277,6 +278,20 @@ public class JrtFileSystemAnalysisInputLocation implements ModuleInfoAnalysisInp
     return bodyInterceptors;
   }
 
+  public boolean isLoadMethodCodeOnDemand() {
+    return loadMethodCodeOnDemand;
+  }
+
+  /**
+   * If enabled, the code of the methods is not kept in memory but read again from the runtime
+   * image whenever a Body is resolved. Affects only classes which are read afterwards.
+   *
+   * @see AsmJavaClassProvider#AsmJavaClassProvider(View, boolean)
+   */
+  public void setLoadMethodCodeOnDemand(boolean loadMethodCodeOnDemand) {
+    this.loadMethodCodeOnDemand = loadMethodCodeOnDemand;
+  }
+
   @Override
   public boolean equals(Object o) {
     return o instanceof JrtFileSystemAnalysisInputLocation;
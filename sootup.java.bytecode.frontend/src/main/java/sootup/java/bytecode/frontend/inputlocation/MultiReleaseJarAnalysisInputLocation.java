@@ -174,10 +174,16 @@ public class MultiReleaseJarAnalysisInputLocation extends ArchiveBasedAnalysisIn
   @Override
   @Nonnull
   public Collection<JavaSootClassSource> getClassSources(@Nonnull View view) {
+    return getClassSources(view, false);
+  }
+
+  @Override
+  @Nonnull
+  public Collection<JavaSootClassSource> getClassSources(@Nonnull View view, boolean parallel) {
 
     Collection<JavaSootClassSource> classSources = new ArrayList<>();
     inputLocations.values().stream()
-        .flatMap(location -> location.getClassSources(view).stream())
+        .flatMap(location -> location.getClassSources(view, parallel).stream())
         .map(src -> (JavaSootClassSource) src)
         .forEach(
             cs -> {
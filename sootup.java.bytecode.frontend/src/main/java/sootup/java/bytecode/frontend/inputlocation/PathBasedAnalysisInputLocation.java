@@ -67,6 +67,7 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
   @Nonnull protected Collection<Path> ignoredPaths;
   @Nonnull protected final SourceType sourceType;
   @Nonnull protected final List<BodyInterceptor> bodyInterceptors;
+  protected boolean loadMethodCodeOnDemand = false;
 
   protected PathBasedAnalysisInputLocation(@Nonnull Path path, @Nonnull SourceType srcType) {
     this(path, srcType, Collections.emptyList());
@@ -109,6 +110,25 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
     return bodyInterceptors;
   }
 
+  public boolean isLoadMethodCodeOnDemand() {
+    return loadMethodCodeOnDemand;
+  }
+
+  /**
+   * If enabled, the code of the methods is not kept in memory but read again from the class file
+   * whenever a Body is resolved. Affects only classes which are read afterwards.
+   *
+   * @see AsmJavaClassProvider#AsmJavaClassProvider(View, boolean)
+   */
+  public void setLoadMethodCodeOnDemand(boolean loadMethodCodeOnDemand) {
+    this.loadMethodCodeOnDemand = loadMethodCodeOnDemand;
+  }
+
+  @Nonnull
+  protected ClassProvider getClassProvider(@Nonnull View view) {
+    return new AsmJavaClassProvider(view, loadMethodCodeOnDemand);
+  }
+
   @Nonnull
   public static PathBasedAnalysisInputLocation create(
       @Nonnull Path path, @Nonnull SourceType sourceType) {
@@ -160,30 +180,48 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
       @Nonnull Path dirPath,
       @Nonnull IdentifierFactory factory,
       @Nonnull ClassProvider classProvider) {
+    return walkDirectory(dirPath, factory, classProvider, false);
+  }
+
+  /**
+   * Creates the class sources of all class files below <code>dirPath</code>. If <code>parallel
+   * </code> is true, the directory is traversed first and the found files are parsed concurrently
+   * afterwards; the order of the returned class sources is the same in both modes.
+   */
+  @Nonnull
+  Collection<JavaSootClassSource> walkDirectory(
+      @Nonnull Path dirPath,
+      @Nonnull IdentifierFactory factory,
+      @Nonnull ClassProvider classProvider,
+      boolean parallel) {
 
     final FileType handledFileType = classProvider.getHandledFileType();
     final String moduleInfoFilename = JavaModuleIdentifierFactory.MODULE_INFO_FILE + ".class";
+    final List<Path> classFiles;
     try (final Stream<Path> walk = Files.walk(dirPath)) {
-      return walk.filter(
-              filePath ->
-                  PathUtils.hasExtension(filePath, handledFileType)
-                      && !filePath.toString().endsWith(moduleInfoFilename)
-                      && ignoredPaths.stream()
-                          .noneMatch(p -> filePath.toString().startsWith(p.toString())))
-          .flatMap(
-              p -> {
-                final String fullyQualifiedName = fromPath(dirPath, p);
-
-                return StreamUtils.optionalToStream(
-                    classProvider.createClassSource(
-                        this, p, factory.getClassType(fullyQualifiedName)));
-              })
-          .map(src -> (JavaSootClassSource) src)
-          .collect(Collectors.toList());
-
+      classFiles =
+          walk.filter(
+                  filePath ->
+                      PathUtils.hasExtension(filePath, handledFileType)
+                          && !filePath.toString().endsWith(moduleInfoFilename)
+                          && ignoredPaths.stream()
+                              .noneMatch(p -> filePath.toString().startsWith(p.toString())))
+              .collect(Collectors.toList());
     } catch (IOException e) {
       throw new IllegalArgumentException(e);
     }
+
+    return (parallel ? classFiles.parallelStream() : classFiles.stream())
+        .flatMap(
+            p -> {
+              final String fullyQualifiedName = fromPath(dirPath, p);
+
+              return StreamUtils.optionalToStream(
+                  classProvider.createClassSource(
+                      this, p, factory.getClassType(fullyQualifiedName)));
+            })
+        .map(src -> (JavaSootClassSource) src)
+        .collect(Collectors.toList());
   }
 
   @Nonnull
@@ -269,13 +307,13 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
         return Optional.empty();
       }
 
-      return getSingleClass((JavaClassType) type, path, new AsmJavaClassProvider(view));
+      return getSingleClass((JavaClassType) type, path, getClassProvider(view));
     }
 
     @Nonnull
     @Override
     public Collection<JavaSootClassSource> getClassSources(@Nonnull View view) {
-      AsmJavaClassProvider classProvider = new AsmJavaClassProvider(view);
+      ClassProvider classProvider = getClassProvider(view);
       IdentifierFactory factory = view.getIdentifierFactory();
       Path dirPath = this.path.getParent();
 
@@ -321,16 +359,22 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
     @Override
     @Nonnull
     public Collection<JavaSootClassSource> getClassSources(@Nonnull View view) {
+      return getClassSources(view, false);
+    }
+
+    @Override
+    @Nonnull
+    public Collection<JavaSootClassSource> getClassSources(@Nonnull View view, boolean parallel) {
       // FIXME: 1) store the classprovider reference as a field; 2) and above too; and 3) move view
       // which is only used in SootNode to be just there?
-      return walkDirectory(path, view.getIdentifierFactory(), new AsmJavaClassProvider(view));
+      return walkDirectory(path, view.getIdentifierFactory(), getClassProvider(view), parallel);
     }
 
     @Override
     @Nonnull
     public Optional<JavaSootClassSource> getClassSource(
         @Nonnull ClassType type, @Nonnull View view) {
-      return getClassSourceInternal((JavaClassType) type, path, new AsmJavaClassProvider(view));
+      return getClassSourceInternal((JavaClassType) type, path, getClassProvider(view));
     }
   }
 
@@ -395,11 +439,17 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
     @Override
     @Nonnull
     public Collection<JavaSootClassSource> getClassSources(@Nonnull View view) {
+      return getClassSources(view, false);
+    }
+
+    @Override
+    @Nonnull
+    public Collection<JavaSootClassSource> getClassSources(@Nonnull View view, boolean parallel) {
 
       Set<SootClassSource> foundClasses = new HashSet<>();
 
       for (AnalysisInputLocation inputLoc : containedInputLocations) {
-        foundClasses.addAll(inputLoc.getClassSources(view));
+        foundClasses.addAll(inputLoc.getClassSources(view, parallel));
       }
       return foundClasses.stream()
           .map(src -> (JavaSootClassSource) src)
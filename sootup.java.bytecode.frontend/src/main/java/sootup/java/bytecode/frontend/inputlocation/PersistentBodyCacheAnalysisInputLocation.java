@@ -0,0 +1,153 @@
+package sootup.java.bytecode.frontend.inputlocation;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.base.Suppliers;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import sootup.core.frontend.SootClassSource;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SourceType;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.types.ClassType;
+import sootup.core.views.View;
+import sootup.java.bytecode.frontend.cache.BodySerializer;
+import sootup.java.bytecode.frontend.cache.PersistentBodyCache;
+import sootup.java.bytecode.frontend.cache.PersistentBodySource;
+import sootup.java.core.JavaAnnotationSootClassSource;
+import sootup.java.core.JavaSootClassSource;
+import sootup.java.core.JavaSootMethod;
+import sootup.java.core.OverridingJavaClassSource;
+
+/**
+ * Wraps another {@link AnalysisInputLocation} and caches the resolved Bodies of its classes on disk
+ * via a {@link PersistentBodyCache}. This speeds up repeated analyses of the same (unchanged) input
+ * e.g. the JDK or library archives, as the bytecode conversion and the {@link BodyInterceptor}s are
+ * skipped for cached Bodies.
+ *
+ * <p>e.g. <code>
+ *   new PersistentBodyCacheAnalysisInputLocation(new JavaClassPathAnalysisInputLocation(path),
+ *   Paths.get("sootup-cache"))</code>
+ */
+public class PersistentBodyCacheAnalysisInputLocation implements AnalysisInputLocation {
+
+  @Nonnull private final AnalysisInputLocation inputLocation;
+  @Nonnull private final PersistentBodyCache cache;
+
+  public PersistentBodyCacheAnalysisInputLocation(
+      @Nonnull AnalysisInputLocation inputLocation, @Nonnull Path cacheDirectory) {
+    this(inputLocation, new PersistentBodyCache(cacheDirectory));
+  }
+
+  public PersistentBodyCacheAnalysisInputLocation(
+      @Nonnull AnalysisInputLocation inputLocation, @Nonnull PersistentBodyCache cache) {
+    this.inputLocation = inputLocation;
+    this.cache = cache;
+  }
+
+  @Nonnull
+  public PersistentBodyCache getCache() {
+    return cache;
+  }
+
+  @Nonnull
+  @Override
+  public Optional<? extends SootClassSource> getClassSource(
+      @Nonnull ClassType type, @Nonnull View view) {
+    return inputLocation.getClassSource(type, view).map(cs -> wrap(cs, view));
+  }
+
+  @Nonnull
+  @Override
+  public Collection<? extends SootClassSource> getClassSources(@Nonnull View view) {
+    return getClassSources(view, false);
+  }
+
+  @Nonnull
+  @Override
+  public Collection<? extends SootClassSource> getClassSources(
+      @Nonnull View view, boolean parallel) {
+    return inputLocation.getClassSources(view, parallel).stream()
+        .map(cs -> wrap(cs, view))
+        .collect(Collectors.toList());
+  }
+
+  @Nonnull
+  @Override
+  public SourceType getSourceType() {
+    return inputLocation.getSourceType();
+  }
+
+  @Nonnull
+  @Override
+  public List<BodyInterceptor> getBodyInterceptors() {
+    return inputLocation.getBodyInterceptors();
+  }
+
+  @Nonnull
+  private SootClassSource wrap(@Nonnull SootClassSource classSource, @Nonnull View view) {
+    if (!(classSource instanceof JavaSootClassSource)
+        || classSource instanceof JavaAnnotationSootClassSource) {
+      return classSource;
+    }
+    return new CachingJavaClassSource(
+        (JavaSootClassSource) classSource, new BodySerializer(view.getIdentifierFactory()));
+  }
+
+  /**
+   * replaces the BodySources of the delegates methods by a {@link PersistentBodySource}. The class
+   * file is hashed once, when the first Body of the class is resolved.
+   */
+  private class CachingJavaClassSource extends OverridingJavaClassSource {
+    @Nonnull private final BodySerializer serializer;
+    @Nonnull private final Supplier<Optional<String>> classKey;
+
+    CachingJavaClassSource(
+        @Nonnull JavaSootClassSource delegate, @Nonnull BodySerializer serializer) {
+      super(delegate);
+      this.serializer = serializer;
+      this.classKey =
+          Suppliers.memoize(
+              () -> cache.computeClassKey(delegate.getSourcePath(), getBodyInterceptors()));
+    }
+
+    @Nonnull
+    @Override
+    public Collection<JavaSootMethod> resolveMethods() {
+      return super.resolveMethods().stream()
+          .map(
+              method ->
+                  method.isConcrete()
+                      ? method.withSource(
+                          new PersistentBodySource(
+                              method.getBodySource(), cache, serializer, classKey))
+                      : method)
+          .collect(Collectors.toList());
+    }
+  }
+}
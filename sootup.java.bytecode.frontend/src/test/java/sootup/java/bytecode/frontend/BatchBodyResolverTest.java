@@ -0,0 +1,94 @@
+package sootup.java.bytecode.frontend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.transform.BatchBodyResolver;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.transform.BodyInterceptorMetric;
+import sootup.core.transform.RunTimeBodyInterceptor;
+import sootup.interceptors.BytecodeBodyInterceptors;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.ConcurrentJavaView;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class BatchBodyResolverTest {
+
+  private static final String jar = "../shared-test-resources/java-miniapps/MiniApp.jar";
+
+  @Test
+  public void testParallelResolution() {
+    List<RunTimeBodyInterceptor> interceptors =
+        RunTimeBodyInterceptor.wrap(BytecodeBodyInterceptors.Default.getBodyInterceptors());
+    JavaView view =
+        new ConcurrentJavaView(
+            new JavaClassPathAnalysisInputLocation(
+                jar, SourceType.Application, new ArrayList<>(interceptors)));
+
+    BatchBodyResolver.Report report = new BatchBodyResolver(4, interceptors).resolveBodies(view);
+
+    assertTrue(report.getMethodCount() > 0);
+    assertTrue(report.getFailures().isEmpty());
+    assertEquals(interceptors.size(), report.getInterceptorMetrics().size());
+    for (RunTimeBodyInterceptor interceptor : interceptors) {
+      BodyInterceptorMetric metric =
+          report.getInterceptorMetrics().get(interceptor.getBodyInterceptor());
+      assertEquals(report.getMethodCount(), metric.getInvocationCount());
+      assertTrue(metric.getRuntimeNanos() > 0);
+    }
+    assertFalse(report.toString().isEmpty());
+
+    // the same methods as in a sequential resolution are resolved and their bodies are kept
+    JavaView sequentialView =
+        new JavaView(new JavaClassPathAnalysisInputLocation(jar, SourceType.Application));
+    Set<MethodSignature> sequentialMethods =
+        sequentialView
+            .getClasses()
+            .flatMap(clazz -> clazz.getMethods().stream())
+            .filter(SootMethod::hasBody)
+            .map(SootMethod::getSignature)
+            .collect(Collectors.toSet());
+    assertEquals(sequentialMethods.size(), report.getMethodCount());
+    for (SootClass clazz : view.getClasses().toArray(SootClass[]::new)) {
+      for (SootMethod method : clazz.getMethods()) {
+        if (method.hasBody()) {
+          assertTrue(sequentialMethods.contains(method.getSignature()));
+          assertSame(method.getBody(), method.getBody());
+        }
+      }
+    }
+    // resolving the bodies again does not intercept them again
+    BatchBodyResolver.Report secondReport =
+        new BatchBodyResolver(2, interceptors).resolveBodies(view);
+    for (BodyInterceptorMetric metric : secondReport.getInterceptorMetrics().values()) {
+      assertEquals(report.getMethodCount(), metric.getInvocationCount());
+    }
+  }
+
+  @Test
+  public void testMetricsOfSequentialResolution() {
+    RunTimeBodyInterceptor interceptor =
+        new RunTimeBodyInterceptor(BytecodeBodyInterceptors.Default.getBodyInterceptors().get(0));
+    JavaView view =
+        new JavaView(
+            new JavaClassPathAnalysisInputLocation(
+                jar,
+                SourceType.Application,
+                Collections.<BodyInterceptor>singletonList(interceptor)));
+
+    BatchBodyResolver.Report report =
+        new BatchBodyResolver(1, Collections.singletonList(interceptor)).resolveBodies(view);
+
+    assertEquals(1, report.getNumThreads());
+    assertTrue(report.getFailures().isEmpty());
+    assertEquals(report.getMethodCount(), interceptor.getBiMetric().getInvocationCount());
+  }
+}
@@ -5,16 +5,22 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import categories.TestCategories;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import sootup.core.frontend.BodySource;
 import sootup.core.model.SootClass;
 import sootup.core.model.SootMethod;
 import sootup.core.model.SourceType;
 import sootup.core.signatures.MethodSignature;
 import sootup.java.bytecode.frontend.inputlocation.DefaultRuntimeAnalysisInputLocation;
 import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.bytecode.frontend.inputlocation.PathBasedAnalysisInputLocation;
 import sootup.java.core.JavaIdentifierFactory;
 import sootup.java.core.JavaSootMethod;
 import sootup.java.core.types.JavaClassType;
@@ -96,4 +102,44 @@ public class AsmMethodSourceTest {
     assert !method.getBody().getStmts().stream()
         .anyMatch(s -> s.toString().contains(" append(java.lang.String)>(\"ghi\")"));
   }
+
+  @Test
+  public void testLoadMethodCodeOnDemand() throws IOException {
+    // contains traps, switches and invokedynamic
+    PathBasedAnalysisInputLocation inputLocation =
+        PathBasedAnalysisInputLocation.create(
+            Paths.get("../shared-test-resources/bugfixes/"),
+            SourceType.Application,
+            Collections.emptyList());
+    Map<MethodSignature, String> expectedBodies = resolveBodies(inputLocation);
+
+    PathBasedAnalysisInputLocation onDemandInputLocation =
+        PathBasedAnalysisInputLocation.create(
+            Paths.get("../shared-test-resources/bugfixes/"),
+            SourceType.Application,
+            Collections.emptyList());
+    onDemandInputLocation.setLoadMethodCodeOnDemand(true);
+    assertEquals(expectedBodies, resolveBodies(onDemandInputLocation));
+
+    // the code is read again for every resolution
+    JavaView view = new JavaView(onDemandInputLocation);
+    JavaSootMethod method =
+        view.getMethod(
+                JavaIdentifierFactory.getInstance()
+                    .parseMethodSignature("<NestedMethodCall: void nestedMethodCall()>"))
+            .get();
+    BodySource bodySource = method.getBodySource();
+    String body = bodySource.resolveBody(method.getModifiers()).toString();
+    assertEquals(expectedBodies.get(method.getSignature()), body);
+    assertEquals(body, bodySource.resolveBody(method.getModifiers()).toString());
+  }
+
+  private Map<MethodSignature, String> resolveBodies(
+      PathBasedAnalysisInputLocation inputLocation) {
+    JavaView view = new JavaView(inputLocation);
+    return view.getClasses()
+        .flatMap(c -> c.getMethods().stream())
+        .filter(SootMethod::hasBody)
+        .collect(Collectors.toMap(SootMethod::getSignature, m -> m.getBody().toString()));
+  }
 }
@@ -28,11 +28,14 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import categories.TestCategories;
 import java.io.File;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import sootup.core.frontend.SootClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.inputlocation.EagerInputLocation;
 import sootup.core.jimple.basic.NoPositionInformation;
@@ -46,6 +49,7 @@ import sootup.core.types.ClassType;
 import sootup.core.views.View;
 import sootup.java.core.*;
 import sootup.java.core.types.JavaClassType;
+import sootup.java.core.views.ConcurrentJavaView;
 import sootup.java.core.views.JavaView;
 
 /**
@@ -175,6 +179,49 @@ public class PathBasedAnalysisInputLocationTest extends AnalysisInputLocationTes
     assertEquals("empName", c.getField(nameFieldSubSignature).get().getName());
   }
 
+  @Test
+  public void testParallelClassSources() {
+    for (Path path : Arrays.asList(jar, war)) {
+      PathBasedAnalysisInputLocation inputLocation =
+          PathBasedAnalysisInputLocation.create(path, SourceType.Application);
+      JavaView view = new JavaView(inputLocation);
+
+      List<ClassType> sequentialTypes =
+          inputLocation.getClassSources(view, false).stream()
+              .map(SootClassSource::getClassType)
+              .collect(Collectors.toList());
+      List<ClassType> parallelTypes =
+          inputLocation.getClassSources(view, true).stream()
+              .map(SootClassSource::getClassType)
+              .collect(Collectors.toList());
+      assertEquals(sequentialTypes, parallelTypes);
+    }
+  }
+
+  @Test
+  public void testParallelGetClasses() {
+    List<AnalysisInputLocation> inputLocations =
+        Arrays.asList(
+            PathBasedAnalysisInputLocation.create(jar, SourceType.Application),
+            PathBasedAnalysisInputLocation.create(war, SourceType.Application));
+
+    JavaView sequentialView = new JavaView(inputLocations);
+    Set<ClassType> sequentialTypes =
+        sequentialView.getClasses().map(SootClass::getType).collect(Collectors.toSet());
+
+    JavaView parallelView = new ConcurrentJavaView(inputLocations);
+    Set<ClassType> parallelTypes =
+        parallelView.getClasses(true).map(SootClass::getType).collect(Collectors.toSet());
+
+    assertEquals(sequentialTypes, parallelTypes);
+    assertEquals(sequentialTypes.size(), parallelView.getCachedClassesCount());
+    // the class of the first input location is kept
+    ClassType employee = getIdentifierFactory().getClassType("Employee", "ds");
+    assertEquals(
+        inputLocations.get(0),
+        parallelView.getClass(employee).get().getClassSource().getAnalysisInputLocation());
+  }
+
   void runtimeContains(View view, String classname, String packageName) {
     final ClassType sig = getIdentifierFactory().getClassType(classname, packageName);
     assertTrue(view.getClass(sig).isPresent(), sig + " is not found in rt.jar");
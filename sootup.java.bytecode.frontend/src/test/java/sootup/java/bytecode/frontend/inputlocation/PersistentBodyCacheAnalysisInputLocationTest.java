@@ -0,0 +1,106 @@
+package sootup.java.bytecode.frontend.inputlocation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.interceptors.BytecodeBodyInterceptors;
+import sootup.java.bytecode.frontend.cache.PersistentBodyCache;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+class PersistentBodyCacheAnalysisInputLocationTest {
+
+  private Path cacheDir;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    cacheDir = Files.createTempDirectory("sootup-bodycache");
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    FileUtils.deleteDirectory(cacheDir.toFile());
+  }
+
+  @Test
+  void testArchiveRoundTrip() {
+    assertRoundTrip(
+        new JavaClassPathAnalysisInputLocation(
+            "../shared-test-resources/java-miniapps/MiniApp.jar"));
+  }
+
+  @Test
+  void testDirectoryRoundTrip() {
+    // contains invokedynamic, traps and switches
+    assertRoundTrip(
+        PathBasedAnalysisInputLocation.create(
+            Paths.get("../shared-test-resources/bugfixes/"),
+            SourceType.Application,
+            BytecodeBodyInterceptors.Default.getBodyInterceptors()));
+  }
+
+  @Test
+  void testChangedInterceptorsMiss() {
+    String jar = "../shared-test-resources/java-miniapps/MiniApp.jar";
+    PersistentBodyCacheAnalysisInputLocation cachingLocation =
+        new PersistentBodyCacheAnalysisInputLocation(
+            new JavaClassPathAnalysisInputLocation(jar), cacheDir);
+    int bodyCount = resolveBodies(cachingLocation).size();
+
+    // no interceptors -> different key
+    PersistentBodyCacheAnalysisInputLocation otherLocation =
+        new PersistentBodyCacheAnalysisInputLocation(
+            new JavaClassPathAnalysisInputLocation(
+                jar, SourceType.Application, Collections.emptyList()),
+            cacheDir);
+    resolveBodies(otherLocation);
+    assertEquals(0, otherLocation.getCache().getHitCount());
+    assertEquals(bodyCount, otherLocation.getCache().getMissCount());
+  }
+
+  private void assertRoundTrip(AnalysisInputLocation inputLocation) {
+    PersistentBodyCacheAnalysisInputLocation firstRun =
+        new PersistentBodyCacheAnalysisInputLocation(inputLocation, cacheDir);
+    Map<MethodSignature, String> stored = resolveBodies(firstRun);
+    assertFalse(stored.isEmpty());
+    assertEquals(resolveBodies(inputLocation).keySet(), stored.keySet());
+    PersistentBodyCache firstCache = firstRun.getCache();
+    assertEquals(0, firstCache.getHitCount());
+    assertEquals(stored.size(), firstCache.getMissCount());
+    assertEquals(0, firstCache.getFailureCount());
+    assertEquals(stored.size(), firstCache.getStoreCount());
+
+    // the names of Locals introduced by the TypeAssigner are not stable between resolutions, so
+    // compare against the Bodies that were actually stored
+    PersistentBodyCacheAnalysisInputLocation secondRun =
+        new PersistentBodyCacheAnalysisInputLocation(inputLocation, cacheDir);
+    assertEquals(stored, resolveBodies(secondRun));
+    PersistentBodyCache secondCache = secondRun.getCache();
+    assertEquals(stored.size(), secondCache.getHitCount());
+    assertEquals(0, secondCache.getMissCount());
+    assertEquals(0, secondCache.getStoreCount());
+  }
+
+  private Map<MethodSignature, String> resolveBodies(AnalysisInputLocation inputLocation) {
+    JavaView view = new JavaView(inputLocation);
+    return view.getClasses()
+        .flatMap(c -> c.getMethods().stream())
+        .filter(SootMethod::hasBody)
+        .collect(Collectors.toMap(SootMethod::getSignature, m -> m.getBody().toString()));
+  }
+}
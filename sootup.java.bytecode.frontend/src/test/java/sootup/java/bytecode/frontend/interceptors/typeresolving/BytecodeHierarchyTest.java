@@ -3,12 +3,17 @@ package sootup.java.bytecode.frontend.interceptors.typeresolving;
 import static org.junit.jupiter.api.Assertions.*;
 
 import categories.TestCategories;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import sootup.core.IdentifierFactory;
+import sootup.core.model.ClassModifier;
+import sootup.core.model.FullPosition;
+import sootup.core.model.SourceType;
 import sootup.core.types.*;
 import sootup.core.util.ImmutableUtils;
 import sootup.interceptors.typeresolving.BytecodeHierarchy;
@@ -16,7 +21,11 @@ import sootup.interceptors.typeresolving.types.BottomType;
 import sootup.interceptors.typeresolving.types.TopType;
 import sootup.java.bytecode.frontend.inputlocation.DefaultRuntimeAnalysisInputLocation;
 import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.OverridingJavaClassSource;
+import sootup.java.core.types.JavaClassType;
 import sootup.java.core.views.JavaView;
+import sootup.java.core.views.MutableJavaView;
 
 /** @author Zun Wang */
 @Tag(TestCategories.JAVA_8_CATEGORY)
@@ -51,9 +60,10 @@ public class BytecodeHierarchyTest {
       shortArr,
       byteArr;
 
+  private static final String jarFile =
+      "../shared-test-resources/TypeResolverTestSuite/ByteCodeHierarchyTest/MiniHierarchy.jar";
+
   public void setUp() {
-    String jarFile =
-        "../shared-test-resources/TypeResolverTestSuite/ByteCodeHierarchyTest/MiniHierarchy.jar";
     JavaClassPathAnalysisInputLocation analysisInputLocation =
         new JavaClassPathAnalysisInputLocation(jarFile);
     view =
@@ -189,4 +199,63 @@ public class BytecodeHierarchyTest {
     expectedSet = ImmutableUtils.immutableSet(object, serializable, cloneable);
     assertEquals(expectedSet, actualSet);
   }
+
+  @Test
+  public void testViewScopedHierarchy() {
+    setUp();
+    BytecodeHierarchy fresh = new BytecodeHierarchy(view);
+    BytecodeHierarchy shared = BytecodeHierarchy.of(view);
+    // the second hierarchy of the view answers from the memo of the first one
+    BytecodeHierarchy memoized = BytecodeHierarchy.of(view);
+
+    for (BytecodeHierarchy hierarchy : Arrays.asList(shared, memoized)) {
+      assertEquals(
+          fresh.isAncestor(rootInterface1, class2), hierarchy.isAncestor(rootInterface1, class2));
+      assertEquals(
+          fresh.isAncestor(rootInterface2, class1), hierarchy.isAncestor(rootInterface2, class1));
+      assertEquals(
+          fresh.getLeastCommonAncestors(double_class1, int_class),
+          hierarchy.getLeastCommonAncestors(double_class1, int_class));
+      assertEquals(
+          fresh.getLeastCommonAncestors(class3Arr, class4Arr),
+          hierarchy.getLeastCommonAncestors(class3Arr, class4Arr));
+    }
+  }
+
+  @Test
+  public void testMutableViewClearsMemo() {
+    JavaClassPathAnalysisInputLocation analysisInputLocation =
+        new JavaClassPathAnalysisInputLocation(jarFile);
+    MutableJavaView mutableView =
+        new MutableJavaView(
+            Arrays.asList(new DefaultRuntimeAnalysisInputLocation(), analysisInputLocation));
+    JavaClassType superClass = JavaIdentifierFactory.getInstance().getClassType("Class1");
+    JavaClassType addedClass = JavaIdentifierFactory.getInstance().getClassType("AddedClass");
+
+    BytecodeHierarchy hierarchy = BytecodeHierarchy.of(mutableView);
+    // memoizes that the class is not a subtype, as it is not part of the view yet
+    assertFalse(hierarchy.isAncestor(superClass, addedClass));
+
+    OverridingJavaClassSource classSource =
+        new OverridingJavaClassSource(
+            analysisInputLocation,
+            Paths.get(jarFile),
+            addedClass,
+            superClass,
+            Collections.emptySet(),
+            null,
+            Collections.emptySet(),
+            Collections.emptySet(),
+            new FullPosition(0, 0, 0, 0),
+            EnumSet.noneOf(ClassModifier.class),
+            Collections.emptySet(),
+            Collections.emptySet(),
+            Collections.emptySet());
+    mutableView.addClass(classSource.buildClass(SourceType.Application));
+    assertTrue(hierarchy.isAncestor(superClass, addedClass));
+    assertTrue(BytecodeHierarchy.of(mutableView).isAncestor(superClass, addedClass));
+
+    mutableView.removeClass(addedClass);
+    assertFalse(hierarchy.isAncestor(superClass, addedClass));
+  }
 }
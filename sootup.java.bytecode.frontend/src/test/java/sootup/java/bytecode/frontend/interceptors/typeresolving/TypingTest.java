@@ -0,0 +1,74 @@
+package sootup.java.bytecode.frontend.interceptors.typeresolving;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import categories.TestCategories;
+import java.util.Arrays;
+import java.util.BitSet;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.jimple.basic.Local;
+import sootup.core.types.ClassType;
+import sootup.core.types.PrimitiveType;
+import sootup.interceptors.typeresolving.Typing;
+import sootup.interceptors.typeresolving.types.BottomType;
+import sootup.java.core.JavaIdentifierFactory;
+
+@Tag(TestCategories.JAVA_8_CATEGORY)
+public class TypingTest {
+
+  private final ClassType object =
+      JavaIdentifierFactory.getInstance().getClassType("java.lang.Object");
+  private final ClassType string =
+      JavaIdentifierFactory.getInstance().getClassType("java.lang.String");
+  private final Local a = new Local("a", PrimitiveType.getInt());
+  private final Local b = new Local("b", object);
+  private final Local c = new Local("c", object);
+
+  @Test
+  public void testInitialTypes() {
+    Typing typing = new Typing(Arrays.asList(a, b));
+    assertSame(BottomType.getInstance(), typing.getType(a));
+    assertSame(BottomType.getInstance(), typing.getType(b));
+    assertNull(typing.getType(c));
+  }
+
+  @Test
+  public void testChangingCopyKeepsOriginal() {
+    Typing original = new Typing(Arrays.asList(a, b));
+    original.set(a, PrimitiveType.getInt());
+    original.set(b, object);
+
+    Typing copy = new Typing(original, new BitSet());
+    copy.set(a, PrimitiveType.getDouble());
+    copy.set(c, object);
+
+    assertSame(PrimitiveType.getInt(), original.getType(a));
+    assertSame(object, original.getType(b));
+    assertNull(original.getType(c));
+    assertFalse(original.getLocals().contains(c));
+
+    assertSame(PrimitiveType.getDouble(), copy.getType(a));
+    assertSame(object, copy.getType(b));
+    assertSame(object, copy.getType(c));
+  }
+
+  @Test
+  public void testChangingOriginalKeepsCopies() {
+    Typing original = new Typing(Arrays.asList(a, b));
+    original.set(a, PrimitiveType.getInt());
+    Typing copy = new Typing(original, new BitSet());
+    Typing copyOfCopy = new Typing(copy, new BitSet());
+
+    original.set(a, PrimitiveType.getLong());
+    original.set(b, object);
+    copy.set(b, string);
+
+    assertSame(PrimitiveType.getLong(), original.getType(a));
+    assertSame(object, original.getType(b));
+    assertSame(PrimitiveType.getInt(), copy.getType(a));
+    assertSame(string, copy.getType(b));
+    assertSame(PrimitiveType.getInt(), copyOfCopy.getType(a));
+    assertSame(BottomType.getInstance(), copyOfCopy.getType(b));
+  }
+}
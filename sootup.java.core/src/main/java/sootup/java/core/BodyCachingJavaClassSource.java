@@ -0,0 +1,56 @@
+package sootup.java.core;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import sootup.core.cache.BodyCache;
+import sootup.core.frontend.CachingBodySource;
+
+/**
+ * Resolves the methods of the delegate with a {@link CachingBodySource} i.e. the retention of their
+ * Bodies is left to the given {@link BodyCache}.
+ */
+public class BodyCachingJavaClassSource extends OverridingJavaClassSource {
+
+  @Nonnull private final BodyCache bodyCache;
+
+  public BodyCachingJavaClassSource(
+      @Nonnull JavaSootClassSource delegate, @Nonnull BodyCache bodyCache) {
+    super(delegate);
+    this.bodyCache = bodyCache;
+  }
+
+  @Nonnull
+  @Override
+  public Collection<JavaSootMethod> resolveMethods() {
+    return super.resolveMethods().stream()
+        .map(
+            method ->
+                method.isConcrete()
+                    ? method.withSource(new CachingBodySource(method.getBodySource(), bodyCache))
+                    : method)
+        .collect(Collectors.toList());
+  }
+}
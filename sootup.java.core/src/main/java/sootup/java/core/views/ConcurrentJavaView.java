@@ -0,0 +1,150 @@
+package sootup.java.core.views;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.cache.BodyCache;
+import sootup.core.cache.ConcurrentClassCache;
+import sootup.core.cache.ConcurrentFullCache;
+import sootup.core.cache.provider.ClassCacheProvider;
+import sootup.core.cache.provider.ConcurrentFullCacheProvider;
+import sootup.core.frontend.AbstractClassSource;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.typehierarchy.TypeHierarchy;
+import sootup.core.typehierarchy.ViewTypeHierarchy;
+import sootup.core.types.ClassType;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.JavaSootClassSource;
+
+/**
+ * A {@link JavaView} that can be used by multiple threads at once. In contrast to {@link
+ * JavaView}, resolving a class does not lock the whole view: lookups of already resolved classes
+ * do not block, and classes that are requested by multiple threads at the same time are built
+ * exactly once. Therefore {@link #getClasses(boolean)} also builds the classes in parallel. This
+ * view requires a cache that implements {@link ConcurrentClassCache}. Its {@link TypeHierarchy} is
+ * built in parallel.
+ */
+public class ConcurrentJavaView extends JavaView {
+
+  @Nonnull private final ConcurrentClassCache concurrentCache;
+
+  public ConcurrentJavaView(@Nonnull AnalysisInputLocation inputLocation) {
+    this(Collections.singletonList(inputLocation));
+  }
+
+  public ConcurrentJavaView(@Nonnull List<AnalysisInputLocation> inputLocations) {
+    this(inputLocations, new ConcurrentFullCacheProvider());
+  }
+
+  /**
+   * @throws IllegalArgumentException if the cache created by the given provider is not a {@link
+   *     ConcurrentClassCache}
+   */
+  public ConcurrentJavaView(
+      @Nonnull List<AnalysisInputLocation> inputLocations,
+      @Nonnull ClassCacheProvider cacheProvider) {
+    this(inputLocations, cacheProvider, null);
+  }
+
+  /**
+   * @param bodyCache retains the Bodies of the methods of this view - it has to be thread-safe.
+   * @throws IllegalArgumentException if the cache created by the given provider is not a {@link
+   *     ConcurrentClassCache}
+   */
+  public ConcurrentJavaView(
+      @Nonnull List<AnalysisInputLocation> inputLocations,
+      @Nonnull ClassCacheProvider cacheProvider,
+      @Nullable BodyCache bodyCache) {
+    super(inputLocations, cacheProvider, JavaIdentifierFactory.getInstance(), bodyCache);
+    if (!(cache instanceof ConcurrentClassCache)) {
+      throw new IllegalArgumentException(
+          "ConcurrentJavaView requires a ConcurrentClassCache but got "
+              + cache.getClass().getSimpleName());
+    }
+    this.concurrentCache = (ConcurrentClassCache) cache;
+  }
+
+  /** Resolves all classes that are part of the view and stores them in the cache. */
+  @Override
+  @Nonnull
+  public Stream<JavaSootClass> getClasses() {
+    if (isFullyCached()) {
+      return cache.getClasses().stream().map(clazz -> (JavaSootClass) clazz);
+    }
+
+    List<JavaSootClass> resolvedClasses =
+        inputLocations.stream()
+            .flatMap(location -> location.getClassSources(this).stream())
+            .map(this::buildClassFrom)
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .collect(Collectors.toList());
+
+    // only mark the view as resolved once every class is in the cache, as other threads may ask
+    // for all classes in the meantime
+    isFullyResolved = true;
+
+    return resolvedClasses.stream();
+  }
+
+  @Nonnull
+  @Override
+  protected TypeHierarchy createTypeHierarchy() {
+    return new ViewTypeHierarchy(this, true);
+  }
+
+  @Override
+  protected boolean isFullyCached() {
+    return isFullyResolved && cache instanceof ConcurrentFullCache;
+  }
+
+  /** Resolves the class matching the provided {@link ClassType ClassType}. */
+  @Override
+  @Nonnull
+  public Optional<JavaSootClass> getClass(@Nonnull ClassType type) {
+    JavaSootClass cachedClass = (JavaSootClass) cache.getClass(type);
+    if (cachedClass != null) {
+      return Optional.of(cachedClass);
+    }
+
+    Optional<JavaSootClassSource> abstractClass = getClassSource(type);
+    return abstractClass.flatMap(this::buildClassFrom);
+  }
+
+  @Nonnull
+  @Override
+  protected Optional<JavaSootClass> buildClassFrom(AbstractClassSource classSource) {
+    JavaSootClass theClass =
+        (JavaSootClass)
+            concurrentCache.getOrCompute(
+                classSource.getClassType(), type -> buildClass(classSource));
+    return Optional.of(theClass);
+  }
+}
@@ -22,17 +22,25 @@ package sootup.java.core.views;
  * #L%
  */
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.cache.BodyCache;
 import sootup.core.cache.ClassCache;
 import sootup.core.cache.FullCache;
 import sootup.core.cache.provider.ClassCacheProvider;
 import sootup.core.cache.provider.FullCacheProvider;
 import sootup.core.frontend.AbstractClassSource;
+import sootup.core.frontend.SootClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SourceType;
 import sootup.core.signatures.FieldSignature;
 import sootup.core.signatures.MethodSignature;
 import sootup.core.types.ClassType;
@@ -51,6 +59,7 @@ public class JavaView extends AbstractView {
 
   @Nonnull protected final List<AnalysisInputLocation> inputLocations;
   @Nonnull protected final ClassCache cache;
+  @Nullable protected final BodyCache bodyCache;
 
   protected volatile boolean isFullyResolved = false;
 
@@ -68,20 +77,40 @@ public class JavaView extends AbstractView {
     this(inputLocations, cacheProvider, JavaIdentifierFactory.getInstance());
   }
 
+  /**
+   * @param bodyCache retains the Bodies of the methods of this view instead of the methods
+   *     themselves i.e. Bodies can be dropped and are resolved again when they are requested.
+   */
+  public JavaView(
+      @Nonnull List<AnalysisInputLocation> inputLocations,
+      @Nonnull ClassCacheProvider cacheProvider,
+      @Nonnull BodyCache bodyCache) {
+    this(inputLocations, cacheProvider, JavaIdentifierFactory.getInstance(), bodyCache);
+  }
+
   protected JavaView(
       @Nonnull List<AnalysisInputLocation> inputLocations,
       @Nonnull ClassCacheProvider cacheProvider,
       @Nonnull JavaIdentifierFactory idf) {
+    this(inputLocations, cacheProvider, idf, null);
+  }
+
+  protected JavaView(
+      @Nonnull List<AnalysisInputLocation> inputLocations,
+      @Nonnull ClassCacheProvider cacheProvider,
+      @Nonnull JavaIdentifierFactory idf,
+      @Nullable BodyCache bodyCache) {
     this.inputLocations = inputLocations;
     this.cache = cacheProvider.createCache();
     this.identifierFactory = idf;
+    this.bodyCache = bodyCache;
   }
 
   /** Resolves all classes that are part of the view and stores them in the cache. */
   @Override
   @Nonnull
   public synchronized Stream<JavaSootClass> getClasses() {
-    if (isFullyResolved && cache instanceof FullCache) {
+    if (isFullyCached()) {
       return cache.getClasses().stream().map(clazz -> (JavaSootClass) clazz);
     }
 
@@ -97,6 +126,58 @@ public class JavaView extends AbstractView {
     return resolvedClasses;
   }
 
+  /**
+   * Resolves all classes that are part of the view and stores them in the cache. If <code>parallel
+   * </code> is true, the input locations and the entries of each input location are parsed
+   * concurrently on the common fork-join pool. This view builds the classes one at a time, as
+   * building a class locks the view. A {@link ConcurrentJavaView} builds them concurrently as well.
+   *
+   * <p>Both modes resolve the same classes: if a class is contained in multiple input locations,
+   * the class of the first input location is kept.
+   */
+  @Override
+  @Nonnull
+  public Stream<JavaSootClass> getClasses(boolean parallel) {
+    if (!parallel) {
+      return getClasses();
+    }
+    if (isFullyCached()) {
+      return cache.getClasses().stream().map(clazz -> (JavaSootClass) clazz);
+    }
+
+    List<Collection<? extends SootClassSource>> sourcesPerLocation =
+        inputLocations
+            .parallelStream()
+            .map(location -> location.getClassSources(this, true))
+            .collect(Collectors.toList());
+
+    // keep the first class source per type to stay independent of the scheduling order
+    Map<ClassType, SootClassSource> firstSourcePerType = new LinkedHashMap<>();
+    for (Collection<? extends SootClassSource> sources : sourcesPerLocation) {
+      for (SootClassSource source : sources) {
+        firstSourcePerType.putIfAbsent(source.getClassType(), source);
+      }
+    }
+
+    List<JavaSootClass> resolvedClasses =
+        firstSourcePerType
+            .values()
+            .parallelStream()
+            .map(this::buildClassFrom)
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .collect(Collectors.toList());
+
+    isFullyResolved = true;
+
+    return resolvedClasses.stream();
+  }
+
+  /** Returns true if all classes of the view have been resolved and are still held by the cache. */
+  protected boolean isFullyCached() {
+    return isFullyResolved && cache instanceof FullCache;
+  }
+
   /** Resolves the class matching the provided {@link ClassType ClassType}. */
   @Override
   @Nonnull
@@ -162,11 +243,28 @@ public class JavaView extends AbstractView {
     if (cache.hasClass(classType)) {
       theClass = (JavaSootClass) cache.getClass(classType);
     } else {
-      theClass =
-          (JavaSootClass)
-              classSource.buildClass(classSource.getAnalysisInputLocation().getSourceType());
+      theClass = buildClass(classSource);
       cache.putClass(classType, theClass);
     }
     return Optional.of(theClass);
   }
+
+  /** builds the class - with a {@link BodyCachingJavaClassSource} if a BodyCache is configured */
+  @Nonnull
+  protected JavaSootClass buildClass(@Nonnull AbstractClassSource classSource) {
+    SourceType sourceType = classSource.getAnalysisInputLocation().getSourceType();
+    if (bodyCache != null
+        && classSource instanceof JavaSootClassSource
+        && !(classSource instanceof JavaAnnotationSootClassSource)) {
+      return new BodyCachingJavaClassSource((JavaSootClassSource) classSource, bodyCache)
+          .buildClass(sourceType);
+    }
+    return (JavaSootClass) classSource.buildClass(sourceType);
+  }
+
+  /** @return the BodyCache that retains the Bodies of this view - if one is configured. */
+  @Nonnull
+  public Optional<BodyCache> getBodyCache() {
+    return Optional.ofNullable(bodyCache);
+  }
 }
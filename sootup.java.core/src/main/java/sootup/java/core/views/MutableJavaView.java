@@ -23,6 +23,7 @@ package sootup.java.core.views;
  */
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import org.slf4j.Logger;
@@ -30,8 +31,11 @@ import org.slf4j.LoggerFactory;
 import sootup.core.ViewChangeListener;
 import sootup.core.cache.MutableClassCache;
 import sootup.core.cache.provider.MutableFullCacheProvider;
+import sootup.core.frontend.AbstractClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.signatures.MethodSubSignature;
+import sootup.core.typehierarchy.MutableTypeHierarchy;
+import sootup.core.typehierarchy.TypeHierarchy;
 import sootup.core.types.ClassType;
 import sootup.core.views.MutableView;
 import sootup.java.core.JavaSootClass;
@@ -39,12 +43,20 @@ import sootup.java.core.JavaSootMethod;
 
 /**
  * This view, in contrast to other views, can be modified. Classes and methods can be added, removed
- * and replaced within the view.
+ * and replaced within the view. The {@link TypeHierarchy} of the view is updated accordingly - if
+ * it has not been created yet, the changes are applied when it is created.
  */
 public class MutableJavaView extends JavaView implements MutableView {
   private final List<ViewChangeListener> changeListeners = new LinkedList<>();
   private static final @Nonnull Logger logger = LoggerFactory.getLogger(MutableJavaView.class);
 
+  /** the removed classes, which are not resolved from the input locations again */
+  private final Set<ClassType> removedTypes = new HashSet<>();
+
+  /** changes of the classes that were made before the type hierarchy was created */
+  private final List<Consumer<MutableTypeHierarchy>> changesBeforeTypeHierarchy =
+      new ArrayList<>();
+
   public MutableJavaView(@Nonnull AnalysisInputLocation inputLocation) {
     this(Collections.singletonList(inputLocation));
   }
@@ -64,6 +76,10 @@ public class MutableJavaView extends JavaView implements MutableView {
       return;
     }
     this.cache.putClass(classType, clazz);
+    synchronized (this) {
+      removedTypes.remove(classType);
+    }
+    updateTypeHierarchy(typeHierarchy -> typeHierarchy.addType(clazz));
     this.fireAddition(clazz);
   }
 
@@ -71,8 +87,12 @@ public class MutableJavaView extends JavaView implements MutableView {
    * Removes the class that matches the provided {@link ClassType ClassType} from the mutable view.
    */
   public void removeClass(ClassType classType) {
-    JavaSootClass removedClass =
-        (JavaSootClass) ((MutableClassCache) this.cache).removeClass(classType);
+    JavaSootClass removedClass;
+    synchronized (this) {
+      removedTypes.add(classType);
+      removedClass = (JavaSootClass) ((MutableClassCache) this.cache).removeClass(classType);
+    }
+    updateTypeHierarchy(typeHierarchy -> typeHierarchy.removeType(classType));
     this.fireRemoval(removedClass);
   }
 
@@ -138,6 +158,40 @@ public class MutableJavaView extends JavaView implements MutableView {
     this.addMethod(newMethod);
   }
 
+  /**
+   * Applies the given change to the type hierarchy if it has been created already. Otherwise, the
+   * change is applied when the type hierarchy is created, so the view is not scanned for it.
+   */
+  private synchronized void updateTypeHierarchy(@Nonnull Consumer<MutableTypeHierarchy> change) {
+    Optional<TypeHierarchy> typeHierarchy = getTypeHierarchyIfCreated();
+    if (!typeHierarchy.isPresent()) {
+      changesBeforeTypeHierarchy.add(change);
+    } else if (typeHierarchy.get() instanceof MutableTypeHierarchy) {
+      change.accept((MutableTypeHierarchy) typeHierarchy.get());
+    }
+  }
+
+  @Nonnull
+  @Override
+  protected synchronized TypeHierarchy createTypeHierarchy() {
+    TypeHierarchy typeHierarchy = super.createTypeHierarchy();
+    if (typeHierarchy instanceof MutableTypeHierarchy) {
+      changesBeforeTypeHierarchy.forEach(
+          change -> change.accept((MutableTypeHierarchy) typeHierarchy));
+    }
+    changesBeforeTypeHierarchy.clear();
+    return typeHierarchy;
+  }
+
+  @Nonnull
+  @Override
+  protected synchronized Optional<JavaSootClass> buildClassFrom(AbstractClassSource classSource) {
+    if (removedTypes.contains(classSource.getClassType())) {
+      return Optional.empty();
+    }
+    return super.buildClassFrom(classSource);
+  }
+
   @Override
   public void addChangeListener(ViewChangeListener listener) {
     changeListeners.add(listener);
@@ -40,6 +40,18 @@ public class CoreConfig {
     APP
   }
 
+  public enum PointsToSetImpl {
+    HYBRID,
+    ROARING
+  }
+
+  public enum WorkListPolicy {
+    NUMBER,
+    FIFO,
+    TOPOLOGICAL,
+    DELTA
+  }
+
   public static class CorePTAConfiguration {
     public boolean singleentry = false;
 
@@ -84,6 +96,33 @@ public class CoreConfig {
     public boolean enforceEmptyCtxForIgnoreTypes = false;
 
     public String ptaName;
+
+    /**
+     * The implementation of points-to sets. HYBRID: a small array that turns into a bitvector
+     * sized to the highest node number (default). ROARING: compressed bitmaps that stay compact
+     * for the large node numbers of context-sensitive heaps.
+     */
+    public PointsToSetImpl pointsToSetImpl = PointsToSetImpl.HYBRID;
+
+    /**
+     * the number of threads propagating points-to sets. With more than one thread, the PTA is
+     * solved by the ParallelSolver, which computes the same results.
+     */
+    public int solverThreads = 1;
+
+    /**
+     * if set to be true, the solver detects cycles of assignment edges while propagating and merges
+     * the nodes of a cycle into one points-to set.
+     */
+    public boolean cycleElimination = false;
+
+    /**
+     * The order in which the solver processes the nodes of its work list. NUMBER: by descending
+     * node number (default). FIFO: in the order the nodes are added. TOPOLOGICAL: in rounds, each in
+     * topological order of the assignment edges. DELTA: the nodes with the most objects left to
+     * propagate first.
+     */
+    public WorkListPolicy workListPolicy = WorkListPolicy.NUMBER;
   }
 
   public static class ApplicationConfiguration {
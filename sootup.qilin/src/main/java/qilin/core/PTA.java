@@ -27,7 +27,10 @@ import qilin.core.builder.callgraph.OnFlyCallGraph;
 import qilin.core.context.Context;
 import qilin.core.pag.*;
 import qilin.core.sets.*;
+import qilin.core.solver.CycleDetector;
 import qilin.core.solver.Propagator;
+import qilin.core.solver.Solver;
+import qilin.core.solver.SolverStatistics;
 import qilin.parm.ctxcons.CtxConstructor;
 import qilin.parm.heapabst.HeapAbstractor;
 import qilin.parm.select.CtxSelector;
@@ -44,6 +47,8 @@ public abstract class PTA implements PointsToAnalysis {
   protected OnFlyCallGraph callGraph;
   protected CallGraphBuilder cgb;
   protected ExceptionHandler eh;
+  /** the propagator of the last run */
+  protected Propagator propagator;
 
   public PTA(PTAScene scene) {
     this.scene = scene;
@@ -63,7 +68,24 @@ public abstract class PTA implements PointsToAnalysis {
   }
 
   public void pureRun() {
-    getPropagator().propagate();
+    propagator = getPropagator();
+    propagator.propagate();
+  }
+
+  /** Returns the work counted by the solver of the last run, or null if there is none. */
+  public SolverStatistics getSolverStatistics() {
+    if (propagator instanceof Solver) {
+      return ((Solver) propagator).getStatistics();
+    }
+    return null;
+  }
+
+  /** Returns the cycle detector of the last run, or null if cycle elimination was disabled. */
+  public CycleDetector getCycleDetector() {
+    if (propagator instanceof Solver) {
+      return ((Solver) propagator).getCycleDetector();
+    }
+    return null;
   }
 
   public PAG getPag() {
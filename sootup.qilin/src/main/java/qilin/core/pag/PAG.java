@@ -30,10 +30,12 @@ import qilin.core.natives.NativeMethodDriver;
 import qilin.core.reflection.NopReflectionModel;
 import qilin.core.reflection.ReflectionModel;
 import qilin.core.reflection.TamiflexModel;
+import qilin.core.sets.DoublePointsToSet;
 import qilin.util.ArrayNumberer;
 import qilin.util.DataFactory;
 import qilin.util.PTAUtils;
 import qilin.util.Triple;
+import qilin.util.UnionFindSet;
 import qilin.util.queue.ChunkedQueue;
 import qilin.util.queue.QueueReader;
 import sootup.core.graph.MutableStmtGraph;
@@ -79,6 +81,7 @@ public class PAG {
   protected ArrayNumberer<AllocNode> allocNodeNumberer = new ArrayNumberer<>();
   protected ArrayNumberer<ValNode> valNodeNumberer = new ArrayNumberer<>();
   protected ArrayNumberer<FieldRefNode> fieldRefNodeNumberer = new ArrayNumberer<>();
+  protected final TypeMasks typeMasks;
   private static AtomicInteger maxFinishNumber = new AtomicInteger(0);
 
   // ========================= ir to Node ==============================================
@@ -99,6 +102,10 @@ public class PAG {
   protected final Map<VarNode, Set<FieldRefNode>> store;
   protected final Map<FieldRefNode, Set<VarNode>> storeInv;
 
+  // ========================= merged nodes ============================================
+  protected UnionFindSet<ValNode> mergedNodes = new UnionFindSet<>(Collections.emptySet());
+  protected final Map<ValNode, List<ValNode>> representativeToMembers = DataFactory.createMap();
+
   protected final PTA pta;
 
   public PAG(PTA pta) {
@@ -123,6 +130,7 @@ public class PAG {
     this.methodToPag = DataFactory.createMap();
     this.globals = DataFactory.createSet(100000);
     this.locals = DataFactory.createSet(100000);
+    this.typeMasks = new TypeMasks(pta.getView(), allocNodeNumberer);
   }
 
   public void setEdgeQueue(ChunkedQueue<Node> edgeQueue) {
@@ -228,6 +236,47 @@ public class PAG {
     }
   }
 
+  // ======================merged nodes===========================
+
+  /** Returns the node representing the nodes merged with node, or node if it is not merged. */
+  public ValNode getRepresentative(ValNode node) {
+    return mergedNodes.contains(node) ? mergedNodes.find(node) : node;
+  }
+
+  /** Returns the nodes merged with node, including node. */
+  public List<ValNode> getMergedNodes(ValNode node) {
+    List<ValNode> members = representativeToMembers.get(getRepresentative(node));
+    return members == null ? Collections.singletonList(node) : members;
+  }
+
+  /**
+   * Merges nodes, e.g. a cycle of assignment edges, so they share one points-to set. All objects
+   * of the shared set are new, as the objects of one node have not been propagated along the
+   * edges of the others yet. Returns the representative of the merged nodes.
+   */
+  public ValNode mergeNodes(Collection<ValNode> nodes) {
+    final DoublePointsToSet merged = new DoublePointsToSet();
+    final List<ValNode> members = new ArrayList<>();
+    final Set<ValNode> representatives = new HashSet<>();
+    for (ValNode node : nodes) {
+      ValNode representative = getRepresentative(node);
+      if (representatives.add(representative)) {
+        members.addAll(getMergedNodes(representative));
+        representativeToMembers.remove(representative);
+        merged.addAll(representative.getP2Set(), null);
+      }
+    }
+    final ValNode first = members.get(0);
+    for (ValNode member : members) {
+      mergedNodes.add(member);
+      mergedNodes.union(first, member);
+      member.p2set = merged;
+    }
+    final ValNode representative = mergedNodes.find(first);
+    representativeToMembers.put(representative, members);
+    return representative;
+  }
+
   // ======================lookups===========================
   protected <K, V> Set<V> lookup(Map<K, Set<V>> m, K key) {
     return m.getOrDefault(key, Collections.emptySet());
@@ -281,6 +330,10 @@ public class PAG {
     return valNodeNumberer;
   }
 
+  public TypeMasks getTypeMasks() {
+    return typeMasks;
+  }
+
   public Collection<ValNode> getValNodes() {
     return valToValNode.values();
   }
@@ -642,5 +695,7 @@ public class PAG {
         .forEach(ValNode::discardP2Set);
     valToValNode.values().forEach(ValNode::discardP2Set);
     addedContexts.clear();
+    mergedNodes = new UnionFindSet<>(Collections.emptySet());
+    representativeToMembers.clear();
   }
 }
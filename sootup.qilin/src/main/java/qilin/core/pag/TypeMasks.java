@@ -0,0 +1,92 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.pag;
+
+import java.util.Map;
+import qilin.util.ArrayNumberer;
+import qilin.util.BitVector;
+import qilin.util.DataFactory;
+import qilin.util.PTAUtils;
+import sootup.core.types.Type;
+import sootup.core.views.View;
+
+/**
+ * Type masks for filtering points-to sets by the declared type of a pointer. The mask of a type has
+ * the bit of every allocation node set whose type can be stored in a pointer of that type, so type
+ * filtering becomes a word-wise AND instead of a subtype query per allocation node.
+ *
+ * <p>Allocation nodes are created on the fly, so a mask is extended by the nodes numbered after it
+ * was last requested. Relations of types are cached, as many (context) allocation nodes share a
+ * type.
+ */
+public class TypeMasks {
+  private final View view;
+  private final ArrayNumberer<AllocNode> allocNodeNumberer;
+  private final Map<Type, TypeMask> typeToMask = DataFactory.createMap();
+
+  public TypeMasks(View view, ArrayNumberer<AllocNode> allocNodeNumberer) {
+    this.view = view;
+    this.allocNodeNumberer = allocNodeNumberer;
+  }
+
+  /**
+   * Returns the mask of the allocation nodes that can be stored in a pointer of the given type, or
+   * null if the type is null. The mask covers every allocation node numbered so far.
+   */
+  public BitVector get(Type type) {
+    if (type == null) {
+      return null;
+    }
+    TypeMask mask = typeToMask.computeIfAbsent(type, TypeMask::new);
+    mask.update();
+    return mask.bits;
+  }
+
+  private final class TypeMask {
+    private final Type type;
+    private final BitVector bits = new BitVector();
+    private final Map<Type, Boolean> canStore = DataFactory.createMap();
+    /** the highest allocation node number this mask covers */
+    private int lastNumber = 0;
+
+    private TypeMask(Type type) {
+      this.type = type;
+    }
+
+    private void update() {
+      final int size = allocNodeNumberer.size();
+      for (int number = lastNumber + 1; number <= size; number++) {
+        AllocNode node = allocNodeNumberer.get(number);
+        if (node == null) {
+          continue;
+        }
+        Type nodeType = node.getType();
+        Boolean ret = canStore.get(nodeType);
+        if (ret == null) {
+          ret = PTAUtils.castNeverFails(view, nodeType, type);
+          canStore.put(nodeType, ret);
+        }
+        if (ret) {
+          bits.set(number);
+        }
+      }
+      lastNumber = size;
+    }
+  }
+}
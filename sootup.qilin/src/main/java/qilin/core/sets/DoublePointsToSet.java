@@ -19,6 +19,8 @@
 package qilin.core.sets;
 
 import java.util.Iterator;
+import qilin.CoreConfig;
+import qilin.util.BitVector;
 
 /**
  * Implementation of points-to set that holds two sets: one for new elements that have not yet been
@@ -27,12 +29,20 @@ import java.util.Iterator;
  * @author Ondrej Lhotak
  */
 public class DoublePointsToSet extends PointsToSetInternal {
-  protected HybridPointsToSet newSet;
-  protected HybridPointsToSet oldSet;
+  protected PointsToSetInternal newSet;
+  protected PointsToSetInternal oldSet;
 
   public DoublePointsToSet() {
-    newSet = new HybridPointsToSet();
-    oldSet = new HybridPointsToSet();
+    newSet = newInternalSet();
+    oldSet = newInternalSet();
+  }
+
+  /** Creates an empty set of the implementation selected in the configuration. */
+  protected static PointsToSetInternal newInternalSet() {
+    if (CoreConfig.v().getPtaConfig().pointsToSetImpl == CoreConfig.PointsToSetImpl.ROARING) {
+      return new RoaringPointsToSet();
+    }
+    return new HybridPointsToSet();
   }
 
   /** Returns true if this set contains no run-time objects. */
@@ -51,6 +61,11 @@ public class DoublePointsToSet extends PointsToSetInternal {
     return oldSet.size() + newSet.size();
   }
 
+  @Override
+  public long estimatedBytes() {
+    return 24 + oldSet.estimatedBytes() + newSet.estimatedBytes();
+  }
+
   private class DoublePTSIterator implements Iterator<Integer> {
     private final Iterator<Integer> oldIt = oldSet.iterator();
     private final Iterator<Integer> newIt = newSet.iterator();
@@ -91,6 +106,15 @@ public class DoublePointsToSet extends PointsToSetInternal {
     return newSet.addAll(other, oldSet);
   }
 
+  @Override
+  public boolean addAll(
+      PointsToSetInternal other, PointsToSetInternal exclude, BitVector typeMask) {
+    if (exclude != null) {
+      throw new RuntimeException("exclude set must be null.");
+    }
+    return newSet.addAll(other, oldSet, typeMask);
+  }
+
   /** Calls v's visit method on all nodes in this set. */
   @Override
   public boolean forall(P2SetVisitor v) {
@@ -108,17 +132,17 @@ public class DoublePointsToSet extends PointsToSetInternal {
   }
 
   /** Returns set of nodes already present before last call to flushNew. */
-  public HybridPointsToSet getOldSet() {
+  public PointsToSetInternal getOldSet() {
     return oldSet;
   }
 
   /** Returns set of newly-added nodes since last call to flushNew. */
-  public HybridPointsToSet getNewSet() {
+  public PointsToSetInternal getNewSet() {
     return newSet;
   }
 
-  public HybridPointsToSet getNewSetCopy() {
-    HybridPointsToSet newCopy = new HybridPointsToSet();
+  public PointsToSetInternal getNewSetCopy() {
+    PointsToSetInternal newCopy = newInternalSet();
     newCopy.addAll(newSet, null);
     return newCopy;
   }
@@ -126,7 +150,7 @@ public class DoublePointsToSet extends PointsToSetInternal {
   /** Sets all newly-added nodes to old nodes. */
   public void flushNew() {
     oldSet.addAll(newSet, null);
-    newSet = new HybridPointsToSet();
+    newSet = newInternalSet();
   }
 
   /** Returns true iff the set contains idx. */
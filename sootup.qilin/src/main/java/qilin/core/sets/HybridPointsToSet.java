@@ -59,27 +59,88 @@ public final class HybridPointsToSet extends PointsToSetInternal {
     size = 0;
   }
 
-  private boolean nativeAddAll(HybridPointsToSet other, PointsToSetInternal exclude) {
+  private boolean nativeAddAll(
+      HybridPointsToSet other, PointsToSetInternal exclude, BitVector typeMask) {
+    final BitVector excludeBits =
+        exclude instanceof HybridPointsToSet ? ((HybridPointsToSet) exclude).bits : null;
+    if (other.bits != null && (exclude == null || excludeBits != null)) {
+      // union, exclusion and type filtering word by word
+      convertToBits();
+      boolean ret = bits.orAndAndNot(other.bits, typeMask, excludeBits);
+      if (ret) {
+        size = bits.cardinality();
+        empty = false;
+      }
+      return ret;
+    }
     boolean ret = false;
-    for (Iterator<Integer> it = other.iterator(); it.hasNext(); ) {
-      int idx = it.next();
-      if (exclude == null || !exclude.contains(idx)) {
-        ret |= add(idx);
+    if (other.bits == null) {
+      for (int idx : other.nodeIdxs) {
+        if (idx == 0) {
+          break;
+        }
+        ret |= addFiltered(idx, exclude, typeMask);
+      }
+    } else {
+      for (BitSetIterator it = other.bits.iterator(); it.hasNext(); ) {
+        ret |= addFiltered(it.next(), exclude, typeMask);
       }
     }
     return ret;
   }
 
+  private boolean addFiltered(int idx, PointsToSetInternal exclude, BitVector typeMask) {
+    if (typeMask != null && !typeMask.get(idx)) {
+      return false;
+    }
+    if (exclude != null && exclude.contains(idx)) {
+      return false;
+    }
+    return add(idx);
+  }
+
   /** Adds contents of other into this set, returns true if this set changed. */
   public boolean addAll(final PointsToSetInternal other, final PointsToSetInternal exclude) {
+    return addAll(other, exclude, null);
+  }
+
+  /**
+   * Adds contents of other that are neither in exclude nor filtered out by typeMask into this set,
+   * returns true if this set changed.
+   */
+  @Override
+  public boolean addAll(
+      final PointsToSetInternal other,
+      final PointsToSetInternal exclude,
+      final BitVector typeMask) {
     if (other == null) {
       return false;
     }
     if (other instanceof DoublePointsToSet) {
       DoublePointsToSet dpts = (DoublePointsToSet) other;
-      return nativeAddAll(dpts.getNewSet(), exclude) | nativeAddAll(dpts.getOldSet(), exclude);
+      return addAll(dpts.getNewSet(), exclude, typeMask)
+          | addAll(dpts.getOldSet(), exclude, typeMask);
+    }
+    if (other instanceof HybridPointsToSet) {
+      return nativeAddAll((HybridPointsToSet) other, exclude, typeMask);
+    }
+    boolean ret = false;
+    for (Iterator<Integer> it = other.iterator(); it.hasNext(); ) {
+      ret |= addFiltered(it.next(), exclude, typeMask);
+    }
+    return ret;
+  }
+
+  private void convertToBits() {
+    if (bits != null) {
+      return;
+    }
+    bits = new BitVector();
+    for (int nodeIdx : nodeIdxs) {
+      if (nodeIdx != 0) {
+        bits.set(nodeIdx);
+      }
     }
-    return nativeAddAll((HybridPointsToSet) other, exclude);
   }
 
   private class HybridPTSIterator implements Iterator<Integer> {
@@ -123,6 +184,15 @@ public final class HybridPointsToSet extends PointsToSetInternal {
     return size;
   }
 
+  @Override
+  public long estimatedBytes() {
+    long ret = 32 + 4L * nodeIdxs.length;
+    if (bits != null) {
+      ret += 16 + bits.size() / 8;
+    }
+    return ret;
+  }
+
   /** Calls v's visit method on all nodes in this set. */
   public boolean forall(P2SetVisitor v) {
     if (bits == null) {
@@ -170,13 +240,7 @@ public final class HybridPointsToSet extends PointsToSetInternal {
           return false;
         }
       }
-      // convert to Bits
-      bits = new BitVector();
-      for (int nodeIdx : nodeIdxs) {
-        if (nodeIdx != 0) {
-          bits.set(nodeIdx);
-        }
-      }
+      convertToBits();
     }
     boolean ret = bits.set(idx);
     if (ret) {
@@ -19,6 +19,7 @@
 package qilin.core.sets;
 
 import java.util.Iterator;
+import qilin.util.BitVector;
 
 /**
  * Abstract base class for implementations of points-to sets.
@@ -32,6 +33,13 @@ public abstract class PointsToSetInternal {
   public abstract boolean addAll(
       final PointsToSetInternal other, final PointsToSetInternal exclude);
 
+  /**
+   * Adds contents of other that are not in exclude and whose bits are set in typeMask into this
+   * set, returns true if this set changed. A null exclude or typeMask filters out no node.
+   */
+  public abstract boolean addAll(
+      final PointsToSetInternal other, final PointsToSetInternal exclude, final BitVector typeMask);
+
   /** Adds node index idx to this set, returns true if idx was not already in this set. */
   public abstract boolean add(int idx);
 
@@ -56,4 +64,7 @@ public abstract class PointsToSetInternal {
   }
 
   public abstract int size();
+
+  /** Returns an estimate of the heap memory occupied by this set in bytes. */
+  public abstract long estimatedBytes();
 }
@@ -0,0 +1,470 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.sets;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import qilin.util.BitVector;
+
+/**
+ * A compressed points-to set in the style of a roaring bitmap. Node numbers are partitioned into
+ * chunks by their upper 16 bits. A chunk holding at most 4096 nodes is stored as a sorted array of
+ * the lower 16 bits, a denser chunk as a bitmap of 2^16 bits. So a set costs memory proportional to
+ * the nodes it contains rather than to its highest node number, which matters for the large node
+ * numbers of context-sensitive heaps.
+ */
+public final class RoaringPointsToSet extends PointsToSetInternal {
+  private static final int ARRAY_MAX = 4096;
+  private static final int BITMAP_WORDS = 1 << 10;
+
+  private static final int[] NO_KEYS = new int[0];
+  private static final Container[] NO_CONTAINERS = new Container[0];
+
+  /** the upper 16 bits of the nodes in each chunk, sorted */
+  private int[] keys = NO_KEYS;
+
+  private Container[] containers = NO_CONTAINERS;
+  private int count = 0;
+  private int size = 0;
+
+  /** Returns true if this set contains no run-time objects. */
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public void clear() {
+    keys = NO_KEYS;
+    containers = NO_CONTAINERS;
+    count = 0;
+    size = 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /** Returns true iff the set contains node idx. */
+  @Override
+  public boolean contains(int idx) {
+    int pos = indexOfKey(idx >>> 16);
+    return pos >= 0 && containers[pos].contains((char) idx);
+  }
+
+  /** Adds idx to this set, returns true if idx was not already in this set. */
+  @Override
+  public boolean add(int idx) {
+    final int key = idx >>> 16;
+    int pos = indexOfKey(key);
+    if (pos < 0) {
+      pos = -pos - 1;
+      insertContainer(pos, key, new ArrayContainer());
+    }
+    Container container = containers[pos];
+    final int before = container.cardinality();
+    container = container.add((char) idx);
+    containers[pos] = container;
+    if (container.cardinality() == before) {
+      return false;
+    }
+    ++size;
+    return true;
+  }
+
+  /** Adds contents of other into this set, returns true if this set changed. */
+  @Override
+  public boolean addAll(final PointsToSetInternal other, final PointsToSetInternal exclude) {
+    return addAll(other, exclude, null);
+  }
+
+  /**
+   * Adds contents of other that are neither in exclude nor filtered out by typeMask into this set,
+   * returns true if this set changed. Dense chunks of another roaring set are merged word by word.
+   */
+  @Override
+  public boolean addAll(
+      final PointsToSetInternal other,
+      final PointsToSetInternal exclude,
+      final BitVector typeMask) {
+    if (other == null) {
+      return false;
+    }
+    if (other instanceof DoublePointsToSet) {
+      DoublePointsToSet dpts = (DoublePointsToSet) other;
+      return addAll(dpts.getNewSet(), exclude, typeMask)
+          | addAll(dpts.getOldSet(), exclude, typeMask);
+    }
+    boolean ret = false;
+    if (!(other instanceof RoaringPointsToSet)) {
+      for (Iterator<Integer> it = other.iterator(); it.hasNext(); ) {
+        ret |= addFiltered(it.next(), exclude, typeMask);
+      }
+      return ret;
+    }
+    final RoaringPointsToSet src = (RoaringPointsToSet) other;
+    final RoaringPointsToSet roaringExclude =
+        exclude instanceof RoaringPointsToSet ? (RoaringPointsToSet) exclude : null;
+    long[] words = null;
+    for (int i = 0; i < src.count; i++) {
+      final int key = src.keys[i];
+      final Container container = src.containers[i];
+      if (container instanceof BitmapContainer && (exclude == null || roaringExclude != null)) {
+        if (words == null) {
+          words = new long[BITMAP_WORDS];
+        }
+        System.arraycopy(((BitmapContainer) container).words, 0, words, 0, BITMAP_WORDS);
+        if (typeMask != null) {
+          final int offset = key << 10;
+          for (int j = 0; j < BITMAP_WORDS; j++) {
+            words[j] &= typeMask.getWord(offset + j);
+          }
+        }
+        if (roaringExclude != null) {
+          int pos = roaringExclude.indexOfKey(key);
+          if (pos >= 0) {
+            roaringExclude.containers[pos].clearIn(words);
+          }
+        }
+        ret |= orWords(key, words);
+      } else {
+        final int high = key << 16;
+        for (ContainerIterator it = container.iterator(); it.hasNext(); ) {
+          ret |= addFiltered(high | it.next(), exclude, typeMask);
+        }
+      }
+    }
+    return ret;
+  }
+
+  private boolean addFiltered(int idx, PointsToSetInternal exclude, BitVector typeMask) {
+    if (typeMask != null && !typeMask.get(idx)) {
+      return false;
+    }
+    if (exclude != null && exclude.contains(idx)) {
+      return false;
+    }
+    return add(idx);
+  }
+
+  private boolean orWords(int key, long[] words) {
+    int cardinality = 0;
+    for (long word : words) {
+      cardinality += Long.bitCount(word);
+    }
+    if (cardinality == 0) {
+      return false;
+    }
+    int pos = indexOfKey(key);
+    if (pos < 0) {
+      insertContainer(-pos - 1, key, Container.of(words, cardinality));
+      size += cardinality;
+      return true;
+    }
+    Container container = containers[pos];
+    final int before = container.cardinality();
+    container = container.or(words);
+    containers[pos] = container;
+    final int added = container.cardinality() - before;
+    size += added;
+    return added > 0;
+  }
+
+  /** Calls v's visit method on all nodes in this set. */
+  @Override
+  public boolean forall(P2SetVisitor v) {
+    for (int i = 0; i < count; i++) {
+      final int high = keys[i] << 16;
+      for (ContainerIterator it = containers[i].iterator(); it.hasNext(); ) {
+        v.visit(high | it.next());
+      }
+    }
+    return v.getReturnValue();
+  }
+
+  @Override
+  public Iterator<Integer> iterator() {
+    return new RoaringPTSIterator();
+  }
+
+  @Override
+  public long estimatedBytes() {
+    long ret = 16 + 4L * keys.length + 8L * containers.length;
+    for (int i = 0; i < count; i++) {
+      ret += containers[i].estimatedBytes();
+    }
+    return ret;
+  }
+
+  private int indexOfKey(int key) {
+    return Arrays.binarySearch(keys, 0, count, key);
+  }
+
+  private void insertContainer(int pos, int key, Container container) {
+    if (count == keys.length) {
+      final int capacity = count == 0 ? 2 : count * 2;
+      keys = Arrays.copyOf(keys, capacity);
+      containers = Arrays.copyOf(containers, capacity);
+    }
+    System.arraycopy(keys, pos, keys, pos + 1, count - pos);
+    System.arraycopy(containers, pos, containers, pos + 1, count - pos);
+    keys[pos] = key;
+    containers[pos] = container;
+    ++count;
+  }
+
+  private class RoaringPTSIterator implements Iterator<Integer> {
+    private int pos = 0;
+    private ContainerIterator it = count == 0 ? null : containers[0].iterator();
+
+    @Override
+    public boolean hasNext() {
+      while (it != null && !it.hasNext()) {
+        ++pos;
+        it = pos < count ? containers[pos].iterator() : null;
+      }
+      return it != null;
+    }
+
+    @Override
+    public Integer next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return (keys[pos] << 16) | it.next();
+    }
+  }
+
+  /** Iterates the lower 16 bits of the nodes of a chunk in ascending order. */
+  private interface ContainerIterator {
+    boolean hasNext();
+
+    int next();
+  }
+
+  /** The lower 16 bits of the nodes of one chunk. */
+  private abstract static class Container {
+    static Container of(long[] words, int cardinality) {
+      if (cardinality > ARRAY_MAX) {
+        return new BitmapContainer(words.clone(), cardinality);
+      }
+      return new BitmapContainer(words, cardinality).toArrayContainer();
+    }
+
+    abstract int cardinality();
+
+    abstract boolean contains(char low);
+
+    /** Adds low, returns the container holding the result, which may replace this one. */
+    abstract Container add(char low);
+
+    /** Adds the bits of words, returns the container holding the result. */
+    abstract Container or(long[] words);
+
+    /** Clears the bits of the values of this container in words. */
+    abstract void clearIn(long[] words);
+
+    abstract ContainerIterator iterator();
+
+    abstract long estimatedBytes();
+  }
+
+  private static final class ArrayContainer extends Container {
+    private char[] values;
+    private int cardinality;
+
+    ArrayContainer() {
+      this(new char[4], 0);
+    }
+
+    ArrayContainer(char[] values, int cardinality) {
+      this.values = values;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    boolean contains(char low) {
+      return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+    }
+
+    @Override
+    Container add(char low) {
+      int pos = Arrays.binarySearch(values, 0, cardinality, low);
+      if (pos >= 0) {
+        return this;
+      }
+      if (cardinality == ARRAY_MAX) {
+        return toBitmapContainer().add(low);
+      }
+      pos = -pos - 1;
+      if (cardinality == values.length) {
+        values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+      }
+      System.arraycopy(values, pos, values, pos + 1, cardinality - pos);
+      values[pos] = low;
+      ++cardinality;
+      return this;
+    }
+
+    @Override
+    Container or(long[] words) {
+      BitmapContainer bitmap = toBitmapContainer().or(words);
+      if (bitmap.cardinality() > ARRAY_MAX) {
+        return bitmap;
+      }
+      ArrayContainer merged = bitmap.toArrayContainer();
+      values = merged.values;
+      cardinality = merged.cardinality;
+      return this;
+    }
+
+    @Override
+    void clearIn(long[] words) {
+      for (int i = 0; i < cardinality; i++) {
+        words[values[i] >>> 6] &= ~(1L << values[i]);
+      }
+    }
+
+    @Override
+    ContainerIterator iterator() {
+      return new ContainerIterator() {
+        private int i = 0;
+
+        @Override
+        public boolean hasNext() {
+          return i < cardinality;
+        }
+
+        @Override
+        public int next() {
+          return values[i++];
+        }
+      };
+    }
+
+    @Override
+    long estimatedBytes() {
+      return 32 + 2L * values.length;
+    }
+
+    private BitmapContainer toBitmapContainer() {
+      long[] words = new long[BITMAP_WORDS];
+      for (int i = 0; i < cardinality; i++) {
+        words[values[i] >>> 6] |= 1L << values[i];
+      }
+      return new BitmapContainer(words, cardinality);
+    }
+  }
+
+  private static final class BitmapContainer extends Container {
+    private final long[] words;
+    private int cardinality;
+
+    BitmapContainer(long[] words, int cardinality) {
+      this.words = words;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    boolean contains(char low) {
+      return (words[low >>> 6] & (1L << low)) != 0L;
+    }
+
+    @Override
+    Container add(char low) {
+      final int i = low >>> 6;
+      final long bit = 1L << low;
+      if ((words[i] & bit) == 0L) {
+        words[i] |= bit;
+        ++cardinality;
+      }
+      return this;
+    }
+
+    @Override
+    BitmapContainer or(long[] other) {
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        final long word = words[i] | other[i];
+        if (word != words[i]) {
+          cardinality += Long.bitCount(word) - Long.bitCount(words[i]);
+          words[i] = word;
+        }
+      }
+      return this;
+    }
+
+    @Override
+    void clearIn(long[] other) {
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        other[i] &= ~words[i];
+      }
+    }
+
+    @Override
+    ContainerIterator iterator() {
+      return new ContainerIterator() {
+        private int i = 0;
+        private long word = words[0];
+
+        @Override
+        public boolean hasNext() {
+          while (word == 0L && i < BITMAP_WORDS - 1) {
+            word = words[++i];
+          }
+          return word != 0L;
+        }
+
+        @Override
+        public int next() {
+          final int ret = (i << 6) | Long.numberOfTrailingZeros(word);
+          word &= word - 1;
+          return ret;
+        }
+      };
+    }
+
+    @Override
+    long estimatedBytes() {
+      return 32 + 8L * BITMAP_WORDS;
+    }
+
+    private ArrayContainer toArrayContainer() {
+      char[] values = new char[Math.max(4, cardinality)];
+      int n = 0;
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        for (long word = words[i]; word != 0L; word &= word - 1) {
+          values[n++] = (char) ((i << 6) | Long.numberOfTrailingZeros(word));
+        }
+      }
+      return new ArrayContainer(values, n);
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.solver;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import qilin.core.pag.PAG;
+import qilin.core.pag.ValNode;
+import qilin.core.sets.DoublePointsToSet;
+import qilin.util.graph.DirectedGraph;
+import qilin.util.graph.StronglyConnectedComponents;
+import sootup.core.types.Type;
+
+/**
+ * Detects cycles of assignment edges during propagation, following the lazy cycle detection of
+ * Hardekopf and Lin: when the points-to sets of both ends of an edge have the same size after
+ * propagating along it, the edge likely lies on a cycle. The nodes of the declared type reachable
+ * from the target are then searched for a cycle back to the source, and the nodes of a found cycle
+ * are merged into one points-to set. As the merged nodes have the same type, type filtering on the
+ * cycle's edges filters nothing and the results do not change. Each edge triggers one search.
+ */
+public class CycleDetector {
+  /** bounds a search, which also bounds the recursion depth of the SCC computation */
+  private static final int MAX_SEARCHED_NODES = 2000;
+
+  private final PAG pag;
+  private final Set<Long> searchedEdges = new HashSet<>();
+  private int searches = 0;
+  private int mergedCycles = 0;
+
+  public CycleDetector(PAG pag) {
+    this.pag = pag;
+  }
+
+  /**
+   * Checks the edge from -&gt; to after propagating along it. Returns the representative of the
+   * merged nodes if a cycle has been merged, and null otherwise.
+   */
+  public ValNode check(ValNode from, ValNode to) {
+    final DoublePointsToSet fromSet = from.getP2Set();
+    final DoublePointsToSet toSet = to.getP2Set();
+    if (fromSet == toSet || fromSet.isEmpty() || fromSet.size() != toSet.size()) {
+      return null;
+    }
+    final Type type = from.getType();
+    if (!Objects.equals(type, to.getType())) {
+      return null;
+    }
+    if (!searchedEdges.add(((long) from.getNumber() << 32) | to.getNumber())) {
+      return null;
+    }
+    ++searches;
+    final Set<ValNode> reachable = reachableNodes(to, type);
+    if (reachable == null || !reachable.contains(from)) {
+      return null;
+    }
+    DirectedGraph<ValNode> graph =
+        new DirectedGraph<ValNode>() {
+          @Override
+          public Collection<ValNode> allNodes() {
+            return reachable;
+          }
+
+          @Override
+          public Collection<ValNode> predsOf(ValNode p) {
+            return pag.simpleInvLookup(p).stream()
+                .filter(reachable::contains)
+                .collect(Collectors.toList());
+          }
+
+          @Override
+          public Collection<ValNode> succsOf(ValNode p) {
+            return pag.simpleLookup(p).stream()
+                .filter(reachable::contains)
+                .collect(Collectors.toList());
+          }
+        };
+    for (List<ValNode> scc : new StronglyConnectedComponents<>(graph).getTrueComponents()) {
+      if (scc.size() > 1 && scc.contains(from)) {
+        ++mergedCycles;
+        return pag.mergeNodes(scc);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the nodes of the given type that are reachable from source via assignment edges, or
+   * null if there are too many of them.
+   */
+  private Set<ValNode> reachableNodes(ValNode source, Type type) {
+    final Set<ValNode> reachable = new LinkedHashSet<>();
+    final Deque<ValNode> workList = new ArrayDeque<>();
+    reachable.add(source);
+    workList.add(source);
+    while (!workList.isEmpty()) {
+      for (ValNode succ : pag.simpleLookup(workList.poll())) {
+        if (Objects.equals(type, succ.getType()) && reachable.add(succ)) {
+          if (reachable.size() > MAX_SEARCHED_NODES) {
+            return null;
+          }
+          workList.add(succ);
+        }
+      }
+    }
+    return reachable;
+  }
+
+  /** Returns the number of searches for cycles. */
+  public int getSearches() {
+    return searches;
+  }
+
+  /** Returns the number of merged cycles. */
+  public int getMergedCycles() {
+    return mergedCycles;
+  }
+}
@@ -0,0 +1,92 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.solver;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import qilin.core.pag.PAG;
+import qilin.core.pag.ValNode;
+
+/**
+ * Processes the node with the most newly added objects first, so large deltas are propagated once
+ * instead of in many small pieces. The objects added to a queued node raise its priority: the node
+ * enters the queue again with its current delta size, and entries with an outdated delta size are
+ * skipped when they are polled.
+ */
+public class DeltaSizeWorkList implements ValNodeWorkList {
+  private final PAG pag;
+  /** entries keyed by the inverted delta size and then by number, so the largest delta is first */
+  private final PriorityQueue<Long> entries = new PriorityQueue<>();
+
+  /** the delta size of the current entry of each node, by number, or -1 if it is not queued */
+  private int[] queuedDelta = new int[0];
+
+  private int size = 0;
+
+  public DeltaSizeWorkList(PAG pag) {
+    this.pag = pag;
+  }
+
+  @Override
+  public boolean add(ValNode node) {
+    int number = node.getNumber();
+    int delta = node.getP2Set().getNewSet().size();
+    if (number >= queuedDelta.length) {
+      int oldLength = queuedDelta.length;
+      queuedDelta = Arrays.copyOf(queuedDelta, Math.max(number + 1, oldLength * 2));
+      Arrays.fill(queuedDelta, oldLength, queuedDelta.length, -1);
+    }
+    int oldDelta = queuedDelta[number];
+    if (oldDelta == delta) {
+      return false;
+    }
+    queuedDelta[number] = delta;
+    entries.add(((long) (Integer.MAX_VALUE - delta) << 32) | number);
+    if (oldDelta >= 0) {
+      return false;
+    }
+    ++size;
+    return true;
+  }
+
+  @Override
+  public ValNode poll() {
+    while (!entries.isEmpty()) {
+      long entry = entries.poll();
+      int number = (int) entry;
+      int delta = Integer.MAX_VALUE - (int) (entry >>> 32);
+      if (queuedDelta[number] == delta) {
+        queuedDelta[number] = -1;
+        --size;
+        return pag.getValNodeNumberer().get(number);
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+}
@@ -0,0 +1,67 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.solver;
+
+import java.util.ArrayDeque;
+import qilin.core.pag.PAG;
+import qilin.core.pag.ValNode;
+import qilin.util.BitVector;
+
+/**
+ * Processes the nodes in the order they are added. A bit per node number marks the queued nodes,
+ * so adding a queued node costs a bit test.
+ */
+public class FifoWorkList implements ValNodeWorkList {
+  private final PAG pag;
+  private final ArrayDeque<Integer> queue = new ArrayDeque<>();
+  private final BitVector queued = new BitVector();
+
+  public FifoWorkList(PAG pag) {
+    this.pag = pag;
+  }
+
+  @Override
+  public boolean add(ValNode node) {
+    if (!queued.set(node.getNumber())) {
+      return false;
+    }
+    queue.add(node.getNumber());
+    return true;
+  }
+
+  @Override
+  public ValNode poll() {
+    Integer number = queue.poll();
+    if (number == null) {
+      return null;
+    }
+    queued.clear(number);
+    return pag.getValNodeNumberer().get(number);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return queue.isEmpty();
+  }
+
+  @Override
+  public int size() {
+    return queue.size();
+  }
+}
@@ -0,0 +1,162 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.solver;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import qilin.core.PTA;
+import qilin.core.pag.*;
+import qilin.core.sets.DoublePointsToSet;
+import qilin.core.sets.PointsToSetInternal;
+import qilin.util.BitVector;
+import qilin.util.queue.QueueReader;
+
+/**
+ * A solver that propagates points-to sets along assignment edges on several threads. It computes
+ * the same fixed point as {@link Solver} in rounds:
+ *
+ * <ol>
+ *   <li>the newly added objects of all nodes in the work list are detached from their points-to
+ *       sets (the sets are flushed),
+ *   <li>the detached objects are propagated along the assignment edges in parallel. The targets
+ *       are partitioned among the threads, so every points-to set is written by one thread only and
+ *       neither the sets nor the PAG need to be locked,
+ *   <li>the constraints that change the PAG or the call graph (field accesses, virtual calls,
+ *       exceptions, new methods) are resolved sequentially for the nodes of the round.
+ * </ol>
+ */
+public class ParallelSolver extends Solver {
+  private static final Logger logger = LoggerFactory.getLogger(ParallelSolver.class);
+
+  private final int threads;
+
+  public ParallelSolver(PTA pta, int threads) {
+    super(pta);
+    if (threads < 1) {
+      throw new IllegalArgumentException("The number of threads has to be at least 1.");
+    }
+    this.threads = threads;
+  }
+
+  @Override
+  public void propagate() {
+    final QueueReader<ContextMethod> newRMs = rmQueue.reader();
+    final QueueReader<Node> newPAGEdges = edgeQueue.reader();
+    final QueueReader<ExceptionThrowSite> newThrows = throwSiteQueue.reader();
+    final QueueReader<VirtualCallSite> newCalls = virtualCallSiteQueue.reader();
+    statistics.start();
+    cgb.initReachableMethods();
+    processStmts(newRMs);
+    pag.getAlloc().forEach((a, set) -> set.forEach(v -> propagatePTS(v, a)));
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      while (!valNodeWorkList.isEmpty()) {
+        // Step 0: detaching the objects to propagate in this round.
+        final List<ValNode> round = new ArrayList<>(valNodeWorkList.size());
+        final List<PointsToSetInternal> newsets = new ArrayList<>(valNodeWorkList.size());
+        while (!valNodeWorkList.isEmpty()) {
+          ValNode curr = valNodeWorkList.poll();
+          final DoublePointsToSet pts = curr.getP2Set();
+          final PointsToSetInternal newset = pts.getNewSet();
+          if (newset.isEmpty()) {
+            // merged with a node of this round
+            continue;
+          }
+          statistics.countIteration();
+          for (ValNode member : pag.getMergedNodes(curr)) {
+            round.add(member);
+            newsets.add(newset);
+          }
+          pts.flushNew();
+        }
+        // Step 1: Resolving Direct Constraints in parallel, then merging the cycles found.
+        propagateInParallel(pool, round, newsets);
+        if (cycleDetector != null) {
+          for (ValNode curr : round) {
+            for (ValNode to : pag.simpleLookup(curr)) {
+              checkForCycle(curr, to);
+            }
+          }
+        }
+        for (int i = 0; i < round.size(); i++) {
+          ValNode curr = round.get(i);
+          if (curr instanceof VarNode) {
+            handleVarNode((VarNode) curr, newsets.get(i), newRMs);
+          }
+          // Step 4: Activating New Constraints.
+          activateConstraints(newCalls, newRMs, newThrows, newPAGEdges);
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+    statistics.stop();
+    logger.info("{}", statistics);
+  }
+
+  /**
+   * Adds the newsets of the nodes of a round to the points-to sets of their successors. Each
+   * successor, or each group of merged successors, is updated by a single task that unions all its
+   * incoming sets.
+   */
+  private void propagateInParallel(
+      ForkJoinPool pool, List<ValNode> round, List<PointsToSetInternal> newsets) {
+    final Map<ValNode, List<PointsToSetInternal>> incoming = new LinkedHashMap<>();
+    for (int i = 0; i < round.size(); i++) {
+      final PointsToSetInternal newset = newsets.get(i);
+      final ValNode from = round.get(i);
+      for (ValNode to : pag.simpleLookup(from)) {
+        if (to.getP2Set() != from.getP2Set()) {
+          statistics.countPropagatedObjects(newset.size());
+          incoming
+              .computeIfAbsent(pag.getRepresentative(to), k -> new ArrayList<>())
+              .add(newset);
+        }
+      }
+    }
+    final ValNode[] targets = incoming.keySet().toArray(new ValNode[0]);
+    // the masks and points-to sets are created up front, the tasks only read and union them
+    final BitVector[] typeMasks = new BitVector[targets.length];
+    final DoublePointsToSet[] p2sets = new DoublePointsToSet[targets.length];
+    for (int i = 0; i < targets.length; i++) {
+      typeMasks[i] = pag.getTypeMasks().get(targets[i].getType());
+      p2sets[i] = targets[i].getP2Set();
+    }
+    final boolean[] changed = new boolean[targets.length];
+    pool.submit(
+            () ->
+                IntStream.range(0, targets.length)
+                    .parallel()
+                    .forEach(
+                        i -> {
+                          for (PointsToSetInternal newset : incoming.get(targets[i])) {
+                            changed[i] |= p2sets[i].addAll(newset, null, typeMasks[i]);
+                          }
+                        }))
+        .join();
+    for (int i = 0; i < targets.length; i++) {
+      if (changed[i]) {
+        valNodeWorkList.add(targets[i]);
+      }
+    }
+  }
+}
@@ -19,6 +19,8 @@
 package qilin.core.solver;
 
 import java.util.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import qilin.CoreConfig;
 import qilin.core.PTA;
 import qilin.core.builder.CallGraphBuilder;
@@ -31,6 +33,7 @@ import qilin.core.pag.*;
 import qilin.core.sets.DoublePointsToSet;
 import qilin.core.sets.P2SetVisitor;
 import qilin.core.sets.PointsToSetInternal;
+import qilin.util.BitVector;
 import qilin.util.PTAUtils;
 import qilin.util.queue.ChunkedQueue;
 import qilin.util.queue.QueueReader;
@@ -49,16 +52,23 @@ import sootup.core.types.Type;
 import sootup.java.core.JavaIdentifierFactory;
 
 public class Solver extends Propagator {
-  private final TreeSet<ValNode> valNodeWorkList = new TreeSet<>();
-  private final PAG pag;
-  private final PTA pta;
-  private final CallGraphBuilder cgb;
-  private final ExceptionHandler eh;
-  private final ChunkedQueue<ExceptionThrowSite> throwSiteQueue = new ChunkedQueue<>();
-  private final ChunkedQueue<VirtualCallSite> virtualCallSiteQueue = new ChunkedQueue<>();
-  private final ChunkedQueue<Node> edgeQueue = new ChunkedQueue<>();
+  private static final Logger logger = LoggerFactory.getLogger(Solver.class);
 
-  private final ChunkedQueue<ContextMethod> rmQueue = new ChunkedQueue<>();
+  protected final ValNodeWorkList valNodeWorkList;
+  protected final PAG pag;
+  protected final PTA pta;
+  protected final CallGraphBuilder cgb;
+  protected final ExceptionHandler eh;
+  protected final ChunkedQueue<ExceptionThrowSite> throwSiteQueue = new ChunkedQueue<>();
+  protected final ChunkedQueue<VirtualCallSite> virtualCallSiteQueue = new ChunkedQueue<>();
+  protected final ChunkedQueue<Node> edgeQueue = new ChunkedQueue<>();
+
+  protected final ChunkedQueue<ContextMethod> rmQueue = new ChunkedQueue<>();
+
+  /** merges cycles of assignment edges, null if cycle elimination is disabled */
+  protected final CycleDetector cycleDetector;
+
+  protected final SolverStatistics statistics;
 
   public Solver(PTA pta) {
     this.cgb = pta.getCgb();
@@ -67,6 +77,21 @@ public class Solver extends Propagator {
     this.pag.setEdgeQueue(edgeQueue);
     this.eh = pta.getExceptionHandler();
     this.pta = pta;
+    this.cycleDetector =
+        CoreConfig.v().getPtaConfig().cycleElimination ? new CycleDetector(pag) : null;
+    CoreConfig.WorkListPolicy policy = CoreConfig.v().getPtaConfig().workListPolicy;
+    this.valNodeWorkList = ValNodeWorkList.create(policy, pag);
+    this.statistics = new SolverStatistics(policy);
+  }
+
+  /** Returns the counted work of this solver's run. */
+  public SolverStatistics getStatistics() {
+    return statistics;
+  }
+
+  /** Returns the cycle detector of this solver, or null if cycle elimination is disabled. */
+  public CycleDetector getCycleDetector() {
+    return cycleDetector;
   }
 
   @Override
@@ -75,37 +100,54 @@ public class Solver extends Propagator {
     final QueueReader<Node> newPAGEdges = edgeQueue.reader();
     final QueueReader<ExceptionThrowSite> newThrows = throwSiteQueue.reader();
     final QueueReader<VirtualCallSite> newCalls = virtualCallSiteQueue.reader();
+    statistics.start();
     cgb.initReachableMethods();
     processStmts(newRMs);
     pag.getAlloc().forEach((a, set) -> set.forEach(v -> propagatePTS(v, a)));
     while (!valNodeWorkList.isEmpty()) {
-      ValNode curr = valNodeWorkList.pollFirst();
+      ValNode curr = valNodeWorkList.poll();
       // Step 1: Resolving Direct Constraints
       assert curr != null;
       final DoublePointsToSet pts = curr.getP2Set();
       final PointsToSetInternal newset = pts.getNewSet();
-      pag.simpleLookup(curr).forEach(to -> propagatePTS(to, newset));
-
-      if (curr instanceof VarNode) {
-        VarNode mSrc = (VarNode) curr;
-        // Step 1 continues.
-        Collection<ExceptionThrowSite> throwSites = eh.throwSitesLookUp(mSrc);
-        for (ExceptionThrowSite site : throwSites) {
-          eh.exceptionDispatch(newset, site);
+      if (newset.isEmpty()) {
+        // merged with a node that has been processed already
+        continue;
+      }
+      statistics.countIteration();
+      // the merged nodes share the points-to set, so all of them are processed
+      for (ValNode member : pag.getMergedNodes(curr)) {
+        for (ValNode to : pag.simpleLookup(member)) {
+          propagateAlongEdge(member, to, newset);
         }
-        // Step 2: Resolving Indirect Constraints.
-        handleStoreAndLoadOnBase(mSrc);
-        // Step 3: Collecting New Constraints.
-        Collection<VirtualCallSite> sites = cgb.callSitesLookUp(mSrc);
-        for (VirtualCallSite site : sites) {
-          cgb.virtualCallDispatch(newset, site);
+        if (member instanceof VarNode) {
+          handleVarNode((VarNode) member, newset, newRMs);
         }
-        processStmts(newRMs);
       }
       pts.flushNew();
       // Step 4: Activating New Constraints.
       activateConstraints(newCalls, newRMs, newThrows, newPAGEdges);
     }
+    statistics.stop();
+    logger.info("{}", statistics);
+  }
+
+  /** Resolves the constraints that depend on the objects newly pointed to by mSrc. */
+  protected void handleVarNode(
+      VarNode mSrc, PointsToSetInternal newset, Iterator<ContextMethod> newRMs) {
+    // Step 1 continues.
+    Collection<ExceptionThrowSite> throwSites = eh.throwSitesLookUp(mSrc);
+    for (ExceptionThrowSite site : throwSites) {
+      eh.exceptionDispatch(newset, site);
+    }
+    // Step 2: Resolving Indirect Constraints.
+    handleStoreAndLoadOnBase(mSrc, newset);
+    // Step 3: Collecting New Constraints.
+    Collection<VirtualCallSite> sites = cgb.callSitesLookUp(mSrc);
+    for (VirtualCallSite site : sites) {
+      cgb.virtualCallDispatch(newset, site);
+    }
+    processStmts(newRMs);
   }
 
   public void processStmts(Iterator<ContextMethod> newRMs) {
@@ -248,13 +290,13 @@ public class Solver extends Propagator {
     return false;
   }
 
-  private void handleStoreAndLoadOnBase(VarNode base) {
+  private void handleStoreAndLoadOnBase(VarNode base, PointsToSetInternal baseHeaps) {
     for (final FieldRefNode fr : base.getAllFieldRefs()) {
       for (final VarNode v : pag.storeInvLookup(fr)) {
-        handleStoreEdge(base.getP2Set().getNewSet(), fr.getField(), v);
+        handleStoreEdge(baseHeaps, fr.getField(), v);
       }
       for (final VarNode to : pag.loadLookup(fr)) {
-        handleLoadEdge(base.getP2Set().getNewSet(), fr.getField(), to);
+        handleLoadEdge(baseHeaps, fr.getField(), to);
       }
     }
   }
@@ -289,7 +331,7 @@ public class Solver extends Propagator {
         });
   }
 
-  private void activateConstraints(
+  protected void activateConstraints(
       QueueReader<VirtualCallSite> newCalls,
       QueueReader<ContextMethod> newRMs,
       QueueReader<ExceptionThrowSite> newThrows,
@@ -336,26 +378,37 @@ public class Solver extends Propagator {
     }
   }
 
+  /** Propagates newset along the assignment edge from -&gt; to and checks it for a cycle. */
+  protected void propagateAlongEdge(ValNode from, ValNode to, PointsToSetInternal newset) {
+    if (to.getP2Set() == from.getP2Set()) {
+      // both nodes are merged
+      return;
+    }
+    statistics.countPropagatedObjects(newset.size());
+    propagatePTS(to, newset);
+    checkForCycle(from, to);
+  }
+
+  protected void checkForCycle(ValNode from, ValNode to) {
+    if (cycleDetector != null) {
+      ValNode representative = cycleDetector.check(from, to);
+      if (representative != null) {
+        valNodeWorkList.add(representative);
+      }
+    }
+  }
+
   protected void propagatePTS(final ValNode pointer, PointsToSetInternal other) {
     final DoublePointsToSet addTo = pointer.getP2Set();
-    P2SetVisitor p2SetVisitor =
-        new P2SetVisitor(pta) {
-          @Override
-          public void visit(Node n) {
-            if (addWithTypeFiltering(addTo, pointer.getType(), n)) {
-              returnValue = true;
-            }
-          }
-        };
-    other.forall(p2SetVisitor);
-    if (p2SetVisitor.getReturnValue()) {
-      valNodeWorkList.add(pointer);
+    final BitVector typeMask = pag.getTypeMasks().get(pointer.getType());
+    if (addTo.addAll(other, null, typeMask)) {
+      valNodeWorkList.add(pag.getRepresentative(pointer));
     }
   }
 
   protected void propagatePTS(final ValNode pointer, AllocNode heap) {
     if (addWithTypeFiltering(pointer.getP2Set(), pointer.getType(), heap)) {
-      valNodeWorkList.add(pointer);
+      valNodeWorkList.add(pag.getRepresentative(pointer));
     }
   }
 
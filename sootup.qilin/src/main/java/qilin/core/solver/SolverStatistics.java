@@ -0,0 +1,80 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.solver;
+
+import qilin.CoreConfig;
+import qilin.util.Stopwatch;
+
+/** Counts the work of a solver run, to compare the work list policies. */
+public class SolverStatistics {
+  private final CoreConfig.WorkListPolicy policy;
+  private final Stopwatch stopwatch;
+  private long iterations = 0;
+  private long propagatedObjects = 0;
+
+  public SolverStatistics(CoreConfig.WorkListPolicy policy) {
+    this.policy = policy;
+    this.stopwatch = Stopwatch.newAndStart("Solver (" + policy + ")");
+  }
+
+  /** Restarts the time measurement when the solver starts propagating. */
+  public void start() {
+    stopwatch.restart();
+  }
+
+  /** Records a node taken from the work list with objects to propagate. */
+  public void countIteration() {
+    ++iterations;
+  }
+
+  /** Records objects propagated along an assignment edge. */
+  public void countPropagatedObjects(int objects) {
+    propagatedObjects += objects;
+  }
+
+  public void stop() {
+    stopwatch.stop();
+  }
+
+  public CoreConfig.WorkListPolicy getPolicy() {
+    return policy;
+  }
+
+  /** Returns the number of nodes processed with objects to propagate. */
+  public long getIterations() {
+    return iterations;
+  }
+
+  /** Returns the number of objects propagated along assignment edges, counted per edge. */
+  public long getPropagatedObjects() {
+    return propagatedObjects;
+  }
+
+  /** Returns the elapsed time in seconds. */
+  public float getElapsed() {
+    return stopwatch.elapsed();
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%s, iterations: %d, propagated objects: %d",
+        stopwatch, iterations, propagatedObjects);
+  }
+}
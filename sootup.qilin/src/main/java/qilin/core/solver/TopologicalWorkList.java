@@ -0,0 +1,188 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.solver;
+
+import java.util.*;
+import qilin.core.pag.PAG;
+import qilin.core.pag.ValNode;
+import qilin.util.BitVector;
+
+/**
+ * Processes the nodes in rounds, in the manner of the least recently fired order: a round
+ * processes the nodes queued before it started in topological order of the assignment edges, so a
+ * node is processed after its predecessors of the round have added their objects to it. Nodes
+ * added during a round wait for the next round. The nodes of a cycle share their rank.
+ *
+ * <p>The PAG grows while solving, so the nodes created after the ranks have been computed come
+ * last, by number. The ranks are recomputed when such nodes make up more than half of a round and
+ * the PAG has grown by a quarter since the last ranking.
+ */
+public class TopologicalWorkList implements ValNodeWorkList {
+  private static final int UNRANKED = Integer.MAX_VALUE;
+
+  private final PAG pag;
+  /** the nodes of the current round, keyed by rank and then by number */
+  private final PriorityQueue<Long> current = new PriorityQueue<>();
+  /** the nodes of the next round */
+  private final ArrayDeque<Integer> next = new ArrayDeque<>();
+
+  private final BitVector queued = new BitVector();
+  private int[] ranks = new int[0];
+  private int rankedNodes = 0;
+  private int rankings = 0;
+
+  public TopologicalWorkList(PAG pag) {
+    this.pag = pag;
+  }
+
+  @Override
+  public boolean add(ValNode node) {
+    if (!queued.set(node.getNumber())) {
+      return false;
+    }
+    next.add(node.getNumber());
+    return true;
+  }
+
+  @Override
+  public ValNode poll() {
+    if (current.isEmpty()) {
+      startRound();
+    }
+    Long key = current.poll();
+    if (key == null) {
+      return null;
+    }
+    int number = (int) (long) key;
+    queued.clear(number);
+    return pag.getValNodeNumberer().get(number);
+  }
+
+  private void startRound() {
+    int unranked = 0;
+    for (int number : next) {
+      if (rankOf(number) == UNRANKED) {
+        ++unranked;
+      }
+    }
+    int nodes = pag.getValNodeNumberer().size();
+    if (unranked > next.size() / 2 && nodes - rankedNodes > rankedNodes / 4) {
+      computeRanks();
+    }
+    while (!next.isEmpty()) {
+      int number = next.poll();
+      current.add(((long) rankOf(number) << 32) | number);
+    }
+  }
+
+  private int rankOf(int number) {
+    return number < ranks.length ? ranks[number] : UNRANKED;
+  }
+
+  /**
+   * Ranks the nodes in topological order of the components of the assignment edges. Tarjan's
+   * algorithm completes a component after all components reachable from it, so the components are
+   * ranked in reverse order of completion. The search keeps its own stack instead of recursing, as
+   * chains of assignment edges can be longer than the call stack allows.
+   */
+  private void computeRanks() {
+    final int size = pag.getValNodeNumberer().size();
+    // the visit order of a node starting from 1, 0 if not visited yet
+    final int[] index = new int[size + 1];
+    final int[] lowLink = new int[size + 1];
+    // the component of a node in order of completion
+    final int[] component = new int[size + 1];
+    final BitVector onStack = new BitVector(size + 1);
+    final int[] componentStack = new int[size];
+    final int[] searchStack = new int[size];
+    final List<Iterator<ValNode>> succsStack = new ArrayList<>();
+    int visited = 0;
+    int components = 0;
+    int componentTop = 0;
+    for (ValNode root : pag.getValNodeNumberer()) {
+      if (index[root.getNumber()] != 0) {
+        continue;
+      }
+      int depth = 0;
+      ValNode node = root;
+      while (true) {
+        if (node != null) {
+          // enter node
+          final int number = node.getNumber();
+          index[number] = lowLink[number] = ++visited;
+          componentStack[componentTop++] = number;
+          onStack.set(number);
+          searchStack[depth++] = number;
+          succsStack.add(pag.simpleLookup(node).iterator());
+          node = null;
+        }
+        final int number = searchStack[depth - 1];
+        final Iterator<ValNode> succs = succsStack.get(depth - 1);
+        if (succs.hasNext()) {
+          final ValNode succ = succs.next();
+          final int succNumber = succ.getNumber();
+          if (index[succNumber] == 0) {
+            node = succ;
+          } else if (onStack.get(succNumber)) {
+            lowLink[number] = Math.min(lowLink[number], index[succNumber]);
+          }
+          continue;
+        }
+        // leave node
+        succsStack.remove(--depth);
+        if (lowLink[number] == index[number]) {
+          int member;
+          do {
+            member = componentStack[--componentTop];
+            onStack.clear(member);
+            component[member] = components;
+          } while (member != number);
+          ++components;
+        }
+        if (depth == 0) {
+          break;
+        }
+        final int parent = searchStack[depth - 1];
+        lowLink[parent] = Math.min(lowLink[parent], lowLink[number]);
+      }
+    }
+    final int[] newRanks = new int[size + 1];
+    for (int number = 0; number <= size; number++) {
+      newRanks[number] = index[number] == 0 ? UNRANKED : components - 1 - component[number];
+    }
+    ranks = newRanks;
+    rankedNodes = size;
+    ++rankings;
+  }
+
+  /** Returns how often the ranks have been computed. */
+  public int getRankings() {
+    return rankings;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return current.isEmpty() && next.isEmpty();
+  }
+
+  @Override
+  public int size() {
+    return current.size() + next.size();
+  }
+}
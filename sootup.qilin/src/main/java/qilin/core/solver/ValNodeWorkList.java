@@ -0,0 +1,50 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.solver;
+
+import qilin.CoreConfig;
+import qilin.core.pag.PAG;
+import qilin.core.pag.ValNode;
+
+/** The nodes whose newly added objects are still to be propagated, in the order of a policy. */
+public interface ValNodeWorkList {
+  /** Adds node, returns false if it is already in this work list. */
+  boolean add(ValNode node);
+
+  /** Removes and returns the next node to process, or null if this work list is empty. */
+  ValNode poll();
+
+  boolean isEmpty();
+
+  int size();
+
+  static ValNodeWorkList create(CoreConfig.WorkListPolicy policy, PAG pag) {
+    switch (policy) {
+      case FIFO:
+        return new FifoWorkList(pag);
+      case TOPOLOGICAL:
+        return new TopologicalWorkList(pag);
+      case DELTA:
+        return new DeltaSizeWorkList(pag);
+      case NUMBER:
+      default:
+        return new NumberOrderWorkList();
+    }
+  }
+}
@@ -114,6 +114,25 @@ public class PTAOption extends Options {
     addOption("pae", "precisearray", "Enable precise Array Element type (default value: false)");
     addOption(
         "pe", "preciseexceptions", "Enable precisely handling exceptions (default value: false)");
+    addOption(
+        "ptsi",
+        "pointstosetimpl",
+        "[HYBRID, ROARING]",
+        "Specify the points-to set implementation (default value: HYBRID)");
+    addOption(
+        "st",
+        "solverthreads",
+        "n",
+        "Number of threads propagating points-to sets (default value: 1)");
+    addOption(
+        "ce",
+        "cycleelimination",
+        "Merge nodes on cycles of assignment edges while solving (default value: false)");
+    addOption(
+        "wl",
+        "worklist",
+        "[NUMBER, FIFO, TOPOLOGICAL, DELTA]",
+        "Specify the order of the solver's work list (default value: NUMBER)");
 
     // a specific PTA's configuration
     addOption(
@@ -200,6 +219,21 @@ public class PTAOption extends Options {
     if (cmd.hasOption("modular")) {
       Turner.isModular = true;
     }
+    if (cmd.hasOption("pointstosetimpl")) {
+      PTAConfig.v().getPtaConfig().pointsToSetImpl =
+          PTAConfig.PointsToSetImpl.valueOf(cmd.getOptionValue("pointstosetimpl"));
+    }
+    if (cmd.hasOption("solverthreads")) {
+      PTAConfig.v().getPtaConfig().solverThreads =
+          Integer.parseInt(cmd.getOptionValue("solverthreads"));
+    }
+    if (cmd.hasOption("cycleelimination")) {
+      PTAConfig.v().getPtaConfig().cycleElimination = true;
+    }
+    if (cmd.hasOption("worklist")) {
+      PTAConfig.v().getPtaConfig().workListPolicy =
+          PTAConfig.WorkListPolicy.valueOf(cmd.getOptionValue("worklist"));
+    }
     if (cmd.hasOption("precisearray")) {
       PTAConfig.v().getPtaConfig().preciseArrayElement = true;
     }
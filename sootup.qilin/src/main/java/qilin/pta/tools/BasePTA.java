@@ -38,6 +38,7 @@ import qilin.core.pag.PAG;
 import qilin.core.pag.ValNode;
 import qilin.core.pag.VarNode;
 import qilin.core.sets.PointsToSet;
+import qilin.core.solver.ParallelSolver;
 import qilin.core.solver.Propagator;
 import qilin.core.solver.Solver;
 import qilin.stat.IEvaluator;
@@ -72,6 +73,10 @@ public abstract class BasePTA extends CorePTA {
 
   @Override
   public Propagator getPropagator() {
+    int threads = CoreConfig.v().getPtaConfig().solverThreads;
+    if (threads > 1) {
+      return new ParallelSolver(this, threads);
+    }
     return new Solver(this);
   }
 
@@ -139,6 +139,11 @@ public class BitVector {
     return (bits[indexOf(bit)] & mask(bit)) != 0L;
   }
 
+  /** Returns the 64 bits starting at bit index * 64, or 0 if they are beyond this bitvector. */
+  public long getWord(int index) {
+    return index < bits.length ? bits[index] : 0L;
+  }
+
   @Override
   public int hashCode() {
     long ret = 0;
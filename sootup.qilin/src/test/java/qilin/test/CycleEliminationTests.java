@@ -0,0 +1,47 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import qilin.core.PTA;
+import qilin.test.util.JunitTests;
+
+/** Checks that merging cycles of assignment edges does not change the points-to sets. */
+public class CycleEliminationTests extends JunitTests {
+
+  @Test
+  public void testSameResults() {
+    for (String[] benchmark : SOLVER_BENCHMARKS) {
+      PTA expected = runWith(config -> config.cycleElimination = false, benchmark);
+      PTA merged = runWith(config -> config.cycleElimination = true, benchmark);
+      assertEquals(pointsToSets(expected), pointsToSets(merged));
+    }
+  }
+
+  @Test
+  public void testMergesCycles() {
+    // the static fields are copied into each other through locals
+    String[] benchmark = {"qilin.microben.core.assign.AssignCycle", "insens"};
+    PTA pta = runWith(config -> config.cycleElimination = true, benchmark);
+    assertTrue(pta.getCycleDetector().getMergedCycles() > 0);
+  }
+}
@@ -0,0 +1,38 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.test;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import qilin.core.PTA;
+import qilin.test.util.JunitTests;
+
+/** Checks that the parallel solver computes the points-to sets of the sequential solver. */
+public class ParallelSolverTests extends JunitTests {
+
+  @Test
+  public void testSameResults() {
+    for (String[] benchmark : SOLVER_BENCHMARKS) {
+      PTA sequential = runWith(config -> config.solverThreads = 1, benchmark);
+      PTA parallel = runWith(config -> config.solverThreads = 8, benchmark);
+      assertEquals(pointsToSets(sequential), pointsToSets(parallel));
+    }
+  }
+}
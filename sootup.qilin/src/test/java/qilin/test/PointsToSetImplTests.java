@@ -0,0 +1,111 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Test;
+import qilin.CoreConfig;
+import qilin.core.PTA;
+import qilin.core.sets.HybridPointsToSet;
+import qilin.core.sets.RoaringPointsToSet;
+import qilin.pta.PTAConfig;
+import qilin.test.util.JunitTests;
+import qilin.util.BitVector;
+
+/** Compares the points-to set implementations on the existing micro benchmarks. */
+public class PointsToSetImplTests extends JunitTests {
+  private static final String[][] BENCHMARKS = {
+    {"qilin.microben.core.assign.CastFail", "insens"},
+    {"qilin.microben.core.array.ArrayElemTypeFiltering", "insens"},
+    {"qilin.microben.core.field.FieldSensitivity2", "insens"},
+    {"qilin.microben.context.obj.OBJ2k0", "2o"},
+    {"qilin.microben.context.collections.ArrayList0", "2o"}
+  };
+
+  @After
+  public void resetImpl() {
+    PTAConfig.v().getPtaConfig().pointsToSetImpl = CoreConfig.PointsToSetImpl.HYBRID;
+  }
+
+  @Test
+  public void testRoaringSet() {
+    RoaringPointsToSet set = new RoaringPointsToSet();
+    HybridPointsToSet expected = new HybridPointsToSet();
+    for (int i = 1; i < 200_000; i += 7) {
+      assertTrue(set.add(i));
+      expected.add(i);
+    }
+    assertFalse(set.add(8));
+    assertEquals(expected.size(), set.size());
+    for (int i = 0; i < 200_000; i++) {
+      assertEquals(expected.contains(i), set.contains(i));
+    }
+
+    BitVector typeMask = new BitVector();
+    for (int i = 0; i < 200_000; i += 2) {
+      typeMask.set(i);
+    }
+    RoaringPointsToSet exclude = new RoaringPointsToSet();
+    exclude.add(14);
+    RoaringPointsToSet filtered = new RoaringPointsToSet();
+    assertTrue(filtered.addAll(set, exclude, typeMask));
+    for (Iterator<Integer> it = filtered.iterator(); it.hasNext(); ) {
+      int idx = it.next();
+      assertTrue(set.contains(idx) && typeMask.get(idx) && idx != 14);
+    }
+    assertFalse(filtered.contains(14));
+    assertTrue(filtered.contains(28));
+    assertFalse(filtered.addAll(set, exclude, typeMask));
+  }
+
+  @Test
+  public void testEstimatedBytes() {
+    // context-sensitive analyses create sparse sets of objects with high numbers
+    RoaringPointsToSet roaring = new RoaringPointsToSet();
+    HybridPointsToSet hybrid = new HybridPointsToSet();
+    for (int i = 1_000_000; i < 1_000_100; i++) {
+      roaring.add(i);
+      hybrid.add(i);
+    }
+    assertTrue(roaring.estimatedBytes() * 100 < hybrid.estimatedBytes());
+  }
+
+  @Test
+  public void testSameResults() {
+    for (String[] benchmark : BENCHMARKS) {
+      Map<String, List<String>> hybrid = runWith(CoreConfig.PointsToSetImpl.HYBRID, benchmark);
+      Map<String, List<String>> roaring = runWith(CoreConfig.PointsToSetImpl.ROARING, benchmark);
+      assertEquals(hybrid, roaring);
+    }
+  }
+
+  private Map<String, List<String>> runWith(CoreConfig.PointsToSetImpl impl, String[] benchmark) {
+    PTAConfig.v().getPtaConfig().pointsToSetImpl = impl;
+    PTA pta = run(benchmark[0], benchmark[1]);
+    checkAssertions(pta);
+    return pointsToSets(pta);
+  }
+}
@@ -0,0 +1,200 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.TreeSet;
+import org.junit.Test;
+import qilin.core.pag.AllocNode;
+import qilin.core.pag.TypeMasks;
+import qilin.core.sets.HybridPointsToSet;
+import qilin.core.sets.PointsToSetInternal;
+import qilin.test.util.JunitTests;
+import qilin.util.ArrayNumberer;
+import qilin.util.BitVector;
+import qilin.util.PTAUtils;
+import sootup.core.types.Type;
+import sootup.core.views.View;
+
+/** Tests the type masks and the filtered union of points-to sets. */
+public class TypeFilteringTests extends JunitTests {
+
+  @Test
+  public void testOrAndAndNot() {
+    BitVector orset = bits(1, 2, 3, 64, 65, 200);
+    BitVector andset = bits(2, 3, 64, 200, 300);
+    BitVector andnotset = bits(3, 500);
+
+    BitVector target = bits(7);
+    assertTrue(target.orAndAndNot(orset, andset, andnotset));
+    assertEquals(bits(2, 7, 64, 200), target);
+    assertFalse(target.orAndAndNot(orset, andset, andnotset));
+
+    // absent sets neither filter nor exclude anything
+    target = bits(7);
+    assertTrue(target.orAndAndNot(orset, null, null));
+    assertEquals(bits(1, 2, 3, 7, 64, 65, 200), target);
+    target = bits(7);
+    assertTrue(target.orAndAndNot(orset, null, andnotset));
+    assertEquals(bits(1, 2, 7, 64, 65, 200), target);
+    target = bits(7);
+    assertTrue(target.orAndAndNot(orset, andset, null));
+    assertEquals(bits(2, 3, 7, 64, 200), target);
+
+    // the target grows to the length of orset
+    target = new BitVector();
+    assertTrue(target.orAndAndNot(bits(1000), null, null));
+    assertTrue(target.get(1000));
+    assertFalse(target.orAndAndNot(bits(1000), bits(1), null));
+  }
+
+  @Test
+  public void testAddAllSmallArray() {
+    HybridPointsToSet other = set(1, 2, 3, 4, 5, 6);
+    BitVector typeMask = bits(2, 3, 4, 6, 100);
+    checkAddAll(other, null, typeMask);
+    checkAddAll(other, set(3, 100), typeMask);
+    checkAddAll(other, set(range(1, 40)), typeMask);
+    checkAddAll(other, set(4), null);
+  }
+
+  @Test
+  public void testAddAllBitVector() {
+    HybridPointsToSet other = set(range(1, 300));
+    BitVector typeMask = new BitVector();
+    for (int i = 0; i < 400; i += 3) {
+      typeMask.set(i);
+    }
+    checkAddAll(other, null, typeMask);
+    // an exclude set held in a bit vector takes the word-wise path
+    checkAddAll(other, set(range(100, 150)), typeMask);
+    // a small exclude set is checked node by node
+    checkAddAll(other, set(3, 9, 299), typeMask);
+    checkAddAll(other, set(range(100, 150)), null);
+  }
+
+  @Test
+  public void testAddAllIntoBitVector() {
+    HybridPointsToSet target = set(range(500, 540));
+    BitVector typeMask = bits(1, 2, 3, 510, 600);
+    assertTrue(target.addAll(set(1, 2, 3, 4, 600), set(2), typeMask));
+    assertEquals(43, target.size());
+    assertTrue(target.contains(1) && target.contains(3) && target.contains(600));
+    assertFalse(target.contains(2) || target.contains(4));
+    assertFalse(target.addAll(set(1, 2, 3, 4, 600), set(2), typeMask));
+  }
+
+  @Test
+  public void testTypeMasks() {
+    View view = PTAUtils.createView();
+    Type object = PTAUtils.getClassType("java.lang.Object");
+    Type charSequence = PTAUtils.getClassType("java.lang.CharSequence");
+    Type string = PTAUtils.getClassType("java.lang.String");
+    Type integer = PTAUtils.getClassType("java.lang.Integer");
+    ArrayNumberer<AllocNode> allocNodes = new ArrayNumberer<>();
+    TypeMasks typeMasks = new TypeMasks(view, allocNodes);
+    assertNull(typeMasks.get(null));
+
+    AllocNode s1 = newAllocNode(allocNodes, string);
+    AllocNode i1 = newAllocNode(allocNodes, integer);
+    BitVector mask = typeMasks.get(charSequence);
+    assertEquals(bits(s1.getNumber()), mask);
+    assertEquals(bits(s1.getNumber(), i1.getNumber()), typeMasks.get(object));
+
+    // nodes numbered after the mask was built are added when it is requested again
+    AllocNode s2 = newAllocNode(allocNodes, string);
+    AllocNode o1 = newAllocNode(allocNodes, object);
+    AllocNode i2 = newAllocNode(allocNodes, integer);
+    assertSame(mask, typeMasks.get(charSequence));
+    assertEquals(bits(s1.getNumber(), s2.getNumber()), mask);
+    assertEquals(
+        bits(s1.getNumber(), i1.getNumber(), s2.getNumber(), o1.getNumber(), i2.getNumber()),
+        typeMasks.get(object));
+    assertEquals(bits(i1.getNumber(), i2.getNumber()), typeMasks.get(integer));
+  }
+
+  private static AllocNode newAllocNode(ArrayNumberer<AllocNode> allocNodes, Type type) {
+    AllocNode node = new AllocNode(new Object(), type, null);
+    allocNodes.add(node);
+    return node;
+  }
+
+  /**
+   * Checks that adding other into sets of either representation keeps exactly the objects of other
+   * that are in typeMask and not in exclude.
+   */
+  private static void checkAddAll(
+      HybridPointsToSet other, PointsToSetInternal exclude, BitVector typeMask) {
+    TreeSet<Integer> expected = new TreeSet<>();
+    for (Iterator<Integer> it = other.iterator(); it.hasNext(); ) {
+      int idx = it.next();
+      if ((typeMask == null || typeMask.get(idx)) && (exclude == null || !exclude.contains(idx))) {
+        expected.add(idx);
+      }
+    }
+    for (HybridPointsToSet target : new HybridPointsToSet[] {set(), set(range(1000, 1020))}) {
+      int before = target.size();
+      TreeSet<Integer> contents = contents(target);
+      contents.addAll(expected);
+      assertEquals(!expected.isEmpty(), target.addAll(other, exclude, typeMask));
+      assertEquals(contents, contents(target));
+      assertEquals(before + expected.size(), target.size());
+      assertFalse(target.addAll(other, exclude, typeMask));
+    }
+  }
+
+  private static TreeSet<Integer> contents(HybridPointsToSet set) {
+    TreeSet<Integer> ret = new TreeSet<>();
+    for (Iterator<Integer> it = set.iterator(); it.hasNext(); ) {
+      ret.add(it.next());
+    }
+    return ret;
+  }
+
+  private static HybridPointsToSet set(int... idxs) {
+    HybridPointsToSet ret = new HybridPointsToSet();
+    for (int idx : idxs) {
+      ret.add(idx);
+    }
+    return ret;
+  }
+
+  private static BitVector bits(int... idxs) {
+    BitVector ret = new BitVector();
+    for (int idx : idxs) {
+      ret.set(idx);
+    }
+    return ret;
+  }
+
+  /** Returns the numbers from (inclusive) to (exclusive). */
+  private static int[] range(int from, int to) {
+    int[] ret = new int[to - from];
+    for (int i = from; i < to; i++) {
+      ret[i - from] = i;
+    }
+    return ret;
+  }
+}
@@ -0,0 +1,68 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import qilin.CoreConfig;
+import qilin.core.PTA;
+import qilin.core.solver.SolverStatistics;
+import qilin.test.util.JunitTests;
+
+/** Checks that every work list policy computes the same points-to sets. */
+public class WorkListPolicyTests extends JunitTests {
+
+  @Test
+  public void testSameResults() {
+    for (String[] benchmark : SOLVER_BENCHMARKS) {
+      Map<String, List<String>> expected = runWith(CoreConfig.WorkListPolicy.NUMBER, 1, benchmark);
+      for (CoreConfig.WorkListPolicy policy : CoreConfig.WorkListPolicy.values()) {
+        assertEquals(expected, runWith(policy, 1, benchmark));
+      }
+    }
+  }
+
+  @Test
+  public void testParallelSolver() {
+    for (String[] benchmark : SOLVER_BENCHMARKS) {
+      Map<String, List<String>> expected = runWith(CoreConfig.WorkListPolicy.NUMBER, 4, benchmark);
+      assertEquals(expected, runWith(CoreConfig.WorkListPolicy.TOPOLOGICAL, 4, benchmark));
+    }
+  }
+
+  /** Returns the points-to sets of all value nodes, see {@link #pointsToSets(PTA)}. */
+  private Map<String, List<String>> runWith(
+      CoreConfig.WorkListPolicy policy, int threads, String[] benchmark) {
+    PTA pta =
+        runWith(
+            config -> {
+              config.workListPolicy = policy;
+              config.solverThreads = threads;
+            },
+            benchmark);
+    SolverStatistics statistics = pta.getSolverStatistics();
+    assertNotNull(statistics);
+    assertEquals(policy, statistics.getPolicy());
+    return pointsToSets(pta);
+  }
+}
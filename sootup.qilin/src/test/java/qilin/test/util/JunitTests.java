@@ -22,9 +22,15 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import org.junit.After;
 import org.junit.BeforeClass;
+import qilin.CoreConfig;
 import qilin.core.PTA;
+import qilin.core.pag.Node;
+import qilin.core.pag.ValNode;
 import qilin.driver.PTAFactory;
 import qilin.driver.PTAOption;
 import qilin.driver.PTAPattern;
@@ -33,6 +39,19 @@ import qilin.util.PTAUtils;
 import sootup.core.views.View;
 
 public abstract class JunitTests {
+  private static final Pattern NODE_NUMBER = Pattern.compile("(Node|Field) \\d+");
+
+  /** The benchmarks to compare solver configurations on, as {main class, PTA pattern}. */
+  protected static final String[][] SOLVER_BENCHMARKS = {
+    {"qilin.microben.core.assign.CastFail", "insens"},
+    {"qilin.microben.core.assign.AssignCycle", "insens"},
+    {"qilin.microben.core.assign.Recursion", "insens"},
+    {"qilin.microben.core.field.FieldSensitivity2", "insens"},
+    {"qilin.microben.core.call.VirtualCall1", "insens"},
+    {"qilin.microben.context.obj.OBJ2k0", "2o"},
+    {"qilin.microben.context.collections.ArrayList0", "2o"}
+  };
+
   protected static String appPath, jrePath, refLogPath;
   protected static boolean isSetUp = false;
 
@@ -86,6 +105,15 @@ public abstract class JunitTests {
     isSetUp = true;
   }
 
+  /** Restores the default solver configuration, which tests comparing configurations change. */
+  @After
+  public void resetSolverConfiguration() {
+    PTAConfig.PointerAnalysisConfiguration config = PTAConfig.v().getPtaConfig();
+    config.solverThreads = 1;
+    config.cycleElimination = false;
+    config.workListPolicy = CoreConfig.WorkListPolicy.NUMBER;
+  }
+
   public PTA run(String mainClass) {
     return run(mainClass, "insens");
   }
@@ -120,6 +148,18 @@ public abstract class JunitTests {
     };
   }
 
+  /**
+   * Runs a benchmark, given as {main class, PTA pattern}, after applying configure to the pointer
+   * analysis configuration, and checks the benchmark's assertions.
+   */
+  protected PTA runWith(
+      Consumer<PTAConfig.PointerAnalysisConfiguration> configure, String[] benchmark) {
+    configure.accept(PTAConfig.v().getPtaConfig());
+    PTA pta = run(benchmark[0], benchmark[1]);
+    checkAssertions(pta);
+    return pta;
+  }
+
   protected void checkAssertions(PTA pta) {
     Set<IAssertion> aliasAssertionSet = AssertionsParser.retrieveQueryInfo(pta);
     for (IAssertion mAssert : aliasAssertionSet) {
@@ -128,4 +168,27 @@ public abstract class JunitTests {
       assertTrue(answer);
     }
   }
+
+  /**
+   * Returns the points-to set of every value node as the sorted descriptions of its objects, by the
+   * description of the node. Node numbers are left out, as they depend on the order in which the
+   * solver creates the nodes. The sets of nodes with the same description are sorted.
+   */
+  protected static Map<String, List<String>> pointsToSets(PTA pta) {
+    Map<String, List<String>> pointsToSets = new TreeMap<>();
+    for (ValNode node : pta.getPag().getValNodeNumberer()) {
+      List<String> objects = new ArrayList<>();
+      for (Iterator<Integer> it = node.getP2Set().iterator(); it.hasNext(); ) {
+        objects.add(describe(pta.getPag().getAllocNodeNumberer().get(it.next())));
+      }
+      Collections.sort(objects);
+      pointsToSets.computeIfAbsent(describe(node), k -> new ArrayList<>()).add(objects.toString());
+    }
+    pointsToSets.values().forEach(Collections::sort);
+    return pointsToSets;
+  }
+
+  private static String describe(Node node) {
+    return NODE_NUMBER.matcher(node.toString()).replaceAll("$1");
+  }
 }
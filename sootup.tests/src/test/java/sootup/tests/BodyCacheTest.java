@@ -0,0 +1,174 @@
+package sootup.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.cache.BodyCache;
+import sootup.core.cache.LRUBodyCache;
+import sootup.core.cache.ReferenceBodyCache;
+import sootup.core.cache.provider.ConcurrentFullCacheProvider;
+import sootup.core.cache.provider.FullCacheProvider;
+import sootup.core.frontend.CachingBodySource;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.frontend.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.JavaSootMethod;
+import sootup.java.core.views.ConcurrentJavaView;
+import sootup.java.core.views.JavaView;
+
+/** Tests the retention of Bodies via a {@link BodyCache}. It uses the MiniApp.jar for testing. */
+@Tag("Java8")
+public class BodyCacheTest {
+  static List<AnalysisInputLocation> inputLocations =
+      Collections.singletonList(
+          PathBasedAnalysisInputLocation.create(
+              Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar"),
+              SourceType.Application));
+
+  private static List<JavaSootMethod> concreteMethods(JavaView view) {
+    return view.getClasses()
+        .flatMap(c -> c.getMethods().stream())
+        .filter(SootMethod::isConcrete)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void defaultRetentionTest() {
+    JavaView view = new JavaView(inputLocations);
+    assertFalse(view.getBodyCache().isPresent());
+    JavaSootMethod method = concreteMethods(view).get(0);
+    assertFalse(method.getBodySource() instanceof CachingBodySource);
+    assertSame(method.getBody(), method.getBody());
+  }
+
+  @Test
+  public void lruBodyCacheTest() {
+    // the budget is too small for more than one Body
+    LRUBodyCache bodyCache = new LRUBodyCache(1);
+    JavaView view = new JavaView(inputLocations, new FullCacheProvider(), bodyCache);
+    assertSame(bodyCache, view.getBodyCache().get());
+
+    List<JavaSootMethod> methods = concreteMethods(view);
+    JavaSootMethod first = methods.get(0);
+    JavaSootMethod second = methods.get(1);
+    assertTrue(first.getBodySource() instanceof CachingBodySource);
+
+    Body firstBody = first.getBody();
+    assertSame(firstBody, first.getBody());
+    assertEquals(1, bodyCache.getMissCount());
+    assertEquals(1, bodyCache.getHitCount());
+    assertEquals(LRUBodyCache.estimateSize(firstBody), bodyCache.getEstimatedSize());
+
+    second.getBody();
+    assertEquals(1, bodyCache.size());
+    assertEquals(1, bodyCache.getEvictionCount());
+
+    Body reResolvedBody = first.getBody();
+    assertNotSame(firstBody, reResolvedBody);
+    assertEquals(firstBody.toString(), reResolvedBody.toString());
+    assertEquals(3, bodyCache.getMissCount());
+    assertEquals(1, bodyCache.getReResolutionCount());
+  }
+
+  @Test
+  public void lruBodyCacheBudgetTest() {
+    LRUBodyCache bodyCache = new LRUBodyCache(Long.MAX_VALUE);
+    JavaView view = new JavaView(inputLocations, new FullCacheProvider(), bodyCache);
+    List<JavaSootMethod> methods = concreteMethods(view);
+    long expectedSize =
+        methods.stream().mapToLong(m -> LRUBodyCache.estimateSize(m.getBody())).sum();
+    assertEquals(methods.size(), bodyCache.size());
+    assertEquals(expectedSize, bodyCache.getEstimatedSize());
+    assertEquals(0, bodyCache.getEvictionCount());
+
+    bodyCache.clear();
+    assertEquals(0, bodyCache.size());
+    assertEquals(0, bodyCache.getEstimatedSize());
+  }
+
+  @Test
+  public void referenceBodyCacheTest() {
+    ReferenceBodyCache bodyCache = ReferenceBodyCache.soft();
+    ConcurrentJavaView view =
+        new ConcurrentJavaView(inputLocations, new ConcurrentFullCacheProvider(), bodyCache);
+    JavaSootMethod method = concreteMethods(view).get(0);
+
+    Body body = method.getBody();
+    assertSame(body, method.getBody());
+    assertEquals(1, bodyCache.getHitCount());
+    assertEquals(1, bodyCache.size());
+
+    bodyCache.invalidate(method.getSignature());
+    assertNotSame(body, method.getBody());
+    assertEquals(2, bodyCache.getMissCount());
+    // the Body was invalidated, not dropped by the cache
+    assertEquals(0, bodyCache.getReResolutionCount());
+  }
+
+  @Test
+  public void concurrentResolutionTest() throws Exception {
+    JavaView view = new JavaView(inputLocations);
+    JavaSootMethod method = concreteMethods(view).get(0);
+    MethodSignature signature = method.getSignature();
+    Body body = method.getBody();
+
+    LRUBodyCache bodyCache = new LRUBodyCache(Long.MAX_VALUE);
+    AtomicInteger resolutions = new AtomicInteger();
+    CountDownLatch resolving = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Supplier<Body> resolver =
+        () -> {
+          resolutions.incrementAndGet();
+          resolving.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+          }
+          return body;
+        };
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<Body> firstRequest = executor.submit(() -> bodyCache.getBody(signature, resolver));
+      resolving.await();
+
+      // request the same Body while it is resolved and wait until that request blocks
+      AtomicReference<Thread> secondThread = new AtomicReference<>();
+      Future<Body> secondRequest =
+          executor.submit(
+              () -> {
+                secondThread.set(Thread.currentThread());
+                return bodyCache.getBody(signature, resolver);
+              });
+      while (secondThread.get() == null
+          || secondThread.get().getState() != Thread.State.WAITING) {
+        Thread.yield();
+      }
+      release.countDown();
+
+      assertSame(body, firstRequest.get());
+      assertSame(body, secondRequest.get());
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(1, resolutions.get());
+    assertEquals(1, bodyCache.getMissCount());
+    assertEquals(1, bodyCache.getHitCount());
+  }
+}
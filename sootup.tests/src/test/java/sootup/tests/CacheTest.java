@@ -1,20 +1,29 @@
 package sootup.tests;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import sootup.core.cache.ConcurrentLRUCache;
+import sootup.core.cache.provider.ConcurrentFullCacheProvider;
+import sootup.core.cache.provider.ConcurrentLRUCacheProvider;
 import sootup.core.cache.provider.FullCacheProvider;
 import sootup.core.cache.provider.LRUCacheProvider;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.model.SourceType;
 import sootup.core.types.ClassType;
 import sootup.java.bytecode.frontend.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.ConcurrentJavaView;
 import sootup.java.core.views.JavaView;
 
 /**
@@ -75,4 +84,74 @@ public class CacheTest {
     newView.getClasses().count();
     assertEquals(6, newView.getCachedClassesCount());
   }
+
+  /** Test the {@link sootup.core.cache.ConcurrentFullCache} class */
+  @Test
+  public void concurrentFullCacheTest() {
+    JavaView view = new ConcurrentJavaView(inputLocations, new ConcurrentFullCacheProvider());
+    assertEquals(0, view.getCachedClassesCount());
+
+    ClassType miniAppClassType = view.getIdentifierFactory().getClassType("MiniApp");
+    view.getClass(miniAppClassType);
+    assertEquals(1, view.getCachedClassesCount());
+
+    view.getClasses().count();
+    assertEquals(6, view.getCachedClassesCount());
+    assertEquals(6, view.getClasses().count());
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new ConcurrentJavaView(inputLocations, new FullCacheProvider()));
+  }
+
+  /** Test the {@link sootup.core.cache.ConcurrentLRUCache} class */
+  @Test
+  public void concurrentLRUCacheTest() {
+    // every class has the size 1 -> at most 2 classes fit into the single segment
+    ConcurrentLRUCache cache = new ConcurrentLRUCache(2, 1, c -> 1);
+    ConcurrentJavaView view = new ConcurrentJavaView(inputLocations, () -> cache);
+    assertEquals(0, view.getCachedClassesCount());
+
+    ClassType miniAppClassType = view.getIdentifierFactory().getClassType("MiniApp");
+    JavaSootClass miniAppClass = view.getClass(miniAppClassType).get();
+    assertSame(miniAppClass, view.getClass(miniAppClassType).get());
+    assertEquals(1, view.getCachedClassesCount());
+
+    assertEquals(6, view.getClasses().count());
+    assertEquals(2, view.getCachedClassesCount());
+
+    assertEquals(2, cache.getEstimatedSize());
+    assertTrue(cache.getEvictionCount() >= 4);
+    assertEquals(cache.getEvictionCount(), cache.getEvictedSize());
+    assertEquals(1, cache.getHitCount());
+
+    // evicted classes are resolved again
+    assertTrue(view.getClass(miniAppClassType).isPresent());
+    assertEquals(2, view.getCachedClassesCount());
+
+    ConcurrentJavaView newView =
+        new ConcurrentJavaView(inputLocations, new ConcurrentLRUCacheProvider(1024 * 1024));
+    assertEquals(6, newView.getClasses().count());
+    assertEquals(6, newView.getCachedClassesCount());
+  }
+
+  /** Concurrent requests for the same class have to result in the same class instance. */
+  @Test
+  public void concurrentResolutionTest() throws Exception {
+    ConcurrentJavaView view = new ConcurrentJavaView(inputLocations);
+    ClassType miniAppClassType = view.getIdentifierFactory().getClassType("MiniApp");
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Optional<JavaSootClass>>> futures =
+          executor.invokeAll(Collections.nCopies(32, () -> view.getClass(miniAppClassType)));
+      JavaSootClass first = futures.get(0).get().orElseThrow(AssertionError::new);
+      for (Future<Optional<JavaSootClass>> future : futures) {
+        assertSame(first, future.get().orElseThrow(AssertionError::new));
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(1, view.getCachedClassesCount());
+  }
 }
@@ -16,6 +16,7 @@ import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.jimple.basic.NoPositionInformation;
 import sootup.core.model.*;
 import sootup.core.signatures.MethodSignature;
+import sootup.core.typehierarchy.TypeHierarchy;
 import sootup.core.types.ClassType;
 import sootup.java.bytecode.frontend.inputlocation.PathBasedAnalysisInputLocation;
 import sootup.java.core.JavaSootClass;
@@ -157,4 +158,93 @@ public class MutableSootClientTest {
     SootClass updatedUtilsClass = updatedUtilsClassOpt.get();
     assertTrue(updatedUtilsClass.getMethods().contains(newMethod));
   }
+
+  /**
+   * Add a subclass of an existing class and remove it again, and check whether the type hierarchy
+   * of the mutable view reflects the changes.
+   */
+  @Test
+  public void typeHierarchyUpdateTest() {
+    TypeHierarchy typeHierarchy = mv.getTypeHierarchy();
+    JavaClassType superClassType = mv.getIdentifierFactory().getClassType("ds.Employee");
+    assertTrue(typeHierarchy.contains(superClassType));
+
+    JavaClassType addedClassType = mv.getIdentifierFactory().getClassType("AddedEmployee");
+    mv.addClass(createSubclass(addedClassType, superClassType));
+
+    assertTrue(typeHierarchy.contains(addedClassType));
+    assertTrue(typeHierarchy.isSubtype(superClassType, addedClassType));
+    assertTrue(typeHierarchy.subclassesOf(superClassType).anyMatch(addedClassType::equals));
+
+    mv.removeClass(addedClassType);
+    assertFalse(typeHierarchy.contains(addedClassType));
+    assertFalse(typeHierarchy.subclassesOf(superClassType).anyMatch(addedClassType::equals));
+  }
+
+  /**
+   * Add a subclass to a view whose type hierarchy has not been queried yet, and check whether the
+   * type hierarchy contains it.
+   */
+  @Test
+  public void typeHierarchyAdditionBeforeScanTest() {
+    JavaClassType superClassType = mv.getIdentifierFactory().getClassType("ds.Employee");
+    JavaClassType addedClassType = mv.getIdentifierFactory().getClassType("AddedEmployee");
+    mv.addClass(createSubclass(addedClassType, superClassType));
+
+    TypeHierarchy typeHierarchy = mv.getTypeHierarchy();
+    assertTrue(typeHierarchy.subtypesOf(superClassType).anyMatch(addedClassType::equals));
+    assertTrue(typeHierarchy.superClassesOf(addedClassType).anyMatch(superClassType::equals));
+  }
+
+  /**
+   * Remove a class from a view whose type hierarchy has not been queried yet, and check whether
+   * neither the view nor the type hierarchy contain it afterwards.
+   */
+  @Test
+  public void typeHierarchyRemovalBeforeScanTest() {
+    ClassType removedClassType = mv.getIdentifierFactory().getClassType("utils.Operations");
+    mv.removeClass(removedClassType);
+
+    assertFalse(mv.getTypeHierarchy().contains(removedClassType));
+    assertFalse(mv.getClasses().anyMatch(clazz -> clazz.getType().equals(removedClassType)));
+  }
+
+  /**
+   * Change the view after its type hierarchy has been created but before it has been queried, and
+   * check whether the type hierarchy reflects the changes in their order.
+   */
+  @Test
+  public void typeHierarchyChangesBeforeFirstQueryTest() {
+    TypeHierarchy typeHierarchy = mv.getTypeHierarchy();
+    JavaClassType superClassType = mv.getIdentifierFactory().getClassType("ds.Employee");
+    JavaClassType addedClassType = mv.getIdentifierFactory().getClassType("AddedEmployee");
+    ClassType removedClassType = mv.getIdentifierFactory().getClassType("utils.Operations");
+    mv.addClass(createSubclass(addedClassType, superClassType));
+    mv.removeClass(removedClassType);
+    mv.removeClass(addedClassType);
+    mv.addClass(createSubclass(addedClassType, superClassType));
+
+    assertTrue(typeHierarchy.superClassesOf(addedClassType).anyMatch(superClassType::equals));
+    assertFalse(typeHierarchy.contains(removedClassType));
+    assertFalse(mv.getClass(removedClassType).isPresent());
+  }
+
+  private JavaSootClass createSubclass(JavaClassType classType, JavaClassType superClassType) {
+    OverridingJavaClassSource classSource =
+        new OverridingJavaClassSource(
+            location,
+            pathToJar,
+            classType,
+            superClassType,
+            Collections.emptySet(),
+            null,
+            Collections.emptySet(),
+            Collections.emptySet(),
+            new FullPosition(0, 0, 0, 0),
+            EnumSet.noneOf(ClassModifier.class),
+            Collections.emptySet(),
+            Collections.emptySet(),
+            Collections.emptySet());
+    return classSource.buildClass(SourceType.Application);
+  }
 }
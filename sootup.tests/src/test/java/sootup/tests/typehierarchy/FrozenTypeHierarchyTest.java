@@ -0,0 +1,121 @@
+package sootup.tests.typehierarchy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.typehierarchy.FrozenTypeHierarchy;
+import sootup.core.typehierarchy.ViewTypeHierarchy;
+import sootup.core.types.ArrayType;
+import sootup.core.types.ClassType;
+import sootup.core.types.NullType;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/** Compares the answers of a {@link FrozenTypeHierarchy} with its {@link ViewTypeHierarchy}. */
+@Tag("Java8")
+public class FrozenTypeHierarchyTest {
+
+  private ViewTypeHierarchy viewTypeHierarchy;
+  private FrozenTypeHierarchy frozenTypeHierarchy;
+  private List<ClassType> types;
+
+  @BeforeEach
+  public void setup() {
+    String resources = "../shared-test-resources/";
+    String classPath =
+        String.join(
+            File.pathSeparator,
+            resources + "java-miniapps/MiniApp.jar",
+            resources + "TypeResolverTestSuite/ByteCodeHierarchyTest/MiniHierarchy.jar",
+            resources + "jigsaw-examples/automatic-module-logging/jar/slf4j-api-1.7.12.jar");
+    JavaView view = new JavaView(new JavaClassPathAnalysisInputLocation(classPath));
+    viewTypeHierarchy = new ViewTypeHierarchy(view);
+    frozenTypeHierarchy = viewTypeHierarchy.freeze();
+
+    // contains the types of the view and the referenced types that are not part of the view
+    Set<ClassType> allTypes = new HashSet<>();
+    view.getClasses()
+        .forEach(
+            c -> {
+              allTypes.add(c.getType());
+              allTypes.addAll(c.getInterfaces());
+              c.getSuperclass().ifPresent(allTypes::add);
+            });
+    types = new ArrayList<>(allTypes);
+    assertEquals(types.size(), frozenTypeHierarchy.size());
+  }
+
+  @Test
+  public void subtypes() {
+    for (ClassType type : types) {
+      assertTrue(frozenTypeHierarchy.contains(type));
+      Set<ClassType> expected = viewTypeHierarchy.subtypesOf(type).collect(Collectors.toSet());
+      List<ClassType> subtypes = frozenTypeHierarchy.subtypesOf(type).collect(Collectors.toList());
+      assertEquals(expected.size(), subtypes.size(), "duplicate subtypes of " + type);
+      assertEquals(expected, new HashSet<>(subtypes), "subtypes of " + type);
+
+      List<ClassType> visited = new ArrayList<>();
+      frozenTypeHierarchy.forEachSubtype(type, visited::add);
+      assertEquals(subtypes, visited);
+
+      assertEquals(
+          viewTypeHierarchy.directSubtypesOf(type).collect(Collectors.toSet()),
+          frozenTypeHierarchy.directSubtypesOf(type).collect(Collectors.toSet()));
+    }
+  }
+
+  @Test
+  public void supertypes() {
+    for (ClassType type : types) {
+      assertEquals(viewTypeHierarchy.isInterface(type), frozenTypeHierarchy.isInterface(type));
+      assertEquals(viewTypeHierarchy.superClassOf(type), frozenTypeHierarchy.superClassOf(type));
+      assertEquals(
+          viewTypeHierarchy.superClassesOf(type).collect(Collectors.toList()),
+          frozenTypeHierarchy.superClassesOf(type).collect(Collectors.toList()));
+      assertEquals(
+          viewTypeHierarchy.implementedInterfacesOf(type).collect(Collectors.toSet()),
+          frozenTypeHierarchy.implementedInterfacesOf(type).collect(Collectors.toSet()),
+          "interfaces of " + type);
+    }
+  }
+
+  @Test
+  public void isSubtype() {
+    for (ClassType supertype : types) {
+      for (ClassType subtype : types) {
+        assertEquals(
+            viewTypeHierarchy.isSubtype(supertype, subtype),
+            frozenTypeHierarchy.isSubtype(supertype, subtype),
+            subtype + " <: " + supertype);
+      }
+      assertTrue(frozenTypeHierarchy.isSubtype(supertype, NullType.getInstance()));
+      ArrayType arrayType = new ArrayType(supertype, 1);
+      for (ClassType subtype : types) {
+        ArrayType subArrayType = new ArrayType(subtype, 1);
+        assertEquals(
+            viewTypeHierarchy.isSubtype(arrayType, subArrayType),
+            frozenTypeHierarchy.isSubtype(arrayType, subArrayType));
+      }
+    }
+  }
+
+  @Test
+  public void lowestCommonAncestors() {
+    for (ClassType a : types) {
+      for (ClassType b : types) {
+        assertEquals(
+            new HashSet<>(viewTypeHierarchy.getLowestCommonAncestors(a, b)),
+            new HashSet<>(frozenTypeHierarchy.getLowestCommonAncestors(a, b)),
+            "LCAs of " + a + " and " + b);
+      }
+    }
+  }
+}
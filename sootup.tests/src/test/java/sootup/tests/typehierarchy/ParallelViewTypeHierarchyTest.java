@@ -0,0 +1,73 @@
+package sootup.tests.typehierarchy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.model.SootClass;
+import sootup.core.typehierarchy.TypeHierarchy;
+import sootup.core.typehierarchy.ViewTypeHierarchy;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.ConcurrentJavaView;
+import sootup.java.core.views.JavaView;
+
+/** Compares a {@link ViewTypeHierarchy} that is built in parallel with a sequentially built one. */
+@Tag("Java8")
+public class ParallelViewTypeHierarchyTest {
+
+  private static final String resources = "../shared-test-resources/";
+  private static final String classPath =
+      String.join(
+          File.pathSeparator,
+          resources + "java-miniapps/MiniApp.jar",
+          resources + "TypeResolverTestSuite/ByteCodeHierarchyTest/MiniHierarchy.jar",
+          resources + "jigsaw-examples/automatic-module-logging/jar/slf4j-api-1.7.12.jar");
+
+  @Test
+  public void parallelScan() {
+    JavaView view = new JavaView(new JavaClassPathAnalysisInputLocation(classPath));
+    ViewTypeHierarchy sequential = new ViewTypeHierarchy(view);
+    List<ClassType> types = view.getClasses().map(SootClass::getType).collect(Collectors.toList());
+
+    JavaView otherView = new ConcurrentJavaView(new JavaClassPathAnalysisInputLocation(classPath));
+    TypeHierarchy parallel = otherView.getTypeHierarchy();
+    assertEquals(sequential.freeze().size(), ((ViewTypeHierarchy) parallel).freeze().size());
+    for (ClassType type : types) {
+      assertEquals(sequential.isInterface(type), parallel.isInterface(type));
+      assertEquals(sequential.superClassOf(type), parallel.superClassOf(type));
+      assertEquals(
+          sequential.subtypesOf(type).collect(Collectors.toSet()),
+          parallel.subtypesOf(type).collect(Collectors.toSet()));
+      assertEquals(
+          sequential.implementedInterfacesOf(type).collect(Collectors.toSet()),
+          parallel.implementedInterfacesOf(type).collect(Collectors.toSet()));
+    }
+  }
+
+  @Test
+  public void concurrentLowestCommonAncestors() {
+    JavaView view = new ConcurrentJavaView(new JavaClassPathAnalysisInputLocation(classPath));
+    List<ClassType> types = view.getClasses().map(SootClass::getType).collect(Collectors.toList());
+    TypeHierarchy typeHierarchy = view.getTypeHierarchy();
+    TypeHierarchy otherTypeHierarchy = new ViewTypeHierarchy(view);
+
+    types.parallelStream()
+        .forEach(
+            a -> {
+              for (ClassType b : types) {
+                Collection<ClassType> lcas = typeHierarchy.getLowestCommonAncestors(a, b);
+                assertEquals(
+                    new HashSet<>(otherTypeHierarchy.getLowestCommonAncestors(a, b)),
+                    new HashSet<>(lcas));
+                // the memo is symmetric
+                assertEquals(lcas, typeHierarchy.getLowestCommonAncestors(b, a));
+              }
+            });
+  }
+}